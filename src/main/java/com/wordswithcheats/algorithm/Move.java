@@ -0,0 +1,176 @@
+package com.wordswithcheats.algorithm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.apache.commons.lang.Validate;
+
+import com.wordswithcheats.board.Tile;
+import com.wordswithcheats.board.TilePlacement;
+
+/**
+ * A list of tile placements along with the score that it earns.
+ * <p>
+ * The tile placements are kept sorted by their coordinates, so two moves that place the same tiles on the same
+ * squares are equal no matter which order the tiles were found in.  The natural ordering compares the tile placements
+ * only, which gives moves that are otherwise tied a fixed order.
+ * <p>
+ * {@link #getKey()} identifies a move by where it starts, which way it reads and the tiles that it places, which
+ * makes it a compact way to tell whether the same move has been seen before.
+ * 
+ * @author Matt Sidesinger
+ */
+public class Move implements Comparable<Move> {
+	
+	/**
+	 * Orders moves from the highest score to the lowest, then by their natural ordering.
+	 */
+	public static final Comparator<Move> BY_SCORE = new Comparator<Move>() {
+		@Override
+		public int compare(final Move m1, final Move m2) {
+			
+			if (m1.score != m2.score) {
+				return (m1.score > m2.score ? -1 : 1);
+			}
+			return m1.compareTo(m2);
+		}
+	};
+	
+	// orders tile placements top to bottom, then left to right
+	private static final Comparator<TilePlacement> BY_POSITION = new Comparator<TilePlacement>() {
+		@Override
+		public int compare(final TilePlacement p1, final TilePlacement p2) {
+			
+			if (p1.getY() != p2.getY()) {
+				return p1.getY() - p2.getY();
+			}
+			return p1.getX() - p2.getX();
+		}
+	};
+	
+	private final List<TilePlacement> placements;
+	private final int score;
+	private String key;
+	
+	/**
+	 * @param placements	The tile placements that make up the move; they are copied
+	 * @param score			The score that the tile placements earn
+	 */
+	public Move(final List<TilePlacement> placements, final int score) {
+		
+		Validate.notEmpty(placements, "TilePlacements cannot be empty");
+		
+		List<TilePlacement> sorted = new ArrayList<TilePlacement>(placements);
+		Collections.sort(sorted, BY_POSITION);
+		this.placements = Collections.unmodifiableList(sorted);
+		this.score = score;
+	}
+	
+	/**
+	 * @return	The tile placements, sorted top to bottom and then left to right.
+	 */
+	public List<TilePlacement> getPlacements() {
+		return placements;
+	}
+	
+	public int getScore() {
+		return score;
+	}
+	
+	/**
+	 * The canonical key of this move, made up of the coordinates of its first tile, an 'A' if it reads across or a
+	 * 'D' if it reads down, then the letters of the tiles that it places in order.  A letter is in upper case, or in
+	 * lower case for a blank tile, and each square skipped over between two tiles is shown as a '.'.  A single tile
+	 * reads across.
+	 * <p>
+	 * Example: the key of [(7,8):[C:3], (9,8):[ :0]] with a blank tile played as a T is "7,8A C.t"
+	 * <p>
+	 * Two moves have the same key if and only if they place the same tiles on the same squares.
+	 */
+	public String getKey() {
+		
+		if (key == null) {
+			
+			TilePlacement first = placements.get(0);
+			TilePlacement last = placements.get(placements.size() - 1);
+			boolean across = (first.getY() == last.getY());
+			
+			StringBuilder sb = new StringBuilder();
+			sb.append(first.getX()).append(',').append(first.getY()).append(across ? 'A' : 'D').append(' ');
+			
+			TilePlacement previous = null;
+			for (TilePlacement placement : placements) {
+				if (previous != null) {
+					int skipped = (across ? placement.getX() - previous.getX()
+							: placement.getY() - previous.getY()) - 1;
+					if ((across ? placement.getY() == previous.getY() : placement.getX() == previous.getX())
+							&& skipped >= 0) {
+						for (int i = 0; i < skipped; i++) {
+							sb.append('.');
+						}
+					} else {
+						// not in line with the first tile, so its coordinates are given
+						sb.append(' ').append(placement.getX()).append(',').append(placement.getY()).append(' ');
+					}
+				}
+				Tile tile = placement.getTile();
+				sb.append(tile.isBlankTile() ? tile.getLetter() : Character.toUpperCase(tile.getLetter()));
+				previous = placement;
+			}
+			key = sb.toString();
+		}
+		return key;
+	}
+	
+	/**
+	 * Compares the number of tiles placed, then each tile placement's coordinates and tile in turn.  The score is not
+	 * compared.
+	 * 
+	 * @see Comparable#compareTo(Object)
+	 */
+	@Override
+	public int compareTo(final Move other) {
+		
+		int result = placements.size() - other.placements.size();
+		for (int i = 0; result == 0 && i < placements.size(); i++) {
+			
+			TilePlacement p1 = placements.get(i);
+			TilePlacement p2 = other.placements.get(i);
+			result = BY_POSITION.compare(p1, p2);
+			if (result == 0) {
+				result = p1.getTile().compareTo(p2.getTile());
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Display the object as a string in the following format: score=[placement, ...]
+	 * <p>
+	 * Example: 12=[(7,8):[C:3], (8,8):[A:1]]
+	 */
+	@Override
+	public String toString() {
+		return score + "=" + placements;
+	}
+	
+	@Override
+	public int hashCode() {
+		return placements.hashCode();
+	}
+	
+	@Override
+	public boolean equals(final Object obj) {
+		
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		Move other = (Move) obj;
+		return placements.equals(other.placements);
+	}
+}
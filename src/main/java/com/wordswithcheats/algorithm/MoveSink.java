@@ -0,0 +1,26 @@
+package com.wordswithcheats.algorithm;
+
+import java.util.List;
+
+import com.wordswithcheats.board.TilePlacement;
+
+/**
+ * Receives each valid list of tile placements as soon as a {@link ScrabbleAlgorithm} finds it, so that the caller can
+ * filter, count or stop early without every list of tile placements being kept in memory.
+ * 
+ * @author Matt Sidesinger
+ */
+public interface MoveSink {
+	
+	/**
+	 * Accepts a valid list of tile placements.
+	 * <p>
+	 * The list is only valid for the duration of this call: it cannot be modified and will change once this method
+	 * returns, so it must be copied if it is to be kept.
+	 * 
+	 * @param placements	The tile placements that were found
+	 * 
+	 * @return	<code>true</code> to keep generating tile placements, <code>false</code> to stop.
+	 */
+	public boolean accept(final List<TilePlacement> placements);
+}
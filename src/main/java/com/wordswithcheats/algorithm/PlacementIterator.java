@@ -0,0 +1,308 @@
+package com.wordswithcheats.algorithm;
+
+import java.io.Closeable;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.apache.commons.lang.Validate;
+
+import com.wordswithcheats.board.Board;
+import com.wordswithcheats.board.Rack;
+import com.wordswithcheats.board.TilePlacement;
+
+/**
+ * Iterates over every valid list of tile placements that a {@link ScrabbleAlgorithm} generates for a Rack and Board
+ * without keeping them all in memory.
+ * <p>
+ * {@link ScrabbleAlgorithm#generatePlacements(Board, Rack, MoveSink)} pushes each list of tile placements to a
+ * {@link MoveSink}, so the algorithm is run in its own thread and hands the lists of tile placements over in chunks,
+ * staying no more than a couple of chunks ahead of {@link #next()}.  That thread reads the board and the rack until the
+ * iterator has been exhausted or {@link #close() closed}, so neither should be changed in the meantime.  The rack
+ * itself is left as it was, since GaddagAlgorithm searches a copy of it.
+ * <p>
+ * An iterator that is not going to be exhausted should be closed.  One that is abandoned without being closed is not
+ * kept alive by its thread, which stops, and lets go of the board and the rack, once the iterator has been garbage
+ * collected.
+ * <p>
+ * {@link #stream(ScrabbleAlgorithm, Board, Rack)} does not need the extra thread for operations that visit every
+ * list of tile placements, such as counting or collecting.
+ * 
+ * @author Matt Sidesinger
+ */
+public class PlacementIterator implements Iterator<List<TilePlacement>>, Closeable {
+	
+	// the number of lists of tile placements handed over at a time
+	private static final int CHUNK_SIZE = 32;
+	
+	// how long the algorithm waits to hand over a chunk before checking whether the iterator is still in use
+	private static final long OFFER_TIMEOUT_MILLIS = 100;
+	
+	// marks that the algorithm has finished generating tile placements
+	private static final List<List<TilePlacement>> END = new ArrayList<List<TilePlacement>>(0);
+	
+	private final ScrabbleAlgorithm algorithm;
+	private final Board board;
+	private final Rack rack;
+	
+	private Producer producer;
+	private Thread thread;
+	
+	// the chunk being iterated over, and the position of the next list of tile placements in it
+	private List<List<TilePlacement>> chunk;
+	private int index;
+	private boolean done;
+	
+	/**
+	 * @param algorithm		The algorithm to generate tile placements with
+	 * @param board			The board to use
+	 * @param rack			The rack to pull tiles from
+	 */
+	public PlacementIterator(final ScrabbleAlgorithm algorithm, final Board board, final Rack rack) {
+		
+		Validate.notNull(algorithm, "ScrabbleAlgorithm cannot be null");
+		Validate.notNull(board, "Board cannot be null");
+		Validate.notNull(rack, "Rack cannot be null");
+		
+		this.algorithm = algorithm;
+		this.board = board;
+		this.rack = rack;
+	}
+	
+	/**
+	 * Creates a sequential stream of every valid list of tile placements for the given Rack and Board.  The stream
+	 * should be closed if it is short-circuited, e.g. by <code>findFirst()</code> or <code>limit(long)</code>.
+	 * 
+	 * @param algorithm		The algorithm to generate tile placements with
+	 * @param board			The board to use
+	 * @param rack			The rack to pull tiles from
+	 * 
+	 * @return	A stream of tile placements
+	 */
+	public static Stream<List<TilePlacement>> stream(final ScrabbleAlgorithm algorithm, final Board board,
+			final Rack rack) {
+		
+		final PlacementIterator iterator = new PlacementIterator(algorithm, board, rack);
+		
+		Spliterator<List<TilePlacement>> spliterator =
+				new Spliterators.AbstractSpliterator<List<TilePlacement>>(Long.MAX_VALUE, Spliterator.NONNULL) {
+			
+			private boolean started;
+			
+			@Override
+			public boolean tryAdvance(final Consumer<? super List<TilePlacement>> action) {
+				
+				started = true;
+				if (iterator.hasNext()) {
+					action.accept(iterator.next());
+					return true;
+				}
+				return false;
+			}
+			
+			@Override
+			public void forEachRemaining(final Consumer<? super List<TilePlacement>> action) {
+				
+				if (started) {
+					super.forEachRemaining(action);
+					return;
+				}
+				
+				// nothing has been handed over yet, so the algorithm can push to the action directly
+				started = true;
+				algorithm.generatePlacements(board, rack, new MoveSink() {
+					@Override
+					public boolean accept(final List<TilePlacement> placements) {
+						action.accept(new ArrayList<TilePlacement>(placements)); // copy
+						return true;
+					}
+				});
+			}
+		};
+		
+		return StreamSupport.stream(spliterator, false).onClose(new Runnable() {
+			@Override
+			public void run() {
+				iterator.close();
+			}
+		});
+	}
+	
+	@Override
+	public boolean hasNext() {
+		
+		if (chunk != null && index < chunk.size()) {
+			return true;
+		}
+		if (done) {
+			return false;
+		}
+		if (producer == null) {
+			start();
+		}
+		
+		try {
+			chunk = producer.queue.take();
+			index = 0;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			close();
+			throw new RuntimeException("Interrupted while waiting for the next tile placements", e);
+		}
+		
+		if (chunk == END) {
+			chunk = null;
+			done = true;
+			join();
+			if (producer.failure != null) {
+				throw producer.failure;
+			}
+			return false;
+		}
+		return true;
+	}
+	
+	@Override
+	public List<TilePlacement> next() {
+		
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return chunk.get(index++);
+	}
+	
+	/**
+	 * Stops generating tile placements and waits until the algorithm has finished with the board and the rack.
+	 */
+	@Override
+	public void close() {
+		
+		done = true;
+		chunk = null;
+		if (producer != null) {
+			producer.closed = true;
+			thread.interrupt();
+			join();
+		}
+	}
+	
+	/**
+	 * @return	The thread that the algorithm is run in, or <code>null</code> if it has not been started yet.
+	 */
+	Thread getThread() {
+		return thread;
+	}
+	
+	private void start() {
+		
+		producer = new Producer(algorithm, board, rack, this);
+		thread = new Thread(producer, "PlacementIterator");
+		thread.setDaemon(true);
+		thread.start();
+	}
+	
+	private void join() {
+		
+		boolean interrupted = false;
+		while (true) {
+			try {
+				thread.join();
+				break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * Runs the algorithm and hands the lists of tile placements over to the iterator in chunks.  It only refers to
+	 * the iterator weakly, so that an iterator that has been abandoned can be garbage collected, and gives up handing
+	 * over a chunk once the iterator is closed or gone.
+	 */
+	private static class Producer implements Runnable, MoveSink {
+		
+		private final ScrabbleAlgorithm algorithm;
+		private final Board board;
+		private final Rack rack;
+		private final WeakReference<PlacementIterator> owner;
+		
+		private final BlockingQueue<List<List<TilePlacement>>> queue =
+				new ArrayBlockingQueue<List<List<TilePlacement>>>(1);
+		private volatile boolean closed;
+		private volatile RuntimeException failure;
+		
+		private List<List<TilePlacement>> chunk = new ArrayList<List<TilePlacement>>(CHUNK_SIZE);
+		
+		Producer(final ScrabbleAlgorithm algorithm, final Board board, final Rack rack, final PlacementIterator owner) {
+			
+			this.algorithm = algorithm;
+			this.board = board;
+			this.rack = rack;
+			this.owner = new WeakReference<PlacementIterator>(owner);
+		}
+		
+		@Override
+		public void run() {
+			
+			boolean open = true;
+			try {
+				open = algorithm.generatePlacements(board, rack, this);
+			} catch (RuntimeException e) {
+				failure = e;
+			}
+			
+			// the tile placements generated before a failure are still handed over
+			if (open && (chunk.isEmpty() || handOver(chunk))) {
+				handOver(END);
+			}
+		}
+		
+		@Override
+		public boolean accept(final List<TilePlacement> placements) {
+			
+			chunk.add(new ArrayList<TilePlacement>(placements)); // copy
+			if (chunk.size() < CHUNK_SIZE) {
+				return !closed;
+			}
+			boolean open = handOver(chunk);
+			chunk = new ArrayList<List<TilePlacement>>(CHUNK_SIZE);
+			return open;
+		}
+		
+		/**
+		 * Waits until the iterator has room for the chunk, checking every so often whether it is still in use.
+		 * 
+		 * @return	<code>true</code> if the chunk was handed over, <code>false</code> if the iterator was closed or
+		 * 			garbage collected first.
+		 */
+		private boolean handOver(final List<List<TilePlacement>> placements) {
+			
+			try {
+				while (!closed) {
+					if (queue.offer(placements, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+						return true;
+					}
+					if (owner.get() == null) {
+						return false;
+					}
+				}
+			} catch (InterruptedException e) {
+				// closed while waiting
+			}
+			return false;
+		}
+	}
+}
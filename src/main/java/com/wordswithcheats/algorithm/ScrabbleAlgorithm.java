@@ -1,5 +1,6 @@
 package com.wordswithcheats.algorithm;
 
+import java.util.Comparator;
 import java.util.List;
 
 import com.wordswithcheats.board.Board;
@@ -48,4 +49,32 @@ public interface ScrabbleAlgorithm {
 	 * 				configuration.
 	 */
 	public List<TilePlacement> calculateHighestScorePlacement(final Board board, final Rack rack);
+	
+	/**
+	 * Passes every valid list of tile placements for the given Rack and Board to the given sink, one at a time, as
+	 * they are found.  Each list of tile placements is passed along once, and nothing is kept in memory once the
+	 * sink has been called.
+	 * 
+	 * @param board		The board to use
+	 * @param rack		The rack to pull tiles from
+	 * @param sink		Receives each list of tile placements and decides whether generating should continue
+	 * 
+	 * @return	<code>true</code> if every list of tile placements was generated, <code>false</code> if the sink asked
+	 * 			to stop early.
+	 */
+	public boolean generatePlacements(final Board board, final Rack rack, final MoveSink sink);
+	
+	/**
+	 * Finds the best moves for the given Rack and Board, without keeping every move in memory.  Moves that are
+	 * ranked the same by the comparator are ranked by their {@link Move#compareTo(Move) natural ordering}, so the same
+	 * moves are always returned in the same order.
+	 * 
+	 * @param board			The board to use
+	 * @param rack			The rack to pull tiles from
+	 * @param k				The maximum number of moves to return
+	 * @param comparator	Ranks the better of two moves first, e.g. {@link Move#BY_SCORE}
+	 * 
+	 * @return	Up to <code>k</code> distinct moves, best first.
+	 */
+	public List<Move> topMoves(final Board board, final Rack rack, final int k, final Comparator<Move> comparator);
 }
\ No newline at end of file
@@ -0,0 +1,113 @@
+package com.wordswithcheats.algorithm.gaddag;
+
+import java.util.Random;
+
+import org.apache.commons.lang.Validate;
+
+import com.wordswithcheats.board.Board;
+import com.wordswithcheats.board.Rack;
+
+/**
+ * A position to be solved by a {@link BatchSolver}: a board, the rack to play from it, and which placement to find.
+ * <p>
+ * The board and rack are not modified while the batch is solved, and must not be modified by anyone else until it
+ * has finished.  Jobs that share the same board instance share the work of preparing it.
+ *
+ * @author Matt Sidesinger
+ */
+public class BatchJob {
+
+	/**
+	 * Which placement a job finds.
+	 */
+	public enum Goal {
+
+		/** The highest scoring placement, as found by {@link PlacementStrategy#highestScore()}. */
+		HIGHEST_SCORE,
+
+		/** The placement that uses the most tiles, as found by {@link PlacementStrategy#longest()}. */
+		LONGEST,
+
+		/** A placement picked at random, as found by {@link PlacementStrategy#random(Random)}. */
+		RANDOM;
+	}
+
+	private final Board board;
+	private final Rack rack;
+	private final Goal goal;
+	private final MoveQuery query;
+
+	/**
+	 * @param board		The board to search
+	 * @param rack		The rack to pull tiles from
+	 * @param goal		Which placement to find
+	 */
+	public BatchJob(final Board board, final Rack rack, final Goal goal) {
+		this(board, rack, goal, null);
+	}
+
+	/**
+	 * @param board		The board to search
+	 * @param rack		The rack to pull tiles from
+	 * @param goal		Which placement to find
+	 * @param query		The constraints that the placement must meet, or <code>null</code> for none
+	 */
+	public BatchJob(final Board board, final Rack rack, final Goal goal, final MoveQuery query) {
+
+		Validate.notNull(board, "Board cannot be null");
+		Validate.notNull(rack, "Rack cannot be null");
+		Validate.notNull(goal, "Goal cannot be null");
+		if (rack.isEmpty()) {
+			throw new IllegalArgumentException("Rack cannot be empty");
+		}
+
+		this.board = board;
+		this.rack = rack;
+		this.goal = goal;
+		this.query = query;
+	}
+
+	public Board getBoard() {
+		return board;
+	}
+
+	public Rack getRack() {
+		return rack;
+	}
+
+	public Goal getGoal() {
+		return goal;
+	}
+
+	/**
+	 * @return	The constraints that the placement must meet, or <code>null</code> if there are none.
+	 */
+	public MoveQuery getQuery() {
+		return query;
+	}
+
+	/**
+	 * @param random	The source of randomness for the {@link Goal#RANDOM} goal
+	 *
+	 * @return	A new strategy for the goal.
+	 */
+	PlacementStrategy createStrategy(final Random random) {
+
+		switch (goal) {
+			case LONGEST:
+				return PlacementStrategy.longest();
+			case RANDOM:
+				return PlacementStrategy.random(random);
+			default:
+				return PlacementStrategy.highestScore();
+		}
+	}
+
+	/**
+	 * Display the object as a string in the following format: GOAL rack
+	 */
+	@Override
+	public String toString() {
+		return goal + " " + rack;
+	}
+}
@@ -0,0 +1,66 @@
+package com.wordswithcheats.algorithm.gaddag;
+
+import java.util.List;
+
+import com.wordswithcheats.board.TilePlacement;
+
+/**
+ * The placement found for one {@link BatchJob} by a {@link BatchSolver}.
+ *
+ * @author Matt Sidesinger
+ */
+public class BatchResult {
+
+	private final int index;
+	private final BatchJob job;
+	private final List<TilePlacement> placement;
+	private final long elapsedNanos;
+
+	/**
+	 * @param index			The position of the job in the batch
+	 * @param job			The job that was solved
+	 * @param placement		The placement found, or <code>null</code> if none was found
+	 * @param elapsedNanos	How long the job took to solve, in nanoseconds
+	 */
+	public BatchResult(final int index, final BatchJob job, final List<TilePlacement> placement,
+			final long elapsedNanos) {
+
+		this.index = index;
+		this.job = job;
+		this.placement = placement;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * @return	The position of the job in the batch, starting at 0 (zero).
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	public BatchJob getJob() {
+		return job;
+	}
+
+	/**
+	 * @return	The placement found, or <code>null</code> if the rack cannot place any tiles that meet the job.
+	 */
+	public List<TilePlacement> getPlacement() {
+		return placement;
+	}
+
+	/**
+	 * @return	How long the job took to solve, in nanoseconds, not counting the time that it waited to be run.
+	 */
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/**
+	 * Display the object as a string in the following format: index: job=[placement, ...]
+	 */
+	@Override
+	public String toString() {
+		return index + ": " + job + "=" + placement;
+	}
+}
@@ -0,0 +1,69 @@
+package com.wordswithcheats.algorithm.gaddag;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The results of a batch solved by a {@link BatchSolver}, in the same order as the jobs, along with how quickly they
+ * were solved.
+ *
+ * @author Matt Sidesinger
+ */
+public class BatchResults {
+
+	private final List<BatchResult> results;
+	private final int solved;
+	private final long elapsedNanos;
+
+	/**
+	 * @param results		The result of each job, in the order of the jobs, with <code>null</code> for each job that
+	 * 						was not solved
+	 * @param solved		The number of jobs that were solved
+	 * @param elapsedNanos	How long the whole batch took, in nanoseconds
+	 */
+	public BatchResults(final List<BatchResult> results, final int solved, final long elapsedNanos) {
+
+		this.results = Collections.unmodifiableList(results);
+		this.solved = solved;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * @return	The result of each job, in the order of the jobs.  A job that was not solved, because the
+	 * 			{@link BatchSink} asked to stop first, has a <code>null</code> result.
+	 */
+	public List<BatchResult> getResults() {
+		return results;
+	}
+
+	/**
+	 * @return	The number of jobs that were solved.
+	 */
+	public int getSolvedCount() {
+		return solved;
+	}
+
+	/**
+	 * @return	How long the whole batch took, in nanoseconds, from the first job being started to the last one
+	 * 			finishing.
+	 */
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/**
+	 * @return	The number of jobs solved per second of elapsed time, or 0 (zero) if none were solved.
+	 */
+	public double getPositionsPerSecond() {
+		return (solved == 0 || elapsedNanos == 0 ? 0 : solved * 1e9 / elapsedNanos);
+	}
+
+	/**
+	 * Display the object as a string in the following format: n positions in n ms (n positions/sec)
+	 */
+	@Override
+	public String toString() {
+		return String.format("%d positions in %d ms (%.1f positions/sec)", Integer.valueOf(solved),
+				Long.valueOf(elapsedNanos / 1000000), Double.valueOf(getPositionsPerSecond()));
+	}
+}
@@ -0,0 +1,21 @@
+package com.wordswithcheats.algorithm.gaddag;
+
+/**
+ * Receives each {@link BatchResult} as soon as a {@link BatchSolver} has solved its job, in the order that the jobs
+ * finish rather than the order that they were given in.
+ *
+ * @author Matt Sidesinger
+ */
+public interface BatchSink {
+
+	/**
+	 * Accepts the result of a job.  This is called by the thread that started the batch, never by more than one thread
+	 * at a time.
+	 *
+	 * @param result	The result that was found
+	 *
+	 * @return	<code>true</code> to keep solving, <code>false</code> to stop without solving the jobs that have not
+	 * 			been started.
+	 */
+	public boolean accept(final BatchResult result);
+}
@@ -0,0 +1,272 @@
+package com.wordswithcheats.algorithm.gaddag;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang.Validate;
+
+import com.wordswithcheats.board.Board;
+import com.wordswithcheats.board.TilePlacement;
+
+/**
+ * Solves a batch of positions with a {@link GaddagAlgorithm}, spreading the jobs over the threads of a
+ * {@link ForkJoinPool}.
+ * <p>
+ * The jobs are split in half, and each half split again, until each task solves a single job, so that an idle
+ * thread steals half of the remaining work of a busy one rather than waiting on a shared queue.  Each thread keeps its
+ * own state from one job to the next: the {@link PreparedBoard} and {@link PlacementScorer} of the last board that it
+ * searched, and a source of randomness.  Jobs that share a board instance, such as many racks against the same
+ * position, only prepare it once per thread.
+ * <p>
+ * The results are either returned in the order of the jobs by {@link #solve(Iterable)}, or passed to a
+ * {@link BatchSink} as each job finishes by {@link #solve(Iterable, BatchSink)}.  Either way, the
+ * {@link BatchResults} report how many positions were solved per second.
+ * <p>
+ * A BatchSolver can solve any number of batches, one after another or at the same time.
+ *
+ * @author Matt Sidesinger
+ */
+public class BatchSolver {
+
+	// passed along in place of a result when a job fails, so that the calling thread stops waiting
+	private static final BatchResult FAILED = new BatchResult(-1, null, null, 0);
+
+	private final GaddagAlgorithm gaddag;
+	private final ForkJoinPool pool;
+
+	// each batch is numbered, so that a worker does not reuse a board prepared for an earlier batch that has since
+	// been modified
+	private final AtomicLong batches = new AtomicLong();
+	private final ThreadLocal<Worker> workers = new ThreadLocal<Worker>() {
+		@Override
+		protected Worker initialValue() {
+			return new Worker();
+		}
+	};
+
+	/**
+	 * @param gaddag	The algorithm that solves each job
+	 * @param pool		The pool to run the jobs in
+	 */
+	public BatchSolver(final GaddagAlgorithm gaddag, final ForkJoinPool pool) {
+
+		Validate.notNull(gaddag, "GaddagAlgorithm cannot be null");
+		Validate.notNull(pool, "ForkJoinPool cannot be null");
+
+		this.gaddag = gaddag;
+		this.pool = pool;
+	}
+
+	/**
+	 * Solves every job, waiting until they have all finished.
+	 *
+	 * @param jobs	The jobs to solve
+	 *
+	 * @return	The result of every job, in the same order as the jobs.
+	 */
+	public BatchResults solve(final Iterable<BatchJob> jobs) {
+
+		Validate.notNull(jobs, "Iterable<BatchJob> cannot be null");
+
+		List<BatchJob> list = toList(jobs);
+		List<BatchResult> results = createResults(list.size());
+
+		long start = System.nanoTime();
+		if (!list.isEmpty()) {
+			pool.invoke(new JobTask(batches.incrementAndGet(), list, results, null, null, 0, list.size()));
+		}
+		return new BatchResults(results, list.size(), System.nanoTime() - start);
+	}
+
+	/**
+	 * Solves every job, passing each result to the sink as soon as its job has finished.  The sink is called by the
+	 * calling thread, which waits until every job has finished or the sink asks to stop.  If it asks to stop, the jobs
+	 * that have already been started are finished, but their results are not passed to the sink.
+	 *
+	 * @param jobs	The jobs to solve
+	 * @param sink	Receives each result, in the order that the jobs finish
+	 *
+	 * @return	The result of every job that was solved, in the same order as the jobs.
+	 *
+	 * @throws InterruptedException	If the calling thread is interrupted while waiting for a job to finish.  The jobs
+	 * 								that have not been started are not solved.
+	 */
+	public BatchResults solve(final Iterable<BatchJob> jobs, final BatchSink sink) throws InterruptedException {
+
+		Validate.notNull(jobs, "Iterable<BatchJob> cannot be null");
+		Validate.notNull(sink, "BatchSink cannot be null");
+
+		List<BatchJob> list = toList(jobs);
+		List<BatchResult> results = createResults(list.size());
+		if (list.isEmpty()) {
+			return new BatchResults(results, 0, 0);
+		}
+
+		BlockingQueue<BatchResult> completed = new LinkedBlockingQueue<BatchResult>();
+		AtomicBoolean stopped = new AtomicBoolean();
+
+		long start = System.nanoTime();
+		ForkJoinTask<Void> root = pool.submit(new JobTask(batches.incrementAndGet(), list, results, completed,
+				stopped, 0, list.size()));
+
+		int accepted = 0;
+		try {
+			while (accepted < list.size()) {
+				BatchResult result = completed.take();
+				if (result == FAILED) {
+					// rethrows the exception that the job failed with
+					root.join();
+				}
+				accepted++;
+				if (!sink.accept(result)) {
+					stopped.set(true);
+					root.join();
+					break;
+				}
+			}
+		} finally {
+			stopped.set(true);
+		}
+		long elapsed = System.nanoTime() - start;
+
+		// a job that was still running when the sink asked to stop has a result, but it was not accepted
+		int solved = 0;
+		for (BatchResult result : results) {
+			if (result != null) {
+				solved++;
+			}
+		}
+		return new BatchResults(results, solved, elapsed);
+	}
+
+	private static List<BatchJob> toList(final Iterable<BatchJob> jobs) {
+
+		List<BatchJob> list = new ArrayList<BatchJob>();
+		for (BatchJob job : jobs) {
+			Validate.notNull(job, "BatchJob cannot be null");
+			list.add(job);
+		}
+		return list;
+	}
+
+	private static List<BatchResult> createResults(final int size) {
+		return new ArrayList<BatchResult>(Collections.<BatchResult>nCopies(size, null));
+	}
+
+	/**
+	 * The state that a thread keeps from one job to the next.
+	 */
+	private class Worker {
+
+		private final Random random = new Random();
+
+		private long batch;
+		private Board board;
+		private PreparedBoard prepared;
+		private PlacementScorer scorer;
+
+		List<TilePlacement> solve(final long batch, final BatchJob job) {
+
+			if (batch != this.batch || job.getBoard() != board) {
+				this.batch = batch;
+				this.board = job.getBoard();
+				this.prepared = gaddag.prepare(board);
+				this.scorer = new PlacementScorer(prepared.getScorer());
+			}
+
+			boolean finished = false;
+			try {
+				List<TilePlacement> placement = gaddag.selectPlacement(prepared, job.getRack(), scorer,
+						job.getQuery(), job.createStrategy(random));
+				finished = true;
+				return placement;
+			} finally {
+				if (!finished) {
+					// the scorer may have been left part way through a word
+					board = null;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Solves a range of jobs.  The range is split in half until each task solves a single job.
+	 *
+	 * @author Matt Sidesinger
+	 */
+	private class JobTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 6419815503276271932L;
+
+		private final long batch;
+		private final List<BatchJob> jobs;
+		private final List<BatchResult> results;
+		private final BlockingQueue<BatchResult> completed;
+		private final AtomicBoolean stopped;
+		private final int from;
+		private final int to;
+
+		/**
+		 * @param batch		The number of the batch
+		 * @param jobs		All of the jobs
+		 * @param results	Receives the result of each job, at the index of the job
+		 * @param completed	Receives the result of each job as it finishes, or <code>null</code> if they are not
+		 * 					being passed to a sink
+		 * @param stopped	Set once no more jobs are to be started, or <code>null</code> if they all must be
+		 * @param from		The index of the first job to solve, inclusive
+		 * @param to		The index of the last job to solve, exclusive
+		 */
+		JobTask(final long batch, final List<BatchJob> jobs, final List<BatchResult> results,
+				final BlockingQueue<BatchResult> completed, final AtomicBoolean stopped, final int from, final int to) {
+
+			this.batch = batch;
+			this.jobs = jobs;
+			this.results = results;
+			this.completed = completed;
+			this.stopped = stopped;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+
+			if (stopped != null && stopped.get()) {
+				return;
+			}
+
+			if (to - from == 1) {
+				boolean finished = false;
+				try {
+					BatchJob job = jobs.get(from);
+					long start = System.nanoTime();
+					List<TilePlacement> placement = workers.get().solve(batch, job);
+					BatchResult result = new BatchResult(from, job, placement, System.nanoTime() - start);
+					results.set(from, result);
+					if (completed != null) {
+						completed.add(result);
+					}
+					finished = true;
+				} finally {
+					if (!finished && completed != null) {
+						completed.add(FAILED);
+					}
+				}
+				return;
+			}
+
+			int middle = (from + to) >>> 1;
+			invokeAll(new JobTask(batch, jobs, results, completed, stopped, from, middle),
+					new JobTask(batch, jobs, results, completed, stopped, middle, to));
+		}
+	}
+}
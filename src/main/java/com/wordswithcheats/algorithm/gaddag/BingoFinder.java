@@ -0,0 +1,368 @@
+package com.wordswithcheats.algorithm.gaddag;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang.Validate;
+
+import com.wordswithcheats.algorithm.MoveSink;
+import com.wordswithcheats.board.BlankTile;
+import com.wordswithcheats.board.Board;
+import com.wordswithcheats.board.Rack;
+import com.wordswithcheats.board.Tile;
+import com.wordswithcheats.board.TilePlacement;
+
+/**
+ * Finds the bingos that can be played with a rack: the placements that use every tile on the rack, when it holds at
+ * least {@link Board#getBingoTileCount()} tiles.
+ * <p>
+ * Rather than traversing the board from every anchor, which also explores every shorter placement, the words that can
+ * be made are looked up first in an index of the words in the trie, keyed by their letters in sorted order.  A bingo
+ * either uses just the tiles on the rack, or the tiles on the rack and one letter already on the board, and each blank
+ * is tried as every letter.  Only then is each word fitted to the rows and columns of the board: the squares at
+ * either end must be empty, the word must cover or touch an existing tile, and every cross-word formed must be in the
+ * trie.
+ * <p>
+ * Bingos that cover two or more existing tiles are not found, since the words would have to be looked up for every
+ * combination of letters on the board.  They are rare, and can still be found with
+ * {@link GaddagAlgorithm#generatePlacements(Board, Rack, MoveSink)}.
+ * <p>
+ * The index for each length of word is built from the trie the first time that it is needed.
+ *
+ * @author Matt Sidesinger
+ */
+public class BingoFinder {
+
+	private final TrieNode root;
+
+	// for each length, the words keyed by their letters in sorted order
+	private final Map<Integer, Map<String, List<String>>> indexes = new HashMap<Integer, Map<String, List<String>>>();
+
+	/**
+	 * @param trie	The GADDAG that the words are read from, and that cross-words are checked against
+	 */
+	public BingoFinder(final Trie trie) {
+
+		Validate.notNull(trie, "Trie cannot be null");
+		this.root = trie.getRoot();
+	}
+
+	/**
+	 * Passes every bingo that can be played with the rack, and that covers at most one existing tile, to the sink.  If
+	 * the rack holds fewer tiles than the bingo tile count of the board, there are none.  The given rack is not
+	 * modified.
+	 *
+	 * @param board		The board to use
+	 * @param rack		The rack to pull tiles from
+	 * @param sink		Receives each list of tile placements
+	 *
+	 * @return	<code>true</code> if every bingo was passed along, <code>false</code> if the sink asked to stop.
+	 */
+	public boolean findBingos(final Board board, final Rack rack, final MoveSink sink) {
+
+		Validate.notNull(board, "Board cannot be null");
+		Validate.notNull(rack, "Rack cannot be null");
+		Validate.notNull(sink, "MoveSink cannot be null");
+
+		int tileCount = rack.tileCount();
+		if (tileCount == 0 || tileCount < board.getBingoTileCount()) {
+			return true;
+		}
+
+		int[] letters = new int[26];
+		int blanks = 0;
+		for (Tile tile : rack) {
+			if (tile.isBlankTile()) {
+				blanks++;
+			} else {
+				letters[tile.getLetter() - 'a']++;
+			}
+		}
+
+		// the words made from just the rack, then from the rack and each letter on the board
+		Set<String> words = new LinkedHashSet<String>();
+		addAnagrams(words, getIndex(tileCount), letters, blanks, 0);
+		if (!board.isEmpty()) {
+			Map<String, List<String>> index = getIndex(tileCount + 1);
+			boolean[] onBoard = lettersOnBoard(board);
+			for (int letter = 0; letter < 26; letter++) {
+				if (onBoard[letter]) {
+					letters[letter]++;
+					addAnagrams(words, index, letters, blanks, 0);
+					letters[letter]--;
+				}
+			}
+		}
+
+		for (String word : words) {
+			if (!fit(board, word, letters, blanks, true, sink) || !fit(board, word, letters, blanks, false, sink)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Adds the words in the index that are made from the letters, trying each blank as every letter.  The blanks are
+	 * assigned letters in ascending order so that each combination of letters is only looked up once.
+	 */
+	private static void addAnagrams(final Set<String> words, final Map<String, List<String>> index,
+			final int[] letters, final int blanks, final int from) {
+
+		if (blanks == 0) {
+			List<String> anagrams = index.get(signature(letters));
+			if (anagrams != null) {
+				words.addAll(anagrams);
+			}
+			return;
+		}
+		for (int letter = from; letter < 26; letter++) {
+			letters[letter]++;
+			addAnagrams(words, index, letters, blanks - 1, letter);
+			letters[letter]--;
+		}
+	}
+
+	/**
+	 * Fits the word to every row, or every column, of the board and passes each placement that can be made with the
+	 * letters on the rack, and the blanks for the rest, to the sink.
+	 *
+	 * @param letters	The number of each letter on the rack, not counting blanks
+	 * @param blanks	The number of blanks on the rack
+	 *
+	 * @return	<code>true</code> to keep going, <code>false</code> if the sink asked to stop.
+	 */
+	private boolean fit(final Board board, final String word, final int[] letters, final int blanks,
+			final boolean horizontal, final MoveSink sink) {
+
+		int length = word.length();
+		int lines = (horizontal ? board.getHeight() : board.getWidth());
+		int lineLength = (horizontal ? board.getWidth() : board.getHeight());
+		int[] deficits = new int[26];
+
+		for (int line = 1; line <= lines; line++) {
+			for (int start = 1; start + length - 1 <= lineLength; start++) {
+
+				int end = start + length - 1;
+				// the squares at either end must be empty
+				if ((start > 1 && get(board, horizontal, line, start - 1) != null)
+						|| (end < lineLength && get(board, horizontal, line, end + 1) != null)) {
+					continue;
+				}
+
+				// the existing tiles must match the word, and the rack must hold the rest of the letters
+				Arrays.fill(deficits, 0);
+				boolean matches = true;
+				boolean touches = false;
+				for (int i = 0; i < length && matches; i++) {
+					Tile tile = get(board, horizontal, line, start + i);
+					if (tile == null) {
+						deficits[word.charAt(i) - 'a']++;
+					} else {
+						matches = (tile.getLetter() == word.charAt(i));
+						touches = true;
+					}
+				}
+				// every tile on the rack is used, so what is left over is played by the blanks
+				int deficit = 0;
+				for (int letter = 0; letter < 26 && matches; letter++) {
+					deficits[letter] -= letters[letter];
+					deficit += deficits[letter];
+					matches = (deficits[letter] >= 0);
+				}
+				if (!matches || deficit != blanks) {
+					continue;
+				}
+
+				if (board.isEmpty()) {
+					int startX = board.getStartX();
+					int startY = board.getStartY();
+					touches = (horizontal ? line == startY && start <= startX && startX <= end
+							: line == startX && start <= startY && startY <= end);
+				}
+
+				// each new tile must form a valid cross-word, if any
+				for (int i = 0; i < length && matches; i++) {
+					int p = start + i;
+					if (get(board, horizontal, line, p) == null) {
+						boolean before = (line > 1 && get(board, horizontal, line - 1, p) != null);
+						boolean after = (line < lines && get(board, horizontal, line + 1, p) != null);
+						if (before || after) {
+							touches = true;
+							matches = isCrossWord(board, horizontal, line, p, word.charAt(i));
+						}
+					}
+				}
+				if (!matches || !touches) {
+					continue;
+				}
+
+				if (!place(board, horizontal, line, start, word, new boolean[length], deficits, 0, 0, sink)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Chooses which of the new tiles are played by the blanks, one letter at a time, and passes each choice to the
+	 * sink.
+	 *
+	 * @param deficits	The number of each letter still to be played by a blank
+	 * @param letter	The letter being chosen for
+	 * @param from		The first position in the word that can be chosen for the letter
+	 *
+	 * @return	<code>true</code> to keep going, <code>false</code> if the sink asked to stop.
+	 */
+	private static boolean place(final Board board, final boolean horizontal, final int line, final int start,
+			final String word, final boolean[] blanks, final int[] deficits, final int letter, final int from,
+			final MoveSink sink) {
+
+		int current = letter;
+		int first = from;
+		while (current < 26 && deficits[current] == 0) {
+			current++;
+			first = 0;
+		}
+
+		if (current == 26) {
+			List<TilePlacement> placements = new ArrayList<TilePlacement>(word.length());
+			for (int i = 0; i < word.length(); i++) {
+				int p = start + i;
+				if (get(board, horizontal, line, p) == null) {
+					char c = word.charAt(i);
+					Tile tile = (blanks[i] ? new BlankTile(c) : Tile.valueOf(c));
+					placements.add(horizontal ? new TilePlacement(p, line, tile) : new TilePlacement(line, p, tile));
+				}
+			}
+			return sink.accept(Collections.unmodifiableList(placements));
+		}
+
+		for (int i = first; i < word.length(); i++) {
+			if (word.charAt(i) - 'a' == current && !blanks[i] && get(board, horizontal, line, start + i) == null) {
+				blanks[i] = true;
+				deficits[current]--;
+				boolean keepGoing = place(board, horizontal, line, start, word, blanks, deficits, current, i + 1, sink);
+				deficits[current]++;
+				blanks[i] = false;
+				if (!keepGoing) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Determines whether the letter, placed at position p of the line, forms a word with the tiles above and below it,
+	 * or to the left and right of it.
+	 */
+	private boolean isCrossWord(final Board board, final boolean horizontal, final int line, final int p,
+			final char letter) {
+
+		int lines = (horizontal ? board.getHeight() : board.getWidth());
+		int first = line;
+		while (first > 1 && get(board, horizontal, first - 1, p) != null) {
+			first--;
+		}
+		int last = line;
+		while (last < lines && get(board, horizontal, last + 1, p) != null) {
+			last++;
+		}
+
+		// the word itself, without a cross anchor, is a path in the GADDAG
+		TrieNode node = root;
+		for (int l = first; l <= last && node != null; l++) {
+			node = node.getChildNode(l == line ? letter : get(board, horizontal, l, p).getLetter());
+		}
+		return (node != null && node.isTerminal());
+	}
+
+	/**
+	 * @return	The tile at position p of the line, where a line is a row when horizontal and a column otherwise.
+	 */
+	private static Tile get(final Board board, final boolean horizontal, final int line, final int p) {
+		return (horizontal ? board.get(p, line) : board.get(line, p));
+	}
+
+	private static boolean[] lettersOnBoard(final Board board) {
+
+		boolean[] onBoard = new boolean[26];
+		for (int x = 1; x <= board.getWidth(); x++) {
+			for (int y = 1; y <= board.getHeight(); y++) {
+				Tile tile = board.get(x, y);
+				// a blank that was placed without a letter cannot be part of a word
+				if (tile != null && tile.getLetter() != 0) {
+					onBoard[tile.getLetter() - 'a'] = true;
+				}
+			}
+		}
+		return onBoard;
+	}
+
+	/**
+	 * @return	The index of the words with the given length, which is built from the trie the first time.
+	 */
+	protected synchronized Map<String, List<String>> getIndex(final int length) {
+
+		Integer key = Integer.valueOf(length);
+		Map<String, List<String>> index = indexes.get(key);
+		if (index == null) {
+			index = new HashMap<String, List<String>>();
+			addWords(index, root, new char[length], 0);
+			indexes.put(key, index);
+		}
+		return index;
+	}
+
+	/**
+	 * Adds every word of the length of the path to the index.  Each word is found once, as the only path to it that
+	 * does not pass through a cross anchor.
+	 */
+	private static void addWords(final Map<String, List<String>> index, final TrieNode node, final char[] path,
+			final int depth) {
+
+		if (depth == path.length) {
+			if (node.isTerminal()) {
+				String word = new String(path);
+				char[] letters = path.clone();
+				Arrays.sort(letters);
+				String signature = new String(letters);
+				List<String> words = index.get(signature);
+				if (words == null) {
+					words = new ArrayList<String>(1);
+					index.put(signature, words);
+				}
+				words.add(word);
+			}
+			return;
+		}
+		for (TrieNode child : node.getChildNodes()) {
+			if (!child.isCrossAnchorNode() && child.getHeight() >= path.length - depth - 1) {
+				path[depth] = child.getLetter();
+				addWords(index, child, path, depth + 1);
+			}
+		}
+	}
+
+	/**
+	 * @return	The letters, in sorted order.
+	 */
+	private static String signature(final int[] letters) {
+
+		StringBuilder signature = new StringBuilder();
+		for (int letter = 0; letter < 26; letter++) {
+			for (int i = 0; i < letters[letter]; i++) {
+				signature.append((char) ('a' + letter));
+			}
+		}
+		return signature.toString();
+	}
+}
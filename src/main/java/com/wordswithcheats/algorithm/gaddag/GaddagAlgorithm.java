@@ -4,35 +4,64 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.wordswithcheats.algorithm.Move;
+import com.wordswithcheats.algorithm.MoveSink;
 import com.wordswithcheats.algorithm.ScrabbleAlgorithm;
 import com.wordswithcheats.board.BlankTile;
 import com.wordswithcheats.board.Board;
+import com.wordswithcheats.board.BoardView;
 import com.wordswithcheats.board.Rack;
 import com.wordswithcheats.board.Tile;
 import com.wordswithcheats.board.TilePlacement;
-import com.wordswithcheats.board.exception.IllegalTilePlacementException;
 import com.wordswithcheats.board.exception.RackFullException;
 
 /**
  * A Scrabble algorithm implementation that uses the GADDAG data structure presented by Steven Gordon in 1994.  An
  * explanation of this data structure and the solving algorithm can be found in the GADDAG.pdf document.
+ * <p>
+ * A single instance, and its trie, can serve any number of threads at once without locking.  Every search works on
+ * its own copy of the rack, and on its own scorer, bound and list of placements; the given board, rack and trie are
+ * only read.  Blanks are placed as shared tiles that are never modified, and a new BlankTile is only created for the
+ * placements passed to a sink.  The point values of the tiles are taken once, when a board is prepared, so
+ * {@link Tile#setPointValue(char, int)} does not affect a search that is already running.  Random placements are
+ * chosen with a new Random for each call, or with the one given to {@link #randomPlacement(Board, Rack, Random)}.
+ * The boards themselves are not thread-safe, so a board must not be changed while it is being searched.
  * 
  * @author Matt Sidesinger
  */
 public class GaddagAlgorithm implements ScrabbleAlgorithm {
 	
-	// used to generate random boolean values
-	private static final Random RANDOM = new Random();
+	// the tile placed for a blank, one for each letter, shared since they are never modified
+	private static final BlankTile[] BLANKS = new BlankTile[26];
+	static {
+		for (char letter = 'a'; letter <= 'z'; letter++) {
+			BLANKS[letter - 'a'] = new BlankTile(letter);
+		}
+	}
+	
+	// marks a blank in the set of letters that have been tried on a square
+	private static final int BLANK_BIT = 1 << 26;
+	
+	// when assertions are enabled, each search checks that no placement is passed to its sink more than once
+	private static final boolean CHECK_UNIQUE = GaddagAlgorithm.class.desiredAssertionStatus();
 	
-	private Trie trie;
+	// only replaced by setTrie, and read once by each search
+	private volatile Trie trie;
+	private volatile BingoFinder bingoFinder;
 	
 	/**
 	 * Passed to some methods to indicate which direction to place tiles while the algorithm is performing processing.
@@ -51,6 +80,8 @@ public class GaddagAlgorithm implements ScrabbleAlgorithm {
 		
 		private int xInc = 0;
 		private int yInc = 0;
+		private final boolean horizontal;
+		private final boolean forward;
 		
 		/**
 		 * @param xInc
@@ -62,6 +93,38 @@ public class GaddagAlgorithm implements ScrabbleAlgorithm {
 
 			this.xInc = xInc;
 			this.yInc = yInc;
+			this.horizontal = (yInc == 0);
+			this.forward = (xInc + yInc > 0);
+		}
+		
+		/**
+		 * @return <code>true</code> for LEFT and RIGHT, <code>false</code> for UP and DOWN.
+		 */
+		boolean isHorizontal() {
+
+			return horizontal;
+		}
+		
+		/**
+		 * @return <code>true</code> for RIGHT and DOWN, which words are read in, <code>false</code> for LEFT and UP.
+		 */
+		boolean isForward() {
+
+			return forward;
+		}
+		
+		/**
+		 * Obtains the view of the board that lays out the squares along this direction next to each other: the rows
+		 * for LEFT and RIGHT, and the columns for UP and DOWN.
+		 * 
+		 * @param b
+		 *            The Board that is currently being worked on.
+		 * 
+		 * @return The view to read the squares in this direction from.
+		 */
+		BoardView view(Board b) {
+
+			return (horizontal ? b.getRowView() : b.getColumnView());
 		}
 		
 		/**
@@ -94,34 +157,39 @@ public class GaddagAlgorithm implements ScrabbleAlgorithm {
 		}
 		
 		/**
-		 * Obtains the next tile in this direction given the current X, Y coordinates on the Board.
+		 * Determines whether there is a tile next to the current X, Y coordinates on the Board in this direction.
 		 * <p>
-		 * If the next coordinates do not exist, then <code>null</code> is returned.
+		 * The square next to a square of the board is read without checking it, since the edge of the board is
+		 * surrounded by a border that does not hold a tile.
 		 * 
 		 * @param b
-		 *            The Board that is currently being worked on.
+		 *            The view, of the Board that is currently being worked on, for this direction.
 		 * @param x
 		 *            The current X coordinate.
 		 * @param y
 		 *            The current Y coordinate.
 		 * 
-		 * @return <code>true</code> if processing can continue in this direction, <code>false</code> otherwise.
+		 * @return <code>true</code> if the next square holds a tile, <code>false</code> otherwise.
+		 */
+		boolean hasNext(BoardView b, int x, int y) {
+
+			return b.hasTileAt(nextX(x), nextY(y));
+		}
+		
+		/**
+		 * The same as {@link #hasNext(BoardView, int, int)}, reading the square from the view of the Board for this
+		 * direction.
 		 */
 		boolean hasNext(Board b, int x, int y) {
 
-			try {
-				return b.get(nextX(x), nextY(y)) != null;
-			} catch (IllegalArgumentException e) {
-				// ignore
-			}
-			return false;
+			return hasNext(view(b), x, y);
 		}
 		
 		/**
 		 * Determines whether processing can continue in this direction given the current X, Y coordinates on the Board.
 		 * 
 		 * @param b
-		 *            The Board that is currently being worked on.
+		 *            The view, of the Board that is currently being worked on, for this direction.
 		 * @param x
 		 *            The current X coordinate.
 		 * @param y
@@ -129,11 +197,9 @@ public class GaddagAlgorithm implements ScrabbleAlgorithm {
 		 * 
 		 * @return <code>true</code> if processing can continue in this direction, <code>false</code> otherwise.
 		 */
-		boolean nextIsInBounds(Board b, int x, int y) {
+		boolean nextIsInBounds(BoardView b, int x, int y) {
 
-			int nextX = nextX(x);
-			int nextY = nextY(y);
-			return (1 <= nextX && nextX <= b.getWidth()) && (1 <= nextY && nextY <= b.getHeight());
+			return b.isSquare(nextX(x), nextY(y));
 		}
 		
 		/**
@@ -177,6 +243,48 @@ public class GaddagAlgorithm implements ScrabbleAlgorithm {
 		}
 	}
 	
+	/**
+	 * An empty square to start placing tiles from, along with the direction to place them in.  Each anchor is an
+	 * independent unit of work when the search is run in parallel.
+	 * 
+	 * @author Matt Sidesinger
+	 */
+	protected static class Anchor {
+		
+		private final int x;
+		private final int y;
+		private final Direction direction;
+		// the upper bound on the score of a placement made from this anchor
+		private int bound;
+		
+		Anchor(final int x, final int y, final Direction direction) {
+			
+			this.x = x;
+			this.y = y;
+			this.direction = direction;
+		}
+		
+		@Override
+		public String toString() {
+			return "(" + x + "," + y + "):" + direction;
+		}
+	}
+	
+	/**
+	 * The highest scoring placement found for one or more anchors.
+	 */
+	private static class ScoredPlacement {
+		
+		private final int score;
+		private final List<TilePlacement> placements;
+		
+		ScoredPlacement(final int score, final List<TilePlacement> placements) {
+			
+			this.score = score;
+			this.placements = placements;
+		}
+	}
+	
 	private static final Logger logger = LoggerFactory.getLogger(GaddagAlgorithm.class);
 	
 	public GaddagAlgorithm() {
@@ -201,145 +309,326 @@ public class GaddagAlgorithm implements ScrabbleAlgorithm {
 	
 	@Override
 	public List<TilePlacement> randomPlacement(final Board board, final Rack rack) {
-		 
+		return randomPlacement(board, rack, new Random());
+	}
+	
+	/**
+	 * Chooses a placement at random, with each placement that can be made equally likely to be chosen.  The same
+	 * placement is chosen for the same board, rack and seed, so a search can be repeated.  The Random should not be
+	 * shared with searches running in other threads, or the placement chosen will depend on the order they run in.
+	 * 
+	 * @param board		The board to use
+	 * @param rack		The rack to pull tiles from
+	 * @param random	Chooses the placement
+	 * 
+	 * @return	The placement chosen, or <code>null</code> if no tiles can be placed.
+	 */
+	public List<TilePlacement> randomPlacement(final Board board, final Rack rack, final Random random) {
+		
+		Validate.notNull(random, "Random cannot be null");
+		return selectPlacement(board, rack, PlacementStrategy.random(random));
+	}
+	
+	@Override
+	public List<TilePlacement> longestPlacement(final Board board, final Rack rack) {
+		return selectPlacement(board, rack, PlacementStrategy.longest());
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The given rack is not modified.
+	 */
+	@Override
+	public boolean generatePlacements(final Board board, final Rack rack, final MoveSink sink) {
+		
 		Validate.notNull(board, "Board cannot be null");
 		Validate.notNull(rack, "Rack cannot be null");
+		Validate.notNull(sink, "MoveSink cannot be null");
 		if (rack.isEmpty()) {
 			throw new IllegalArgumentException("Rack cannot be empty");
 		}
 		
-		List<LinkedList<TilePlacement>> allPlacements = new ArrayList<LinkedList<TilePlacement>>();
-		LinkedList<TilePlacement> randomPlacement = null;
-		LinkedList<TilePlacement> placements = new LinkedList<TilePlacement>();
+		return search(prepare(board), copyRack(rack), null, null, null, sink);
+	}
+	
+	/**
+	 * Passes every list of tile placements that can be made with the given rack, and that meets the query, to the
+	 * sink.  The query is applied while the board is traversed, so the branches that cannot meet it are not searched.
+	 * The given rack is not modified.
+	 * 
+	 * @param board		The board to use
+	 * @param rack		The rack to pull tiles from
+	 * @param query		The constraints that every list of tile placements must meet
+	 * @param sink		Receives each list of tile placements
+	 * 
+	 * @return	<code>true</code> if every list of tile placements was passed along, <code>false</code> if the sink
+	 * 			asked to stop.
+	 */
+	public boolean generatePlacements(final Board board, final Rack rack, final MoveQuery query, final MoveSink sink) {
 		
-		if (board.isEmpty()) {
-			
-			int x = board.getStartX();
-			int y = board.getStartY();
-			// go horizontal
-			List<LinkedList<TilePlacement>> tempPlacements =
-							generateAllPlacements(board, x, y, x, y, rack, placements, trie.getRoot(), Direction.RIGHT);
-			if (tempPlacements != null) {
-				allPlacements.addAll(tempPlacements);
-			}
-			
-		} else {
-			
-			int width = board.getWidth();
-			int height = board.getHeight();
-			
-			for (int x = 1; x <= width; x++) {
-				for (int y = 1; y <= height; y++) {
-					
-					// Is this an empty space?
-					if (board.get(x, y) == null) {
-						
-						// Is there a tile to the East?
-						if (x < width && board.get(x + 1, y) != null) {
-							// go horizontal
-                			List<LinkedList<TilePlacement>> tempPlacements =
-                				generateAllPlacements(board, x, y, x, y, rack, placements, trie.getRoot(), Direction.RIGHT);
-                			if (tempPlacements != null) {
-                				allPlacements.addAll(tempPlacements);
-                			}
-						}
-						
-						// Is there a tile to the South?
-						if (y < height && board.get(x, y + 1) != null) {
-							// go vertical
-							List<LinkedList<TilePlacement>> tempPlacements = 
-								generateAllPlacements(board, x, y, x, y, rack, placements, trie.getRoot(), Direction.DOWN);
-                			if (tempPlacements != null) {
-                				allPlacements.addAll(tempPlacements);
-                			}
-						}
-					}
-					
-				} // ~for y
-			} // ~for x
+		Validate.notNull(board, "Board cannot be null");
+		Validate.notNull(rack, "Rack cannot be null");
+		Validate.notNull(query, "MoveQuery cannot be null");
+		Validate.notNull(sink, "MoveSink cannot be null");
+		if (rack.isEmpty()) {
+			throw new IllegalArgumentException("Rack cannot be empty");
+		}
+		
+		// the query reads the length of the word so far from the scorer
+		PreparedBoard prepared = prepare(board);
+		return search(prepared, copyRack(rack), new PlacementScorer(prepared.getScorer()), null, query, sink);
+	}
+	
+	/**
+	 * Passes every bingo that can be played with the given rack, and that covers at most one existing tile, to the
+	 * sink: each list of tile placements that uses every tile on the rack, if it holds at least the bingo tile count of
+	 * the board.  The words are looked up by their letters before they are fitted to the board, so this is much faster
+	 * than filtering {@link #generatePlacements(Board, Rack, MoveSink)}.  The given rack is not modified.
+	 * 
+	 * @param board		The board to use
+	 * @param rack		The rack to pull tiles from
+	 * @param sink		Receives each list of tile placements
+	 * 
+	 * @return	<code>true</code> if every bingo was passed along, <code>false</code> if the sink asked to stop.
+	 * 
+	 * @see BingoFinder
+	 */
+	public boolean generateBingos(final Board board, final Rack rack, final MoveSink sink) {
+		return bingoFinder.findBingos(board, rack, sink);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The moves are kept in a heap of at most <code>k</code> moves, with the worst move on top.  Each list of tile
+	 * placements is scored as it is traversed and, when ranking by {@link Move#BY_SCORE}, is only turned into a
+	 * {@link Move} if it scores at least as much as the worst move in a full heap.  Once the heap is full, the search
+	 * is pruned against the score of its worst move.  The given rack is not modified.
+	 */
+	@Override
+	public List<Move> topMoves(final Board board, final Rack rack, final int k, final Comparator<Move> comparator) {
+		
+		PlacementStrategy.TopMoves strategy = new PlacementStrategy.TopMoves(k, comparator);
+		selectPlacement(board, rack, strategy);
+		return strategy.getMoves();
+	}
+	
+	/**
+	 * Finds every move that is not dominated on its score, the number of tiles it keeps on the rack and the length of
+	 * the word it forms: no other move is at least as good on all three and better on one.  Of the moves that tie on
+	 * all three, only one is returned.
+	 * <p>
+	 * The front is kept while the board is traversed, so only the moves on it are ever created, and branches of the
+	 * search that cannot lead to a move off the front are pruned.  The given rack is not modified.
+	 * 
+	 * @param board		The board to use
+	 * @param rack		The rack to pull tiles from
+	 * 
+	 * @return	The moves on the front, highest score first; empty if no tiles can be placed.
+	 */
+	public List<ParetoMove> paretoFront(final Board board, final Rack rack) {
+		
+		PlacementStrategy.ParetoFront strategy = new PlacementStrategy.ParetoFront();
+		selectPlacement(board, rack, strategy);
+		return strategy.getMoves();
+	}
+	
+	/**
+	 * Traverses the board once, offering every placement that can be made with the given rack to the strategy, and
+	 * returns the placement that it picks.  The given rack is not modified.
+	 * 
+	 * @param board		The board to use
+	 * @param rack		The rack to pull tiles from
+	 * @param strategy	Picks the placement to return
+	 * 
+	 * @return	The placement picked by the strategy, or <code>null</code> if no placements were found.
+	 */
+	public List<TilePlacement> selectPlacement(final Board board, final Rack rack, final PlacementStrategy strategy) {
+		
+		Validate.notNull(board, "Board cannot be null");
+		Validate.notNull(rack, "Rack cannot be null");
+		Validate.notNull(strategy, "PlacementStrategy cannot be null");
+		if (rack.isEmpty()) {
+			throw new IllegalArgumentException("Rack cannot be empty");
 		}
 		
-		logger.info("Found a total of {} possible tile placement combinations.", Integer.valueOf(allPlacements.size()));
-		if (allPlacements.size() > 0) {
-			Random r = new Random();
-			randomPlacement = allPlacements.get(r.nextInt(allPlacements.size()));
+		return selectPlacement(prepare(board), rack, strategy);
+	}
+	
+	/**
+	 * Traverses a prepared board once, offering every placement that can be made with the given rack to the strategy,
+	 * and returns the placement that it picks.  Since the board was prepared beforehand, the anchors, cross-checks and
+	 * premiums are not looked up again, so this is the method to use when searching the same board with many racks.
+	 * The prepared board can be shared by any number of threads, and the given rack is not modified.
+	 * 
+	 * @param prepared	The board to use, as returned by {@link #prepare(Board)}
+	 * @param rack		The rack to pull tiles from
+	 * @param strategy	Picks the placement to return
+	 * 
+	 * @return	The placement picked by the strategy, or <code>null</code> if no placements were found.
+	 */
+	public List<TilePlacement> selectPlacement(final PreparedBoard prepared, final Rack rack,
+			final PlacementStrategy strategy) {
+		
+		Validate.notNull(prepared, "PreparedBoard cannot be null");
+		Validate.notNull(rack, "Rack cannot be null");
+		Validate.notNull(strategy, "PlacementStrategy cannot be null");
+		if (rack.isEmpty()) {
+			throw new IllegalArgumentException("Rack cannot be empty");
 		}
 		
-		return randomPlacement;
+		return selectPlacement(prepared, rack, new PlacementScorer(prepared.getScorer()), null, strategy);
 	}
 	
-	@Override
-	public List<TilePlacement> longestPlacement(final Board board, final Rack rack) {
-		 
+	/**
+	 * Looks up everything about the board that a search needs and that does not depend on the rack: the anchors, the
+	 * letters that form a valid cross-word on each empty square, and the premiums and cross-word points used to score.
+	 * 
+	 * @param board		The board to prepare
+	 * 
+	 * @return	The prepared board, which does not take into account any tiles placed on the board afterwards.
+	 */
+	public PreparedBoard prepare(final Board board) {
+		
+		Validate.notNull(board, "Board cannot be null");
+		return new PreparedBoard(board, trie.getRoot(), findAnchors(board));
+	}
+	
+	/**
+	 * Determines the highest scoring placement for each of the racks on the same board.  The board is prepared once,
+	 * rather than once for each rack.  The given racks are not modified.
+	 * 
+	 * @param board		The board to use
+	 * @param racks		The racks to pull tiles from
+	 * 
+	 * @return	The highest scoring placement for each rack, in the same order as the racks, or <code>null</code> for a
+	 * 			rack that cannot place any tiles.
+	 */
+	public List<List<TilePlacement>> calculateHighestScorePlacements(final Board board, final List<Rack> racks) {
+		
+		Validate.notNull(board, "Board cannot be null");
+		Validate.notNull(racks, "List<Rack> cannot be null");
+		
+		PreparedBoard prepared = prepare(board);
+		List<List<TilePlacement>> placements = new ArrayList<List<TilePlacement>>(racks.size());
+		for (Rack rack : racks) {
+			placements.add(selectPlacement(prepared, rack, PlacementStrategy.highestScore()));
+		}
+		return placements;
+	}
+	
+	/**
+	 * Determines the highest scoring placement for each of the racks on the same board, searching the racks in
+	 * parallel in the given {@link ForkJoinPool}.  The board is prepared once and shared by every rack.  The given
+	 * racks are not modified.
+	 * 
+	 * @param board		The board to use
+	 * @param racks		The racks to pull tiles from
+	 * @param pool		The pool to run the searches in
+	 * 
+	 * @return	The highest scoring placement for each rack, in the same order as the racks, or <code>null</code> for a
+	 * 			rack that cannot place any tiles.
+	 */
+	public List<List<TilePlacement>> calculateHighestScorePlacements(final Board board, final List<Rack> racks,
+			final ForkJoinPool pool) {
+		
+		Validate.notNull(board, "Board cannot be null");
+		Validate.notNull(racks, "List<Rack> cannot be null");
+		Validate.notNull(pool, "ForkJoinPool cannot be null");
+		
+		List<List<TilePlacement>> placements = new ArrayList<List<TilePlacement>>(
+				Collections.<List<TilePlacement>>nCopies(racks.size(), null));
+		if (!racks.isEmpty()) {
+			pool.invoke(new RackTask(prepare(board), racks, placements, 0, racks.size()));
+		}
+		return placements;
+	}
+	
+	/**
+	 * Traverses the board once, offering every placement that can be made with the given rack and that meets the
+	 * query to the strategy, and returns the placement that it picks.  The given rack is not modified.
+	 * 
+	 * @param board		The board to use
+	 * @param rack		The rack to pull tiles from
+	 * @param query		The constraints that every placement offered must meet
+	 * @param strategy	Picks the placement to return
+	 * 
+	 * @return	The placement picked by the strategy, or <code>null</code> if no placements met the query.
+	 */
+	public List<TilePlacement> selectPlacement(final Board board, final Rack rack, final MoveQuery query,
+			final PlacementStrategy strategy) {
+		
 		Validate.notNull(board, "Board cannot be null");
 		Validate.notNull(rack, "Rack cannot be null");
+		Validate.notNull(query, "MoveQuery cannot be null");
+		Validate.notNull(strategy, "PlacementStrategy cannot be null");
 		if (rack.isEmpty()) {
 			throw new IllegalArgumentException("Rack cannot be empty");
 		}
 		
-		List<LinkedList<TilePlacement>> allPlacements = new ArrayList<LinkedList<TilePlacement>>();
-		LinkedList<TilePlacement> longestPlacement = null;
-		LinkedList<TilePlacement> placements = new LinkedList<TilePlacement>();
+		PreparedBoard prepared = prepare(board);
+		return selectPlacement(prepared, rack, new PlacementScorer(prepared.getScorer()), query, strategy);
+	}
+	
+	/**
+	 * Traverses the board once with a copy of the rack, highest point values first, so that high scoring placements
+	 * tend to be found first.  The query is optional.
+	 */
+	protected List<TilePlacement> selectPlacement(final PreparedBoard prepared, final Rack rack,
+			final PlacementScorer scorer, final MoveQuery query, final PlacementStrategy strategy) {
+		
+		Rack searchRack = copyRackByPointValue(rack, scorer);
+		ScoreBound bound = strategy.start(prepared.getBoard(), searchRack, scorer);
+		search(prepared, searchRack, scorer, bound, query, strategy);
 		
-		if (board.isEmpty()) {
-			
-			int x = board.getStartX();
-			int y = board.getStartY();
-			// go horizontal
-			List<LinkedList<TilePlacement>> tempPlacements =
-							generateAllPlacements(board, x, y, x, y, rack, placements, trie.getRoot(), Direction.RIGHT);
-			if (tempPlacements != null) {
-				allPlacements.addAll(tempPlacements);
+		logger.debug("Offered a total of {} possible tile placement combinations.",
+				Integer.valueOf(strategy.getCount()));
+		return strategy.getPlacement();
+	}
+	
+	/**
+	 * Passes every list of tile placements made from every anchor on the board, and that is not pruned by the bound,
+	 * to the sink.  If a bound is given, the anchors with the highest bounds are searched first.  If a query is given,
+	 * the anchors that cannot lead to a placement that meets it are skipped.
+	 * 
+	 * @return	<code>true</code> if the whole board was searched, <code>false</code> if the sink asked to stop.
+	 */
+	private boolean search(final PreparedBoard prepared, final Rack rack, final PlacementScorer scorer,
+			final ScoreBound bound, final MoveQuery query, final MoveSink sink) {
+		
+		Validate.isTrue(query == null || scorer != null, "a PlacementScorer is required to search with a MoveQuery");
+		Board board = prepared.getBoard();
+		MoveSink target = (CHECK_UNIQUE ? unique(sink) : sink);
+		List<Anchor> anchors = (bound == null ? prepared.getAnchors() : orderAnchors(prepared, rack, bound));
+		for (Anchor anchor : anchors) {
+			if (query != null && !query.allows(board, rack, anchor.x, anchor.y, anchor.direction == Direction.RIGHT)) {
+				continue;
+			}
+			if (!search(prepared, anchor, rack, scorer, bound, query, target)) {
+				return false;
 			}
-			
-		} else {
-			
-			int width = board.getWidth();
-			int height = board.getHeight();
-			
-			for (int x = 1; x <= width; x++) {
-				for (int y = 1; y <= height; y++) {
-					
-					// Is this an empty space?
-					if (board.get(x, y) == null) {
-						
-						// Is there a tile to the East?
-						if (x < width && board.get(x + 1, y) != null) {
-							// go horizontal
-                			List<LinkedList<TilePlacement>> tempPlacements =
-                				generateAllPlacements(board, x, y, x, y, rack, placements, trie.getRoot(), Direction.RIGHT);
-                			if (tempPlacements != null) {
-                				allPlacements.addAll(tempPlacements);
-                			}
-						}
-						
-						// Is there a tile to the South?
-						if (y < height && board.get(x, y + 1) != null) {
-							// go vertical
-							List<LinkedList<TilePlacement>> tempPlacements = 
-								generateAllPlacements(board, x, y, x, y, rack, placements, trie.getRoot(), Direction.DOWN);
-                			if (tempPlacements != null) {
-                				allPlacements.addAll(tempPlacements);
-                			}
-						}
-					}
-					
-				} // ~for y
-			} // ~for x
 		}
+		return true;
+	}
+	
+	/**
+	 * Wraps the sink so that an AssertionError is thrown if the same placement is passed to it twice.
+	 */
+	private static MoveSink unique(final MoveSink sink) {
 		
-		logger.info("Found a total of {} possible tile placement combinations.", Integer.valueOf(allPlacements.size()));
-		if (allPlacements.size() > 0) {
-			Collections.sort(allPlacements, new Comparator<List<TilePlacement>>() {
-				@Override
-				public int compare(List<TilePlacement> o1, List<TilePlacement> o2) {
-					return (o2.size() - o1.size());
+		final Set<String> keys = new HashSet<String>();
+		return new MoveSink() {
+			@Override
+			public boolean accept(final List<TilePlacement> placements) {
+				
+				String key = new Move(placements, 0).getKey();
+				if (!keys.add(key)) {
+					throw new AssertionError("the placement " + key + " was generated more than once");
 				}
-			});
-			longestPlacement = allPlacements.get(0);
-		}
-		
-		return longestPlacement;
+				return sink.accept(placements);
+			}
+		};
 	}
 	
 	protected List<LinkedList<TilePlacement>> generateAllPlacements(final Board board,
@@ -347,519 +636,668 @@ public class GaddagAlgorithm implements ScrabbleAlgorithm {
 														final int x, final int y,
 														final Rack rack, final LinkedList<TilePlacement> placements,
 														final TrieNode node, final Direction direction) {
-
-		List<LinkedList<TilePlacement>> allPlacements = null;
 		
-		// Is the current location empty?
-		Tile tile = board.get(x, y);
+		final List<LinkedList<TilePlacement>> allPlacements = new ArrayList<LinkedList<TilePlacement>>();
+		generatePlacements(prepare(board), startX, startY, x, y, rack, placements, null, null, null, node, direction,
+				new MoveSink() {
+					@Override
+					public boolean accept(final List<TilePlacement> p) {
+						allPlacements.add(new LinkedList<TilePlacement>(p)); // copy
+						return true;
+					}
+				});
+		return (allPlacements.isEmpty() ? null : allPlacements);
+	}
+	
+	/**
+	 * Passes every list of tile placements that can be made from the start position to the sink.  If a scorer is
+	 * given, the tiles are pushed onto it as they are traversed so that the sink can score each list of tile
+	 * placements as it is passed along.  If a bound is given, the branches that it prunes are skipped.  If a query is
+	 * given, the branches that cannot meet it are skipped, and only the placements that meet it are passed along; the
+	 * query reads the length of the word from the scorer, so a scorer must be given along with it.
+	 * <p>
+	 * Once the sink asks to stop, the remaining tiles are still cycled through the rack, without searching any
+	 * further, so that the rack is left as it was found.
+	 * 
+	 * @return	<code>true</code> to keep generating tile placements, <code>false</code> if the sink asked to stop.
+	 */
+	protected boolean generatePlacements(final PreparedBoard prepared, final int startX, final int startY, final int x,
+			final int y, final Rack rack, final LinkedList<TilePlacement> placements, final PlacementScorer scorer,
+			final ScoreBound bound, final MoveQuery query, final TrieNode node, final Direction direction,
+			final MoveSink sink) {
+		
+		Board board = prepared.getBoard();
+		// the squares along the direction are next to each other in the view, whether it is a row or a column
+		BoardView view = prepared.getView(direction);
+		boolean keepGoing = true;
+		
+		// Is the current location empty?  Only squares of the board are searched, so they are not checked again.
+		Tile tile = view.getTileAt(x, y);
 		// check prerequisites
 		if (tile == null) {
 			
+			// Can a placement completed from here beat the highest score found so far?
+			if (bound != null && bound.prune(rack, node)) {
+				// the branch is skipped, unless the budget is used up and the whole search stops
+				return !bound.isStopped();
+			}
+			
+			// Can a placement completed from here still meet the query?
+			if (query != null && query.prune(board, startX, startY, x, y, direction, rack, node, placements,
+					scorer.getLength(), crossLength(placements, scorer))) {
+				return true;
+			}
+			
 			int currentNumberOfPlacements = placements.size();
 			int rackCount = rack.tileCount();
 			
-			if (rackCount > 0) {
-			    			
-    			// take the Tile at the beginning of the Rack
-    			Tile toPlace = rack.take();
-    			if (toPlace.isBlankTile()) {
-    				BlankTile.setLetter(((BlankTile) toPlace), 'a');
-    			}
-    			
-    			TrieNode childNode = null;
-    			// Cycle through the rack taking the first tile and adding it to the end until all tiles on the rack
-    			// have been processed.
-    			int i = 0;
-    			while (true) {
-    				
-    				childNode = node.getChildNode(toPlace.getLetter());
-    				
-    				if (childNode != null && validateCrossWordExists(board, x, y, toPlace, direction)) {
-    					
-    					if (toPlace.isBlankTile()) {
-    						// a copy must be placed as the tile placement since toPlace is being modified each iteration
-    						placements.add(new TilePlacement(x, y, new BlankTile(toPlace.getLetter())));
-    					} else {
-    						placements.add(new TilePlacement(x, y, toPlace));
-    					}
-    					
-    					// Is this the end of the word?
-    					if (childNode.isTerminal() && !direction.hasNext(board, x, y)) {
-    						// Make sure that letters in front of the start position have been considered
-    						if (direction == Direction.LEFT
-    								|| direction == Direction.UP
-    								|| ((direction == Direction.RIGHT || direction == Direction.DOWN) && !direction
-    										.inverse().hasNext(board, startX, startY))) {
-    							
-    							if (allPlacements == null) {
-    								allPlacements = new ArrayList<LinkedList<TilePlacement>>();
-    							}
-    							LinkedList<TilePlacement> tempPlacements = new LinkedList<TilePlacement>(placements); // copy
-    							allPlacements.add(tempPlacements);
-    						}
-    					}
-    					
-    					List<LinkedList<TilePlacement>> tempAllPlacements = null;
-    					if (direction.nextIsInBounds(board, x, y)) {
-    						tempAllPlacements = generateAllPlacements(board, startX, startY, direction.nextX(x),
-    								direction.nextY(y), rack, placements, childNode, direction);
-    					} else {
-    						// Have to switch directions if we want to keep going...
-    						// To switch direction we need a cross anchor node.
-    						TrieNode crossAnchorNode = childNode.getCrossAnchorNode();
-    						if (crossAnchorNode != null) {
-    							// switch directions
-    							Direction inverse = direction.inverse();
-    							if (inverse.nextIsInBounds(board, startX, startY)) {
-    								tempAllPlacements = generateAllPlacements(board, startX, startY,
-    										inverse.nextX(startX), inverse.nextY(startY), rack, placements,
-    										crossAnchorNode, inverse);
-    							}
-    						}
-    					}
-    					
-    					if (tempAllPlacements != null && tempAllPlacements.size() > 0) {
-        					if (allPlacements == null) {
-        						allPlacements = new ArrayList<LinkedList<TilePlacement>>(tempAllPlacements.size());
-        					}
-        					allPlacements.addAll(tempAllPlacements);
-    					}
-    					
-    					// remove any placements that were added
-    					while (placements.size() > currentNumberOfPlacements) {
-    						placements.removeLast();
-    					}
-    				} // childNode != null`
-    
-    				// If this is a blank tile, the move to the tile?
-    				if (toPlace.isBlankTile()) {
-    					if (toPlace.getLetter() < 'z') {
-    						// increment the letter
-    						BlankTile.setLetter(((BlankTile) toPlace), (char) (toPlace.getLetter() + 1));
-    						// Don't move to the next tile yet
-    						continue;
-    					}
-    				}
-    
-    				// add the tile back to the end of the Rack
-    				try {
-    					if (toPlace.isBlankTile()) {
-    						rack.add(new BlankTile());
-    					} else {
-    						rack.add(toPlace);
-    					}
-    				} catch (RackFullException e) {
-    					placements.clear();
-    					throw new RuntimeException("Not expecting RackFullException", e);
-    				}
-    				
-    				// move to the next tile
-    				i++;
-    				if (i >= rackCount) {
-    					break;
-    				}
-    				
-    				// get the next tile from the rack
-    				toPlace = rack.take();
-            		if (toPlace.isBlankTile()) {
-            			BlankTile.setLetter(((BlankTile) toPlace), 'a');
-            		}
-    				
-    			} // while (true)
+			// A placement that also covers an anchor past the start is generated from that anchor, so that every
+			// placement is generated from its last anchor only.
+			if ((x != startX || y != startY) && direction.isForward() && direction.hasNext(view, x, y)) {
+				rackCount = 0;
 			}
 			
-			// what about #? - at least one tile needs to have have been placed
-			if (currentNumberOfPlacements > 0) {
+			// The letters already tried on this square.  A rack can hold more than one of the same tile, but placing
+			// either of them leads to the same placements, so only the first is searched.
+			int tried = 0;
+			
+			// Cycle through the rack taking the first tile and adding it to the end until all tiles on the rack have
+			// been processed.
+			for (int i = 0; i < rackCount; i++) {
+				
+				Tile toPlace = rack.take();
+				int letterBit = (toPlace.isBlankTile() ? BLANK_BIT : 1 << (toPlace.getLetter() - 'a'));
+				
+				if (keepGoing && (tried & letterBit) == 0) {
+					tried |= letterBit;
+					if (toPlace.isBlankTile()) {
+						// A blank can only be a letter that the trie continues with, so rather than trying every
+						// letter, follow each child node.  The letter is only fixed on a new BlankTile once a
+						// placement is passed to the sink.
+						for (TrieNode childNode : node.getChildNodes()) {
+							if (!keepGoing) {
+								break;
+							}
+							if (childNode.isCrossAnchorNode()) {
+								continue;
+							}
+							keepGoing = placeTile(prepared, startX, startY, x, y, rack, placements, scorer, bound, query,
+									childNode, BLANKS[childNode.getLetter() - 'a'], direction, sink);
+						}
+					} else {
+						TrieNode childNode = node.getChildNode(toPlace.getLetter());
+						if (childNode != null) {
+							keepGoing = placeTile(prepared, startX, startY, x, y, rack, placements, scorer, bound, query,
+									childNode, toPlace, direction, sink);
+						}
+					}
+				}
+				
+				// add the tile back to the end of the Rack
+				try {
+					rack.add(toPlace);
+				} catch (RackFullException e) {
+					placements.clear();
+					throw new RuntimeException("Not expecting RackFullException", e);
+				}
+			}
+			
+			// what about #? - at least one tile needs to have have been placed, and this empty square ends the word
+			if (keepGoing && currentNumberOfPlacements > 0) {
 				TrieNode crossAnchorNode = node.getCrossAnchorNode();
-				if (crossAnchorNode != null && !direction.hasNext(board, x, y)) {
+				if (crossAnchorNode != null) {
 					// switch directions
 					Direction inverse = direction.inverse();
-					if (inverse.nextIsInBounds(board, startX, startY)) {
-						LinkedList<TilePlacement> tempPlacements = new LinkedList<TilePlacement>(placements);
-						List<LinkedList<TilePlacement>> tempAllPlacements =
-								generateAllPlacements(board,
-													  startX, startY,
-													  inverse.nextX(startX), inverse.nextY(startY),
-													  rack, tempPlacements,
-													  crossAnchorNode, inverse);
-						
-    					if (tempAllPlacements != null && tempAllPlacements.size() > 0) {
-        					if (allPlacements == null) {
-        						allPlacements = new ArrayList<LinkedList<TilePlacement>>(tempAllPlacements.size());
-        					}
-        					allPlacements.addAll(tempAllPlacements);
-    					}
+					if (inverse.nextIsInBounds(view, startX, startY)) {
+						keepGoing = generatePlacements(prepared, startX, startY, inverse.nextX(startX),
+								inverse.nextY(startY), rack, placements, scorer, bound, query, crossAnchorNode,
+								inverse, sink);
 					}
 				}
 			}
 			
 		} else {
 			// Does the tile at this location work?
-			if (node == null || tile == null) {
-				return Collections.emptyList();
+			if (node == null) {
+				return true;
 			}
 			TrieNode childNode = node.getChildNode(tile.getLetter());
 			if (childNode != null) {
 				
+				if (scorer != null) {
+					scorer.pushExisting(tile);
+				}
+				
 				// Is this the end of the word?
-				if (childNode.isTerminal() && !direction.hasNext(board, x, y)) {
+				if (childNode.isTerminal() && !direction.hasNext(view, x, y)) {
 					// Make sure that letters in front of the start position have been considered
-					if (direction == Direction.LEFT
-							|| direction == Direction.UP
-							|| ((direction == Direction.RIGHT || direction == Direction.DOWN) && !direction.inverse()
-									.hasNext(board, startX, startY))) {
-						
-						if (allPlacements == null) {
-    						allPlacements = new ArrayList<LinkedList<TilePlacement>>();
-    					}
-						LinkedList<TilePlacement> tempPlacements = new LinkedList<TilePlacement>(placements); // copy
-						allPlacements.add(tempPlacements);
+					if (!direction.isForward() || !direction.inverse().hasNext(view, startX, startY)) {
+						keepGoing = accept(board, placements, query, scorer, direction, sink);
 					}
 				}
 				
 				// continue down this path...
-				List<LinkedList<TilePlacement>> tempAllPlacements = null;
-				LinkedList<TilePlacement> tempPlacements = null;
-				if (direction.nextIsInBounds(board, x, y)) {
-					tempPlacements = new LinkedList<TilePlacement>(placements);
-					tempAllPlacements = generateAllPlacements(board,
-															  startX, startY,
-															  direction.nextX(x), direction.nextY(y),
-															  rack, tempPlacements, childNode, direction);
-				} else {
-					// Have to switch directions if we want to keep going...
-					// To switch direction we need a cross anchor node.
-					TrieNode crossAnchorNode = childNode.getCrossAnchorNode();
-					if (crossAnchorNode != null) {
-						// switch directions
-						Direction inverse = direction.inverse();
-						if (inverse.nextIsInBounds(board, startX, startY)) {
-							tempPlacements = new LinkedList<TilePlacement>(placements);
-							tempAllPlacements = generateAllPlacements(board,
-																	  startX, startY,
-																	  inverse.nextX(startX), inverse.nextY(startY),
-																	  rack, tempPlacements, crossAnchorNode, inverse);
+				if (keepGoing) {
+					if (direction.nextIsInBounds(view, x, y)) {
+						keepGoing = generatePlacements(prepared, startX, startY, direction.nextX(x), direction.nextY(y),
+								rack, placements, scorer, bound, query, childNode, direction, sink);
+					} else {
+						// Have to switch directions if we want to keep going...
+						// To switch direction we need a cross anchor node.
+						TrieNode crossAnchorNode = childNode.getCrossAnchorNode();
+						if (crossAnchorNode != null) {
+							// switch directions
+							Direction inverse = direction.inverse();
+							if (inverse.nextIsInBounds(view, startX, startY)) {
+								keepGoing = generatePlacements(prepared, startX, startY, inverse.nextX(startX),
+										inverse.nextY(startY), rack, placements, scorer, bound, query, crossAnchorNode,
+										inverse, sink);
+							}
 						}
 					}
 				}
 				
-				if (tempAllPlacements != null && tempAllPlacements.size() > 0) {
-					if (allPlacements == null) {
-						allPlacements = new ArrayList<LinkedList<TilePlacement>>(tempAllPlacements.size());
-					}
-					allPlacements.addAll(tempAllPlacements);
+				if (scorer != null) {
+					scorer.pop();
 				}
 			} // childNode != null
 		}
 		
-		return allPlacements;
+		return keepGoing;
+	}
+	
+	/**
+	 * Places a tile from the rack on the empty square at x, y, passes the placements to the sink if they complete a
+	 * word, then continues on to the next square.
+	 * 
+	 * @param childNode	The node for the letter of the tile being placed
+	 * @param toPlace	The tile being placed.  A blank tile is one of the shared {@link #BLANKS}.
+	 * 
+	 * @return	<code>true</code> to keep generating tile placements, <code>false</code> if the sink asked to stop.
+	 */
+	private boolean placeTile(final PreparedBoard prepared, final int startX, final int startY, final int x,
+			final int y, final Rack rack, final LinkedList<TilePlacement> placements, final PlacementScorer scorer,
+			final ScoreBound bound, final MoveQuery query, final TrieNode childNode, final Tile toPlace,
+			final Direction direction, final MoveSink sink) {
+		
+		if (!prepared.isValidCrossWord(x, y, toPlace, direction.isHorizontal())) {
+			return true;
+		}
+		
+		Board board = prepared.getBoard();
+		BoardView view = prepared.getView(direction);
+		boolean keepGoing = true;
+		
+		placements.add(new TilePlacement(x, y, toPlace));
+		if (scorer != null) {
+			scorer.push(x, y, toPlace);
+		}
+		
+		// Is this the end of the word?
+		if (childNode.isTerminal() && !direction.hasNext(view, x, y)) {
+			// Make sure that letters in front of the start position have been considered
+			if (!direction.isForward() || !direction.inverse().hasNext(view, startX, startY)) {
+				keepGoing = accept(board, placements, query, scorer, direction, sink);
+			}
+		}
+		
+		if (keepGoing) {
+			if (direction.nextIsInBounds(view, x, y)) {
+				keepGoing = generatePlacements(prepared, startX, startY, direction.nextX(x), direction.nextY(y), rack,
+						placements, scorer, bound, query, childNode, direction, sink);
+			} else {
+				// Have to switch directions if we want to keep going...
+				// To switch direction we need a cross anchor node.
+				TrieNode crossAnchorNode = childNode.getCrossAnchorNode();
+				if (crossAnchorNode != null) {
+					// switch directions
+					Direction inverse = direction.inverse();
+					if (inverse.nextIsInBounds(view, startX, startY)) {
+						keepGoing = generatePlacements(prepared, startX, startY, inverse.nextX(startX),
+								inverse.nextY(startY), rack, placements, scorer, bound, query, crossAnchorNode,
+								inverse, sink);
+					}
+				}
+			}
+		}
+		
+		// remove the placement that was added
+		if (scorer != null) {
+			scorer.pop();
+		}
+		placements.removeLast();
+		
+		return keepGoing;
+	}
+	
+	/**
+	 * Passes a completed list of tile placements to the sink.  A single tile forms a word in both directions, so when
+	 * it is placed on a square that is also a horizontal anchor it is only passed along by the horizontal search.
+	 * Placements that do not meet the query, if one is given, are not passed along; since the other search never
+	 * passes the single tile along, its word in either direction may meet the query.
+	 * 
+	 * @param scorer	The scorer that the word formed has been pushed onto, which is only read if a query is given
+	 * 
+	 * @return	<code>true</code> to keep generating tile placements, <code>false</code> if the sink asked to stop.
+	 */
+	private static boolean accept(final Board board, final LinkedList<TilePlacement> placements,
+			final MoveQuery query, final PlacementScorer scorer, final Direction direction, final MoveSink sink) {
+		
+		if (placements.size() == 1 && !direction.isHorizontal()) {
+			TilePlacement placement = placements.getFirst();
+			if (Direction.RIGHT.hasNext(board.getRowView(), placement.getX(), placement.getY())) {
+				return true;
+			}
+		}
+		
+		if (query != null && !query.matches(board, placements, scorer.getLength(), crossLength(placements, scorer))) {
+			return true;
+		}
+		return sink.accept(output(placements));
+	}
+	
+	/**
+	 * @return	The number of letters in the cross-word formed by the only tile placed, or 0 if more than one tile has
+	 * 			been placed, or the tile does not form a cross-word.
+	 */
+	private static int crossLength(final LinkedList<TilePlacement> placements, final PlacementScorer scorer) {
+		
+		if (placements.size() != 1) {
+			return 0;
+		}
+		TilePlacement placement = placements.getFirst();
+		return scorer.getCrossLength(placement.getX(), placement.getY());
 	}
 	
+	/**
+	 * The view of the placements that is passed to a sink.  The blank tiles placed during the traversal are shared,
+	 * so each one is replaced by a new BlankTile of the same letter, and only for the placements that reach a sink.
+	 */
+	private static List<TilePlacement> output(final LinkedList<TilePlacement> placements) {
+		
+		for (TilePlacement placement : placements) {
+			if (placement.getTile().isBlankTile()) {
+				List<TilePlacement> copy = new ArrayList<TilePlacement>(placements.size());
+				for (TilePlacement p : placements) {
+					Tile tile = p.getTile();
+					copy.add(tile.isBlankTile() ? new TilePlacement(p.getX(), p.getY(),
+							new BlankTile(tile.getLetter())) : p);
+				}
+				return Collections.unmodifiableList(copy);
+			}
+		}
+		return Collections.unmodifiableList(placements);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The search is a branch-and-bound search: before each branch is followed, an optimistic upper bound on the score
+	 * of any placement completed from it is calculated by a {@link ScoreBound}, and the branch is skipped if it
+	 * cannot beat the highest score found so far.  The anchors with the highest bounds, and the tiles with the highest
+	 * point values, are searched first so that a high score is found early.  The given rack is not modified.  If more
+	 * than one placement has the highest score, the one found first is returned.
+	 */
 	@Override
 	public List<TilePlacement> calculateHighestScorePlacement(final Board board, final Rack rack) {
-
+		return selectPlacement(board, rack, PlacementStrategy.highestScore());
+	}
+	
+	/**
+	 * Determines the highest score given the current Rack and Board, pruning the search with the given bound.
+	 * 
+	 * @param board		The board to use
+	 * @param rack		The rack to pull tiles from; it is not modified
+	 * @param bound		The bound to prune the search with; it must have been created for the same board and rack
+	 * 
+	 * @return		The highest scoring placement, or <code>null</code> if no tiles can be placed.
+	 */
+	protected List<TilePlacement> calculateHighestScorePlacement(final Board board, final Rack rack,
+			final ScoreBound bound) {
+		
+		return selectPlacement(prepare(board), rack, bound.getScorer(), null,
+				new PlacementStrategy.HighestScorePlacement(bound, null));
+	}
+	
+	/**
+	 * Determines the highest score given the current Rack and Board, stopping early if the budget is used up.  The
+	 * anchors, and the tiles on the rack, are searched in the same order as
+	 * {@link #calculateHighestScorePlacement(Board, Rack)}, best first, so that a high score tends to have been found
+	 * by the time the search is stopped.  The given rack is not modified.
+	 * <p>
+	 * The budget is checked at every branch of the search, and can be cancelled from another thread while the search
+	 * runs.
+	 * 
+	 * @param board		The board to use
+	 * @param rack		The rack to pull tiles from
+	 * @param budget	Limits how long the search may run for
+	 * 
+	 * @return	The highest scoring placement found, along with whether the whole search was finished.
+	 */
+	public SearchResult calculateHighestScorePlacement(final Board board, final Rack rack, final SearchBudget budget) {
+		
 		Validate.notNull(board, "Board cannot be null");
 		Validate.notNull(rack, "Rack cannot be null");
+		Validate.notNull(budget, "SearchBudget cannot be null");
 		if (rack.isEmpty()) {
 			throw new IllegalArgumentException("Rack cannot be empty");
 		}
 		
-		List<TilePlacement> maxPlacement = null;
-		int maxScore = 0;
-				
-		LinkedList<TilePlacement> placements = new LinkedList<TilePlacement>();
+		PreparedBoard prepared = prepare(board);
+		ScoreBound bound = new ScoreBound(new PlacementScorer(prepared.getScorer()), board, rack);
+		bound.setBudget(budget);
+		PlacementStrategy.HighestScorePlacement strategy = new PlacementStrategy.HighestScorePlacement(bound, null);
+		List<TilePlacement> placement = selectPlacement(prepared, rack, bound.getScorer(), null, strategy);
+		
+		return new SearchResult(placement, strategy.getScore(), !bound.isStopped());
+	}
+	
+	/**
+	 * Determines the highest score given the current Rack and Board, splitting the work across the given
+	 * {@link ForkJoinPool}.  Every anchor (an empty square next to an existing tile, along with the direction to place
+	 * tiles in) is searched as its own task using a private copy of the rack, so the given rack is not modified.  The
+	 * highest score found by any task is shared, so that every task can prune its search against it.
+	 * <p>
+	 * If more than one placement has the highest score, the one found first, in the order that the anchors are
+	 * searched, is returned.  The same placement is therefore returned no matter how many threads the pool has.
+	 * 
+	 * @param board		The board to use
+	 * @param rack		The rack to pull tiles from
+	 * @param pool		The pool to run the search in
+	 * 
+	 * @return		The highest scoring placement, or <code>null</code> if no tiles can be placed.
+	 */
+	public List<TilePlacement> calculateHighestScorePlacement(final Board board, final Rack rack,
+			final ForkJoinPool pool) {
+		
+		Validate.notNull(board, "Board cannot be null");
+		Validate.notNull(rack, "Rack cannot be null");
+		Validate.notNull(pool, "ForkJoinPool cannot be null");
+		if (rack.isEmpty()) {
+			throw new IllegalArgumentException("Rack cannot be empty");
+		}
+		
+		PreparedBoard prepared = prepare(board);
+		PlacementScorer scorer = new PlacementScorer(prepared.getScorer());
+		Rack searchRack = copyRackByPointValue(rack, scorer);
+		List<Anchor> anchors = orderAnchors(prepared, searchRack, new ScoreBound(scorer, board, searchRack));
+		if (anchors.isEmpty()) {
+			return null;
+		}
+		
+		ScoredPlacement max = pool.invoke(new HighestScoreTask(prepared, searchRack, new AtomicInteger(), anchors, 0,
+				anchors.size()));
+		
+		return (max == null ? null : max.placements);
+	}
+	
+	/**
+	 * Finds every anchor on the board, in the same order that the board is scanned by
+	 * {@link #generatePlacements(Board, Rack, MoveSink)}.  If the board is empty, the only anchor is the start
+	 * position.
+	 * <p>
+	 * The board keeps the anchors of each column up to date as tiles are placed, as masks of the empty squares with a
+	 * tile to the East, which anchor a placement to the right, and of those with a tile to the South, which anchor a
+	 * placement down.  Only the columns that hold an anchor are visited.
+	 * 
+	 * @param board		The board to scan
+	 * 
+	 * @return	The anchors found.
+	 */
+	protected List<Anchor> findAnchors(final Board board) {
+		
+		List<Anchor> anchors = new ArrayList<Anchor>();
 		
 		if (board.isEmpty()) {
-			
-			int x = board.getStartX();
-			int y = board.getStartY();
-			// go horizontal
-			maxScore = calculateHighestScorePlacement(board, x, y, x, y, rack, placements, trie.getRoot(),
-					Direction.RIGHT);
-			if (maxScore > 0) {
-				maxPlacement = placements;
-			}
-			
+			anchors.add(new Anchor(board.getStartX(), board.getStartY(), Direction.RIGHT));
 		} else {
-		
-			int width = board.getWidth();
-			int height = board.getHeight();
-			int score = 0;
 			
-			for (int x = 1; x <= width; x++) {
-				for (int y = 1; y <= height; y++) {
-					
-					// Is this an empty space?
-					if (board.get(x, y) == null) {
-						
-						// Is there a tile to the East?
-						if (x < width && board.get(x + 1, y) != null) {
-							// go horizontal
-							placements.clear();
-							score = calculateHighestScorePlacement(board, x, y, x, y, rack, placements, trie.getRoot(),
-									Direction.RIGHT);
-							if (score > maxScore) {
-								maxScore = score;
-								maxPlacement = new ArrayList<TilePlacement>(placements); // copy
-							}
-						}
-						
-						// Is there a tile to the South?
-						if (y < height && board.get(x, y + 1) != null) {
-							// go vertical
-							placements.clear();
-							score = calculateHighestScorePlacement(board, x, y, x, y, rack, placements, trie.getRoot(),
-									Direction.DOWN);
-							if (score > maxScore) {
-								maxScore = score;
-								maxPlacement = new ArrayList<TilePlacement>(placements); // copy
-							}
-						}
+			for (long columns = board.getAnchorColumnMask(); columns != 0; columns &= columns - 1) {
+				
+				int x = Long.numberOfTrailingZeros(columns) + 1;
+				long right = board.getHorizontalAnchorMask(x);
+				long down = board.getVerticalAnchorMask(x);
+				
+				// each square, from the top of the column down, that anchors a placement in either direction
+				for (long squares = right | down; squares != 0; squares &= squares - 1) {
+					long square = Long.lowestOneBit(squares);
+					int y = Long.numberOfTrailingZeros(square) + 1;
+					if ((right & square) != 0) {
+						anchors.add(new Anchor(x, y, Direction.RIGHT));
 					}
-					
-				} // ~for y
+					if ((down & square) != 0) {
+						anchors.add(new Anchor(x, y, Direction.DOWN));
+					}
+				}
 			} // ~for x
 		}
 		
-		return maxPlacement;
+		return anchors;
 	}
 	
-	protected int calculateHighestScorePlacement(final Board board, final int startX, final int startY, final int x,
-			final int y, final Rack rack, final LinkedList<TilePlacement> placements, final TrieNode node,
-			final Direction direction) {
+	/**
+	 * Copies the anchors of the prepared board and sorts them by the upper bound on the score of a placement made from
+	 * them, highest first.  Anchors with the same bound are kept in the order that the board is scanned.  The anchors
+	 * of the prepared board are left as they are, since they may be shared with other searches.
+	 * 
+	 * @param prepared	The board to use
+	 * @param rack		The rack to pull tiles from
+	 * @param bound		Calculates the upper bound for each anchor
+	 * 
+	 * @return	The anchors found, sorted.
+	 */
+	protected List<Anchor> orderAnchors(final PreparedBoard prepared, final Rack rack, final ScoreBound bound) {
 		
-		int maxScore = 0;
-		int tempScore = 0;
-		List<TilePlacement> maxPlacement = null;
+		List<Anchor> anchors = new ArrayList<Anchor>(prepared.getAnchors().size());
+		for (Anchor anchor : prepared.getAnchors()) {
+			anchors.add(new Anchor(anchor.x, anchor.y, anchor.direction));
+		}
+		PlacementScorer scorer = bound.getScorer();
+		for (Anchor anchor : anchors) {
+			boolean horizontal = (anchor.direction == Direction.RIGHT);
+			scorer.reset(horizontal);
+			bound.prepare(anchor.x, anchor.y, horizontal);
+			anchor.bound = bound.bound(rack, prepared.getRoot());
+		}
+		Collections.sort(anchors, new Comparator<Anchor>() {
+			@Override
+			public int compare(final Anchor a1, final Anchor a2) {
+				return (a1.bound > a2.bound ? -1 : (a1.bound < a2.bound ? 1 : 0));
+			}
+		});
+		return anchors;
+	}
+	
+	/**
+	 * Passes every list of tile placements made from the given anchor, and that is not pruned by the bound, to the
+	 * sink.  The scorer and bound are optional.
+	 * 
+	 * @return	<code>true</code> to keep searching, <code>false</code> if the sink asked to stop.
+	 */
+	private boolean search(final PreparedBoard prepared, final Anchor anchor, final Rack rack,
+			final PlacementScorer scorer, final ScoreBound bound, final MoveQuery query, final MoveSink sink) {
 		
-		// Is the current location empty?
-		Tile tile = board.get(x, y);
-		// check prerequisites
-		if (tile == null) {
-			
-			int currentNumberOfPlacements = placements.size();
-			int rackCount = rack.tileCount();
-			
-			if (rackCount > 0) {
-			    			
-    			// take the Tile at the beginning of the Rack
-    			Tile toPlace = rack.take();
-    			if (toPlace.isBlankTile()) {
-    				BlankTile.setLetter(((BlankTile) toPlace), 'a');
-    			}
-    			
-    			TrieNode childNode = null;
-    			// Cycle through the rack taking the first tile and adding it to the end until all tiles on the rack
-    			// have been processed.
-    			int i = 0;
-    			while (true) {
-    				
-    				childNode = node.getChildNode(toPlace.getLetter());
-    				
-    				if (childNode != null && validateCrossWordExists(board, x, y, toPlace, direction)) {
-    					
-    					if (toPlace.isBlankTile()) {
-    						// a copy must be placed as the tile placement since toPlace is being modified each iteration
-    						placements.add(new TilePlacement(x, y, new BlankTile(toPlace.getLetter())));
-    					} else {
-    						placements.add(new TilePlacement(x, y, toPlace));
-    					}
-    					
-    					// Is this the end of the word?
-    					if (childNode.isTerminal() && !direction.hasNext(board, x, y)) {
-    						// Make sure that letters in front of the start position have been considered
-    						if (direction == Direction.LEFT
-    								|| direction == Direction.UP
-    								|| ((direction == Direction.RIGHT || direction == Direction.DOWN) && !direction
-    										.inverse().hasNext(board, startX, startY))) {
-    							// score the current placement
-    							try {
-    								tempScore = board.score(placements, false);
-    								if ((tempScore > maxScore)
-    										|| (tempScore > 0 && tempScore == maxScore && RANDOM.nextBoolean())) {
-    									maxScore = tempScore;
-    									// copy placements to the max placement place holder
-    									if (maxPlacement == null) {
-    										maxPlacement = new ArrayList<TilePlacement>(placements);
-    									} else {
-    										maxPlacement.clear();
-    										maxPlacement.addAll(placements);
-    									}
-    								}
-    							} catch (IllegalTilePlacementException e) {
-    								logger.error("IllegalTilePlacementException during calculation.", e);
-    								logger.error("Board state: {}", board);
-    								logger.error("Tile placements: {}", placements);
-    								// continue
-    							}
-    						}
-    					}
-    					
-    					if (direction.nextIsInBounds(board, x, y)) {
-    						tempScore = calculateHighestScorePlacement(board, startX, startY, direction.nextX(x),
-    								direction.nextY(y), rack, placements, childNode, direction);
-    					} else {
-    						// Have to switch directions if we want to keep going...
-    						// To switch direction we need a cross anchor node.
-    						TrieNode crossAnchorNode = childNode.getCrossAnchorNode();
-    						if (crossAnchorNode != null) {
-    							// switch directions
-    							Direction inverse = direction.inverse();
-    							if (inverse.nextIsInBounds(board, startX, startY)) {
-    								tempScore = calculateHighestScorePlacement(board, startX, startY,
-    										inverse.nextX(startX), inverse.nextY(startY), rack, placements,
-    										crossAnchorNode, inverse);
-    							}
-    						}
-    					}
-    					
-    					if ((tempScore > maxScore) || (tempScore > 0 && tempScore == maxScore && RANDOM.nextBoolean())) {
-    						maxScore = tempScore;
-    						// copy placements to the max placement place holder
-    						if (maxPlacement == null) {
-    							maxPlacement = new ArrayList<TilePlacement>(placements);
-    						} else {
-    							maxPlacement.clear();
-    							maxPlacement.addAll(placements);
-    						}
-    					}
-    					
-    					// remove any placements that were added
-    					while (placements.size() > currentNumberOfPlacements) {
-    						placements.removeLast();
-    					}
-    				} // childNode != null`
-    
-    				// If this is a blank tile, the move to the tile?
-    				if (toPlace.isBlankTile()) {
-    					if (toPlace.getLetter() < 'z') {
-    						// increment the letter
-    						BlankTile.setLetter(((BlankTile) toPlace), (char) (toPlace.getLetter() + 1));
-    						// Don't move to the next tile yet
-    						continue;
-    					}
-    				}
-    
-    				// add the tile back to the end of the Rack
-    				try {
-    					if (toPlace.isBlankTile()) {
-    						rack.add(new BlankTile());
-    					} else {
-    						rack.add(toPlace);
-    					}
-    				} catch (RackFullException e) {
-    					placements.clear();
-    					throw new RuntimeException("Not expecting RackFullException", e);
-    				}
-    				
-    				// move to the next tile
-    				i++;
-    				if (i >= rackCount) {
-    					break;
-    				}
-    				
-    				// get the next tile from the rack
-    				toPlace = rack.take();
-            		if (toPlace.isBlankTile()) {
-            			BlankTile.setLetter(((BlankTile) toPlace), 'a');
-            		}
-    				
-    			} // while (true)
+		boolean horizontal = (anchor.direction == Direction.RIGHT);
+		if (scorer != null) {
+			scorer.reset(horizontal);
+		}
+		if (bound != null) {
+			bound.prepare(anchor.x, anchor.y, horizontal);
+		}
+		return generatePlacements(prepared, anchor.x, anchor.y, anchor.x, anchor.y, rack,
+				new LinkedList<TilePlacement>(), scorer, bound, query, prepared.getRoot(), anchor.direction, sink);
+	}
+	
+	/**
+	 * Creates a rack with the same tiles, in the same order, as the given rack.  Blank tiles are replaced with new
+	 * instances, so that the search does not hold on to the caller's blanks, whose letters can be changed.
+	 * 
+	 * @param rack	The rack to copy
+	 * 
+	 * @return	A copy of the rack
+	 */
+	protected static Rack copyRack(final Rack rack) {
+		
+		Rack copy = new Rack(rack.size());
+		try {
+			for (Tile tile : rack) {
+				copy.add(tile.isBlankTile() ? new BlankTile() : tile);
 			}
-			
-			// what about #? - at least one tile needs to have have been placed
-			if (currentNumberOfPlacements > 0) {
-				TrieNode crossAnchorNode = node.getCrossAnchorNode();
-				if (crossAnchorNode != null && !direction.hasNext(board, x, y)) {
-					// switch directions
-					Direction inverse = direction.inverse();
-					if (inverse.nextIsInBounds(board, startX, startY)) {
-						LinkedList<TilePlacement> tempPlacements = new LinkedList<TilePlacement>(placements);
-						tempScore = calculateHighestScorePlacement(board, startX, startY, inverse.nextX(startX),
-								inverse.nextY(startY), rack, tempPlacements, crossAnchorNode, inverse);
-						if ((tempScore > maxScore) || (tempScore > 0 && tempScore == maxScore && RANDOM.nextBoolean())) {
-							maxScore = tempScore;
-							// copy tempPlacements to the max placement place holder
-							if (maxPlacement == null) {
-								maxPlacement = new ArrayList<TilePlacement>(tempPlacements);
-							} else {
-								maxPlacement.clear();
-								maxPlacement.addAll(tempPlacements);
-							}
-						}
-					}
-				}
+		} catch (RackFullException e) {
+			throw new RuntimeException("Not expecting RackFullException", e);
+		}
+		return copy;
+	}
+	
+	/**
+	 * Creates a copy of the rack with the tiles that are worth the most points first, so that they are tried first
+	 * while searching.
+	 * 
+	 * @param rack		The rack to copy
+	 * @param scorer	The scorer whose point values are used
+	 * 
+	 * @return	A sorted copy of the rack
+	 */
+	protected static Rack copyRackByPointValue(final Rack rack, final PlacementScorer scorer) {
+		
+		List<Tile> tiles = new ArrayList<Tile>(rack.tileCount());
+		for (Tile tile : copyRack(rack)) {
+			tiles.add(tile);
+		}
+		Collections.sort(tiles, new Comparator<Tile>() {
+			@Override
+			public int compare(final Tile t1, final Tile t2) {
+				return scorer.getPointValue(t2) - scorer.getPointValue(t1);
 			}
-			
-		} else {
-			// Does the tile at this location work?
-			if (node == null || tile == null) {
-				return 0;
+		});
+		
+		Rack copy = new Rack(rack.size());
+		try {
+			for (Tile tile : tiles) {
+				copy.add(tile);
 			}
-			TrieNode childNode = node.getChildNode(tile.getLetter());
-			if (childNode != null) {
+		} catch (RackFullException e) {
+			throw new RuntimeException("Not expecting RackFullException", e);
+		}
+		return copy;
+	}
+	
+	/**
+	 * Searches a range of anchors for the highest scoring placement.  The range is split in half until each task
+	 * searches a single anchor, and the results are combined in anchor order so that the placement found first wins
+	 * a tie.
+	 * <p>
+	 * Each task only prunes the branches that cannot reach the highest score found by any task, rather than those
+	 * that can only tie it, so that the placement found first is the same no matter how the tasks are scheduled.
+	 * 
+	 * @author Matt Sidesinger
+	 */
+	private class HighestScoreTask extends RecursiveTask<ScoredPlacement> {
+		
+		private static final long serialVersionUID = 5170382346447093012L;
+		
+		private final PreparedBoard prepared;
+		private final Rack rack;
+		private final AtomicInteger minimum;
+		private final List<Anchor> anchors;
+		private final int from;
+		private final int to;
+		
+		/**
+		 * @param prepared	The board to use, which is shared by every task
+		 * @param rack		The rack to pull tiles from; it is copied before being searched
+		 * @param minimum	The highest score found by any task
+		 * @param anchors	All of the anchors on the board
+		 * @param from		The index of the first anchor to search, inclusive
+		 * @param to		The index of the last anchor to search, exclusive
+		 */
+		HighestScoreTask(final PreparedBoard prepared, final Rack rack, final AtomicInteger minimum,
+				final List<Anchor> anchors, final int from, final int to) {
+			
+			this.prepared = prepared;
+			this.rack = rack;
+			this.minimum = minimum;
+			this.anchors = anchors;
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		protected ScoredPlacement compute() {
+			
+			if (to - from == 1) {
 				
-				// Is this the end of the word?
-				if (childNode.isTerminal() && !direction.hasNext(board, x, y)) {
-					// Make sure that letters in front of the start position have been considered
-					if (direction == Direction.LEFT
-							|| direction == Direction.UP
-							|| ((direction == Direction.RIGHT || direction == Direction.DOWN) && !direction.inverse()
-									.hasNext(board, startX, startY))) {
-						// score the current placement
-						try {
-							maxScore = board.score(placements, false);
-							// copy placements to the max placement place holder
-							maxPlacement = new ArrayList<TilePlacement>(placements);
-						} catch (IllegalTilePlacementException e) {
-							logger.error("IllegalTilePlacementException during calculation.", e);
-							logger.error("Board state: {}", board);
-							logger.error("Tile placements: {}", placements);
-							// continue
-						}
-					}
-				}
+				Rack anchorRack = copyRack(rack);
+				PlacementScorer anchorScorer = new PlacementScorer(prepared.getScorer());
+				PlacementStrategy.HighestScorePlacement strategy =
+						new PlacementStrategy.HighestScorePlacement(null, minimum);
+				ScoreBound bound = strategy.start(prepared.getBoard(), anchorRack, anchorScorer);
 				
-				// continue down this path...
-				LinkedList<TilePlacement> tempPlacements = null;
-				if (direction.nextIsInBounds(board, x, y)) {
-					tempPlacements = new LinkedList<TilePlacement>(placements);
-					tempScore = calculateHighestScorePlacement(board, startX, startY, direction.nextX(x),
-							direction.nextY(y), rack, tempPlacements, childNode, direction);
-				} else {
-					// Have to switch directions if we want to keep going...
-					// To switch direction we need a cross anchor node.
-					TrieNode crossAnchorNode = childNode.getCrossAnchorNode();
-					if (crossAnchorNode != null) {
-						// switch directions
-						Direction inverse = direction.inverse();
-						if (inverse.nextIsInBounds(board, startX, startY)) {
-							tempPlacements = new LinkedList<TilePlacement>(placements);
-							tempScore = calculateHighestScorePlacement(board, startX, startY, inverse.nextX(startX),
-									inverse.nextY(startY), rack, tempPlacements, crossAnchorNode, inverse);
-						}
-					}
-				}
+				search(prepared, anchors.get(from), anchorRack, anchorScorer, bound, null, strategy);
 				
-				if ((tempScore > maxScore) || (tempScore > 0 && tempScore == maxScore && RANDOM.nextBoolean())) {
-					maxScore = tempScore;
-					// copy tempPlacements to the max placement place holder
-					if (maxPlacement == null) {
-						maxPlacement = new ArrayList<TilePlacement>(tempPlacements);
-					} else {
-						maxPlacement.clear();
-						maxPlacement.addAll(tempPlacements);
-					}
-				}
-			} // childNode != null
+				List<TilePlacement> placement = strategy.getPlacement();
+				return (placement != null ? new ScoredPlacement(strategy.getScore(), placement) : null);
+			}
+			
+			int middle = (from + to) >>> 1;
+			HighestScoreTask first = new HighestScoreTask(prepared, rack, minimum, anchors, from, middle);
+			HighestScoreTask last = new HighestScoreTask(prepared, rack, minimum, anchors, middle, to);
+			last.fork();
+			ScoredPlacement firstMax = first.compute();
+			ScoredPlacement lastMax = last.join();
+			
+			if (lastMax != null && (firstMax == null || lastMax.score > firstMax.score)) {
+				return lastMax;
+			}
+			return firstMax;
 		}
+	}
+	
+	/**
+	 * Searches a range of racks for their highest scoring placements, all on the same prepared board.  The range is
+	 * split in half until each task searches a single rack.
+	 * 
+	 * @author Matt Sidesinger
+	 */
+	private class RackTask extends RecursiveAction {
+		
+		private static final long serialVersionUID = -3012245412837702394L;
+		
+		private final PreparedBoard prepared;
+		private final List<Rack> racks;
+		private final List<List<TilePlacement>> placements;
+		private final int from;
+		private final int to;
 		
-		if (maxPlacement != null && maxPlacement.size() > 0) {
-			placements.clear();
-			placements.addAll(maxPlacement);
+		/**
+		 * @param prepared		The board to use, shared by every task
+		 * @param racks			All of the racks
+		 * @param placements	Receives the highest scoring placement for each rack, at the index of the rack
+		 * @param from			The index of the first rack to search, inclusive
+		 * @param to			The index of the last rack to search, exclusive
+		 */
+		RackTask(final PreparedBoard prepared, final List<Rack> racks, final List<List<TilePlacement>> placements,
+				final int from, final int to) {
+			
+			this.prepared = prepared;
+			this.racks = racks;
+			this.placements = placements;
+			this.from = from;
+			this.to = to;
 		}
 		
-		return maxScore;
+		@Override
+		protected void compute() {
+			
+			if (to - from == 1) {
+				placements.set(from, selectPlacement(prepared, racks.get(from), PlacementStrategy.highestScore()));
+				return;
+			}
+			
+			int middle = (from + to) >>> 1;
+			invokeAll(new RackTask(prepared, racks, placements, from, middle),
+					new RackTask(prepared, racks, placements, middle, to));
+		}
 	}
 	
 	/**
@@ -880,7 +1318,8 @@ public class GaddagAlgorithm implements ScrabbleAlgorithm {
 		boolean exists = false;
 		
 		Direction d = direction.perpendicular();
-		if (!d.hasNext(board, startX, startY) && !d.inverse().hasNext(board, startX, startY)) {
+		BoardView view = d.view(board);
+		if (!d.hasNext(view, startX, startY) && !d.inverse().hasNext(view, startX, startY)) {
 			exists = true;
 		} else {
 			
@@ -888,6 +1327,7 @@ public class GaddagAlgorithm implements ScrabbleAlgorithm {
 			TrieNode node = trie.getRoot();
 			int x = startX;
 			int y = startY;
+			boolean inverted = false;
 			
 			while (tile != null) {
 				
@@ -897,20 +1337,25 @@ public class GaddagAlgorithm implements ScrabbleAlgorithm {
 					break;
 				}
 				
-				if (d.hasNext(board, x, y)) {
+				if (d.hasNext(view, x, y)) {
 					x = d.nextX(x);
 					y = d.nextY(y);
-					tile = board.get(x, y);
+					tile = view.getTileAt(x, y);
 				} else {
 					
+					// the word ends once both directions have been followed
+					if (inverted) {
+						break;
+					}
 					d = d.inverse();
-					if (!d.hasNext(board, startX, startY)) {
+					inverted = true;
+					if (!d.hasNext(view, startX, startY)) {
 						break;
 					}
 					
 					x = d.nextX(startX);
 					y = d.nextY(startY);
-					tile = board.get(x, y);
+					tile = view.getTileAt(x, y);
 					
 					if (tile != null) {
 						// must consume a cross anchor node
@@ -938,5 +1383,6 @@ public class GaddagAlgorithm implements ScrabbleAlgorithm {
 	protected void setTrie(final Trie trie) {
 
 		this.trie = trie;
+		this.bingoFinder = new BingoFinder(trie);
 	}
 }
@@ -0,0 +1,510 @@
+package com.wordswithcheats.algorithm.gaddag;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang.Validate;
+
+import com.wordswithcheats.algorithm.MoveSink;
+import com.wordswithcheats.algorithm.gaddag.GaddagAlgorithm.Direction;
+import com.wordswithcheats.board.Board;
+import com.wordswithcheats.board.Rack;
+import com.wordswithcheats.board.Tile;
+import com.wordswithcheats.board.TilePlacement;
+import com.wordswithcheats.board.multiplier.Multiplier;
+import com.wordswithcheats.board.multiplier.BoardLayout;
+
+/**
+ * Constraints that every placement passed along by
+ * {@link GaddagAlgorithm#generatePlacements(Board, Rack, MoveQuery, MoveSink)} must meet.  Rather than filtering the
+ * placements once they are found, the constraints are checked while the board is traversed: anchors that cannot lead
+ * to a placement that meets them are not searched, and branches are pruned as soon as they can no longer meet them.
+ * <p>
+ * Every constraint is optional, and a placement must meet all of the constraints that are set:
+ * <ul>
+ * 	<li>{@link #requireTile(Tile)}: the tile must be one of the tiles placed.  A blank tile matches any blank tile,
+ * 		whatever letter it is played as.</li>
+ * 	<li>{@link #requireSquare(int, int)}: a tile must be placed on the square.</li>
+ * 	<li>{@link #requirePremium(Multiplier)}: a tile must be placed on a square with an equal multiplier.</li>
+ * 	<li>{@link #setMinLength(int)} and {@link #setMaxLength(int)}: the length of the word formed in the direction
+ * 		that the tiles are placed in, including the existing tiles that are part of it.  A single tile forms a word
+ * 		in both directions, and meets the length if either of them does.</li>
+ * 	<li>{@link #allowAnchor(int, int)}: only the given anchors are searched.  Each placement is searched from the
+ * 		last anchor that it covers, reading left to right or top to bottom.</li>
+ * </ul>
+ * A query is not modified by a search, so once built it can be used by any number of searches.
+ *
+ * @author Matt Sidesinger
+ */
+public class MoveQuery {
+
+	// the number of each tile required, indexed by kind(Tile), and the kinds with at least one required as bits
+	private final int[] requiredTiles = new int[BLANK_KIND + 1];
+	private int requiredKinds = 0;
+	private final List<int[]> requiredSquares = new ArrayList<int[]>();
+	private final List<Multiplier> requiredPremiums = new ArrayList<Multiplier>();
+	private List<int[]> allowedAnchors;
+	private int minLength = 0;
+	private int maxLength = Integer.MAX_VALUE;
+
+	// the kind of every blank tile, after those of the letters 'a' to 'z'
+	private static final int BLANK_KIND = 26;
+
+	/**
+	 * Requires the tile to be placed.  Calling this more than once for the same tile requires that many of them.
+	 *
+	 * @param tile	The tile that must be placed
+	 *
+	 * @return	this MoveQuery instance
+	 */
+	public MoveQuery requireTile(final Tile tile) {
+
+		Validate.notNull(tile, "Tile cannot be null");
+		Validate.isTrue(tile.isBlankTile() || (tile.getLetter() >= 'a' && tile.getLetter() <= 'z'),
+				"the tile must be a letter a-z or a blank");
+		requiredTiles[kind(tile)]++;
+		requiredKinds |= 1 << kind(tile);
+		return this;
+	}
+
+	/**
+	 * Requires a tile to be placed on the square.
+	 *
+	 * @param x	The x coordinate
+	 * @param y	The y coordinate
+	 *
+	 * @return	this MoveQuery instance
+	 */
+	public MoveQuery requireSquare(final int x, final int y) {
+
+		Validate.isTrue(x > 0, "x coordinate must be greater than 0");
+		Validate.isTrue(y > 0, "y coordinate must be greater than 0");
+		requiredSquares.add(new int[] { x, y });
+		return this;
+	}
+
+	/**
+	 * Requires a tile to be placed on a square with an equal multiplier.  Calling this more than once for the same
+	 * multiplier requires that many squares with it.
+	 *
+	 * @param multiplier	The multiplier, for example <code>WordMultiplier.instance(3)</code>
+	 *
+	 * @return	this MoveQuery instance
+	 */
+	public MoveQuery requirePremium(final Multiplier multiplier) {
+
+		Validate.notNull(multiplier, "Multiplier cannot be null");
+		requiredPremiums.add(multiplier);
+		return this;
+	}
+
+	/**
+	 * Adds the square to the anchors that are searched.  Until this is called, every anchor is searched.
+	 *
+	 * @param x	The x coordinate
+	 * @param y	The y coordinate
+	 *
+	 * @return	this MoveQuery instance
+	 */
+	public MoveQuery allowAnchor(final int x, final int y) {
+
+		Validate.isTrue(x > 0, "x coordinate must be greater than 0");
+		Validate.isTrue(y > 0, "y coordinate must be greater than 0");
+		if (allowedAnchors == null) {
+			allowedAnchors = new ArrayList<int[]>();
+		}
+		allowedAnchors.add(new int[] { x, y });
+		return this;
+	}
+
+	/**
+	 * @param minLength	The fewest letters that the word formed may have
+	 *
+	 * @return	this MoveQuery instance
+	 */
+	public MoveQuery setMinLength(final int minLength) {
+
+		Validate.isTrue(minLength >= 0, "minLength cannot be negative");
+		this.minLength = minLength;
+		return this;
+	}
+
+	/**
+	 * @param maxLength	The most letters that the word formed may have
+	 *
+	 * @return	this MoveQuery instance
+	 */
+	public MoveQuery setMaxLength(final int maxLength) {
+
+		Validate.isTrue(maxLength > 0, "maxLength must be greater than 0");
+		this.maxLength = maxLength;
+		return this;
+	}
+
+	public int getMinLength() {
+		return minLength;
+	}
+
+	public int getMaxLength() {
+		return maxLength;
+	}
+
+	/**
+	 * Determines whether any placement searched from the anchor could meet the query: the anchor must be allowed, the
+	 * rack must hold the required tiles, and the required squares and premiums must be empty squares on the anchor's
+	 * row or column that can be reached with the tiles on the rack.
+	 */
+	boolean allows(final Board board, final Rack rack, final int x, final int y, final boolean horizontal) {
+
+		if (allowedAnchors != null && !contains(allowedAnchors, x, y)) {
+			return false;
+		}
+
+		if (requiredKinds != 0 && unmatchedTiles(rack) > 0) {
+			return false;
+		}
+
+		int reach = rack.tileCount() - 1;
+		for (int[] square : requiredSquares) {
+			if ((horizontal ? square[1] != y : square[0] != x) || !isInReach(board, x, y, square[0], square[1], reach)) {
+				return false;
+			}
+		}
+
+		BoardLayout layout = board.getLayout();
+		for (Multiplier premium : requiredPremiums) {
+			if (!hasPremiumInReach(board, layout, premium, x, y, horizontal, reach)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Determines whether the branch of the search at the empty square x, y can be skipped, because no placement
+	 * completed from it can meet the query.  It is checked at every empty square that the search visits, so it
+	 * allocates nothing.
+	 *
+	 * @param node			The node that the next tile will be placed below
+	 * @param placements	The tiles placed so far
+	 * @param length		The number of letters in the word so far, as counted by the {@link PlacementScorer}
+	 * @param crossLength	The number of letters in the cross-word formed by the only tile placed so far, or 0
+	 */
+	boolean prune(final Board board, final int startX, final int startY, final int x, final int y,
+			final Direction direction, final Rack rack, final TrieNode node, final List<TilePlacement> placements,
+			final int length, final int crossLength) {
+
+		// every way on from an empty square adds at least one more letter to the word, unless it ends the word here
+		// with a single tile whose cross-word meets the length
+		if ((length >= maxLength || length + node.getHeight() < minLength) && !isLength(crossLength)) {
+			return true;
+		}
+
+		if (requiredKinds != 0 && unmatchedTiles(placements) > node.getHeight()) {
+			return true;
+		}
+
+		boolean horizontal = direction.isHorizontal();
+		boolean forward = direction.isForward();
+		int position = (horizontal ? x : y);
+		int start = (horizontal ? startX : startY);
+
+		if (!requiredSquares.isEmpty()) {
+
+			// the furthest uncovered squares in front of the current square, and behind the start
+			int ahead = 0;
+			int behind = Integer.MAX_VALUE;
+			for (int[] square : requiredSquares) {
+				if (isPlaced(placements, square[0], square[1])) {
+					continue;
+				}
+				int p = (horizontal ? square[0] : square[1]);
+				if (forward) {
+					if (p >= position) {
+						ahead = Math.max(ahead, p);
+					} else if (p < start) {
+						behind = Math.min(behind, p);
+					} else {
+						// passed without placing a tile on it
+						return true;
+					}
+				} else {
+					if (p > position) {
+						return true;
+					}
+					behind = Math.min(behind, p);
+				}
+			}
+
+			int needed = 0;
+			if (forward) {
+				if (ahead > 0) {
+					needed += countEmpty(board, horizontal, x, y, position, ahead);
+				}
+				if (behind < Integer.MAX_VALUE) {
+					needed += countEmpty(board, horizontal, x, y, behind, start - 1);
+				}
+			} else if (behind < Integer.MAX_VALUE) {
+				needed += countEmpty(board, horizontal, x, y, behind, position);
+			}
+			if (needed > rack.tileCount()) {
+				return true;
+			}
+		}
+
+		if (!requiredPremiums.isEmpty()) {
+
+			// each premium still to be covered must be on an empty square that can be reached ahead of the current
+			// square, or behind the start, with the tiles left on the rack and the letters left below the node
+			BoardLayout layout = board.getLayout();
+			int tiles = Math.min(rack.tileCount(), node.getHeight());
+			for (int i = 0; i < requiredPremiums.size(); i++) {
+				Multiplier premium = requiredPremiums.get(i);
+				if (indexOf(requiredPremiums, premium) < i) {
+					// already counted
+					continue;
+				}
+				int wanted = count(requiredPremiums, premium) - countPlaced(layout, placements, premium);
+				if (wanted <= 0) {
+					continue;
+				}
+				if (forward) {
+					wanted -= countInReach(board, layout, premium, horizontal, x, y, position, 1, tiles, wanted);
+					if (wanted > 0 && start > 1) {
+						wanted -= countInReach(board, layout, premium, horizontal, x, y, start - 1, -1, tiles, wanted);
+					}
+				} else {
+					wanted -= countInReach(board, layout, premium, horizontal, x, y, position, -1, tiles, wanted);
+				}
+				if (wanted > 0) {
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Determines whether a completed placement meets the query.
+	 *
+	 * @param length		The number of letters in the word formed
+	 * @param crossLength	The number of letters in the cross-word formed by a single tile, or 0
+	 */
+	boolean matches(final Board board, final List<TilePlacement> placements, final int length,
+			final int crossLength) {
+
+		if (!isLength(length) && !isLength(crossLength)) {
+			return false;
+		}
+
+		if (requiredKinds != 0 && unmatchedTiles(placements) > 0) {
+			return false;
+		}
+
+		for (int[] square : requiredSquares) {
+			if (!isPlaced(placements, square[0], square[1])) {
+				return false;
+			}
+		}
+
+		if (!requiredPremiums.isEmpty()) {
+			BoardLayout layout = board.getLayout();
+			for (int i = 0; i < requiredPremiums.size(); i++) {
+				Multiplier premium = requiredPremiums.get(i);
+				if (indexOf(requiredPremiums, premium) < i) {
+					// already counted
+					continue;
+				}
+				if (countPlaced(layout, placements, premium) < count(requiredPremiums, premium)) {
+					return false;
+				}
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return	<code>true</code> if a word of the length, which is 0 for no word at all, meets the min and max length.
+	 */
+	private boolean isLength(final int length) {
+		return (length > 0 && length >= minLength && length <= maxLength);
+	}
+
+	/**
+	 * @return	The number of required tiles that have not been placed.
+	 */
+	private int unmatchedTiles(final List<TilePlacement> placements) {
+
+		int unmatched = 0;
+		for (int kinds = requiredKinds; kinds != 0; kinds &= kinds - 1) {
+			int kind = Integer.numberOfTrailingZeros(kinds);
+			int wanted = requiredTiles[kind];
+			for (TilePlacement placement : placements) {
+				if (kind(placement.getTile()) == kind) {
+					wanted--;
+				}
+			}
+			unmatched += Math.max(0, wanted);
+		}
+		return unmatched;
+	}
+
+	/**
+	 * @return	The number of required tiles that are not on the rack.
+	 */
+	private int unmatchedTiles(final Rack rack) {
+
+		int unmatched = 0;
+		for (int kinds = requiredKinds; kinds != 0; kinds &= kinds - 1) {
+			int kind = Integer.numberOfTrailingZeros(kinds);
+			int wanted = requiredTiles[kind];
+			for (Tile tile : rack) {
+				if (kind(tile) == kind) {
+					wanted--;
+				}
+			}
+			unmatched += Math.max(0, wanted);
+		}
+		return unmatched;
+	}
+
+	/**
+	 * @return	The index of the letter of the tile, or {@link #BLANK_KIND} for any blank, whatever its letter.
+	 */
+	private static int kind(final Tile tile) {
+		return (tile.isBlankTile() ? BLANK_KIND : tile.getLetter() - 'a');
+	}
+
+	private static boolean isPlaced(final List<TilePlacement> placements, final int x, final int y) {
+
+		for (TilePlacement placement : placements) {
+			if (placement.getX() == x && placement.getY() == y) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean contains(final List<int[]> squares, final int x, final int y) {
+
+		for (int[] square : squares) {
+			if (square[0] == x && square[1] == y) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static int indexOf(final List<Multiplier> multipliers, final Multiplier multiplier) {
+
+		for (int i = 0; i < multipliers.size(); i++) {
+			if (multipliers.get(i).equals(multiplier)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static int count(final List<Multiplier> multipliers, final Multiplier multiplier) {
+
+		int count = 0;
+		for (Multiplier m : multipliers) {
+			if (m.equals(multiplier)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * @return	The number of tiles placed on a square with the multiplier.
+	 */
+	private static int countPlaced(final BoardLayout layout, final List<TilePlacement> placements,
+			final Multiplier multiplier) {
+
+		int placed = 0;
+		for (int i = 0; i < placements.size(); i++) {
+			TilePlacement placement = placements.get(i);
+			if (multiplier.equals(layout.getMultiplier(placement.getX(), placement.getY()))) {
+				placed++;
+			}
+		}
+		return placed;
+	}
+
+	/**
+	 * Counts the empty squares with the multiplier along the row or column through x, y, from a position onwards in
+	 * the given step, that can be reached by placing no more than <code>reach</code> tiles.  The squares must not hold
+	 * any of the tiles placed so far.
+	 *
+	 * @param wanted	The count to stop at
+	 */
+	private static int countInReach(final Board board, final BoardLayout layout, final Multiplier multiplier,
+			final boolean horizontal, final int x, final int y, final int from, final int step, final int reach,
+			final int wanted) {
+
+		int length = (horizontal ? board.getWidth() : board.getHeight());
+		int found = 0;
+		int empty = 0;
+		for (int p = from; p >= 1 && p <= length && found < wanted; p += step) {
+			int squareX = (horizontal ? p : x);
+			int squareY = (horizontal ? y : p);
+			if (board.hasTileAt(squareX, squareY)) {
+				continue;
+			}
+			if (++empty > reach) {
+				break;
+			}
+			if (multiplier.equals(layout.getMultiplier(squareX, squareY))) {
+				found++;
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Counts the empty squares from one position to another, inclusive, along the row or column through x, y.
+	 */
+	private static int countEmpty(final Board board, final boolean horizontal, final int x, final int y,
+			final int from, final int to) {
+
+		long line = (horizontal ? board.getRowMask(y) : board.getColumnMask(x));
+		long squares = (-1L >>> (Long.SIZE - (to - from + 1))) << (from - 1);
+		return Long.bitCount(squares & ~line);
+	}
+
+	/**
+	 * Determines whether the square is empty and no more than <code>reach</code> empty squares away from the anchor,
+	 * which is on the same row or column.
+	 */
+	private static boolean isInReach(final Board board, final int x, final int y, final int squareX,
+			final int squareY, final int reach) {
+
+		if (squareX > board.getWidth() || squareY > board.getHeight() || board.get(squareX, squareY) != null) {
+			return false;
+		}
+		boolean horizontal = (squareY == y);
+		int position = (horizontal ? x : y);
+		int p = (horizontal ? squareX : squareY);
+		int between = countEmpty(board, horizontal, x, y, Math.min(position, p), Math.max(position, p)) - 1;
+		return between <= reach;
+	}
+
+	private static boolean hasPremiumInReach(final Board board, final BoardLayout layout,
+			final Multiplier premium, final int x, final int y, final boolean horizontal, final int reach) {
+
+		int length = (horizontal ? board.getWidth() : board.getHeight());
+		for (int p = 1; p <= length; p++) {
+			int squareX = (horizontal ? p : x);
+			int squareY = (horizontal ? y : p);
+			if (premium.equals(layout.getMultiplier(squareX, squareY))
+					&& isInReach(board, x, y, squareX, squareY, reach)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,69 @@
+package com.wordswithcheats.algorithm.gaddag;
+
+import java.util.List;
+
+import com.wordswithcheats.algorithm.Move;
+import com.wordswithcheats.board.Board;
+import com.wordswithcheats.board.Rack;
+import com.wordswithcheats.board.TilePlacement;
+
+/**
+ * A move on the Pareto front found by {@link GaddagAlgorithm#paretoFront(Board, Rack)}, along with the two other
+ * measures that it was compared on: the number of tiles it keeps on the rack, and the length of the word it forms.
+ *
+ * @author Matt Sidesinger
+ */
+public class ParetoMove extends Move {
+
+	private final int tilesKept;
+	private final int wordLength;
+
+	/**
+	 * @param placements	The tile placements that make up the move; they are copied
+	 * @param score			The score that the tile placements earn
+	 * @param tilesKept		The number of tiles left on the rack once the move is played
+	 * @param wordLength	The length of the word formed in the direction that the tiles are placed in, including the
+	 * 						existing tiles that are part of it
+	 */
+	public ParetoMove(final List<TilePlacement> placements, final int score, final int tilesKept,
+			final int wordLength) {
+
+		super(placements, score);
+		this.tilesKept = tilesKept;
+		this.wordLength = wordLength;
+	}
+
+	/**
+	 * @return	The number of tiles left on the rack once the move is played.
+	 */
+	public int getTilesKept() {
+		return tilesKept;
+	}
+
+	/**
+	 * @return	The length of the word formed in the direction that the tiles are placed in.
+	 */
+	public int getWordLength() {
+		return wordLength;
+	}
+
+	/**
+	 * Determines whether a move with the given measures would be no better than this one on any of them, so that it
+	 * is either dominated by this move or tied with it.
+	 *
+	 * @param score			The score, or an upper bound on it
+	 * @param tilesKept		The number of tiles kept, or an upper bound on it
+	 * @param wordLength	The length of the word, or an upper bound on it
+	 */
+	boolean covers(final int score, final int tilesKept, final int wordLength) {
+		return (getScore() >= score && this.tilesKept >= tilesKept && this.wordLength >= wordLength);
+	}
+
+	/**
+	 * Display the object as a string in the following format: score/kept/length=[placement, ...]
+	 */
+	@Override
+	public String toString() {
+		return getScore() + "/" + tilesKept + "/" + wordLength + "=" + getPlacements();
+	}
+}
@@ -0,0 +1,370 @@
+package com.wordswithcheats.algorithm.gaddag;
+
+import java.util.List;
+
+import org.apache.commons.lang.Validate;
+
+import com.wordswithcheats.board.Board;
+import com.wordswithcheats.board.Tile;
+import com.wordswithcheats.board.multiplier.BoardLayout;
+
+/**
+ * Keeps a running score of the tiles that make up a word while the {@link GaddagAlgorithm} traverses a {@link Board},
+ * so that a finished placement can be scored without calling {@link Board#score(List, boolean)}.
+ * <p>
+ * The premium of every square and the points of the existing tiles that make up the cross-word through every square
+ * are looked up once, when the scorer is created.  During the traversal, each tile that is placed or passed over is
+ * pushed onto the scorer and popped when the traversal backs out again.  {@link #score()} then follows the same rules
+ * as {@link Board#score(List, boolean)}, including scoring a single placed tile by its horizontal word first.
+ * <p>
+ * The point values of the tiles are also taken once, when the scorer is created, by {@link Tile#getPointValues()}, so
+ * that a search is scored by the same point values from start to finish even if {@link Tile#setPointValue(char, int)}
+ * is called while it runs.
+ * <p>
+ * A PlacementScorer is not thread-safe, but the lookups can be shared with a new scorer for each thread by using the
+ * {@link #PlacementScorer(PlacementScorer)} constructor.
+ *
+ * @author Matt Sidesinger
+ */
+public class PlacementScorer {
+
+	// marks a square that does not have any existing tiles adjacent to it in the perpendicular direction
+	private static final int NO_CROSS_WORD = -1;
+
+	private int width;
+	private int bingoTileCount;
+	private int bingoScore;
+
+	// the point value of each letter, indexed by the letter - 'a'
+	private int[] points;
+
+	// indexed by (y - 1) * width + (x - 1)
+	private int[] letterMultipliers;
+	private int[] wordMultipliers;
+	private int[] horizontalCrossPoints;
+	private int[] verticalCrossPoints;
+	// the number of letters in the cross-word formed by a tile placed on the square, or 0 if it does not form one
+	private int[] horizontalCrossLengths;
+	private int[] verticalCrossLengths;
+
+	// the state of the word currently being traversed
+	private boolean horizontal;
+	private int length;
+	private int wordPoints;
+	private int wordMultiplier = 1;
+	private int crossPoints;
+	private int tilesPlaced;
+
+	// the state saved by each push, restored by each pop
+	private int[] wordPointsStack;
+	private int[] wordMultiplierStack;
+	private int[] crossPointsStack;
+	private int[] tilesPlacedStack;
+
+	/**
+	 * Creates a scorer for the current state of the given board.  Any tiles placed on the board afterwards will not
+	 * be taken into account.
+	 *
+	 * @param board		The board whose tiles, multipliers and bingo settings are used to score.
+	 */
+	public PlacementScorer(final Board board) {
+
+		Validate.notNull(board, "Board cannot be null");
+
+		this.width = board.getWidth();
+		int height = board.getHeight();
+		this.bingoTileCount = board.getBingoTileCount();
+		this.bingoScore = board.getBingoScore();
+		this.points = Tile.getPointValues();
+
+		int squares = width * height;
+		this.letterMultipliers = new int[squares];
+		this.wordMultipliers = new int[squares];
+		this.horizontalCrossPoints = new int[squares];
+		this.verticalCrossPoints = new int[squares];
+		this.horizontalCrossLengths = new int[squares];
+		this.verticalCrossLengths = new int[squares];
+
+		BoardLayout layout = board.getLayout();
+		for (int y = 1; y <= height; y++) {
+			for (int x = 1; x <= width; x++) {
+
+				int i = index(x, y);
+				letterMultipliers[i] = 1;
+				wordMultipliers[i] = 1;
+				horizontalCrossPoints[i] = NO_CROSS_WORD;
+				verticalCrossPoints[i] = NO_CROSS_WORD;
+
+				if (board.hasTileAt(x, y)) {
+					// only empty squares can have a tile placed on them
+					continue;
+				}
+
+				letterMultipliers[i] = layout.getLetterMultiplier(x, y);
+				wordMultipliers[i] = layout.getWordMultiplier(x, y);
+
+				horizontalCrossPoints[i] = crossPoints(board, points, x, y, 1, 0);
+				verticalCrossPoints[i] = crossPoints(board, points, x, y, 0, 1);
+
+				horizontalCrossLengths[i] = crossLength(board, x, y, 1, 0);
+				verticalCrossLengths[i] = crossLength(board, x, y, 0, 1);
+			}
+		}
+
+		initStacks(Math.max(width, height));
+	}
+
+	/**
+	 * Creates a scorer that shares the premiums and cross-word points looked up by the given scorer, but keeps its
+	 * own running score.  This allows a board to be scored by more than one thread at a time.
+	 *
+	 * @param scorer	The scorer to share the board's premiums and cross-word points with.
+	 */
+	public PlacementScorer(final PlacementScorer scorer) {
+
+		Validate.notNull(scorer, "PlacementScorer cannot be null");
+
+		this.width = scorer.width;
+		this.bingoTileCount = scorer.bingoTileCount;
+		this.bingoScore = scorer.bingoScore;
+		this.points = scorer.points;
+		this.letterMultipliers = scorer.letterMultipliers;
+		this.wordMultipliers = scorer.wordMultipliers;
+		this.horizontalCrossPoints = scorer.horizontalCrossPoints;
+		this.verticalCrossPoints = scorer.verticalCrossPoints;
+		this.horizontalCrossLengths = scorer.horizontalCrossLengths;
+		this.verticalCrossLengths = scorer.verticalCrossLengths;
+
+		initStacks(scorer.wordPointsStack.length);
+	}
+
+	private void initStacks(final int maxLength) {
+
+		this.wordPointsStack = new int[maxLength];
+		this.wordMultiplierStack = new int[maxLength];
+		this.crossPointsStack = new int[maxLength];
+		this.tilesPlacedStack = new int[maxLength];
+	}
+
+	/**
+	 * Sums the points of the existing tiles that are contiguous to the given square in the given direction and its
+	 * inverse.
+	 *
+	 * @return	The sum of the points, or {@value #NO_CROSS_WORD} if the square does not have an adjacent tile in
+	 * 			either direction.
+	 */
+	private static int crossPoints(final Board board, final int[] points, final int x, final int y, final int xInc,
+			final int yInc) {
+
+		int sum = 0;
+		boolean found = false;
+
+		Tile tile = null;
+
+		// go west/north, then east/south, until an empty square or the border around the board
+		for (int i = x - xInc, j = y - yInc; (tile = board.getTileAt(i, j)) != null; i -= xInc, j -= yInc) {
+			sum += pointValue(points, tile);
+			found = true;
+		}
+		for (int i = x + xInc, j = y + yInc; (tile = board.getTileAt(i, j)) != null; i += xInc, j += yInc) {
+			sum += pointValue(points, tile);
+			found = true;
+		}
+
+		return found ? sum : NO_CROSS_WORD;
+	}
+
+	/**
+	 * Counts the existing tiles that are contiguous to the given square in the given direction and its inverse.
+	 *
+	 * @return	The number of letters in the word formed by a tile placed on the square, or 0 if the square does not
+	 * 			have an adjacent tile in either direction.
+	 */
+	private static int crossLength(final Board board, final int x, final int y, final int xInc, final int yInc) {
+
+		int length = 1;
+		for (int i = x - xInc, j = y - yInc; board.getTileAt(i, j) != null; i -= xInc, j -= yInc) {
+			length++;
+		}
+		for (int i = x + xInc, j = y + yInc; board.getTileAt(i, j) != null; i += xInc, j += yInc) {
+			length++;
+		}
+		return (length > 1 ? length : 0);
+	}
+
+	private static int pointValue(final int[] points, final Tile tile) {
+		return (tile.isBlankTile() ? 0 : points[tile.getLetter() - 'a']);
+	}
+
+	/**
+	 * @return	The point value of the tile, as taken when the scorer was created.
+	 */
+	int getPointValue(final Tile tile) {
+		return pointValue(points, tile);
+	}
+
+	/**
+	 * Clears the current word and sets the direction that the following tiles will be pushed in.
+	 *
+	 * @param horizontal	<code>true</code> if the word being traversed is horizontal, <code>false</code> if it is
+	 * 						vertical.
+	 */
+	public void reset(final boolean horizontal) {
+
+		this.horizontal = horizontal;
+		this.length = 0;
+		this.wordPoints = 0;
+		this.wordMultiplier = 1;
+		this.crossPoints = 0;
+		this.tilesPlaced = 0;
+	}
+
+	/**
+	 * Adds a tile that is being placed at the given, empty, square to the current word.
+	 *
+	 * @param x		The x coordinate of the square
+	 * @param y		The y coordinate of the square
+	 * @param tile	The tile being placed
+	 */
+	public void push(final int x, final int y, final Tile tile) {
+
+		save();
+
+		int i = index(x, y);
+		int letterScore = pointValue(points, tile) * letterMultipliers[i];
+
+		wordPoints += letterScore;
+		wordMultiplier *= wordMultipliers[i];
+		int cross = (horizontal ? verticalCrossPoints[i] : horizontalCrossPoints[i]);
+		if (cross != NO_CROSS_WORD) {
+			crossPoints += (cross + letterScore) * wordMultipliers[i];
+		}
+		tilesPlaced++;
+	}
+
+	/**
+	 * Adds a tile that already exists on the board to the current word.
+	 *
+	 * @param tile	The tile already on the board
+	 */
+	public void pushExisting(final Tile tile) {
+
+		save();
+		wordPoints += pointValue(points, tile);
+	}
+
+	/**
+	 * Removes the tile that was last pushed from the current word.
+	 */
+	public void pop() {
+
+		length--;
+		wordPoints = wordPointsStack[length];
+		wordMultiplier = wordMultiplierStack[length];
+		crossPoints = crossPointsStack[length];
+		tilesPlaced = tilesPlacedStack[length];
+	}
+
+	private void save() {
+
+		wordPointsStack[length] = wordPoints;
+		wordMultiplierStack[length] = wordMultiplier;
+		crossPointsStack[length] = crossPoints;
+		tilesPlacedStack[length] = tilesPlaced;
+		length++;
+	}
+
+	/**
+	 * Scores the current word, along with all of the cross-words formed by the tiles placed.
+	 *
+	 * @return	The same score that {@link Board#score(List, boolean)} would return for the tiles placed.
+	 */
+	public int score() {
+
+		if (tilesPlaced == 0) {
+			return 0;
+		}
+
+		int score = (length > 1 ? wordPoints * wordMultiplier : 0);
+
+		if (tilesPlaced == 1) {
+			// a single tile is scored horizontally, then vertically only if there is no horizontal word
+			int horizontalScore = (horizontal ? score : crossPoints);
+			int verticalScore = (horizontal ? crossPoints : score);
+			return (horizontalScore != 0 ? horizontalScore : verticalScore);
+		}
+
+		score += crossPoints;
+		if (tilesPlaced >= bingoTileCount) {
+			score += bingoScore;
+		}
+		return score;
+	}
+
+	/**
+	 * @return	The number of tiles that have been placed in the current word.
+	 */
+	public int getTilesPlaced() {
+		return tilesPlaced;
+	}
+
+	/**
+	 * @return	The number of tiles, placed or existing, in the current word.
+	 */
+	int getLength() {
+		return length;
+	}
+
+	int getWordPoints() {
+		return wordPoints;
+	}
+
+	int getWordMultiplier() {
+		return wordMultiplier;
+	}
+
+	int getCrossPoints() {
+		return crossPoints;
+	}
+
+	int getBingoTileCount() {
+		return bingoTileCount;
+	}
+
+	int getBingoScore() {
+		return bingoScore;
+	}
+
+	int getLetterMultiplier(final int x, final int y) {
+		return letterMultipliers[index(x, y)];
+	}
+
+	int getWordMultiplier(final int x, final int y) {
+		return wordMultipliers[index(x, y)];
+	}
+
+	/**
+	 * @param horizontal	<code>true</code> if the word being traversed is horizontal, so that the cross-word is
+	 * 						vertical.
+	 *
+	 * @return	The points of the existing tiles in the cross-word through the given square, or a negative number if
+	 * 			a tile placed there does not form a cross-word.
+	 */
+	int getCrossWordPoints(final int x, final int y, final boolean horizontal) {
+		int i = index(x, y);
+		return (horizontal ? verticalCrossPoints[i] : horizontalCrossPoints[i]);
+	}
+
+	/**
+	 * @return	The number of letters in the word formed across the current word by a tile placed on the given square,
+	 * 			including the tile itself, or 0 if a tile placed there does not form a cross-word.
+	 */
+	int getCrossLength(final int x, final int y) {
+		int i = index(x, y);
+		return (horizontal ? verticalCrossLengths[i] : horizontalCrossLengths[i]);
+	}
+
+	private int index(final int x, final int y) {
+		return (y - 1) * width + (x - 1);
+	}
+}
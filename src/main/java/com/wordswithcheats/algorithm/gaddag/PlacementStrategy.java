@@ -0,0 +1,437 @@
+package com.wordswithcheats.algorithm.gaddag;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang.Validate;
+
+import com.wordswithcheats.algorithm.Move;
+import com.wordswithcheats.algorithm.MoveSink;
+import com.wordswithcheats.board.Board;
+import com.wordswithcheats.board.Rack;
+import com.wordswithcheats.board.TilePlacement;
+
+/**
+ * Decides which of the placements found by the {@link GaddagAlgorithm} to keep.  The algorithm traverses the board
+ * once, offering each placement to the strategy as it is found, and then returns {@link #getPlacement()}.
+ * <p>
+ * The strategies used by {@link GaddagAlgorithm#randomPlacement(Board, Rack)},
+ * {@link GaddagAlgorithm#longestPlacement(Board, Rack)} and
+ * {@link GaddagAlgorithm#calculateHighestScorePlacement(Board, Rack)} are created by the static factory methods.  A
+ * custom selection is made by extending this class and passing it to
+ * {@link GaddagAlgorithm#selectPlacement(Board, Rack, PlacementStrategy)}.
+ * <p>
+ * A strategy keeps the state of a single search, so it must not be shared between searches that run at the same
+ * time.
+ * 
+ * @author Matt Sidesinger
+ */
+public abstract class PlacementStrategy implements MoveSink {
+	
+	private PlacementScorer scorer;
+	private int count;
+	
+	/**
+	 * Creates a strategy that picks one of the placements at random, with every placement found being equally likely.
+	 * 
+	 * @param random	The source of randomness
+	 * 
+	 * @return	The strategy
+	 */
+	public static PlacementStrategy random(final Random random) {
+		return new RandomPlacement(random);
+	}
+	
+	/**
+	 * Creates a strategy that picks the placement that uses the most tiles.  If more than one placement uses the most
+	 * tiles, the one found first is picked.
+	 * 
+	 * @return	The strategy
+	 */
+	public static PlacementStrategy longest() {
+		return new LongestPlacement();
+	}
+	
+	/**
+	 * Creates a strategy that picks the highest scoring placement, pruning the search with a {@link ScoreBound}.  If
+	 * more than one placement has the highest score, the one found first is picked.
+	 * 
+	 * @return	The strategy
+	 */
+	public static PlacementStrategy highestScore() {
+		return new HighestScorePlacement(null, null);
+	}
+	
+	/**
+	 * Called before the board is traversed.
+	 * 
+	 * @param board		The board being searched
+	 * @param rack		The tiles being placed
+	 * @param scorer	The scorer that the tiles are pushed onto as the board is traversed
+	 * 
+	 * @return	A bound to prune the search with, or <code>null</code> to offer every placement.
+	 */
+	protected ScoreBound start(final Board board, final Rack rack, final PlacementScorer scorer) {
+		
+		this.scorer = scorer;
+		this.count = 0;
+		return null;
+	}
+	
+	@Override
+	public final boolean accept(final List<TilePlacement> placements) {
+		
+		count++;
+		return offer(placements);
+	}
+	
+	/**
+	 * Offers a placement found while traversing the board.
+	 * <p>
+	 * The list is only valid for the duration of this call, so it must be copied if it is to be kept.
+	 * 
+	 * @param placements	The tile placements that were found
+	 * 
+	 * @return	<code>true</code> to keep searching, <code>false</code> to stop.
+	 */
+	protected abstract boolean offer(final List<TilePlacement> placements);
+	
+	/**
+	 * @return	The placement that was picked, or <code>null</code> if no placements were found.
+	 */
+	public abstract List<TilePlacement> getPlacement();
+	
+	/**
+	 * @return	The score of the placement currently being offered.
+	 */
+	protected int score() {
+		return scorer.score();
+	}
+	
+	/**
+	 * @return	The number of placements that have been offered.
+	 */
+	public int getCount() {
+		return count;
+	}
+	
+	/**
+	 * Picks a placement using reservoir sampling: the n-th placement offered replaces the one picked so far with a
+	 * probability of 1/n, so the placements do not need to be kept.
+	 */
+	private static class RandomPlacement extends PlacementStrategy {
+		
+		private final Random random;
+		private List<TilePlacement> placement;
+		
+		RandomPlacement(final Random random) {
+			
+			Validate.notNull(random, "Random cannot be null");
+			this.random = random;
+		}
+		
+		@Override
+		protected ScoreBound start(final Board board, final Rack rack, final PlacementScorer scorer) {
+			
+			placement = null;
+			return super.start(board, rack, scorer);
+		}
+		
+		@Override
+		protected boolean offer(final List<TilePlacement> placements) {
+			
+			if (random.nextInt(getCount()) == 0) {
+				placement = new ArrayList<TilePlacement>(placements); // copy
+			}
+			return true;
+		}
+		
+		@Override
+		public List<TilePlacement> getPlacement() {
+			return placement;
+		}
+	}
+	
+	private static class LongestPlacement extends PlacementStrategy {
+		
+		private List<TilePlacement> placement;
+		
+		@Override
+		protected ScoreBound start(final Board board, final Rack rack, final PlacementScorer scorer) {
+			
+			placement = null;
+			return super.start(board, rack, scorer);
+		}
+		
+		@Override
+		protected boolean offer(final List<TilePlacement> placements) {
+			
+			if (placement == null || placements.size() > placement.size()) {
+				placement = new ArrayList<TilePlacement>(placements); // copy
+			}
+			return true;
+		}
+		
+		@Override
+		public List<TilePlacement> getPlacement() {
+			return placement;
+		}
+	}
+	
+	/**
+	 * Keeps the highest scoring placement, and raises the minimum score of the bound to it as it goes.
+	 */
+	static class HighestScorePlacement extends PlacementStrategy {
+		
+		private final ScoreBound presetBound;
+		private final AtomicInteger sharedMinimum;
+		
+		private ScoreBound bound;
+		private int maxScore;
+		private List<TilePlacement> maxPlacement;
+		
+		/**
+		 * @param bound				The bound to prune the search with, or <code>null</code> to create one when the
+		 * 							search starts
+		 * @param sharedMinimum		The highest score found by any thread, or <code>null</code> if the search is not
+		 * 							being shared.  If given, branches that can only tie the highest score are still
+		 * 							searched, so that the placement found first does not depend on the other threads.
+		 */
+		HighestScorePlacement(final ScoreBound bound, final AtomicInteger sharedMinimum) {
+			
+			this.presetBound = bound;
+			this.sharedMinimum = sharedMinimum;
+		}
+		
+		@Override
+		protected ScoreBound start(final Board board, final Rack rack, final PlacementScorer scorer) {
+			
+			super.start(board, rack, scorer);
+			bound = (presetBound != null ? presetBound : new ScoreBound(scorer, board, rack, sharedMinimum));
+			maxScore = 0;
+			maxPlacement = null;
+			return bound;
+		}
+		
+		@Override
+		protected boolean offer(final List<TilePlacement> placements) {
+			
+			int score = score();
+			if (score > maxScore) {
+				maxScore = score;
+				maxPlacement = new ArrayList<TilePlacement>(placements); // copy
+				bound.raiseMinimum(sharedMinimum != null ? score : score + 1);
+			}
+			return true;
+		}
+		
+		@Override
+		public List<TilePlacement> getPlacement() {
+			return maxPlacement;
+		}
+		
+		int getScore() {
+			return maxScore;
+		}
+	}
+	
+	/**
+	 * Keeps the best <code>k</code> distinct moves in a heap, with the worst move on top.  When ranking by
+	 * {@link Move#BY_SCORE}, placements that score less than the worst move in a full heap are rejected before a
+	 * {@link Move} is created, and the search is pruned against its score.
+	 */
+	static class TopMoves extends PlacementStrategy {
+		
+		private final int k;
+		private final Comparator<Move> order;
+		private final boolean byScore;
+		
+		private PriorityQueue<Move> heap;
+		private ScoreBound bound;
+		
+		/**
+		 * @param k				The maximum number of moves to keep
+		 * @param comparator	Ranks the better of two moves first
+		 */
+		TopMoves(final int k, final Comparator<Move> comparator) {
+			
+			Validate.isTrue(k > 0, "k must be greater than 0");
+			Validate.notNull(comparator, "Comparator cannot be null");
+			
+			this.k = k;
+			this.byScore = (comparator == Move.BY_SCORE);
+			// break any ties using the natural ordering of the moves
+			this.order = new Comparator<Move>() {
+				@Override
+				public int compare(final Move m1, final Move m2) {
+					int result = comparator.compare(m1, m2);
+					return (result != 0 ? result : m1.compareTo(m2));
+				}
+			};
+		}
+		
+		@Override
+		protected ScoreBound start(final Board board, final Rack rack, final PlacementScorer scorer) {
+			
+			super.start(board, rack, scorer);
+			heap = new PriorityQueue<Move>(Math.min(k, 64), Collections.reverseOrder(order));
+			bound = (byScore ? new ScoreBound(scorer, board, rack) : null);
+			return bound;
+		}
+		
+		@Override
+		protected boolean offer(final List<TilePlacement> placements) {
+			
+			int score = score();
+			Move worst = (heap.size() < k ? null : heap.peek());
+			if (worst != null && byScore && score < worst.getScore()) {
+				// cannot beat the k-th best score
+				return true;
+			}
+			
+			Move move = new Move(placements, score);
+			if (worst != null && order.compare(move, worst) >= 0) {
+				return true;
+			}
+			if (worst != null) {
+				heap.poll();
+			}
+			heap.add(move);
+			if (bound != null && heap.size() == k) {
+				bound.raiseMinimum(heap.peek().getScore());
+			}
+			return true;
+		}
+		
+		/**
+		 * @return	The moves kept, best first.
+		 */
+		List<Move> getMoves() {
+			
+			List<Move> moves = new ArrayList<Move>(heap);
+			Collections.sort(moves, order);
+			return moves;
+		}
+		
+		@Override
+		public List<TilePlacement> getPlacement() {
+			
+			List<Move> moves = getMoves();
+			return (moves.isEmpty() ? null : moves.get(0).getPlacements());
+		}
+	}
+	
+	/**
+	 * Keeps every move that is not dominated on its score, the number of tiles it keeps on the rack and the length of
+	 * the word it forms, where one move dominates another if it is at least as good on all three and better on one.
+	 * Of the moves that tie on all three, the one found first is kept.
+	 * <p>
+	 * A placement is only turned into a {@link ParetoMove} if no move on the front covers it, and the moves that it
+	 * dominates are dropped, so only the front is ever kept.  A branch of the search is pruned if the front covers
+	 * every placement that it could lead to.  Since placing more tiles keeps fewer, the branch is checked once for
+	 * each number of tiles that could still be placed, against the upper bounds for that number: the score from
+	 * {@link ScoreBound}, and a word made up of every tile placed and every existing tile within reach, but no longer
+	 * than the letters so far and the letters that can still follow them in the trie.
+	 */
+	static class ParetoFront extends PlacementStrategy {
+		
+		private PlacementScorer scorer;
+		private int rackSize;
+		private List<ParetoMove> front;
+		private int[] bounds;
+		
+		@Override
+		protected ScoreBound start(final Board board, final Rack rack, final PlacementScorer scorer) {
+			
+			super.start(board, rack, scorer);
+			this.scorer = scorer;
+			this.rackSize = rack.tileCount();
+			this.front = new ArrayList<ParetoMove>();
+			this.bounds = new int[rackSize + 1];
+			
+			return new ScoreBound(scorer, board, rack) {
+				@Override
+				public boolean prune(final Rack left, final TrieNode node) {
+					return (super.prune(left, node) || isCovered(this, left, node));
+				}
+			};
+		}
+		
+		/**
+		 * Determines whether every placement that can be completed from the current state of the scorer is covered by
+		 * the front.
+		 */
+		private boolean isCovered(final ScoreBound bound, final Rack left, final TrieNode node) {
+			
+			int placeable = bound.bounds(left, node, bounds);
+			int placed = scorer.getTilesPlaced();
+			int maxLength = scorer.getLength() + node.getHeight();
+			// at least one more tile must be placed if none have been yet
+			for (int more = (placed == 0 ? 1 : 0); more <= placeable; more++) {
+				// the existing tiles already in the word are among those within reach
+				int wordLength = Math.min(maxLength, placed + more + bound.getExistingTiles());
+				if (!isCovered(bounds[more], left.tileCount() - more, wordLength)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		
+		@Override
+		protected boolean offer(final List<TilePlacement> placements) {
+			
+			int score = score();
+			int tilesKept = rackSize - placements.size();
+			int wordLength = scorer.getLength();
+			if (isCovered(score, tilesKept, wordLength)) {
+				return true;
+			}
+			
+			ParetoMove move = new ParetoMove(placements, score, tilesKept, wordLength);
+			for (Iterator<ParetoMove> i = front.iterator(); i.hasNext();) {
+				ParetoMove other = i.next();
+				if (move.covers(other.getScore(), other.getTilesKept(), other.getWordLength())) {
+					i.remove();
+				}
+			}
+			front.add(move);
+			return true;
+		}
+		
+		private boolean isCovered(final int score, final int tilesKept, final int wordLength) {
+			
+			for (ParetoMove move : front) {
+				if (move.covers(score, tilesKept, wordLength)) {
+					return true;
+				}
+			}
+			return false;
+		}
+		
+		/**
+		 * @return	The moves on the front, highest score first.
+		 */
+		List<ParetoMove> getMoves() {
+			
+			List<ParetoMove> moves = new ArrayList<ParetoMove>(front);
+			Collections.sort(moves, Move.BY_SCORE);
+			return moves;
+		}
+		
+		/**
+		 * @return	The highest scoring move on the front.
+		 */
+		@Override
+		public List<TilePlacement> getPlacement() {
+			
+			List<ParetoMove> moves = getMoves();
+			return (moves.isEmpty() ? null : moves.get(0).getPlacements());
+		}
+	}
+}
@@ -0,0 +1,194 @@
+package com.wordswithcheats.algorithm.gaddag;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.lang.Validate;
+
+import com.wordswithcheats.algorithm.gaddag.GaddagAlgorithm.Anchor;
+import com.wordswithcheats.algorithm.gaddag.GaddagAlgorithm.Direction;
+import com.wordswithcheats.board.Board;
+import com.wordswithcheats.board.BoardView;
+import com.wordswithcheats.board.Rack;
+import com.wordswithcheats.board.Tile;
+
+/**
+ * Everything about a board that the {@link GaddagAlgorithm} looks up before searching it, and that does not depend on
+ * the rack being searched: the anchors, the letters that form a valid cross-word on each empty square, and the
+ * premiums and cross-word points used by the {@link PlacementScorer}.
+ * <p>
+ * Preparing a board once and searching it with many racks, using
+ * {@link GaddagAlgorithm#selectPlacement(PreparedBoard, Rack, PlacementStrategy)}, saves repeating this work for every
+ * rack.  A PreparedBoard is not modified by a search, so it can be shared by searches running in different threads.
+ * Any tiles placed on the board after it was prepared are not taken into account.
+ *
+ * @author Matt Sidesinger
+ */
+public class PreparedBoard {
+
+	// every letter is allowed on a square that does not form a cross-word
+	static final int ALL_LETTERS = (1 << 26) - 1;
+
+	private final Board board;
+	private final TrieNode root;
+	private final List<Anchor> anchors;
+	private final PlacementScorer scorer;
+	private final int width;
+	// the view of the board to read the squares along each direction from, indexed by its ordinal
+	private final BoardView[] views;
+
+	// the letters, as bits, that form a valid cross-word when placed in a horizontal or vertical word, indexed by
+	// (y - 1) * width + (x - 1)
+	private final int[] horizontalCrossChecks;
+	private final int[] verticalCrossChecks;
+
+	/**
+	 * @param board		The board to prepare
+	 * @param root		The root of the trie that the cross-words are checked against
+	 * @param anchors	The anchors found on the board
+	 */
+	PreparedBoard(final Board board, final TrieNode root, final List<Anchor> anchors) {
+
+		Validate.notNull(board, "Board cannot be null");
+
+		this.board = board;
+		this.root = root;
+		this.anchors = Collections.unmodifiableList(anchors);
+		this.scorer = new PlacementScorer(board);
+		this.width = board.getWidth();
+		this.views = new BoardView[Direction.values().length];
+		for (Direction direction : Direction.values()) {
+			views[direction.ordinal()] = direction.view(board);
+		}
+
+		int height = board.getHeight();
+		this.horizontalCrossChecks = new int[width * height];
+		this.verticalCrossChecks = new int[width * height];
+		for (int y = 1; y <= height; y++) {
+			long row = board.getRowMask(y);
+			// the squares with a tile above or below, and those with a tile to either side
+			long above = (y > 1 ? board.getRowMask(y - 1) : 0L);
+			long below = (y < height ? board.getRowMask(y + 1) : 0L);
+			long vertical = above | below;
+			long horizontal = row << 1 | row >>> 1;
+			for (int x = 1; x <= width; x++) {
+				long square = 1L << (x - 1);
+				if ((row & square) == 0) {
+					// a horizontal word forms a vertical cross-word, and the other way around; only a square that
+					// touches a tile in that direction has to be checked
+					horizontalCrossChecks[index(x, y)] = ((vertical & square) == 0 ? ALL_LETTERS
+							: crossCheck(board.getColumnView(), root, x, y, 0, 1));
+					verticalCrossChecks[index(x, y)] = ((horizontal & square) == 0 ? ALL_LETTERS
+							: crossCheck(board.getRowView(), root, x, y, 1, 0));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Finds the letters that form a word with the existing tiles on either side of the square, in the direction given
+	 * by the increments, reading the squares from the view of the board that lays them out next to each other.
+	 *
+	 * @return	The letters as bits, bit 0 for 'a'; or every letter, if there are no tiles on either side.
+	 */
+	private static int crossCheck(final BoardView board, final TrieNode root, final int x, final int y, final int xInc,
+			final int yInc) {
+
+		int first = 0;
+		while (isTile(board, x - (first + 1) * xInc, y - (first + 1) * yInc)) {
+			first++;
+		}
+		int last = 0;
+		while (isTile(board, x + (last + 1) * xInc, y + (last + 1) * yInc)) {
+			last++;
+		}
+		if (first == 0 && last == 0) {
+			return ALL_LETTERS;
+		}
+
+		// each word is a path in the trie, from its first letter to its last, that does not pass through a cross anchor
+		TrieNode prefix = root;
+		for (int i = first; i > 0 && prefix != null; i--) {
+			prefix = prefix.getChildNode(board.getTileAt(x - i * xInc, y - i * yInc).getLetter());
+		}
+		if (prefix == null) {
+			return 0;
+		}
+
+		int letters = 0;
+		for (TrieNode child : prefix.getChildNodes()) {
+			if (child.isCrossAnchorNode()) {
+				continue;
+			}
+			TrieNode node = child;
+			for (int i = 1; i <= last && node != null; i++) {
+				node = node.getChildNode(board.getTileAt(x + i * xInc, y + i * yInc).getLetter());
+			}
+			if (node != null && node.isTerminal()) {
+				letters |= 1 << (child.getLetter() - 'a');
+			}
+		}
+		return letters;
+	}
+
+	/**
+	 * Walking away from a square of the board stops at its border at the latest, which does not hold a tile.
+	 */
+	private static boolean isTile(final BoardView board, final int x, final int y) {
+		return board.hasTileAt(x, y);
+	}
+
+	/**
+	 * @return	The board that was prepared.
+	 */
+	public Board getBoard() {
+		return board;
+	}
+
+	/**
+	 * @return	The view of the board that the squares along the direction are read from, the rows or the columns.
+	 */
+	BoardView getView(final Direction direction) {
+		return views[direction.ordinal()];
+	}
+
+	/**
+	 * @return	The root of the trie that the board was prepared with, and that every search of it traverses.
+	 */
+	TrieNode getRoot() {
+		return root;
+	}
+
+	/**
+	 * @return	The anchors found on the board, in the order that the board is scanned.
+	 */
+	List<Anchor> getAnchors() {
+		return anchors;
+	}
+
+	/**
+	 * @return	The scorer whose premiums and cross-word points are shared, by way of
+	 * 			{@link PlacementScorer#PlacementScorer(PlacementScorer)}, with the scorer of each search.
+	 */
+	PlacementScorer getScorer() {
+		return scorer;
+	}
+
+	/**
+	 * Determines whether a tile placed on the empty square forms a valid cross-word, if it forms one at all.
+	 *
+	 * @param tile			The tile being placed
+	 * @param horizontal	<code>true</code> if the tile is part of a horizontal word, so that the cross-word is
+	 * 						vertical.
+	 */
+	boolean isValidCrossWord(final int x, final int y, final Tile tile, final boolean horizontal) {
+
+		int i = index(x, y);
+		int letters = (horizontal ? horizontalCrossChecks[i] : verticalCrossChecks[i]);
+		return (letters & (1 << (tile.getLetter() - 'a'))) != 0;
+	}
+
+	private int index(final int x, final int y) {
+		return (y - 1) * width + (x - 1);
+	}
+}
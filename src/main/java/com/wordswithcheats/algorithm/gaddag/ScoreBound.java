@@ -0,0 +1,327 @@
+package com.wordswithcheats.algorithm.gaddag;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang.Validate;
+
+import com.wordswithcheats.board.Board;
+import com.wordswithcheats.board.Rack;
+import com.wordswithcheats.board.Tile;
+
+/**
+ * Calculates an optimistic upper bound on the score of any placement that can be completed from the tiles that have
+ * been pushed onto a {@link PlacementScorer}, so that the {@link GaddagAlgorithm} can skip the branches of its search
+ * that cannot beat the highest score found so far.
+ * <p>
+ * The bound assumes the best of everything that is still possible: as many of the tiles left on the rack as there are
+ * empty squares within reach of the anchor, and letters left below the current {@link TrieNode}, are placed; the
+ * highest point values are placed on the best letter premiums; every word premium within reach is used; every
+ * existing tile within reach is part of the word; each placed tile forms the best cross-word within reach; and the
+ * bingo is earned if enough tiles can be placed.  It never underestimates, so the highest score is always found.
+ * <p>
+ * A ScoreBound is not thread-safe, but the highest score found so far can be shared between threads by passing the
+ * same {@link AtomicInteger} to each ScoreBound.
+ * <p>
+ * Since every branch of the search is passed to {@link #prune(Rack, TrieNode)}, it is also where a
+ * {@link SearchBudget} is spent.  Once the budget is used up every branch is pruned and {@link #isStopped()} tells the
+ * search to stop.
+ * 
+ * @author Matt Sidesinger
+ */
+public class ScoreBound {
+	
+	private final PlacementScorer scorer;
+	private final Board board;
+	private final int rackSize;
+	private final int maxPointValue;
+	private final AtomicInteger sharedMinimum;
+	
+	// the premiums of the empty squares within reach of the current anchor, sorted best first
+	private final int[] letterMultipliers;
+	private final int[] wordMultipliers;
+	private final int[] crossWordScores;
+	private int squares;
+	// the points, and number, of the existing tiles within reach of the current anchor
+	private int existingPoints;
+	private int existingTiles;
+	
+	// the point values of the tiles left on the rack, sorted highest first
+	private final int[] pointValues;
+	
+	// the bounds for each number of tiles still to be placed
+	private final int[] bounds;
+	
+	// branches that cannot score at least this much are pruned
+	private int minimum;
+	
+	private long visits;
+	private long pruned;
+	
+	private SearchBudget budget;
+	
+	/**
+	 * @param scorer	The scorer that the tiles are pushed onto while searching
+	 * @param board		The board being searched
+	 * @param rack		The rack that the tiles are pulled from
+	 */
+	public ScoreBound(final PlacementScorer scorer, final Board board, final Rack rack) {
+		this(scorer, board, rack, null);
+	}
+	
+	/**
+	 * @param scorer			The scorer that the tiles are pushed onto while searching
+	 * @param board				The board being searched
+	 * @param rack				The rack that the tiles are pulled from
+	 * @param sharedMinimum		The minimum score shared with the other threads searching the same board, or
+	 * 							<code>null</code>
+	 */
+	public ScoreBound(final PlacementScorer scorer, final Board board, final Rack rack,
+			final AtomicInteger sharedMinimum) {
+		
+		Validate.notNull(scorer, "PlacementScorer cannot be null");
+		Validate.notNull(board, "Board cannot be null");
+		Validate.notNull(rack, "Rack cannot be null");
+		
+		this.scorer = scorer;
+		this.board = board;
+		this.rackSize = rack.tileCount();
+		this.sharedMinimum = sharedMinimum;
+		
+		int max = 0;
+		for (Tile tile : rack) {
+			max = Math.max(max, scorer.getPointValue(tile));
+		}
+		this.maxPointValue = max;
+		
+		// the anchor, along with rackSize - 1 empty squares on either side of it
+		int maxSquares = Math.max(1, 2 * rackSize - 1);
+		this.letterMultipliers = new int[maxSquares];
+		this.wordMultipliers = new int[maxSquares];
+		this.crossWordScores = new int[maxSquares];
+		this.pointValues = new int[rackSize];
+		this.bounds = new int[rackSize + 1];
+	}
+	
+	/**
+	 * @return	The scorer that the tiles are pushed onto while searching.
+	 */
+	public PlacementScorer getScorer() {
+		return scorer;
+	}
+	
+	/**
+	 * Looks up the squares that can be reached from the given anchor.  This must be called before searching from
+	 * each anchor.
+	 * 
+	 * @param x				The x coordinate of the anchor
+	 * @param y				The y coordinate of the anchor
+	 * @param horizontal	<code>true</code> if the word being searched for is horizontal, <code>false</code> if it is
+	 * 						vertical.
+	 */
+	public void prepare(final int x, final int y, final boolean horizontal) {
+		
+		int xInc = (horizontal ? 1 : 0);
+		int yInc = (horizontal ? 0 : 1);
+		
+		squares = 0;
+		existingPoints = 0;
+		existingTiles = 0;
+		
+		addSquare(x, y, horizontal);
+		walk(x, y, -xInc, -yInc, horizontal);
+		walk(x, y, xInc, yInc, horizontal);
+		
+		sortDescending(letterMultipliers, squares);
+		sortDescending(wordMultipliers, squares);
+		sortDescending(crossWordScores, squares);
+	}
+	
+	/**
+	 * Moves away from the anchor until one more empty square than could be filled by the rack is found.
+	 */
+	private void walk(final int x, final int y, final int xInc, final int yInc, final boolean horizontal) {
+		
+		int width = board.getWidth();
+		int height = board.getHeight();
+		int empty = 0;
+		
+		for (int i = x + xInc, j = y + yInc; 1 <= i && i <= width && 1 <= j && j <= height; i += xInc, j += yInc) {
+			Tile tile = board.getTileAt(i, j);
+			if (tile != null) {
+				existingPoints += scorer.getPointValue(tile);
+				existingTiles++;
+			} else {
+				if (empty == rackSize - 1) {
+					break;
+				}
+				empty++;
+				addSquare(i, j, horizontal);
+			}
+		}
+	}
+	
+	private void addSquare(final int x, final int y, final boolean horizontal) {
+		
+		int letterMultiplier = scorer.getLetterMultiplier(x, y);
+		int wordMultiplier = scorer.getWordMultiplier(x, y);
+		int crossWordPoints = scorer.getCrossWordPoints(x, y, horizontal);
+		
+		letterMultipliers[squares] = letterMultiplier;
+		wordMultipliers[squares] = wordMultiplier;
+		crossWordScores[squares] =
+				(crossWordPoints < 0 ? 0 : (crossWordPoints + maxPointValue * letterMultiplier) * wordMultiplier);
+		squares++;
+	}
+	
+	/**
+	 * Calculates the upper bound on the score of any placement that can be completed from the current state of the
+	 * scorer.
+	 * 
+	 * @param rack	The tiles that are left to place
+	 * @param node	The node that the next tile will be placed below
+	 * 
+	 * @return	The upper bound.
+	 */
+	public int bound(final Rack rack, final TrieNode node) {
+		return bounds[bounds(rack, node, bounds)];
+	}
+	
+	/**
+	 * Calculates the upper bound on the score of any placement that can be completed from the current state of the
+	 * scorer by placing at most a given number of tiles, for each number of tiles that can still be placed.
+	 * 
+	 * @param rack		The tiles that are left to place
+	 * @param node		The node that the next tile will be placed below
+	 * @param bounds	Receives the upper bound for at most <code>k</code> more tiles at index <code>k</code>; it must
+	 * 					hold one more bound than there are tiles on the rack that was searched
+	 * 
+	 * @return	The greatest number of tiles that can still be placed, which is the last index of the bounds set.
+	 */
+	int bounds(final Rack rack, final TrieNode node, final int[] bounds) {
+		
+		int count = 0;
+		for (Tile tile : rack) {
+			// insertion sort, highest first
+			int value = scorer.getPointValue(tile);
+			int i = count++;
+			while (i > 0 && pointValues[i - 1] < value) {
+				pointValues[i] = pointValues[i - 1];
+				i--;
+			}
+			pointValues[i] = value;
+		}
+		
+		int letterPoints = 0;
+		int wordMultiplier = scorer.getWordMultiplier();
+		int crossPoints = scorer.getCrossPoints();
+		int placeable = Math.min(Math.min(count, squares), node.getHeight());
+		for (int i = 0; i <= placeable; i++) {
+			if (i > 0) {
+				letterPoints += pointValues[i - 1] * letterMultipliers[i - 1];
+				wordMultiplier *= wordMultipliers[i - 1];
+				crossPoints += crossWordScores[i - 1];
+			}
+			
+			bounds[i] = (scorer.getWordPoints() + existingPoints + letterPoints) * wordMultiplier + crossPoints;
+			if (scorer.getTilesPlaced() + i >= scorer.getBingoTileCount()) {
+				bounds[i] += scorer.getBingoScore();
+			}
+		}
+		return placeable;
+	}
+	
+	/**
+	 * @return	The number of existing tiles within reach of the current anchor.
+	 */
+	int getExistingTiles() {
+		return existingTiles;
+	}
+	
+	/**
+	 * Determines whether the branch of the search at the current state of the scorer can be skipped.
+	 * 
+	 * @param rack	The tiles that are left to place
+	 * @param node	The node that the next tile will be placed below
+	 * 
+	 * @return	<code>true</code> if no placement completed from here can reach the minimum score, or if the budget
+	 * 			has been used up.
+	 */
+	public boolean prune(final Rack rack, final TrieNode node) {
+		
+		visits++;
+		if (budget != null && budget.spend()) {
+			return true;
+		}
+		if (bound(rack, node) < getMinimum()) {
+			pruned++;
+			return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * @return	The score that a placement must reach for its branch to be searched.
+	 */
+	public int getMinimum() {
+		return (sharedMinimum == null ? minimum : Math.max(minimum, sharedMinimum.get()));
+	}
+	
+	/**
+	 * Raises the score that a placement must reach for its branch to be searched, including for the other threads
+	 * that share the minimum.
+	 * 
+	 * @param minimum	The new minimum; ignored if it is lower than the current minimum.
+	 */
+	public void raiseMinimum(final int minimum) {
+		
+		this.minimum = Math.max(this.minimum, minimum);
+		if (sharedMinimum != null) {
+			int current;
+			while ((current = sharedMinimum.get()) < minimum && !sharedMinimum.compareAndSet(current, minimum)) {
+				// try again
+			}
+		}
+	}
+	
+	/**
+	 * @param budget	The budget that each branch of the search is spent from, or <code>null</code> to search until
+	 * 					finished.
+	 */
+	public void setBudget(final SearchBudget budget) {
+		this.budget = budget;
+	}
+	
+	/**
+	 * @return	<code>true</code> if the budget has been used up, so the search should stop.
+	 */
+	public boolean isStopped() {
+		return (budget != null && budget.isSpent());
+	}
+	
+	/**
+	 * @return	The number of times that {@link #prune(Rack, TrieNode)} has been called.
+	 */
+	public long getVisits() {
+		return visits;
+	}
+	
+	/**
+	 * @return	The number of times that {@link #prune(Rack, TrieNode)} has returned <code>true</code>.
+	 */
+	public long getPruned() {
+		return pruned;
+	}
+	
+	private static void sortDescending(final int[] values, final int length) {
+		
+		for (int i = 1; i < length; i++) {
+			int value = values[i];
+			int j = i;
+			while (j > 0 && values[j - 1] < value) {
+				values[j] = values[j - 1];
+				j--;
+			}
+			values[j] = value;
+		}
+	}
+}
@@ -0,0 +1,124 @@
+package com.wordswithcheats.algorithm.gaddag;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang.Validate;
+
+/**
+ * Limits how long a search for the highest score placement may run, so that
+ * {@link GaddagAlgorithm#calculateHighestScorePlacement(com.wordswithcheats.board.Board,
+ * com.wordswithcheats.board.Rack, SearchBudget)} can return the best placement found so far instead of running to
+ * completion.
+ * <p>
+ * A budget can end the search at a deadline, after a number of branches have been searched, when it is cancelled, or
+ * at whichever of these comes first.  Every branch of the search is counted, but the clock and the cancelled flag are
+ * only read once every {@value #CHECK_INTERVAL} branches, so that checking the budget costs almost nothing.
+ * <p>
+ * A budget is used up by a single search and must not be shared between searches, although {@link #cancel()} can be
+ * called from any thread.
+ *
+ * @author Matt Sidesinger
+ */
+public class SearchBudget {
+
+	/**
+	 * The number of branches searched between each check of the clock and the cancelled flag; a power of 2.
+	 */
+	public static final int CHECK_INTERVAL = 1024;
+
+	private final long deadline;
+	private final boolean timed;
+	private final long maxBranches;
+
+	private volatile boolean cancelled;
+
+	private long branches;
+	private boolean spent;
+
+	/**
+	 * Creates a budget that only ends the search if it is cancelled.
+	 */
+	public SearchBudget() {
+		this(0, null, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Creates a budget that ends the search once the timeout, counted from now, has passed.
+	 *
+	 * @param timeout	The longest the search may run for
+	 * @param unit		The unit of the timeout
+	 */
+	public SearchBudget(final long timeout, final TimeUnit unit) {
+		this(timeout, unit, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Creates a budget that ends the search once the given number of branches have been searched.
+	 *
+	 * @param maxBranches	The number of branches that may be searched
+	 */
+	public SearchBudget(final long maxBranches) {
+		this(0, null, maxBranches);
+	}
+
+	/**
+	 * Creates a budget that ends the search once the timeout, counted from now, has passed or the given number of
+	 * branches have been searched, whichever comes first.
+	 *
+	 * @param timeout		The longest the search may run for; ignored if the unit is <code>null</code>
+	 * @param unit			The unit of the timeout, or <code>null</code> if the search is not timed
+	 * @param maxBranches	The number of branches that may be searched
+	 */
+	public SearchBudget(final long timeout, final TimeUnit unit, final long maxBranches) {
+
+		Validate.isTrue(timeout >= 0, "timeout cannot be negative");
+		Validate.isTrue(maxBranches >= 0, "maxBranches cannot be negative");
+
+		this.timed = (unit != null);
+		this.deadline = (timed ? System.nanoTime() + unit.toNanos(timeout) : 0);
+		this.maxBranches = maxBranches;
+	}
+
+	/**
+	 * Asks the search to stop as soon as it next checks its budget.  This can be called from any thread.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Counts a branch of the search.
+	 *
+	 * @return	<code>true</code> if the budget has been used up and the search should stop.
+	 */
+	boolean spend() {
+
+		if (!spent) {
+			branches++;
+			if (branches > maxBranches) {
+				spent = true;
+			} else if ((branches & (CHECK_INTERVAL - 1)) == 0 || branches == 1) {
+				spent = (cancelled || (timed && System.nanoTime() - deadline >= 0));
+			}
+		}
+		return spent;
+	}
+
+	/**
+	 * @return	<code>true</code> if the budget was used up, so that the search it was used by did not finish.
+	 */
+	public boolean isSpent() {
+		return spent;
+	}
+
+	/**
+	 * @return	The number of branches that have been searched.
+	 */
+	public long getBranches() {
+		return branches;
+	}
+}
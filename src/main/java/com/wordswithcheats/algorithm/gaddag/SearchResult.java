@@ -0,0 +1,61 @@
+package com.wordswithcheats.algorithm.gaddag;
+
+import java.util.List;
+
+import com.wordswithcheats.board.TilePlacement;
+
+/**
+ * The result of a search for the highest score placement that may have been stopped by its {@link SearchBudget}
+ * before it finished.  If the search did not finish, the placement is the best one that had been found when it
+ * stopped.
+ *
+ * @author Matt Sidesinger
+ */
+public class SearchResult {
+
+	private final List<TilePlacement> placement;
+	private final int score;
+	private final boolean complete;
+
+	/**
+	 * @param placement		The best placement found, or <code>null</code> if none was found
+	 * @param score			The score of the placement
+	 * @param complete		<code>true</code> if the whole search was finished
+	 */
+	public SearchResult(final List<TilePlacement> placement, final int score, final boolean complete) {
+
+		this.placement = placement;
+		this.score = score;
+		this.complete = complete;
+	}
+
+	/**
+	 * @return	The best placement found, or <code>null</code> if none was found.
+	 */
+	public List<TilePlacement> getPlacement() {
+		return placement;
+	}
+
+	/**
+	 * @return	The score of the best placement found, or 0 (zero) if none was found.
+	 */
+	public int getScore() {
+		return score;
+	}
+
+	/**
+	 * @return	<code>true</code> if the whole search was finished, so the placement has the highest score possible;
+	 * 			<code>false</code> if the search was stopped by its budget first.
+	 */
+	public boolean isComplete() {
+		return complete;
+	}
+
+	/**
+	 * Display the object as a string in the following format: score=[placement, ...] (complete|incomplete)
+	 */
+	@Override
+	public String toString() {
+		return score + "=" + placement + (complete ? " (complete)" : " (incomplete)");
+	}
+}
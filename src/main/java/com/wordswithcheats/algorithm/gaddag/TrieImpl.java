@@ -104,7 +104,8 @@ public class TrieImpl implements Trie {
 	}
 	
 	/**
-	 * Adds nodes to the tree that don't already exist for the characters in the character array.
+	 * Adds nodes to the tree that don't already exist for the characters in the character array.  The height of each
+	 * node along the way is raised to the number of letters that follow it, if that is greater.
 	 * <p>
 	 * Assumes that the char[] is not <code>null<code>.
 	 * 
@@ -118,10 +119,25 @@ public class TrieImpl implements Trie {
 		
 		TrieNode node = this.root;
 		
+		// the number of letters left, not counting the cross anchor character
+		int remaining = 0;
+		for (char letter : letters) {
+			if (letter != TrieNodeImpl.CROSS_ANCHOR_CHAR) {
+				remaining++;
+			}
+		}
+		
 		boolean terminal = false;
 		TrieNode childNode = null;
 		for (int offset = 0; offset < letters.length; offset++) {
 			
+			if (node.getHeight() < remaining) {
+				((TrieNodeImpl) node).setHeight(remaining);
+			}
+			if (letters[offset] != TrieNodeImpl.CROSS_ANCHOR_CHAR) {
+				remaining--;
+			}
+			
 			terminal = (offset + 1 == letters.length);
 			childNode = node.getChildNode(letters[offset]);
 			
@@ -47,6 +47,12 @@ public interface TrieNode {
 	 */
 	public char getLetter();
 	
+	/**
+	 * @return		The greatest number of letters, not counting {@link #isCrossAnchorNode() cross anchors}, that
+	 * 				follow this node on the way to a terminal node.  A node with no child nodes has a height of 0.
+	 */
+	public int getHeight();
+	
 	/**
 	 * If this is a child node, a {@link TrieNode} will be returned that contain a child node which is equal to this
 	 * node.  If this child does not have a parent node, like in the case of a root node, <code>null</code> will
@@ -24,6 +24,7 @@ public class TrieNodeImpl implements TrieNode, Serializable {
 	private boolean root = false;
 	private char letter = 0;
 	private boolean terminal = false;
+	private int height = 0;
 	private TrieNode parentNode;
 	private Map<Character, TrieNode> childNodes;
 	
@@ -106,6 +107,15 @@ public class TrieNodeImpl implements TrieNode, Serializable {
 		return letter;
 	}
 	
+	@Override
+	public int getHeight() {
+		return height;
+	}
+	
+	protected void setHeight(final int height) {
+		this.height = height;
+	}
+	
 	@Override
 	public void setTerminal(final boolean terminal) {
 		this.terminal = terminal;
@@ -47,6 +47,11 @@ public class UnmodifiableTrieNode implements TrieNode, Serializable {
 		return node.getLetter();
 	}
 	
+	@Override
+	public int getHeight() {
+		return node.getHeight();
+	}
+	
 	@Override
 	public boolean isCrossAnchorNode() {
 		return node.isCrossAnchorNode();
@@ -20,7 +20,7 @@ import com.wordswithcheats.board.Rack;
 import com.wordswithcheats.board.Tile;
 import com.wordswithcheats.board.TilePlacement;
 import com.wordswithcheats.board.exception.IllegalTilePlacementException;
-import com.wordswithcheats.board.multiplier.Multipliers;
+import com.wordswithcheats.board.multiplier.BoardLayout;
 import com.wordswithcheats.board.parser.RackParser;
 import com.wordswithcheats.board.parser.SimpleBoardParser;
 import com.wordswithcheats.board.parser.exception.BoardParseException;
@@ -150,73 +150,7 @@ public class GaddagCommandLine {
 		// TODO subclass board and set default bingo score of 35
 		board.setBingoScore(35);
 		
-		// TODO subclass board that uses a static version of these multipliers
-		Multipliers multipliers = new Multipliers()
-			// double letter
-			.addDoubleLetterScore(3,  2)
-			.addDoubleLetterScore(13, 2)
-			.addDoubleLetterScore(2,  3)
-			.addDoubleLetterScore(5,  3)
-			.addDoubleLetterScore(11, 3)
-			.addDoubleLetterScore(14, 3)
-			.addDoubleLetterScore(3,  5)
-			.addDoubleLetterScore(7,  5)
-			.addDoubleLetterScore(9,  5)
-			.addDoubleLetterScore(13, 5)
-			.addDoubleLetterScore(5,  7)
-			.addDoubleLetterScore(11, 7)
-			.addDoubleLetterScore(5,  9)
-			.addDoubleLetterScore(11, 9)
-			.addDoubleLetterScore(3,  11)
-			.addDoubleLetterScore(7,  11)
-			.addDoubleLetterScore(9,  11)
-			.addDoubleLetterScore(13, 11)
-			.addDoubleLetterScore(2,  13)
-			.addDoubleLetterScore(5,  13)
-			.addDoubleLetterScore(11, 13)
-			.addDoubleLetterScore(14, 13)
-			.addDoubleLetterScore(3,  14)
-			.addDoubleLetterScore(13, 14)
-			// triple letter
-			.addTripleLetterScore(7,  1)
-			.addTripleLetterScore(9,  1)
-			.addTripleLetterScore(4,  4)
-			.addTripleLetterScore(12, 4)
-			.addTripleLetterScore(6,  6)
-			.addTripleLetterScore(10, 6)
-			.addTripleLetterScore(1,  7)
-			.addTripleLetterScore(15, 7)
-			.addTripleLetterScore(1,  9)
-			.addTripleLetterScore(15, 9)
-			.addTripleLetterScore(6,  10)
-			.addTripleLetterScore(10, 10)
-			.addTripleLetterScore(4,  12)
-			.addTripleLetterScore(12, 12)
-			.addTripleLetterScore(7,  15)
-			.addTripleLetterScore(9,  15)
-			// double word
-			.addDoubleWordScore(6,  2)
-			.addDoubleWordScore(10, 2)
-			.addDoubleWordScore(8,  4)
-			.addDoubleWordScore(2,  6)
-			.addDoubleWordScore(14, 6)
-			.addDoubleWordScore(4,  8)
-			.addDoubleWordScore(12, 8)
-			.addDoubleWordScore(2,  10)
-			.addDoubleWordScore(14, 10)
-			.addDoubleWordScore(8,  12)
-			.addDoubleWordScore(6,  14)
-			.addDoubleWordScore(10, 14)
-			// triple word			
-			.addTripleWordScore(4,  1)
-			.addTripleWordScore(12, 1)
-			.addTripleWordScore(1,  4)
-			.addTripleWordScore(15, 4)
-			.addTripleWordScore(1,  12)
-			.addTripleWordScore(15, 12)
-			.addTripleWordScore(4,  15)
-			.addTripleWordScore(12, 15);
-		board.setMultipliers(multipliers);
+		board.setLayout(BoardLayout.WORDS_WITH_FRIENDS);
 		
 		GaddagAlgorithm gaddag = new GaddagAlgorithm();
 		List<TilePlacement> tp = gaddag.calculateHighestScorePlacement(board, rack);
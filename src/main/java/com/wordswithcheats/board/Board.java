@@ -8,7 +8,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,100 +15,82 @@ import org.slf4j.LoggerFactory;
 import com.wordswithcheats.board.exception.IllegalTilePlacementException;
 import com.wordswithcheats.board.format.BoardFormat;
 import com.wordswithcheats.board.format.SimpleBoardFormat;
-import com.wordswithcheats.board.multiplier.LetterMultiplier;
-import com.wordswithcheats.board.multiplier.Multiplier;
+import com.wordswithcheats.board.multiplier.BoardLayout;
 import com.wordswithcheats.board.multiplier.Multipliers;
-import com.wordswithcheats.board.multiplier.WordMultiplier;
 
 // TODO javadoc
 /**
+ * <p>
+ * The tiles on a board are kept as one byte per square, in a single array: {@link #EMPTY} for an empty square,
+ * otherwise the index of the letter plus 1, with the {@link #BLANK} bit set for a blank tile.  So copying or comparing
+ * a board copies or compares a small array rather than a grid of references.  The methods that take and return
+ * {@link Tile} objects convert to and from this encoding: a tile read from the board is the shared instance returned
+ * by {@link Tile#valueOf(char)}, or a new {@link BlankTile} for a blank, rather than the instance that was placed.
+ * <p>
+ * The squares are surrounded by a border one square wide, from 0 to <code>width + 1</code> and <code>height + 1</code>,
+ * of {@link #BORDER} values, so that the square next to any square of the board can be read without checking that it
+ * exists: a tile is a positive value, and the edge of the board a negative one.  The public methods that take
+ * coordinates check them, except for {@link #hasTileAt(int, int)}, {@link #isSquare(int, int)} and
+ * {@link #getTileAt(int, int)}, which are meant for walking from square to square, and can be given any square of the
+ * board or its border.
+ * <p>
+ * Which squares hold a tile is also kept as a bit mask for every row and every column, where bit <code>x - 1</code>
+ * of a row, or bit <code>y - 1</code> of a column, is set if the square holds a tile.  Adjacency, anchors and the gaps
+ * in a line of placements are found with shifts and ORs over whole rows and columns, rather than by reading the
+ * squares one at a time.  So a board can be at most {@link #MAX_SIZE} squares wide and high.  The squares that anchor a
+ * placement, {@link #getHorizontalAnchorMask(int)} and {@link #getVerticalAnchorMask(int)}, are kept the same way, and
+ * only the column of a tile placed or undone, and the column to its West, are recalculated.
+ * <p>
+ * A search can play a move with {@link #apply(List)}, or {@link #applyTrusted(List)} for placements that it generated
+ * for the board itself, and take it back with {@link #undo(UndoRecord)}, rather than copying the board.  Neither logs
+ * anything, and both take time in proportion to the number of tiles placed.
+ * <p>
+ * The tiles on the board are also hashed into a 64 bit Zobrist hash, {@link #getZobristHash()}, which is the XOR of a
+ * random key for each tile, blank or not, and the square it is on.  It is kept up to date as tiles are placed and
+ * undone, so it costs nothing to read, and together with {@link Rack#getMultisetHash()} can key a cache of positions.
+ * <p>
+ * The squares are also kept transposed, column by column, and updated along with the rows as tiles are placed and
+ * undone.  A search reads the squares through the {@link BoardView} of the direction that it walks in,
+ * {@link #getRowView()} or {@link #getColumnView()}, so that a vertical word is read from neighbouring bytes just as a
+ * horizontal one is.
  * <p>
  * A Board is not thread-safe.
  * 
  * @author Matt Sidesinger
  */
-public class Board implements Serializable {
+public class Board implements Squares, Serializable {
 
 	private int width;
 	private int height;
-	protected Tile[][] tiles;
+	// one per square, and its border, indexed by y * (width + 2) + x
+	private byte[] cells;
+	// the same squares transposed, indexed by x * (height + 2) + y, so that each column is a run of the array
+	private byte[] transposedCells;
+	private BoardView rowView;
+	private BoardView columnView;
+	// bit x - 1 of rowMasks[y - 1], and bit y - 1 of columnMasks[x - 1], is set if (x, y) holds a tile
+	private long[] rowMasks;
+	private long[] columnMasks;
+	// bit y - 1 of horizontalAnchors[x - 1], or verticalAnchors[x - 1], is set if (x, y) anchors a placement in that
+	// direction, and bit x - 1 of anchorColumns if column x has an anchor in either direction
+	private long[] horizontalAnchors;
+	private long[] verticalAnchors;
+	private long anchorColumns;
+	private long zobristHash;
 	protected int tileCount = 0;
+	// identifies the tiles on the board, so that only the last placements applied can be undone
+	private int state;
+	private int lastState;
 	private Multipliers multipliers = DEFAULT_MULTIPLIERS;
+	private BoardLayout layout = BoardLayout.SCRABBLE;
 	private int bingoTileCount = DEFAULT_BINGO_TILE_COUNT;
 	private int bingoScore = DEFAULT_BINGO_SCORE;
 	private BoardFormat boardFormat;
 	
-	private static final long serialVersionUID = -8988534486744774251L;
-	
-	private static final Multipliers DEFAULT_MULTIPLIERS;
-	static {
-		DEFAULT_MULTIPLIERS = new Multipliers()
-			// double letter
-			.addDoubleLetterScore(4,  1)
-			.addDoubleLetterScore(12, 1)
-			.addDoubleLetterScore(7,  3)
-			.addDoubleLetterScore(9,  3)
-			.addDoubleLetterScore(1,  4)
-			.addDoubleLetterScore(8,  4)
-			.addDoubleLetterScore(15, 4)
-			.addDoubleLetterScore(3,  7)
-			.addDoubleLetterScore(7,  7)
-			.addDoubleLetterScore(9,  7)
-			.addDoubleLetterScore(13, 7)
-			.addDoubleLetterScore(4,  8)
-			.addDoubleLetterScore(12, 8)
-			.addDoubleLetterScore(3,  9)
-			.addDoubleLetterScore(7,  9)
-			.addDoubleLetterScore(9,  9)
-			.addDoubleLetterScore(13, 9)
-			.addDoubleLetterScore(1,  12)
-			.addDoubleLetterScore(8,  12)
-			.addDoubleLetterScore(15, 12)
-			.addDoubleLetterScore(7,  13)
-			.addDoubleLetterScore(9,  13)
-			.addDoubleLetterScore(4,  15)
-			.addDoubleLetterScore(12, 15)
-			// triple letter
-			.addTripleLetterScore(6,  2)
-			.addTripleLetterScore(10, 2)
-			.addTripleLetterScore(2,  6)
-			.addTripleLetterScore(6,  6)
-			.addTripleLetterScore(10, 6)
-			.addTripleLetterScore(14, 6)
-			.addTripleLetterScore(2,  10)
-			.addTripleLetterScore(6,  10)
-			.addTripleLetterScore(10, 10)
-			.addTripleLetterScore(14, 10)
-			.addTripleLetterScore(6,  14)
-			.addTripleLetterScore(10, 14)
-			// double word
-			.addDoubleWordScore(8,  8)
-			.addDoubleWordScore(2,  2)
-			.addDoubleWordScore(3,  3)
-			.addDoubleWordScore(4,  4)
-			.addDoubleWordScore(5,  5)
-			.addDoubleWordScore(11, 5)
-			.addDoubleWordScore(12, 4)
-			.addDoubleWordScore(13, 3)
-			.addDoubleWordScore(14, 2)
-			.addDoubleWordScore(2,  14)
-			.addDoubleWordScore(3,  13)
-			.addDoubleWordScore(4,  12)
-			.addDoubleWordScore(5,  11)
-			.addDoubleWordScore(11, 11)
-			.addDoubleWordScore(12, 12)
-			.addDoubleWordScore(13, 13)
-			.addDoubleWordScore(14, 14)
-			// triple word			
-			.addTripleWordScore(1,  1)
-			.addTripleWordScore(8,  1)
-			.addTripleWordScore(15, 1)
-			.addTripleWordScore(1,  8)
-			.addTripleWordScore(15, 8)
-			.addTripleWordScore(1,  15)
-			.addTripleWordScore(8,  15)
-			.addTripleWordScore(15, 15);
-	}
+	private static final long serialVersionUID = 7532860612470394018L;
+	
+	// the same premiums as BoardLayout.SCRABBLE, which is used in their place
+	private static final Multipliers DEFAULT_MULTIPLIERS = BoardLayout.SCRABBLE.toMultipliers();
 	
 	/**
 	 * The default number of tiles that need to be played in one turn to get a "bingo."
@@ -119,21 +100,123 @@ public class Board implements Serializable {
 	 * The default number of points awarded for a "bingo."  
 	 */
 	public static final int DEFAULT_BINGO_SCORE = 50;
+	/**
+	 * The greatest width and height of a board, so that a row or column fits in the bits of a <code>long</code>.
+	 */
+	public static final int MAX_SIZE = Long.SIZE;
+	
+	/**
+	 * The value of an empty square.
+	 */
+	static final byte EMPTY = 0;
+	/**
+	 * The bit set on the value of a square holding a blank tile.
+	 */
+	static final byte BLANK = 0x20;
+	/**
+	 * The bits of the value of a square holding the index of its letter plus 1, which is 0 for a blank that has not
+	 * been given a letter.
+	 */
+	static final byte LETTER = 0x1F;
+	/**
+	 * The value of each square of the border around the board.
+	 */
+	static final byte BORDER = (byte) 0x80;
 	
 	private static final Logger logger = LoggerFactory.getLogger(Board.class);
 	
 	public Board(final int width, final int height) {
 		Validate.isTrue(width > 1 && height > 1, "width and height must both be greater than 1");
+		Validate.isTrue(width <= MAX_SIZE && height <= MAX_SIZE, "width and height cannot be greater than " + MAX_SIZE);
 		this.width = width;
 		this.height = height;
-		this.tiles = new Tile[height][width];
+		this.cells = createCells(width, height);
+		this.transposedCells = createCells(height, width);
+		this.rowView = new BoardView(cells, 1, width + 2);
+		this.columnView = new BoardView(transposedCells, height + 2, 1);
+		this.rowMasks = new long[height];
+		this.columnMasks = new long[width];
+		this.horizontalAnchors = new long[width];
+		this.verticalAnchors = new long[width];
 	}
 	
 	public Board(final int width, final int height, final Multipliers multipliers) {
 		this(width, height);
 		this.multipliers = multipliers;
+		this.layout = createLayout(multipliers);
+	}
+	
+	/**
+	 * Creates an empty board the size of the layout, which is shared rather than copied.
+	 * 
+	 * @param layout	The premium squares of the board
+	 */
+	public Board(final BoardLayout layout) {
+		this(layout.getWidth(), layout.getHeight());
+		setLayout(layout);
+	}
+	
+	/**
+	 * Creates a copy of the board, with its own tiles, that shares the premium squares, bingo rules and format of the
+	 * board.
+	 * 
+	 * @param board	The board to copy
+	 */
+	public Board(final Board board) {
+		
+		Validate.notNull(board, "Board cannot be null");
+		
+		this.width = board.width;
+		this.height = board.height;
+		this.cells = board.cells.clone();
+		this.transposedCells = board.transposedCells.clone();
+		this.rowView = new BoardView(cells, 1, width + 2);
+		this.columnView = new BoardView(transposedCells, height + 2, 1);
+		this.rowMasks = board.rowMasks.clone();
+		this.columnMasks = board.columnMasks.clone();
+		this.horizontalAnchors = board.horizontalAnchors.clone();
+		this.verticalAnchors = board.verticalAnchors.clone();
+		this.anchorColumns = board.anchorColumns;
+		this.zobristHash = board.zobristHash;
+		this.tileCount = board.tileCount;
+		this.multipliers = board.multipliers;
+		this.layout = board.layout;
+		this.bingoTileCount = board.bingoTileCount;
+		this.bingoScore = board.bingoScore;
+		this.boardFormat = board.boardFormat;
 	}
 	
+	/**
+	 * Creates a board holding the tiles of the snapshot, with its premium squares and bingo rules.
+	 * 
+	 * @see BoardSnapshot#toBoard()
+	 */
+	Board(final BoardSnapshot snapshot) {
+		
+		this(snapshot.getWidth(), snapshot.getHeight());
+		for (int y = 1; y <= height; y++) {
+			for (int x = 1; x <= width; x++) {
+				byte cell = snapshot.getCell(x, y);
+				if (cell > EMPTY) {
+					set(x, y, cell);
+				}
+			}
+		}
+		this.tileCount = snapshot.getTileCount();
+		this.layout = snapshot.getLayout();
+		this.multipliers = (layout == BoardLayout.SCRABBLE ? DEFAULT_MULTIPLIERS : layout.toMultipliers());
+		this.bingoTileCount = snapshot.getBingoTileCount();
+		this.bingoScore = snapshot.getBingoScore();
+	}
+	
+	/**
+	 * Creates a board holding the tiles, which are copied, so later changes to the array do not change the board.  A
+	 * <code>null</code> row is empty.
+	 * 
+	 * @param tiles	The tiles on the board, indexed by [y - 1][x - 1]
+	 * 
+	 * @throws IllegalArgumentException	If a row is not as wide as the first, or a tile is not a letter a-z or a blank
+	 */
 	public Board(final Tile[][] tiles) {
 		
 		Validate.notNull(tiles, "the Tile array cannot be null");
@@ -145,20 +228,31 @@ public class Board implements Serializable {
 		}
 		
 		Validate.isTrue(width > 1 && height > 1, "width and height must both be greater than 1");
+		Validate.isTrue(width <= MAX_SIZE && height <= MAX_SIZE, "width and height cannot be greater than " + MAX_SIZE);
 		logger.info("Creating board with WxH: {}x{}", Integer.toString(width), Integer.toString(height));
 		this.width = width;
 		this.height = height;
-		this.tiles = tiles;
+		this.cells = createCells(width, height);
+		this.transposedCells = createCells(height, width);
+		this.rowView = new BoardView(cells, 1, width + 2);
+		this.columnView = new BoardView(transposedCells, height + 2, 1);
+		this.rowMasks = new long[height];
+		this.columnMasks = new long[width];
+		this.horizontalAnchors = new long[width];
+		this.verticalAnchors = new long[width];
 		
-		// determine tile count
+		// copy the tiles and determine tile count
 		this.tileCount = 0;
-		for (Tile[] row : tiles) {
+		for (int y = 1; y <= height; y++) {
+			Tile[] row = tiles[y - 1];
 			if (row != null) {
-    			for (Tile tile : row) {
-    				if (tile != null) {
-    					this.tileCount++;
-    				}
-    			}
+				Validate.isTrue(row.length == width, "every row must be the same width");
+				for (int x = 1; x <= width; x++) {
+					if (row[x - 1] != null) {
+						set(x, y, encode(row[x - 1]));
+						this.tileCount++;
+					}
+				}
 			}
 		}
 		logger.info("{} tiles found", Integer.valueOf(this.tileCount));
@@ -167,16 +261,24 @@ public class Board implements Serializable {
 	public Board(final Tile[][] tiles, final Multipliers multipliers) {
 		this(tiles);
 		this.multipliers = multipliers;
+		this.layout = createLayout(multipliers);
 	}
 	
 	public void clear() {
-		for (int i = 0; i < this.tiles.length; i++) {
-			for (int j = 0; j < this.tiles[i].length; j++) {
-				// clear the Tile at this position
-				this.tiles[i][j] = null;
-			}
+		for (int y = 1; y <= height; y++) {
+			Arrays.fill(this.cells, index(1, y), index(width, y) + 1, EMPTY);
+		}
+		for (int x = 1; x <= width; x++) {
+			Arrays.fill(this.transposedCells, transposedIndex(x, 1), transposedIndex(x, height) + 1, EMPTY);
 		}
+		Arrays.fill(this.rowMasks, 0L);
+		Arrays.fill(this.columnMasks, 0L);
+		Arrays.fill(this.horizontalAnchors, 0L);
+		Arrays.fill(this.verticalAnchors, 0L);
+		this.anchorColumns = 0L;
+		this.zobristHash = 0L;
 		this.tileCount = 0;
+		this.state = ++this.lastState;
 	}
 	
 	public int getStartX() {
@@ -203,13 +305,80 @@ public class Board implements Serializable {
 		int score = score(placements, false);
 		for (TilePlacement p : placements) {
 			// TilePlacement guarantees that x, y coordinates are > 0
-			this.tiles[p.getY() - 1][p.getX() - 1] = p.getTile();
+			set(p.getX(), p.getY(), encode(p.getTile()));
 			this.tileCount++;
 		}
+		this.state = ++this.lastState;
 		logger.info("{} tiles placed", Integer.valueOf(this.tileCount));
 		return score;
 	}
 	
+	/**
+	 * Validates and places the tiles, like {@link #place(List)}, but returns a record that can be passed to
+	 * {@link #undo(UndoRecord)} to take them back.  Nothing is logged.
+	 * 
+	 * @param placements	The tiles to place
+	 * 
+	 * @return	The record of the tiles placed, along with their score.
+	 * 
+	 * @throws IllegalTilePlacementException	If the placements are not valid, in which case no tile is placed
+	 */
+	public UndoRecord apply(final List<TilePlacement> placements) throws IllegalTilePlacementException {
+		validate(placements);
+		return applyTrusted(placements);
+	}
+	
+	/**
+	 * Places the tiles without validating them first, for placements that are known to be valid, such as those
+	 * generated for this board by a search.  Placing a tile on a square that holds one, or off the board, leaves the
+	 * board in an undefined state.
+	 * 
+	 * @param placements	The tiles to place, none of which may be <code>null</code>
+	 * 
+	 * @return	The record of the tiles placed, along with their score.
+	 * 
+	 * @see #apply(List)
+	 */
+	public UndoRecord applyTrusted(final List<TilePlacement> placements) throws IllegalTilePlacementException {
+		
+		// score first before placing the tiles
+		int score = BoardScorer.score(this, placements);
+		int size = placements.size();
+		short[] squares = new short[size];
+		for (int i = 0; i < size; i++) {
+			TilePlacement p = placements.get(i);
+			set(p.getX(), p.getY(), encode(p.getTile()));
+			squares[i] = (short) (p.getY() << 8 | p.getX());
+		}
+		this.tileCount += size;
+		
+		int before = this.state;
+		this.state = ++this.lastState;
+		return new UndoRecord(this, squares, score, before, this.state);
+	}
+	
+	/**
+	 * Takes back the tiles placed by {@link #apply(List)} or {@link #applyTrusted(List)}.  Records must be undone in
+	 * the reverse order that they were applied in, and a record can not be undone once the board has been changed in
+	 * any other way, such as by {@link #place(List)} or {@link #clear()}.
+	 * 
+	 * @param record	The record of the last placements applied to this board
+	 * 
+	 * @throws IllegalArgumentException	If the record is not of the last placements applied to this board
+	 */
+	public void undo(final UndoRecord record) {
+		
+		Validate.notNull(record, "UndoRecord cannot be null");
+		Validate.isTrue(record.getBoard() == this && record.getAfter() == this.state,
+				"only the last placements applied to the board can be undone");
+		
+		for (int i = record.getTileCount() - 1; i >= 0; i--) {
+			unset(record.getX(i), record.getY(i));
+		}
+		this.tileCount -= record.getTileCount();
+		this.state = record.getBefore();
+	}
+	
 	/**
 	 * @see #validate(List)	
 	 */
@@ -279,59 +448,35 @@ public class Board implements Serializable {
     		boolean yAligned = (yAvg == minY && yAvg == maxY);
     		if (xAligned || yAligned) {
     			
-    			boolean legal = false;
+    			// the squares of the line from the first placement to the last, as bits of the row or column
+    			int line = (xAligned ? minX : minY);
+    			int first = (xAligned ? minY : minX);
+    			int last = (xAligned ? maxY : maxX);
+    			long span = (-1L >>> (Long.SIZE - (last - first + 1))) << (first - 1);
+    			long occupied = (xAligned ? columnMasks[line - 1] : rowMasks[line - 1]);
+    			for (Integer p : (xAligned ? placementsByY : placementsByX).keySet()) {
+    				occupied |= 1L << (p.intValue() - 1);
+    			}
     			
-    			if (xAligned) { // vertically aligned
-    				
-    				int x = minX; // minX and maxX are the same
-    				for (int y = minY; y <= maxY; y++) {
-    					TilePlacement p = placementsByY.get(Integer.valueOf(y));
-    					if (p == null) {
-    						// a tile must already exist at this position on the board to be legal
-    						Tile t = get(x, y);
-    						if (t == null) {
-    							String message = 
-    								String.format("a tile must be placed at (%d,%d) for this to be a valid placement",
-    											  Integer.valueOf(x), Integer.valueOf(y));
-    							throw new IllegalTilePlacementException(message);
-    						}
-    					}
-    					if (!legal) {
-    						if (isEmpty()) {
-    							// must pass through the start position
-    							legal = (x == getStartX() && y == getStartY());
-    						} else {
-    							// at least one tile placed must be vertically adjacent to an already placed tile
-    							legal = hasAdjacentTile(x, y);
-    						}
-    					}
-    				} // ~for y: minY => maxY
-    				
-    			} else { // horizontally aligned
-    				
-    				int y = minY; // minY and maxY are the same
-    				for (int x = minX; x <= maxX; x++) {
-    					TilePlacement p = placementsByX.get(Integer.valueOf(x));
-    					if (p == null) {
-    						// a tile must already exist at this position on the board to be legal
-    						Tile t = get(x, y);
-    						if (t == null) {
-    							String message = 
-    								String.format("a tile must be placed at (%d,%d) for this to be a valid placement",
-    											  Integer.valueOf(x), Integer.valueOf(y));
-    							throw new IllegalTilePlacementException(message);
-    						}
-    					}
-    					if (!legal) {
-    						if (isEmpty()) {
-    							// must pass through the start position
-    							legal = (x == getStartX() && y == getStartY());
-    						} else {
-    							// at least one tile placed must be vertically adjacent to an already placed tile
-    							legal = hasAdjacentTile(x, y);
-    						}
-    					}
-    				} // ~for x: minX => maxX 
+    			// a tile must already exist at every position in the line that a tile is not placed on
+    			long gaps = span & ~occupied;
+    			if (gaps != 0) {
+    				int gap = Long.numberOfTrailingZeros(gaps) + 1;
+    				String message = 
+    					String.format("a tile must be placed at (%d,%d) for this to be a valid placement",
+    								  Integer.valueOf(xAligned ? line : gap), Integer.valueOf(xAligned ? gap : line));
+    				throw new IllegalTilePlacementException(message);
+    			}
+    			
+    			boolean legal = false;
+    			if (isEmpty()) {
+    				// must pass through the start position
+    				int start = (xAligned ? getStartY() : getStartX());
+    				legal = (line == (xAligned ? getStartX() : getStartY()) && start >= first && start <= last);
+    			} else {
+    				// at least one position in the line must be adjacent to an already placed tile
+    				long adjacent = (xAligned ? getColumnAdjacencyMask(line) : getRowAdjacencyMask(line));
+    				legal = (span & adjacent) != 0;
     			}
     			
     			if (!legal) {
@@ -368,6 +513,11 @@ public class Board implements Serializable {
 			throw new IllegalTilePlacementException(message, placement);
 		}
 		
+		// ensure that the tile can be kept on the board
+		if (!isEncodable(placement.getTile())) {
+			throw new IllegalTilePlacementException("the tile must be a letter a-z or a blank", placement);
+		}
+		
 		// ensure a Tile does not already exist at this position on the board
 		if (get(placement.getX(), placement.getY()) != null) {
 			String message = String.format("a Tile already exists at position (%d,%d) on the board",
@@ -378,25 +528,119 @@ public class Board implements Serializable {
 	}
 	
 	public boolean hasAdjacentTile(final int x, final int y) throws IllegalTilePlacementException {
-		boolean hasAdjacentTile = hasAdjacentHorizontalTile(x, y);
-		hasAdjacentTile = hasAdjacentTile || hasAdjacentVerticalTile(x, y);
-		return hasAdjacentTile;
+		validatePosition(x, y);
+		return ((getRowAdjacencyMask(y) >>> (x - 1)) & 1L) != 0;
 	}
 	
 	protected boolean hasAdjacentHorizontalTile(final int x, final int y) throws IllegalTilePlacementException {
-		Tile tile = getEast(x, y);
-		if (tile == null) {
-			tile = getWest(x, y);
-		}
-		return (tile != null);
+		validatePosition(x, y);
+		long row = rowMasks[y - 1];
+		return (((row << 1 | row >>> 1) >>> (x - 1)) & 1L) != 0;
 	}
 	
 	protected boolean hasAdjacentVerticalTile(final int x, final int y) throws IllegalTilePlacementException {
-		Tile tile = getNorth(x, y);
-		if (tile == null) {
-			tile = getSouth(x, y);
+		validatePosition(x, y);
+		long column = columnMasks[x - 1];
+		return (((column << 1 | column >>> 1) >>> (y - 1)) & 1L) != 0;
+	}
+	
+	private void validatePosition(final int x, final int y) throws IllegalTilePlacementException {
+		if (x < 1 || y < 1 || x > width || y > height) {
+			String message = String.format("the position (%d,%d) does not exist on the board",
+										   Integer.valueOf(x), Integer.valueOf(y));
+			throw new IllegalTilePlacementException(message);
+		}
+	}
+	
+	/**
+	 * @param y	The row
+	 * 
+	 * @return	The squares of the row that hold a tile, where bit <code>x - 1</code> is set if (x, y) holds one.
+	 */
+	public long getRowMask(final int y) {
+		Validate.isTrue(y > 0 && y <= height, "invalid y value: must be between 1 and height");
+		return rowMasks[y - 1];
+	}
+	
+	/**
+	 * @param x	The column
+	 * 
+	 * @return	The squares of the column that hold a tile, where bit <code>y - 1</code> is set if (x, y) holds one.
+	 */
+	public long getColumnMask(final int x) {
+		Validate.isTrue(x > 0 && x <= width, "invalid x value: must be between 1 and width");
+		return columnMasks[x - 1];
+	}
+	
+	/**
+	 * Finds the squares of a row with a tile on at least one side, whether or not the square holds a tile itself.
+	 * The empty squares among them are where a tile can be placed to touch the tiles on the board.
+	 * 
+	 * @param y	The row
+	 * 
+	 * @return	The squares of the row that have an adjacent tile, where bit <code>x - 1</code> is set for (x, y).
+	 */
+	public long getRowAdjacencyMask(final int y) {
+		
+		long row = getRowMask(y);
+		long adjacent = row << 1 | row >>> 1;
+		if (y > 1) {
+			adjacent |= rowMasks[y - 2];
 		}
-		return (tile != null);
+		if (y < height) {
+			adjacent |= rowMasks[y];
+		}
+		return adjacent & (-1L >>> (Long.SIZE - width));
+	}
+	
+	/**
+	 * Finds the squares of a column with a tile on at least one side, whether or not the square holds a tile itself.
+	 * 
+	 * @param x	The column
+	 * 
+	 * @return	The squares of the column that have an adjacent tile, where bit <code>y - 1</code> is set for (x, y).
+	 */
+	public long getColumnAdjacencyMask(final int x) {
+		
+		long column = getColumnMask(x);
+		long adjacent = column << 1 | column >>> 1;
+		if (x > 1) {
+			adjacent |= columnMasks[x - 2];
+		}
+		if (x < width) {
+			adjacent |= columnMasks[x];
+		}
+		return adjacent & (-1L >>> (Long.SIZE - height));
+	}
+	
+	/**
+	 * @param x	The column
+	 * 
+	 * @return	The squares of the column that anchor a horizontal placement: the empty squares with a tile to the
+	 * 			East, where bit <code>y - 1</code> is set if (x, y) is one.
+	 */
+	public long getHorizontalAnchorMask(final int x) {
+		Validate.isTrue(x > 0 && x <= width, "invalid x value: must be between 1 and width");
+		return horizontalAnchors[x - 1];
+	}
+	
+	/**
+	 * @param x	The column
+	 * 
+	 * @return	The squares of the column that anchor a vertical placement: the empty squares with a tile to the South,
+	 * 			where bit <code>y - 1</code> is set if (x, y) is one.
+	 */
+	public long getVerticalAnchorMask(final int x) {
+		Validate.isTrue(x > 0 && x <= width, "invalid x value: must be between 1 and width");
+		return verticalAnchors[x - 1];
+	}
+	
+	/**
+	 * @return	The columns that hold an anchor in either direction, where bit <code>x - 1</code> is set if column x
+	 * 			does, so that only they need to be visited.  An empty board has none.
+	 */
+	public long getAnchorColumnMask() {
+		return anchorColumns;
 	}
 	
 	public Tile get(final int x, final int y) {
@@ -406,65 +650,107 @@ public class Board implements Serializable {
 		Validate.isTrue(x <= width, "invalid x value: cannot be greater than width");
 		Validate.isTrue(y <= height, "invalid y value: cannot be greater than height");
 		
-		Tile tile = this.tiles[y - 1][x - 1];
-		return tile;
+		return decode(this.cells[index(x, y)]);
 	}
 	
+	/**
+	 * @return	A new array of the tiles in the row, with <code>null</code> for an empty square.
+	 */
 	public Tile[] getRow(final int y) {
 
 		Validate.isTrue(y > 0, "invalid y value: must be greater than 0");
 		Validate.isTrue(y <= height, "invalid y value: cannot be greater than height");
 		
-		Tile[] row = this.tiles[y - 1];
+		Tile[] row = new Tile[width];
+		for (int x = 1; x <= width; x++) {
+			row[x - 1] = decode(this.cells[index(x, y)]);
+		}
 		return row;
 	}
 	
+	/**
+	 * Reads a square, encoded as described by the class comment, without checking that it is on the board.
+	 * 
+	 * @param x	The x coordinate, from 0 to <code>width + 1</code>
+	 * @param y	The y coordinate, from 0 to <code>height + 1</code>
+	 * 
+	 * @return	The encoded value of the square, which is {@link #BORDER} for the border.
+	 */
+	@Override
+	public byte getCell(final int x, final int y) {
+		return this.cells[index(x, y)];
+	}
+	
+	/**
+	 * Determines whether a square holds a tile, without checking the coordinates.  A square of the border does not.
+	 * 
+	 * @param x	The x coordinate, from 0 to <code>width + 1</code>
+	 * @param y	The y coordinate, from 0 to <code>height + 1</code>
+	 * 
+	 * @return	<code>true</code> if the square holds a tile.
+	 */
+	public boolean hasTileAt(final int x, final int y) {
+		return this.cells[index(x, y)] > EMPTY;
+	}
+	
+	/**
+	 * Determines whether a square is on the board, rather than its border, by reading it.
+	 * 
+	 * @param x	The x coordinate, from 0 to <code>width + 1</code>
+	 * @param y	The y coordinate, from 0 to <code>height + 1</code>
+	 * 
+	 * @return	<code>true</code> if the square is on the board.
+	 */
+	public boolean isSquare(final int x, final int y) {
+		return this.cells[index(x, y)] != BORDER;
+	}
+	
+	/**
+	 * The same as {@link #get(int, int)}, but without checking the coordinates.
+	 * 
+	 * @param x	The x coordinate, from 0 to <code>width + 1</code>
+	 * @param y	The y coordinate, from 0 to <code>height + 1</code>
+	 * 
+	 * @return	The tile on the square, or <code>null</code> if it is empty or part of the border.
+	 */
+	public Tile getTileAt(final int x, final int y) {
+		return decode(this.cells[index(x, y)]);
+	}
+	
+	/**
+	 * @return	A view of the squares laid out row by row, which reads the same squares as
+	 * 			{@link #hasTileAt(int, int)} and the other unchecked readers.
+	 */
+	public BoardView getRowView() {
+		return rowView;
+	}
+	
+	/**
+	 * @return	A view of the squares laid out column by column, so that the squares along a column are read from
+	 * 			neighbouring bytes.
+	 */
+	public BoardView getColumnView() {
+		return columnView;
+	}
+	
 	protected Tile getNorth(final int x, final int y) throws IllegalTilePlacementException {
-		Tile tile = null;
-		if (y > 1) {
-			try {
-				tile = get(x, y - 1);
-			} catch (IllegalArgumentException e) {
-				throw new IllegalTilePlacementException(e.getMessage());
-			}
-		}
-		return tile;
+		validatePosition(x, y);
+		return getTileAt(x, y - 1);
 	}
 	
 	protected Tile getEast(final int x, final int y) throws IllegalTilePlacementException{
-		Tile tile = null;
-		if (x < width) {
-			try {
-				tile = get(x + 1, y);
-			} catch (IllegalArgumentException e) {
-				throw new IllegalTilePlacementException(e.getMessage());
-			}
-		}
-		return tile;	
+		validatePosition(x, y);
+		return getTileAt(x + 1, y);
 	}
 	
 	protected Tile getSouth(final int x, final int y) throws IllegalTilePlacementException{
-		Tile tile = null;
-		if (y < height) {
-			try {
-				tile = get(x, y + 1);
-			} catch (IllegalArgumentException e) {
-				throw new IllegalTilePlacementException(e.getMessage());
-			}
-		}
-		return tile;
+		validatePosition(x, y);
+		return getTileAt(x, y + 1);
 	}
 	
 	protected Tile getWest(final int x, final int y) throws IllegalTilePlacementException{
-		Tile tile = null;
-		if (x > 1) {
-			try {
-				tile = get(x - 1, y);
-			} catch (IllegalArgumentException e) {
-				throw new IllegalTilePlacementException(e.getMessage());
-			}
-		}
-		return tile;
+		validatePosition(x, y);
+		return getTileAt(x - 1, y);
 	}
 	
 	public String getPlacedWord(final TilePlacement[] placements) throws IllegalTilePlacementException {
@@ -608,15 +894,11 @@ public class Board implements Serializable {
 			tileList = Collections.emptyList();
 		} else {
 			
-			tileList = new ArrayList<Tile>();
+			tileList = new ArrayList<Tile>(tileCount);
 			
-			for (Tile[] row : this.tiles) {
-				if (row != null) {
-	    			for (Tile tile : row) {
-	    				if (tile != null) {
-	    					tileList.add(tile);
-	    				}
-	    			}
+			for (byte cell : this.cells) {
+				if (cell > EMPTY) {
+					tileList.add(decode(cell));
 				}
 			}
 		}
@@ -650,12 +932,12 @@ public class Board implements Serializable {
 			for (y = 0; y < height; y++) {
 				for (x = 0; x < width; x++) {
 					
-					Tile t = tiles[y][x];
-					if (t != null) {
-						word.append(t.getLetter());
+					byte cell = cells[index(x + 1, y + 1)];
+					if (cell != EMPTY) {
+						word.append(getLetter(cell));
 					}
 					
-					if (t == null || x == width - 1) {
+					if (cell == EMPTY || x == width - 1) {
 						if (word.length() > 0) {
 							if (word.length() > 1) {
 								words.add(word.toString());
@@ -670,12 +952,12 @@ public class Board implements Serializable {
 			for (x = 0; x < width; x++) {
 				for (y = 0; y < height; y++) {
 					
-					Tile t = tiles[y][x];
-					if (t != null) {
-						word.append(t.getLetter());
+					byte cell = cells[index(x + 1, y + 1)];
+					if (cell != EMPTY) {
+						word.append(getLetter(cell));
 					}
 					
-					if (t == null || y == height - 1) {
+					if (cell == EMPTY || y == height - 1) {
 						if (word.length() > 0) {
 							if (word.length() > 1) {
 								words.add(word.toString());
@@ -702,423 +984,222 @@ public class Board implements Serializable {
 		return score(Arrays.asList(placements), validate);
 	}
 	
+	/**
+	 * Scores the placements with a {@link BoardScorer}, which does not allocate or log anything.  Use
+	 * {@link #explain(List)} to see how the score is calculated.
+	 * 
+	 * @param placements	The placements to score
+	 * @param validate		<code>true</code> to validate the placements first
+	 * 
+	 * @return	The score.
+	 */
 	public int score(final List<TilePlacement> placements, final boolean validate) throws IllegalTilePlacementException {
 		
-		int score = 0;
-		
 		if (validate) {
 			validate(placements);
 		}
-		
-		if (placements == null || placements.size() == 0) {
-			return 0;
+		return BoardScorer.score(this, placements);
+	}
+	
+	/**
+	 * Explains how the placements are scored by {@link #score(List, boolean)}: the points of each word formed, and the
+	 * bingo.  The placements are not validated.
+	 * 
+	 * @param placements	The placements to score
+	 * 
+	 * @return	The breakdown of the score.
+	 */
+	public ScoreExplanation explain(final List<TilePlacement> placements) throws IllegalTilePlacementException {
+		return BoardScorer.explain(this, placements);
+	}
+	
+	/**
+	 * @return	The score of the horizontal word that the placement forms on its own, or 0 if it does not form one.
+	 */
+	protected int scoreHorizontally(final TilePlacement placement) throws IllegalTilePlacementException {
+		return BoardScorer.scoreWordThrough(this, placement, true);
+	}
+	
+	/**
+	 * @return	The score of the vertical word that the placement forms on its own, or 0 if it does not form one.
+	 */
+	protected int scoreVertically(final TilePlacement placement) throws IllegalTilePlacementException {
+		return BoardScorer.scoreWordThrough(this, placement, false);
+	}
+	
+	/**
+	 * @return	A new grid of the tiles on the board, indexed by [y - 1][x - 1], with <code>null</code> for an empty
+	 * 			square.
+	 */
+	public Tile[][] toArray() {
+		Tile[][] tiles = new Tile[height][];
+		for (int y = 1; y <= height; y++) {
+			tiles[y - 1] = getRow(y);
 		}
+		return tiles;
+	}
+	
+	/**
+	 * Determines whether two boards hold the same tiles on the same squares, whatever their premium squares.
+	 * 
+	 * @param board	The board to compare to
+	 * 
+	 * @return	<code>true</code> if the boards are the same size and hold the same tiles.
+	 */
+	public boolean hasSameTiles(final Board board) {
+		return board != null && width == board.width && height == board.height && Arrays.equals(cells, board.cells);
+	}
+	
+	/**
+	 * @return	A hash code of the tiles on the board, consistent with {@link #hasSameTiles(Board)}.
+	 */
+	public int tilesHashCode() {
+		return (int) (zobristHash ^ (zobristHash >>> 32));
+	}
+	
+	/**
+	 * Obtains the Zobrist hash of the tiles on the board: the XOR of a key for each letter, whether it is a blank, and
+	 * the square it is on.  An empty board, of any size, hashes to 0.  Boards with the same tiles, as determined by
+	 * {@link #hasSameTiles(Board)}, always have the same hash.
+	 * 
+	 * @return	The hash, which is kept up to date as tiles are placed and undone.
+	 */
+	public long getZobristHash() {
+		return zobristHash;
+	}
+	
+	/**
+	 * Takes an immutable snapshot of the tiles on the board, with its premium squares and bingo rules, which later
+	 * changes to the board do not change.
+	 * 
+	 * @return	The snapshot, whose rows are copied once and then shared by every snapshot branched from it.
+	 */
+	public BoardSnapshot snapshot() {
 		
-		int xSum = 0;
-		int ySum = 0;
-		int maxX = 0;
-		int maxY = 0;
-		int minX = 0;
-		int minY = 0;
-		Map<Integer, TilePlacement> placementsByX = new HashMap<Integer, TilePlacement>(4);
-		Map<Integer, TilePlacement> placementsByY = new HashMap<Integer, TilePlacement>(4);
-		
-		int count = 0;
-		for (TilePlacement p : placements) {
-			if (p == null) {
-				continue;
-			}
-			count++;
-			xSum += p.getX();
-			ySum += p.getY();
-			maxX = p.getX() > maxX ? p.getX() : maxX;
-			maxY = p.getY() > maxY ? p.getY() : maxY;
-			minX = p.getX() < minX || minX <= 0 ? p.getX() : minX;
-			minY = p.getY() < minY || minY <= 0 ? p.getY() : minY;
-			placementsByX.put(Integer.valueOf(p.getX()), p);
-			placementsByY.put(Integer.valueOf(p.getY()), p);
+		byte[][] rows = new byte[height + 2][];
+		for (int y = 0; y <= height + 1; y++) {
+			rows[y] = Arrays.copyOfRange(cells, index(0, y), index(0, y + 1));
 		}
+		return new BoardSnapshot(width, height, rows, rowMasks.clone(), columnMasks.clone(), tileCount, zobristHash,
+				layout, bingoTileCount, bingoScore);
+	}
+	
+	private int index(final int x, final int y) {
+		return y * (width + 2) + x;
+	}
+	
+	private int transposedIndex(final int x, final int y) {
+		return x * (height + 2) + y;
+	}
+	
+	/**
+	 * @return	The squares of an empty board, surrounded by a border.
+	 */
+	private static byte[] createCells(final int width, final int height) {
 		
-		if (count == 0) {
-			return 0;
-		} else if (count == 1) {
-			TilePlacement p = placements.get(0);
-			score += scoreHorizontally(p);
-			if (score == 0) {
-				score += scoreVertically(p);
-			}
-			return score;
+		byte[] cells = new byte[(width + 2) * (height + 2)];
+		Arrays.fill(cells, BORDER);
+		for (int y = 1; y <= height; y++) {
+			Arrays.fill(cells, y * (width + 2) + 1, y * (width + 2) + width + 1, EMPTY);
 		}
+		return cells;
+	}
+	
+	/**
+	 * Puts a tile, which is not empty, on a square, and marks the square in the masks of its row and column.
+	 */
+	private void set(final int x, final int y, final byte cell) {
+		this.cells[index(x, y)] = cell;
+		this.transposedCells[transposedIndex(x, y)] = cell;
+		this.zobristHash ^= Zobrist.square(x, y, cell);
+		this.rowMasks[y - 1] |= 1L << (x - 1);
+		this.columnMasks[x - 1] |= 1L << (y - 1);
+		updateAnchors(x);
+	}
+	
+	/**
+	 * Empties a square, and clears it in the masks of its row and column.
+	 */
+	private void unset(final int x, final int y) {
+		this.zobristHash ^= Zobrist.square(x, y, this.cells[index(x, y)]);
+		this.cells[index(x, y)] = EMPTY;
+		this.transposedCells[transposedIndex(x, y)] = EMPTY;
+		this.rowMasks[y - 1] &= ~(1L << (x - 1));
+		this.columnMasks[x - 1] &= ~(1L << (y - 1));
+		updateAnchors(x);
+	}
+	
+	/**
+	 * Recalculates the anchors of the column whose squares changed, and of the column to its West, whose horizontal
+	 * anchors depend on it.  No other column is affected, so the anchors are kept up to date in constant time.
+	 */
+	private void updateAnchors(final int x) {
 		
-		float xAvg = xSum / placements.size();
-		float yAvg = ySum / placements.size();
-		boolean xAligned = (xAvg == minX && xAvg == maxX);
-		boolean yAligned = (yAvg == minY && yAvg == maxY);
-		
-		if (xAligned) { // vertically aligned
-			
-			int x = minX;
-			// find minY
-			Tile tile = null;
-			while ((tile = getNorth(x, minY)) != null) {
-				minY--;
-			}
-			// find maxY
-			while ((tile = getSouth(x, maxY)) != null) {
-				maxY++;
-			}
-			
-			int wordMultiplier = 1;
-			Multiplier multiplier = null;
-			TilePlacement placement = null;
-			
-			// variables used for debugging
-			StringBuilder sb = null;
-			if (logger.isDebugEnabled()) {
-				sb = new StringBuilder();
-				sb.append('(');
-			}
-			
-			int yScore = 0; // the vertical score
-			for (int y = minY; y <= maxY; y++) {
-				
-				tile = get(x, y);
-				placement = null;
-				multiplier = null;
-				
-				if (tile == null) {
-					placement = placementsByY.get(Integer.valueOf(y));
-					if (placement == null) {
-						break;
-					}
-					tile = placement.getTile();
-					multiplier = this.multipliers.get(x, y);
-				}
-				
-				int letterScore = tile.getPointValue();
-				if (logger.isDebugEnabled()) {
-					if (sb.length() > 1) {
-						sb.append(' ');
-						sb.append('+');
-						sb.append(' ');
-					}
-					sb.append(tile.toString());
-				}
-				
-				if (multiplier != null) {
-					if (multiplier instanceof LetterMultiplier) {
-						letterScore *= multiplier.getValue();
-						if (logger.isDebugEnabled()) {
-							sb.append('x');
-							sb.append(multiplier.getValue());
-						}
-					} else if (multiplier instanceof WordMultiplier) {
-						wordMultiplier *= ((WordMultiplier) multiplier).getValue();
-					}
-				}
-				
-				yScore += letterScore;
-				if (placement != null) {
-					score += scoreHorizontally(placement);
-				}
-			}
-			
-			// add the vertical score
-			yScore *= wordMultiplier;
-			score += yScore;
-			
-			if (logger.isDebugEnabled()) {
-				sb.append(')');
-				if (wordMultiplier > 1) {
-					sb.append('x');
-					sb.append(wordMultiplier);
-				}
-				sb.append(' ');
-				sb.append('=');
-				sb.append(' ');
-				sb.append(yScore);
-				logger.debug(sb.toString());
-			}
-			
-		} else if (yAligned) { // horizontally aligned
-		
-			int y = minY;
-			// find minX
-			Tile tile = null;
-			while ((tile = getWest(minX, y)) != null) {
-				minX--;
-			}
-			// find maxX
-			while ((tile = getEast(maxX, y)) != null) {
-				maxX++;
-			}
-			
-			int wordMultiplier = 1;
-			Multiplier multiplier = null;
-			TilePlacement placement = null;
-			
-			// variables used for debugging
-			StringBuilder sb = null;
-			if (logger.isDebugEnabled()) {
-				sb = new StringBuilder();
-				sb.append('(');
-			}
-			
-			int xScore = 0; // the vertical score
-			for (int x = minX; x <= maxX; x++) {
-				
-				tile = get(x, y);
-				placement = null;
-				multiplier = null;
-				
-				if (tile == null) {
-					placement = placementsByX.get(Integer.valueOf(x));
-					if (placement == null) {
-						break;
-					}
-					tile = placement.getTile();
-					multiplier = this.multipliers.get(x, y);
-				}
-				
-				int letterScore = tile.getPointValue(); 
-				if (logger.isDebugEnabled()) {
-					if (sb.length() > 1) {
-						sb.append(' ');
-						sb.append('+');
-						sb.append(' ');
-					}
-					sb.append(tile.toString());
-				}
-				
-				if (multiplier != null) {
-					if (multiplier instanceof LetterMultiplier) {
-						letterScore *= multiplier.getValue();
-						if (logger.isDebugEnabled()) {
-							sb.append('x');
-							sb.append(multiplier.getValue());
-						}
-					} else if (multiplier instanceof WordMultiplier) {
-						wordMultiplier *= ((WordMultiplier) multiplier).getValue();
-					}
-				}
-				
-				xScore += letterScore;
-				score += scoreVertically(placement);
-			}
-			
-			// add the vertical score
-			xScore *= wordMultiplier;
-			score += xScore;
-			
-			if (logger.isDebugEnabled()) {
-				sb.append(')');
-				if (wordMultiplier > 1) {
-					sb.append('x');
-					sb.append(wordMultiplier);
-				}
-				sb.append(' ');
-				sb.append('=');
-				sb.append(' ');
-				sb.append(xScore);
-				logger.debug(sb.toString());
-			}
+		long column = this.columnMasks[x - 1];
+		this.verticalAnchors[x - 1] = (column >>> 1) & ~column;
+		if (x < width) {
+			this.horizontalAnchors[x - 1] = this.columnMasks[x] & ~column;
 		}
-		
-		if (count >= getBingoTileCount()) {
-			logger.debug("BINGO awarded. +{}", Integer.toString(getBingoScore()));
-			score += getBingoScore();
+		updateAnchorColumn(x);
+		if (x > 1) {
+			this.horizontalAnchors[x - 2] = column & ~this.columnMasks[x - 2];
+			updateAnchorColumn(x - 1);
 		}
-		
-		logger.debug("TOTAL: {}", Integer.toString(score));
-		return score;
 	}
 	
-	protected int scoreHorizontally(final TilePlacement placement) throws IllegalTilePlacementException {
-		
-		int score = 0;
-		
-		if (placement != null) {
-		
-    		int x = placement.getX();
-    		int y = placement.getY();
-    		Tile tile = null;
-    		int tileCount = 1;
-    		
-			// variables used for debugging
-			StringBuilder sb = null;
-			if (logger.isDebugEnabled()) {
-				sb = new StringBuilder();
-				sb.append('(');
-			}
-    		
-    		// go west
-    		while ((tile = getWest(x, y)) != null) {
-				tileCount++;
-				if (logger.isDebugEnabled()) {
-					sb.insert(1, ' ');
-					sb.insert(1, '+');
-					sb.insert(1, ' ');
-					sb.insert(1, tile.toString());
-				}
-				score += tile.getPointValue();
-    			x--;
-    		}
-    		
-    		tile = placement.getTile();
-    		
-			if (logger.isDebugEnabled()) {
-				sb.append(tile.toString());
-			}
-			
-			int letterScore = tile.getPointValue();
-			Multiplier multiplier = this.multipliers.get(placement.getX(), placement.getY());
-			int wordMultiplier = 1;
-			
-			if (multiplier != null) {
-				if (multiplier instanceof LetterMultiplier) {
-					letterScore *= multiplier.getValue();
-					if (logger.isDebugEnabled()) {
-						sb.append('x');
-						sb.append(multiplier.getValue());
-					}
-				} else if (multiplier instanceof WordMultiplier) {
-					wordMultiplier = ((WordMultiplier) multiplier).getValue();
-				}
-			}
-			
-			score += letterScore;
-    		
-    		// go east
-			x = placement.getX();
-    		while ((tile = getEast(x, y)) != null) {
-				tileCount++;
-				if (logger.isDebugEnabled()) {
-					if (sb.length() > 1) {
-						sb.append(' ');
-						sb.append('+');
-						sb.append(' ');
-					}
-					sb.append(tile.toString());
-				}				
-				score += tile.getPointValue();
-    			x++;
-    		}
-    		
-    		score *= wordMultiplier;
-    	
-    		if (tileCount <= 1) {
-    			score = 0;
-    		} else if (logger.isDebugEnabled()) {
-				sb.append(')');
-				if (wordMultiplier > 1) {
-					sb.append('x');
-					sb.append(wordMultiplier);
-				}
-				sb.append(' ');
-				sb.append('=');
-				sb.append(' ');
-				sb.append(score);
-				logger.debug(sb.toString());
-			}
+	private void updateAnchorColumn(final int x) {
+		if ((this.horizontalAnchors[x - 1] | this.verticalAnchors[x - 1]) != 0) {
+			this.anchorColumns |= 1L << (x - 1);
+		} else {
+			this.anchorColumns &= ~(1L << (x - 1));
 		}
-		
-		return score;
 	}
 	
-	protected int scoreVertically(final TilePlacement placement) throws IllegalTilePlacementException {
-
-		int score = 0;
+	/**
+	 * @return	<code>true</code> if the tile is a letter a-z, or a blank with or without one.
+	 */
+	static boolean isEncodable(final Tile tile) {
+		char letter = tile.getLetter();
+		return (letter >= 'a' && letter <= 'z') || (letter == 0 && tile.isBlankTile());
+	}
+	
+	/**
+	 * @return	The value of a square holding the tile.
+	 * 
+	 * @throws IllegalArgumentException	If the tile is not a letter a-z or a blank
+	 */
+	static byte encode(final Tile tile) {
 		
-		if (placement != null) {
+		Validate.isTrue(isEncodable(tile), "the tile must be a letter a-z or a blank: " + tile);
 		
-    		int x = placement.getX();
-    		int y = placement.getY();
-    		Tile tile = null;
-    		int tileCount = 1;
-    		
-			// variables used for debugging
-			StringBuilder sb = null;
-			if (logger.isDebugEnabled()) {
-				sb = new StringBuilder();
-				sb.append('(');
-			}
-    		
-    		// go north
-    		while ((tile = getNorth(x, y)) != null) {
-    			tileCount++;
-				if (logger.isDebugEnabled()) {
-					sb.insert(1, ' ');
-					sb.insert(1, '+');
-					sb.insert(1, ' ');
-					sb.insert(1, tile.toString());
-				}
-				score += tile.getPointValue();
-    			y--;
-    		}
-    		
-    		tile = placement.getTile();
-    		
-			if (logger.isDebugEnabled()) {
-				sb.append(tile.toString());
-			}
-    		
-    		int letterScore = tile.getPointValue();
-			Multiplier multiplier = this.multipliers.get(placement.getX(), placement.getY());
-			int wordMultiplier = 1;
-			
-			if (multiplier != null) {
-				if (multiplier instanceof LetterMultiplier) {
-					letterScore *= multiplier.getValue();
-					if (logger.isDebugEnabled()) {
-						sb.append('x');
-						sb.append(multiplier.getValue());
-					}
-				} else if (multiplier instanceof WordMultiplier) {
-					wordMultiplier = ((WordMultiplier) multiplier).getValue();
-				}
-			}
-			
-			score += letterScore;
-    		
-    		// go south
-			y = placement.getY();
-    		while ((tile = getSouth(x, y)) != null) {
-    			tileCount++;
-				if (logger.isDebugEnabled()) {
-					if (sb.length() > 1) {
-						sb.append(' ');
-						sb.append('+');
-						sb.append(' ');
-					}
-					sb.append(tile.toString());
-				}
-				score += tile.getPointValue();
-    			y++;
-    		}
-    		
-    		score *= wordMultiplier;
-    		
-    		if (tileCount <= 1) {
-    			score = 0;
-    		} else if (logger.isDebugEnabled()) {
-				sb.append(')');
-				if (wordMultiplier > 1) {
-					sb.append('x');
-					sb.append(wordMultiplier);
-				}
-				sb.append(' ');
-				sb.append('=');
-				sb.append(' ');
-				sb.append(score);
-				logger.debug(sb.toString());
-			}
+		int cell = (tile.getLetter() == 0 ? 0 : tile.getLetter() - 'a' + 1);
+		if (tile.isBlankTile()) {
+			cell |= BLANK;
 		}
+		return (byte) cell;
+	}
+	
+	/**
+	 * @return	The tile on a square with the value, or <code>null</code> if it is empty or part of the border.
+	 */
+	static Tile decode(final byte cell) {
 		
-		return score;
+		if (cell <= EMPTY) {
+			return null;
+		}
+		char letter = getLetter(cell);
+		if ((cell & BLANK) != 0) {
+			return (letter == 0 ? new BlankTile() : new BlankTile(letter));
+		}
+		return Tile.valueOf(letter);
 	}
 	
-	public Tile[][] toArray() {
-		return (Tile[][]) ArrayUtils.clone(this.tiles);
+	/**
+	 * @return	The letter a-z on a square with the value, or 0 if it is empty or holds a blank without one.
+	 */
+	static char getLetter(final byte cell) {
+		int index = cell & LETTER;
+		return (index == 0 ? 0 : (char) ('a' + index - 1));
 	}
 	
 	/**
@@ -1136,10 +1217,12 @@ public class Board implements Serializable {
 	}
 
 	/**
-	 * @return the tiles
+	 * @return A new grid of the tiles
+	 * 
+	 * @see #toArray()
 	 */
 	protected Tile[][] getTiles() {	
-		return tiles;
+		return toArray();
 	}
 
 	/**
@@ -1164,10 +1247,40 @@ public class Board implements Serializable {
 	}
 
 	/**
+	 * Sets the premium squares of the board.  They are looked up once, into a {@link BoardLayout}, so any changes made
+	 * to the multipliers afterwards are not used until they are set again.
+	 * 
 	 * @param multipliers the multipliers to set
 	 */
 	public void setMultipliers(final Multipliers multipliers) {
 		this.multipliers = multipliers;
+		this.layout = createLayout(multipliers);
+	}
+	
+	/**
+	 * @return	The premium squares of the board, as used to score it.
+	 */
+	public BoardLayout getLayout() {
+		return layout;
+	}
+	
+	/**
+	 * Sets the premium squares of the board to a layout, which is shared rather than copied.
+	 * 
+	 * @param layout	The premium squares of the board
+	 */
+	public void setLayout(final BoardLayout layout) {
+		Validate.notNull(layout, "BoardLayout cannot be null");
+		this.layout = layout;
+		this.multipliers = layout.toMultipliers();
+	}
+	
+	/**
+	 * The default multipliers are the same as the shared {@link BoardLayout#SCRABBLE} layout, so it is used in their
+	 * place rather than looking them up again for every board.
+	 */
+	private BoardLayout createLayout(final Multipliers multipliers) {
+		return (multipliers == DEFAULT_MULTIPLIERS ? BoardLayout.SCRABBLE : new BoardLayout(width, height, multipliers));
 	}
 	
 	/**
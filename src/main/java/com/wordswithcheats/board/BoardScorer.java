@@ -0,0 +1,320 @@
+package com.wordswithcheats.board;
+
+import java.util.List;
+
+import org.apache.commons.lang.Validate;
+
+import com.wordswithcheats.board.exception.IllegalTilePlacementException;
+import com.wordswithcheats.board.multiplier.BoardLayout;
+
+/**
+ * Scores a list of tile placements on a {@link Board} or a {@link BoardSnapshot}.  This is what
+ * {@link Board#score(List, boolean)} uses.
+ * <p>
+ * The tiles on the board are read straight from its encoded squares, and the premiums from its {@link BoardLayout},
+ * by their coordinates.  The placement on a square is found by walking the list of placements, which is never longer
+ * than a rack, rather than by indexing the placements.  So scoring does not allocate or log anything, and can be done
+ * for every placement considered by a search.  A breakdown of the score is only built when asked for by
+ * {@link #explain(Board, List)}.
+ * <p>
+ * The rules are those that Board has always used: the word formed along the placements is scored from the first tile
+ * before them to the first empty square after the first placement that is followed by a gap.  A single placement is
+ * scored by its horizontal word, or by its vertical word if it does not form a horizontal one.  Placements that are not
+ * in a line only score the bingo, if they earn it.
+ *
+ * @author Matt Sidesinger
+ */
+public final class BoardScorer {
+
+	private BoardScorer() {
+	}
+
+	/**
+	 * Scores the placements on the board, which are not validated.
+	 *
+	 * @param board			The board that the placements are made on
+	 * @param placements	The placements, which may contain <code>null</code> elements that are skipped
+	 *
+	 * @return	The score, or 0 if there are no placements.
+	 *
+	 * @throws IllegalTilePlacementException	If a placement is outside of the board
+	 */
+	public static int score(final Board board, final List<TilePlacement> placements)
+			throws IllegalTilePlacementException {
+		return score(board, placements, null);
+	}
+
+	/**
+	 * Scores the placements on a snapshot of a board, which are not validated.
+	 *
+	 * @param snapshot		The snapshot that the placements are made on
+	 * @param placements	The placements, which may contain <code>null</code> elements that are skipped
+	 *
+	 * @return	The score, or 0 if there are no placements.
+	 *
+	 * @throws IllegalTilePlacementException	If a placement is outside of the board
+	 */
+	public static int score(final BoardSnapshot snapshot, final List<TilePlacement> placements)
+			throws IllegalTilePlacementException {
+		return score(snapshot, placements, null);
+	}
+
+	/**
+	 * Scores the placements on the board, which are not validated, and explains how the score is calculated.
+	 *
+	 * @param board			The board that the placements are made on
+	 * @param placements	The placements, which may contain <code>null</code> elements that are skipped
+	 *
+	 * @return	The breakdown of the score.
+	 *
+	 * @throws IllegalTilePlacementException	If a placement is outside of the board
+	 */
+	public static ScoreExplanation explain(final Board board, final List<TilePlacement> placements)
+			throws IllegalTilePlacementException {
+
+		ScoreExplanation explanation = new ScoreExplanation();
+		explanation.setTotal(score(board, placements, explanation));
+		return explanation;
+	}
+
+	/**
+	 * @param explanation	Records the words that are scored, or <code>null</code>
+	 */
+	private static int score(final Squares board, final List<TilePlacement> placements,
+			final ScoreExplanation explanation) throws IllegalTilePlacementException {
+
+		Validate.notNull(board, "Board cannot be null");
+
+		if (placements == null || placements.isEmpty()) {
+			return 0;
+		}
+
+		int size = placements.size();
+		int count = 0;
+		int xSum = 0;
+		int ySum = 0;
+		int minX = Integer.MAX_VALUE;
+		int minY = Integer.MAX_VALUE;
+		int maxX = 0;
+		int maxY = 0;
+		for (int i = 0; i < size; i++) {
+			TilePlacement p = placements.get(i);
+			if (p == null) {
+				continue;
+			}
+			int x = p.getX();
+			int y = p.getY();
+			if (x > board.getWidth() || y > board.getHeight()) {
+				throw new IllegalTilePlacementException("the placement is outside of the board", p);
+			}
+			count++;
+			xSum += x;
+			ySum += y;
+			minX = Math.min(minX, x);
+			minY = Math.min(minY, y);
+			maxX = Math.max(maxX, x);
+			maxY = Math.max(maxY, y);
+		}
+
+		if (count == 0) {
+			return 0;
+		} else if (count == 1) {
+			TilePlacement p = placements.get(0);
+			int score = scoreCrossWord(board, p, true, false, explanation);
+			if (score == 0) {
+				score = scoreCrossWord(board, p, false, false, explanation);
+			}
+			return score;
+		}
+
+		// the averages are taken over every element, including nulls, and truncated, as they always have been
+		boolean vertical = (xSum / size == minX && xSum / size == maxX);
+		boolean horizontal = (ySum / size == minY && ySum / size == maxY);
+
+		int score = 0;
+		if (vertical) {
+			score = scoreWord(board, placements, minX, minY, maxY, false, explanation);
+		} else if (horizontal) {
+			score = scoreWord(board, placements, minY, minX, maxX, true, explanation);
+		}
+
+		if (count >= board.getBingoTileCount()) {
+			score += board.getBingoScore();
+			if (explanation != null) {
+				explanation.setBingo(board.getBingoScore());
+			}
+		}
+		return score;
+	}
+
+	/**
+	 * Scores the word formed along the placements, along with the cross-word formed by each placement in it.
+	 *
+	 * @param line			The row of a horizontal word, or the column of a vertical one
+	 * @param first			The position of the first placement along the line
+	 * @param last			The position of the last placement along the line
+	 * @param horizontal	<code>true</code> if the placements are in a row, <code>false</code> if they are in a column
+	 */
+	private static int scoreWord(final Squares board, final List<TilePlacement> placements, final int line,
+			final int first, final int last, final boolean horizontal, final ScoreExplanation explanation) {
+
+		// the border around the board does not hold a tile, so it stops both walks
+		int start = first;
+		while (cell(board, line, start - 1, horizontal) > Board.EMPTY) {
+			start--;
+		}
+		int end = last;
+		while (cell(board, line, end + 1, horizontal) > Board.EMPTY) {
+			end++;
+		}
+
+		BoardLayout layout = board.getLayout();
+		int points = 0;
+		int wordMultiplier = 1;
+		if (explanation != null) {
+			explanation.beginWord();
+		}
+
+		// the word stops at the first gap
+		int p = start;
+		for (; p <= end; p++) {
+			byte cell = cell(board, line, p, horizontal);
+			if (cell > Board.EMPTY) {
+				points += pointValue(cell);
+				if (explanation != null) {
+					explanation.addTile(Board.decode(cell), 1);
+				}
+				continue;
+			}
+			TilePlacement placement = find(placements, line, p, horizontal);
+			if (placement == null) {
+				break;
+			}
+			int x = (horizontal ? p : line);
+			int y = (horizontal ? line : p);
+			int letterMultiplier = layout.getLetterMultiplier(x, y);
+			wordMultiplier *= layout.getWordMultiplier(x, y);
+			points += placement.getTile().getPointValue() * letterMultiplier;
+			if (explanation != null) {
+				explanation.addTile(placement.getTile(), letterMultiplier);
+			}
+		}
+
+		int score = points * wordMultiplier;
+		if (explanation != null) {
+			explanation.endWord(wordMultiplier, score, false);
+		}
+
+		// each placement on an empty square before the gap forms its own cross-word
+		for (int q = start; q < p; q++) {
+			if (cell(board, line, q, horizontal) == Board.EMPTY) {
+				score += scoreCrossWord(board, find(placements, line, q, horizontal), !horizontal, true, explanation);
+			}
+		}
+		return score;
+	}
+
+	/**
+	 * Scores the word that the placement forms, on its own, with the tiles on the board.
+	 *
+	 * @param horizontal	<code>true</code> for the horizontal word through the placement, <code>false</code> for the
+	 * 						vertical one
+	 *
+	 * @return	The score, or 0 if the placement is <code>null</code> or does not have a tile on either side.
+	 */
+	static int scoreWordThrough(final Squares board, final TilePlacement placement, final boolean horizontal) {
+		return scoreCrossWord(board, placement, horizontal, true, null);
+	}
+
+	/**
+	 * Scores the word that the placement forms, on its own, with the tiles on the board.
+	 *
+	 * @param horizontal	<code>true</code> for the horizontal word through the placement, <code>false</code> for the
+	 * 						vertical one
+	 * @param crossWord		<code>true</code> if the word crosses the word formed along the placements,
+	 * 						<code>false</code> if the placement is the only one
+	 *
+	 * @return	The score, or 0 if the placement is <code>null</code> or does not have a tile on either side.
+	 */
+	private static int scoreCrossWord(final Squares board, final TilePlacement placement, final boolean horizontal,
+			final boolean crossWord, final ScoreExplanation explanation) {
+
+		if (placement == null) {
+			return 0;
+		}
+
+		int line = (horizontal ? placement.getY() : placement.getX());
+		int position = (horizontal ? placement.getX() : placement.getY());
+		int start = position;
+		while (cell(board, line, start - 1, horizontal) > Board.EMPTY) {
+			start--;
+		}
+		int end = position;
+		while (cell(board, line, end + 1, horizontal) > Board.EMPTY) {
+			end++;
+		}
+		if (start == end) {
+			return 0;
+		}
+
+		BoardLayout layout = board.getLayout();
+		int letterMultiplier = layout.getLetterMultiplier(placement.getX(), placement.getY());
+		int wordMultiplier = layout.getWordMultiplier(placement.getX(), placement.getY());
+		if (explanation != null) {
+			explanation.beginWord();
+		}
+
+		int points = 0;
+		for (int p = start; p <= end; p++) {
+			if (p == position) {
+				points += placement.getTile().getPointValue() * letterMultiplier;
+				if (explanation != null) {
+					explanation.addTile(placement.getTile(), letterMultiplier);
+				}
+			} else {
+				byte cell = cell(board, line, p, horizontal);
+				points += pointValue(cell);
+				if (explanation != null) {
+					explanation.addTile(Board.decode(cell), 1);
+				}
+			}
+		}
+
+		int score = points * wordMultiplier;
+		if (explanation != null) {
+			explanation.endWord(wordMultiplier, score, crossWord);
+		}
+		return score;
+	}
+
+	/**
+	 * @return	The encoded square on the board, or its border, at the position along the line, where a line is a row
+	 * 			when horizontal and a column otherwise.
+	 */
+	private static byte cell(final Squares board, final int line, final int p, final boolean horizontal) {
+		return (horizontal ? board.getCell(p, line) : board.getCell(line, p));
+	}
+
+	/**
+	 * @return	The point value of the tile on an encoded square that is not empty, which is 0 for a blank.
+	 */
+	private static int pointValue(final byte cell) {
+		return ((cell & Board.BLANK) != 0 ? 0 : Tile.getPointValue(Board.getLetter(cell)));
+	}
+
+	/**
+	 * Finds the placement at the position along the line.  Only its position along the line is compared, and if more
+	 * than one placement has it, the last one is used.
+	 */
+	private static TilePlacement find(final List<TilePlacement> placements, final int line, final int p,
+			final boolean horizontal) {
+
+		for (int i = placements.size() - 1; i >= 0; i--) {
+			TilePlacement placement = placements.get(i);
+			if (placement != null && (horizontal ? placement.getX() : placement.getY()) == p) {
+				return placement;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,326 @@
+package com.wordswithcheats.board;
+
+import java.util.List;
+
+import org.apache.commons.lang.Validate;
+
+import com.wordswithcheats.board.exception.IllegalTilePlacementException;
+import com.wordswithcheats.board.multiplier.BoardLayout;
+
+/**
+ * An immutable copy of the tiles on a {@link Board}, taken by {@link Board#snapshot()}.
+ * <p>
+ * Applying placements to a snapshot does not change it, but returns a new snapshot that shares every row that the
+ * placements do not touch with the snapshot it was applied to, so branching a position costs about as much as the rows
+ * that change.  The squares are encoded, and surrounded by a border, just as they are by Board.  Nothing in a snapshot
+ * is changed once it is created, so a snapshot can be read from any number of threads without locking, and a search can
+ * branch from the same position on each of them.
+ * <p>
+ * A snapshot keeps the premium squares and bingo rules of the board it was taken from, and can be turned back into a
+ * board with {@link #toBoard()}.
+ *
+ * @author Matt Sidesinger
+ */
+public final class BoardSnapshot implements Squares {
+
+	private final int width;
+	private final int height;
+	// rows[y][x], including the border, where a row is shared with any snapshot that it has not changed in
+	private final byte[][] rows;
+	private final long[] rowMasks;
+	private final long[] columnMasks;
+	private final int tileCount;
+	private final long zobristHash;
+	private final BoardLayout layout;
+	private final int bingoTileCount;
+	private final int bingoScore;
+
+	BoardSnapshot(final int width, final int height, final byte[][] rows, final long[] rowMasks,
+			final long[] columnMasks, final int tileCount, final long zobristHash, final BoardLayout layout,
+			final int bingoTileCount, final int bingoScore) {
+
+		this.width = width;
+		this.height = height;
+		this.rows = rows;
+		this.rowMasks = rowMasks;
+		this.columnMasks = columnMasks;
+		this.tileCount = tileCount;
+		this.zobristHash = zobristHash;
+		this.layout = layout;
+		this.bingoTileCount = bingoTileCount;
+		this.bingoScore = bingoScore;
+	}
+
+	/**
+	 * Validates the placements, by the same rules as {@link Board#validate(List)}, and applies them.  Unlike a board, a
+	 * snapshot also refuses two placements on the same square.
+	 *
+	 * @param placements	The tiles to place
+	 *
+	 * @return	A new snapshot with the tiles placed.
+	 *
+	 * @throws IllegalTilePlacementException	If the placements are not valid
+	 */
+	public BoardSnapshot apply(final List<TilePlacement> placements) throws IllegalTilePlacementException {
+		validate(placements);
+		return applyTrusted(placements);
+	}
+
+	/**
+	 * Applies placements that are known to be valid, such as those generated for this snapshot by a search, without
+	 * validating them.  Placing a tile on a square that holds one, or off the board, gives an undefined snapshot.
+	 *
+	 * @param placements	The tiles to place, none of which may be <code>null</code>
+	 *
+	 * @return	A new snapshot with the tiles placed, which shares every row without a placement with this one.
+	 */
+	public BoardSnapshot applyTrusted(final List<TilePlacement> placements) {
+
+		byte[][] changed = rows.clone();
+		long[] changedRowMasks = rowMasks.clone();
+		long[] changedColumnMasks = columnMasks.clone();
+		long hash = zobristHash;
+
+		int size = placements.size();
+		for (int i = 0; i < size; i++) {
+			TilePlacement p = placements.get(i);
+			int x = p.getX();
+			int y = p.getY();
+			// copy a row the first time a tile is placed in it
+			if (changed[y] == rows[y]) {
+				changed[y] = rows[y].clone();
+			}
+			byte cell = Board.encode(p.getTile());
+			changed[y][x] = cell;
+			changedRowMasks[y - 1] |= 1L << (x - 1);
+			changedColumnMasks[x - 1] |= 1L << (y - 1);
+			hash ^= Zobrist.square(x, y, cell);
+		}
+
+		return new BoardSnapshot(width, height, changed, changedRowMasks, changedColumnMasks, tileCount + size, hash,
+				layout, bingoTileCount, bingoScore);
+	}
+
+	/**
+	 * Scores the placements, which are not validated, as {@link Board#score(List, boolean)} does.
+	 *
+	 * @param placements	The placements to score
+	 *
+	 * @return	The score.
+	 *
+	 * @throws IllegalTilePlacementException	If a placement is not on the board
+	 */
+	public int score(final List<TilePlacement> placements) throws IllegalTilePlacementException {
+		return BoardScorer.score(this, placements);
+	}
+
+	/**
+	 * @return	A new board with the tiles, premium squares and bingo rules of this snapshot.
+	 */
+	public Board toBoard() {
+		return new Board(this);
+	}
+
+	/**
+	 * @throws IllegalTilePlacementException	If the placements are not all on empty squares in a line, with a tile
+	 * 											on every square between them, that either cover the start position of
+	 * 											an empty board or touch a tile on the board
+	 */
+	private void validate(final List<TilePlacement> placements) throws IllegalTilePlacementException {
+
+		Validate.notNull(placements, "at least one TilePlacement is required");
+		Validate.isTrue(placements.size() > 0, "at least one TilePlacement is required");
+
+		TilePlacement first = placements.get(0);
+		Validate.notNull(first, "a null TilePlacement cannot be placed");
+		boolean vertical = true;
+		boolean horizontal = true;
+		for (TilePlacement p : placements) {
+			Validate.notNull(p, "a null TilePlacement cannot be placed");
+			if (p.getX() < 1 || p.getY() < 1 || p.getX() > width || p.getY() > height) {
+				String message = String.format("the position (%d,%d) does not exist on the board",
+						Integer.valueOf(p.getX()), Integer.valueOf(p.getY()));
+				throw new IllegalTilePlacementException(message, p);
+			}
+			if (!Board.isEncodable(p.getTile())) {
+				throw new IllegalTilePlacementException("the tile must be a letter a-z or a blank", p);
+			}
+			if (getCell(p.getX(), p.getY()) != Board.EMPTY) {
+				String message = String.format("a Tile already exists at position (%d,%d) on the board",
+						Integer.valueOf(p.getX()), Integer.valueOf(p.getY()));
+				throw new IllegalTilePlacementException(message, p);
+			}
+			vertical &= (p.getX() == first.getX());
+			horizontal &= (p.getY() == first.getY());
+		}
+		if (!vertical && !horizontal) {
+			throw new IllegalTilePlacementException("tiles must be placed in a line");
+		}
+
+		if (placements.size() == 1) {
+			if (isEmpty()) {
+				if (first.getX() != getStartX() || first.getY() != getStartY()) {
+					throw new IllegalTilePlacementException("the tile placed must be placed on the start position",
+							first);
+				}
+			} else if (((adjacency(rowMasks, first.getY(), width) >>> (first.getX() - 1)) & 1L) == 0) {
+				throw new IllegalTilePlacementException(
+						"the tile placed must be adjacent to an already existing tile on the board", first);
+			}
+			return;
+		}
+
+		// the squares of the line from the first placement to the last, as bits of the column or row
+		int line = (vertical ? first.getX() : first.getY());
+		long occupied = (vertical ? columnMasks[line - 1] : rowMasks[line - 1]);
+		long placed = 0L;
+		for (TilePlacement p : placements) {
+			long square = 1L << ((vertical ? p.getY() : p.getX()) - 1);
+			if ((placed & square) != 0) {
+				throw new IllegalTilePlacementException("only one tile can be placed on a square", p);
+			}
+			placed |= square;
+		}
+		int from = Long.numberOfTrailingZeros(placed) + 1;
+		int to = Long.SIZE - Long.numberOfLeadingZeros(placed);
+		long span = (-1L >>> (Long.SIZE - (to - from + 1))) << (from - 1);
+
+		long gaps = span & ~(occupied | placed);
+		if (gaps != 0) {
+			int gap = Long.numberOfTrailingZeros(gaps) + 1;
+			String message = String.format("a tile must be placed at (%d,%d) for this to be a valid placement",
+					Integer.valueOf(vertical ? line : gap), Integer.valueOf(vertical ? gap : line));
+			throw new IllegalTilePlacementException(message);
+		}
+
+		if (isEmpty()) {
+			int start = (vertical ? getStartY() : getStartX());
+			if (line != (vertical ? getStartX() : getStartY()) || start < from || start > to) {
+				throw new IllegalTilePlacementException(
+						"at least one tile placed must be placed on the start position");
+			}
+		} else {
+			long adjacent = (vertical ? adjacency(columnMasks, line, height) : adjacency(rowMasks, line, width));
+			if ((span & adjacent) == 0) {
+				throw new IllegalTilePlacementException(
+						"at least one tile placed must be adjacent to an already existing tile on the board");
+			}
+		}
+	}
+
+	/**
+	 * @param masks		The masks of the rows or columns
+	 * @param i			The row or column
+	 * @param length	The number of squares in a row or column
+	 *
+	 * @return	The squares of the row or column with a tile on at least one side.
+	 */
+	private static long adjacency(final long[] masks, final int i, final int length) {
+
+		long mask = masks[i - 1];
+		long adjacent = mask << 1 | mask >>> 1;
+		if (i > 1) {
+			adjacent |= masks[i - 2];
+		}
+		if (i < masks.length) {
+			adjacent |= masks[i];
+		}
+		return adjacent & (-1L >>> (Long.SIZE - length));
+	}
+
+	/**
+	 * @return	The tile on the square, or <code>null</code> if it is empty.
+	 *
+	 * @throws IllegalArgumentException	If the square is not on the board
+	 */
+	public Tile get(final int x, final int y) {
+
+		Validate.isTrue(x > 0 && x <= width, "invalid x value: must be between 1 and width");
+		Validate.isTrue(y > 0 && y <= height, "invalid y value: must be between 1 and height");
+		return Board.decode(rows[y][x]);
+	}
+
+	@Override
+	public byte getCell(final int x, final int y) {
+		return rows[y][x];
+	}
+
+	/**
+	 * @return	The row itself, including its border, so that tests can see which rows are shared.
+	 */
+	byte[] getRowCells(final int y) {
+		return rows[y];
+	}
+
+	/**
+	 * @see Board#getRowMask(int)
+	 */
+	public long getRowMask(final int y) {
+		Validate.isTrue(y > 0 && y <= height, "invalid y value: must be between 1 and height");
+		return rowMasks[y - 1];
+	}
+
+	/**
+	 * @see Board#getColumnMask(int)
+	 */
+	public long getColumnMask(final int x) {
+		Validate.isTrue(x > 0 && x <= width, "invalid x value: must be between 1 and width");
+		return columnMasks[x - 1];
+	}
+
+	@Override
+	public int getWidth() {
+		return width;
+	}
+
+	@Override
+	public int getHeight() {
+		return height;
+	}
+
+	public int getStartX() {
+		return (width + 1) / 2;
+	}
+
+	public int getStartY() {
+		return (height + 1) / 2;
+	}
+
+	public int getTileCount() {
+		return tileCount;
+	}
+
+	public boolean isEmpty() {
+		return tileCount == 0;
+	}
+
+	/**
+	 * @see Board#getZobristHash()
+	 */
+	public long getZobristHash() {
+		return zobristHash;
+	}
+
+	@Override
+	public BoardLayout getLayout() {
+		return layout;
+	}
+
+	@Override
+	public int getBingoTileCount() {
+		return bingoTileCount;
+	}
+
+	@Override
+	public int getBingoScore() {
+		return bingoScore;
+	}
+
+	/**
+	 * The same as the board that the snapshot is of.
+	 */
+	@Override
+	public String toString() {
+		return toBoard().toString();
+	}
+}
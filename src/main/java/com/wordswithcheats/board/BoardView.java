@@ -0,0 +1,52 @@
+package com.wordswithcheats.board;
+
+import java.io.Serializable;
+
+/**
+ * Reads the squares of a {@link Board}, including its border, from one of the two copies of them that the board keeps:
+ * the squares laid out row by row, or laid out column by column as if the board were transposed.  Either way the
+ * squares are read by their x and y coordinates, without checking them, so a search that walks along a column reads
+ * the same squares from the column view as it would from the row view, but from neighbouring bytes.
+ * <p>
+ * A view reads the squares of the board as they are now, so it sees every tile placed on, or taken off, the board
+ * after it was obtained.
+ *
+ * @author Matt Sidesinger
+ */
+public final class BoardView implements Serializable {
+
+	private final byte[] cells;
+	// the distance between the squares next to each other along a row, and along a column
+	private final int xStride;
+	private final int yStride;
+
+	private static final long serialVersionUID = -4620271358803725093L;
+
+	BoardView(final byte[] cells, final int xStride, final int yStride) {
+
+		this.cells = cells;
+		this.xStride = xStride;
+		this.yStride = yStride;
+	}
+
+	/**
+	 * @see Board#hasTileAt(int, int)
+	 */
+	public boolean hasTileAt(final int x, final int y) {
+		return cells[x * xStride + y * yStride] > Board.EMPTY;
+	}
+
+	/**
+	 * @see Board#isSquare(int, int)
+	 */
+	public boolean isSquare(final int x, final int y) {
+		return cells[x * xStride + y * yStride] != Board.BORDER;
+	}
+
+	/**
+	 * @see Board#getTileAt(int, int)
+	 */
+	public Tile getTileAt(final int x, final int y) {
+		return Board.decode(cells[x * xStride + y * yStride]);
+	}
+}
@@ -257,6 +257,22 @@ public class Rack implements Cloneable, Iterable<Tile>, Serializable {
 		Collections.shuffle(this.rack);
 	}
 	
+	/**
+	 * Obtains a hash of the tiles in the rack, whatever their order, for use with {@link Board#getZobristHash()}.
+	 * Each tile has a random key, the same for every blank whatever its letter, and the hash is the sum of the keys.
+	 * So racks that hold the same tiles, the same number of times each, have the same hash.
+	 * 
+	 * @return	The hash, or 0 for an empty rack.
+	 */
+	public long getMultisetHash() {
+		
+		long hash = 0L;
+		for (Tile tile : rack) {
+			hash += Zobrist.rackTile(tile);
+		}
+		return hash;
+	}
+	
 	/**
 	 * Alias for {@link #rotateLeft()}.
 	 */
@@ -0,0 +1,171 @@
+package com.wordswithcheats.board;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A breakdown of how a list of tile placements is scored by {@link Board#score(List, boolean)}: the word formed along
+ * the placements, each cross-word formed by a single placement, and the bingo, if it is awarded.
+ * <p>
+ * An explanation is only built when asked for by {@link Board#explain(List)}, so that scoring itself does not build
+ * any strings.
+ *
+ * @author Matt Sidesinger
+ */
+public class ScoreExplanation {
+
+	/**
+	 * A word that is scored, along with how its score is calculated.
+	 */
+	public static class Word {
+
+		private final String word;
+		private final String calculation;
+		private final int score;
+
+		Word(final String word, final String calculation, final int score) {
+
+			this.word = word;
+			this.calculation = calculation;
+			this.score = score;
+		}
+
+		/**
+		 * @return	The letters of the word, upper case for a tile and lower case for a blank.
+		 */
+		public String getWord() {
+			return word;
+		}
+
+		/**
+		 * @return	How the score is calculated, for example "([C:3] + [A:1]x2 + [T:1])x2", without the score.
+		 */
+		public String getCalculation() {
+			return calculation;
+		}
+
+		/**
+		 * @return	The points scored for the word.
+		 */
+		public int getScore() {
+			return score;
+		}
+
+		/**
+		 * Example: "CAT: ([C:3] + [A:1]x2 + [T:1])x2 = 14"
+		 */
+		@Override
+		public String toString() {
+			return word + ": " + calculation + " = " + score;
+		}
+	}
+
+	private Word word;
+	private final List<Word> crossWords = new ArrayList<Word>(7);
+	private int bingo;
+	private int total;
+
+	// the word currently being recorded
+	private final StringBuilder letters = new StringBuilder();
+	private final StringBuilder calculation = new StringBuilder();
+
+	ScoreExplanation() {
+	}
+
+	/**
+	 * @return	The word formed along the placements, or <code>null</code> if there is not one.  A single placement
+	 * 			forms its word horizontally if it can, otherwise vertically.
+	 */
+	public Word getWord() {
+		return word;
+	}
+
+	/**
+	 * @return	The cross-words formed by each placement, in the order of the placements along the word.
+	 */
+	public List<Word> getCrossWords() {
+		return Collections.unmodifiableList(crossWords);
+	}
+
+	/**
+	 * @return	The bingo score awarded, or 0 if it is not.
+	 */
+	public int getBingo() {
+		return bingo;
+	}
+
+	/**
+	 * @return	The total score, which is the same as the one returned by {@link Board#score(List, boolean)}.
+	 */
+	public int getTotal() {
+		return total;
+	}
+
+	void beginWord() {
+
+		letters.setLength(0);
+		calculation.setLength(0);
+		calculation.append('(');
+	}
+
+	void addTile(final Tile tile, final int letterMultiplier) {
+
+		if (calculation.length() > 1) {
+			calculation.append(" + ");
+		}
+		calculation.append(tile.toString());
+		if (letterMultiplier > 1) {
+			calculation.append('x').append(letterMultiplier);
+		}
+		letters.append(tile.toChar());
+	}
+
+	/**
+	 * Ends the word currently being recorded.
+	 *
+	 * @param crossWord	<code>true</code> if the word is a cross-word, <code>false</code> if it is the word formed
+	 * 					along the placements.
+	 */
+	void endWord(final int wordMultiplier, final int score, final boolean crossWord) {
+
+		calculation.append(')');
+		if (wordMultiplier > 1) {
+			calculation.append('x').append(wordMultiplier);
+		}
+		Word w = new Word(letters.toString(), calculation.toString(), score);
+		if (crossWord) {
+			crossWords.add(w);
+		} else {
+			word = w;
+		}
+	}
+
+	void setBingo(final int bingo) {
+		this.bingo = bingo;
+	}
+
+	void setTotal(final int total) {
+		this.total = total;
+	}
+
+	/**
+	 * One line for each word, then the bingo, if awarded, and the total.
+	 */
+	@Override
+	public String toString() {
+
+		StringBuilder sb = new StringBuilder();
+		if (word != null) {
+			sb.append(word).append('\n');
+		}
+		for (Word crossWord : crossWords) {
+			sb.append(crossWord).append('\n');
+		}
+		if (bingo > 0) {
+			sb.append("BINGO: ").append(bingo).append('\n');
+		}
+		sb.append("TOTAL: ").append(total);
+		return sb.toString();
+	}
+}
@@ -0,0 +1,32 @@
+package com.wordswithcheats.board;
+
+import com.wordswithcheats.board.multiplier.BoardLayout;
+
+/**
+ * The squares of a board, as read by the {@link BoardScorer}, so that both a {@link Board} and a
+ * {@link BoardSnapshot} can be scored the same way.
+ *
+ * @author Matt Sidesinger
+ */
+interface Squares {
+
+	int getWidth();
+
+	int getHeight();
+
+	BoardLayout getLayout();
+
+	int getBingoTileCount();
+
+	int getBingoScore();
+
+	/**
+	 * Reads a square, encoded as described by {@link Board}, without checking that it is on the board.
+	 *
+	 * @param x	The x coordinate, from 0 to <code>width + 1</code>
+	 * @param y	The y coordinate, from 0 to <code>height + 1</code>
+	 *
+	 * @return	The encoded value of the square, which is {@link Board#BORDER} for the border.
+	 */
+	byte getCell(int x, int y);
+}
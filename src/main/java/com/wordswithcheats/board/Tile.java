@@ -40,7 +40,9 @@ import org.apache.commons.lang.Validate;
  * 	<li><strong>z</strong>: 10</li>
  * </ul>
  * <p>
- * Point values can be updated by calling {@link #setPointValue(char, int)}.
+ * Point values can be updated by calling {@link #setPointValue(char, int)}.  Each update replaces the table of point
+ * values rather than changing it, so a search that takes a copy with {@link #getPointValues()} scores every tile by
+ * the same table, even if the point values are updated by another thread while it runs.
  * 
  * @author Matt Sidesinger
  */
@@ -51,7 +53,8 @@ public class Tile implements Cloneable, Comparable<Tile>, Serializable {
 	private static final long serialVersionUID = 3849118518558827873L;
 	
 	// http://www.thekatespanos.com/scrabble-score-calculator/
-	private static final int[] POINTS = new int[] {
+	// replaced, never modified, so that the whole table can be read at once by getPointValues()
+	private static volatile int[] POINTS = new int[] {
 		1 /* a */, 3 /* b */, 3 /* c */, 2 /* d */, 1 /* e */, 4 /* f */, 2 /* g */, 4 /* h */,
 		1 /* i */, 8 /* j */, 5 /* k */, 1 /* l */, 3 /* m */, 1 /* n */, 1 /* o */, 3 /* p */,
 		10/* q */, 1 /* r */, 1 /* s */, 1 /* t */, 1 /* u */, 4 /* v */, 4 /* w */, 8 /* x */,
@@ -126,14 +129,26 @@ public class Tile implements Cloneable, Comparable<Tile>, Serializable {
 	 * @param letter		The letter to set the points for
 	 * @param pointValue	The number of points the corresponding tile is worth
 	 */
-	public static void setPointValue(final char letter, int pointValue) {
+	public static synchronized void setPointValue(final char letter, int pointValue) {
 		try {
-			POINTS[Character.toLowerCase(letter) - 'a'] = pointValue;
+			int[] points = POINTS.clone();
+			points[Character.toLowerCase(letter) - 'a'] = pointValue;
+			POINTS = points;
 		} catch (ArrayIndexOutOfBoundsException e) {
 			// ignore
 		}
 	}
 	
+	/**
+	 * Obtains a copy of the point values of every letter, taken all at once, so that a later call to
+	 * {@link #setPointValue(char, int)} does not change it.
+	 * 
+	 * @return	The points for each letter, indexed by the letter - 'a'
+	 */
+	public static int[] getPointValues() {
+		return POINTS.clone();
+	}
+	
 	/**
 	 * Obtains the point value of a <code>Tile</code> for the given letter.
 	 * 
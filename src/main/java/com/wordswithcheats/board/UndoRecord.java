@@ -0,0 +1,63 @@
+package com.wordswithcheats.board;
+
+/**
+ * What {@link Board#apply(java.util.List)} changed, so that {@link Board#undo(UndoRecord)} can take it back: the
+ * squares that the tiles were placed on, packed as <code>y &lt;&lt; 8 | x</code>, and the state of the board before
+ * and after the tiles were placed.
+ * <p>
+ * Only the record of the last placements applied to a board can be undone, so a search plays a move, recurses and
+ * takes it back in the reverse order.
+ *
+ * @author Matt Sidesinger
+ */
+public final class UndoRecord {
+
+	private final Board board;
+	private final short[] squares;
+	private final int score;
+	private final int before;
+	private final int after;
+
+	UndoRecord(final Board board, final short[] squares, final int score, final int before, final int after) {
+
+		this.board = board;
+		this.squares = squares;
+		this.score = score;
+		this.before = before;
+		this.after = after;
+	}
+
+	/**
+	 * @return	The score of the placements, as returned by {@link Board#place(java.util.List)}.
+	 */
+	public int getScore() {
+		return score;
+	}
+
+	/**
+	 * @return	The number of tiles placed.
+	 */
+	public int getTileCount() {
+		return squares.length;
+	}
+
+	Board getBoard() {
+		return board;
+	}
+
+	int getX(final int i) {
+		return squares[i] & 0xFF;
+	}
+
+	int getY(final int i) {
+		return squares[i] >>> 8;
+	}
+
+	int getBefore() {
+		return before;
+	}
+
+	int getAfter() {
+		return after;
+	}
+}
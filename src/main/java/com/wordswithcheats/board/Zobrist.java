@@ -0,0 +1,47 @@
+package com.wordswithcheats.board;
+
+/**
+ * The random keys that {@link Board#getZobristHash()} and {@link Rack#getMultisetHash()} are built from.
+ * <p>
+ * Rather than a table of random numbers, each key is a SplitMix64 hash of what it stands for, which is as well mixed
+ * as a table and needs no memory for boards of any size.  The keys are the same for every board and every run, so a
+ * hash can be kept, or compared across threads, without sharing anything.
+ *
+ * @author Matt Sidesinger
+ */
+final class Zobrist {
+
+	private static final long SQUARE_SEED = 0x5DEECE66DL;
+	private static final long RACK_SEED = 0x2545F4914F6CDD1DL;
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	private Zobrist() {
+	}
+
+	/**
+	 * @param x		The x coordinate of the square
+	 * @param y		The y coordinate of the square
+	 * @param cell	The encoded tile on the square, which holds both its letter and whether it is a blank
+	 *
+	 * @return	The key of the tile on the square.
+	 */
+	static long square(final int x, final int y, final byte cell) {
+		return mix(SQUARE_SEED + (((long) y << 16 | (long) x << 8 | (cell & 0xFF)) * GOLDEN_GAMMA));
+	}
+
+	/**
+	 * @return	The key of a tile on a rack, where every blank is the same whatever its letter.
+	 */
+	static long rackTile(final Tile tile) {
+		long code = (tile.isBlankTile() ? 0 : tile.getLetter() + 1);
+		return mix(RACK_SEED + code * GOLDEN_GAMMA);
+	}
+
+	private static long mix(final long seed) {
+
+		long z = seed;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
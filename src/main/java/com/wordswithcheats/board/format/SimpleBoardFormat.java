@@ -131,7 +131,7 @@ public class SimpleBoardFormat extends BoardFormat {
 		for (int x = 0; x < row.length; x++) {
 			if (row[x] == null) {
 				if (this.printMultipliers) {
-    				Multiplier multipler = board.getMultipliers().get(x + 1, rowNumber);
+    				Multiplier multipler = board.getLayout().getMultiplier(x + 1, rowNumber);
     				if (multipler != null) {
     					sb.append('*');
     				} else {
@@ -0,0 +1,281 @@
+package com.wordswithcheats.board.multiplier;
+
+import java.io.Serializable;
+
+import org.apache.commons.lang.Validate;
+
+/**
+ * An immutable grid of the premium squares of a board, looked up once from a {@link Multipliers} so that scoring a
+ * square is an array lookup rather than building a key and looking it up in a map.
+ * <p>
+ * The letter and word multipliers of each square are kept in dense arrays, indexed by
+ * <code>(y - 1) * width + (x - 1)</code>.  A square without a premium, or outside of the grid, has a multiplier of 1.
+ * Since a BoardLayout cannot be changed, the same instance can be shared by any number of boards and threads, as the
+ * {@link #SCRABBLE} and {@link #WORDS_WITH_FRIENDS} layouts are.
+ *
+ * @author Matt Sidesinger
+ */
+public final class BoardLayout implements Serializable {
+
+	/**
+	 * The premium squares of a standard 15x15 Scrabble board.
+	 */
+	public static final BoardLayout SCRABBLE = new BoardLayout(15, 15, new Multipliers()
+		// double letter
+		.addDoubleLetterScore(4,  1)
+		.addDoubleLetterScore(12, 1)
+		.addDoubleLetterScore(7,  3)
+		.addDoubleLetterScore(9,  3)
+		.addDoubleLetterScore(1,  4)
+		.addDoubleLetterScore(8,  4)
+		.addDoubleLetterScore(15, 4)
+		.addDoubleLetterScore(3,  7)
+		.addDoubleLetterScore(7,  7)
+		.addDoubleLetterScore(9,  7)
+		.addDoubleLetterScore(13, 7)
+		.addDoubleLetterScore(4,  8)
+		.addDoubleLetterScore(12, 8)
+		.addDoubleLetterScore(3,  9)
+		.addDoubleLetterScore(7,  9)
+		.addDoubleLetterScore(9,  9)
+		.addDoubleLetterScore(13, 9)
+		.addDoubleLetterScore(1,  12)
+		.addDoubleLetterScore(8,  12)
+		.addDoubleLetterScore(15, 12)
+		.addDoubleLetterScore(7,  13)
+		.addDoubleLetterScore(9,  13)
+		.addDoubleLetterScore(4,  15)
+		.addDoubleLetterScore(12, 15)
+		// triple letter
+		.addTripleLetterScore(6,  2)
+		.addTripleLetterScore(10, 2)
+		.addTripleLetterScore(2,  6)
+		.addTripleLetterScore(6,  6)
+		.addTripleLetterScore(10, 6)
+		.addTripleLetterScore(14, 6)
+		.addTripleLetterScore(2,  10)
+		.addTripleLetterScore(6,  10)
+		.addTripleLetterScore(10, 10)
+		.addTripleLetterScore(14, 10)
+		.addTripleLetterScore(6,  14)
+		.addTripleLetterScore(10, 14)
+		// double word
+		.addDoubleWordScore(8,  8)
+		.addDoubleWordScore(2,  2)
+		.addDoubleWordScore(3,  3)
+		.addDoubleWordScore(4,  4)
+		.addDoubleWordScore(5,  5)
+		.addDoubleWordScore(11, 5)
+		.addDoubleWordScore(12, 4)
+		.addDoubleWordScore(13, 3)
+		.addDoubleWordScore(14, 2)
+		.addDoubleWordScore(2,  14)
+		.addDoubleWordScore(3,  13)
+		.addDoubleWordScore(4,  12)
+		.addDoubleWordScore(5,  11)
+		.addDoubleWordScore(11, 11)
+		.addDoubleWordScore(12, 12)
+		.addDoubleWordScore(13, 13)
+		.addDoubleWordScore(14, 14)
+		// triple word
+		.addTripleWordScore(1,  1)
+		.addTripleWordScore(8,  1)
+		.addTripleWordScore(15, 1)
+		.addTripleWordScore(1,  8)
+		.addTripleWordScore(15, 8)
+		.addTripleWordScore(1,  15)
+		.addTripleWordScore(8,  15)
+		.addTripleWordScore(15, 15));
+
+	/**
+	 * The premium squares of a Words With Friends board.
+	 */
+	public static final BoardLayout WORDS_WITH_FRIENDS = new BoardLayout(15, 15, new Multipliers()
+		// double letter
+		.addDoubleLetterScore(3,  2)
+		.addDoubleLetterScore(13, 2)
+		.addDoubleLetterScore(2,  3)
+		.addDoubleLetterScore(5,  3)
+		.addDoubleLetterScore(11, 3)
+		.addDoubleLetterScore(14, 3)
+		.addDoubleLetterScore(3,  5)
+		.addDoubleLetterScore(7,  5)
+		.addDoubleLetterScore(9,  5)
+		.addDoubleLetterScore(13, 5)
+		.addDoubleLetterScore(5,  7)
+		.addDoubleLetterScore(11, 7)
+		.addDoubleLetterScore(5,  9)
+		.addDoubleLetterScore(11, 9)
+		.addDoubleLetterScore(3,  11)
+		.addDoubleLetterScore(7,  11)
+		.addDoubleLetterScore(9,  11)
+		.addDoubleLetterScore(13, 11)
+		.addDoubleLetterScore(2,  13)
+		.addDoubleLetterScore(5,  13)
+		.addDoubleLetterScore(11, 13)
+		.addDoubleLetterScore(14, 13)
+		.addDoubleLetterScore(3,  14)
+		.addDoubleLetterScore(13, 14)
+		// triple letter
+		.addTripleLetterScore(7,  1)
+		.addTripleLetterScore(9,  1)
+		.addTripleLetterScore(4,  4)
+		.addTripleLetterScore(12, 4)
+		.addTripleLetterScore(6,  6)
+		.addTripleLetterScore(10, 6)
+		.addTripleLetterScore(1,  7)
+		.addTripleLetterScore(15, 7)
+		.addTripleLetterScore(1,  9)
+		.addTripleLetterScore(15, 9)
+		.addTripleLetterScore(6,  10)
+		.addTripleLetterScore(10, 10)
+		.addTripleLetterScore(4,  12)
+		.addTripleLetterScore(12, 12)
+		.addTripleLetterScore(7,  15)
+		.addTripleLetterScore(9,  15)
+		// double word
+		.addDoubleWordScore(6,  2)
+		.addDoubleWordScore(10, 2)
+		.addDoubleWordScore(8,  4)
+		.addDoubleWordScore(2,  6)
+		.addDoubleWordScore(14, 6)
+		.addDoubleWordScore(4,  8)
+		.addDoubleWordScore(12, 8)
+		.addDoubleWordScore(2,  10)
+		.addDoubleWordScore(14, 10)
+		.addDoubleWordScore(8,  12)
+		.addDoubleWordScore(6,  14)
+		.addDoubleWordScore(10, 14)
+		// triple word
+		.addTripleWordScore(4,  1)
+		.addTripleWordScore(12, 1)
+		.addTripleWordScore(1,  4)
+		.addTripleWordScore(15, 4)
+		.addTripleWordScore(1,  12)
+		.addTripleWordScore(15, 12)
+		.addTripleWordScore(4,  15)
+		.addTripleWordScore(12, 15));
+
+	private static final long serialVersionUID = 5171404360866323516L;
+
+	private final int width;
+	private final int height;
+
+	// indexed by (y - 1) * width + (x - 1)
+	private final byte[] letterMultipliers;
+	private final byte[] wordMultipliers;
+	// the premiums themselves, null for a square without one, kept so that the Multipliers can be rebuilt
+	private final Multiplier[] multipliers;
+
+	/**
+	 * Looks up the premium of every square of a board of the given size.  The Multipliers can be changed afterwards
+	 * without changing the layout.
+	 *
+	 * @param width			The width of the board
+	 * @param height		The height of the board
+	 * @param multipliers	The premium squares, or <code>null</code> for a board without any
+	 *
+	 * @throws IllegalArgumentException	If a multiplier is greater than {@value Byte#MAX_VALUE}
+	 */
+	public BoardLayout(final int width, final int height, final Multipliers multipliers) {
+
+		Validate.isTrue(width > 0 && height > 0, "width and height must both be greater than 0");
+
+		this.width = width;
+		this.height = height;
+		this.letterMultipliers = new byte[width * height];
+		this.wordMultipliers = new byte[width * height];
+		this.multipliers = new Multiplier[width * height];
+
+		for (int y = 1; y <= height; y++) {
+			for (int x = 1; x <= width; x++) {
+
+				int i = index(x, y);
+				letterMultipliers[i] = 1;
+				wordMultipliers[i] = 1;
+
+				Multiplier multiplier = (multipliers == null ? null : multipliers.get(x, y));
+				if (multiplier == null) {
+					continue;
+				}
+				Validate.isTrue(multiplier.getValue() <= Byte.MAX_VALUE, "multiplier value is too large: "
+						+ multiplier.getValue());
+				this.multipliers[i] = multiplier;
+				if (multiplier instanceof LetterMultiplier) {
+					letterMultipliers[i] = (byte) multiplier.getValue();
+				} else if (multiplier instanceof WordMultiplier) {
+					wordMultipliers[i] = (byte) multiplier.getValue();
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return	The width of the grid.
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * @return	The height of the grid.
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * @param x	The x coordinate
+	 * @param y	The y coordinate
+	 *
+	 * @return	The value of the {@link LetterMultiplier} on the square, or 1 if it does not have one.
+	 */
+	public int getLetterMultiplier(final int x, final int y) {
+		return (isInBounds(x, y) ? letterMultipliers[index(x, y)] : 1);
+	}
+
+	/**
+	 * @param x	The x coordinate
+	 * @param y	The y coordinate
+	 *
+	 * @return	The value of the {@link WordMultiplier} on the square, or 1 if it does not have one.
+	 */
+	public int getWordMultiplier(final int x, final int y) {
+		return (isInBounds(x, y) ? wordMultipliers[index(x, y)] : 1);
+	}
+
+	/**
+	 * @param x	The x coordinate
+	 * @param y	The y coordinate
+	 *
+	 * @return	The multiplier on the square, or <code>null</code> if it does not have one.
+	 */
+	public Multiplier getMultiplier(final int x, final int y) {
+		return (isInBounds(x, y) ? multipliers[index(x, y)] : null);
+	}
+
+	/**
+	 * @return	A new Multipliers holding every premium in the layout.
+	 */
+	public Multipliers toMultipliers() {
+
+		Multipliers copy = new Multipliers();
+		for (int y = 1; y <= height; y++) {
+			for (int x = 1; x <= width; x++) {
+				Multiplier multiplier = multipliers[index(x, y)];
+				if (multiplier != null) {
+					copy.add(x, y, multiplier);
+				}
+			}
+		}
+		return copy;
+	}
+
+	private boolean isInBounds(final int x, final int y) {
+		return (x >= 1 && y >= 1 && x <= width && y <= height);
+	}
+
+	private int index(final int x, final int y) {
+		return (y - 1) * width + (x - 1);
+	}
+}
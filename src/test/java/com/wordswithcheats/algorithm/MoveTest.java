@@ -0,0 +1,75 @@
+package com.wordswithcheats.algorithm;
+
+import static com.wordswithcheats.board.Tile.A;
+import static com.wordswithcheats.board.Tile.C;
+import static com.wordswithcheats.board.Tile.T;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.wordswithcheats.board.BlankTile;
+import com.wordswithcheats.board.TilePlacement;
+
+/**
+ * Test case for the {@link Move} class.
+ * 
+ * @author Matt Sidesinger
+ */
+public class MoveTest {
+	
+	@Test
+	public void testEquals() {
+		
+		Move m1 = new Move(Arrays.asList(new TilePlacement(1, 1, C), new TilePlacement(2, 1, A)), 4);
+		Move m2 = new Move(Arrays.asList(new TilePlacement(2, 1, A), new TilePlacement(1, 1, C)), 4);
+		Move m3 = new Move(Arrays.asList(new TilePlacement(1, 1, C), new TilePlacement(2, 1, new BlankTile('a'))), 3);
+		
+		// the order that the tiles were found in does not matter
+		assertEquals(m1, m2);
+		assertEquals(m1.hashCode(), m2.hashCode());
+		assertEquals(0, m1.compareTo(m2));
+		assertEquals(new TilePlacement(1, 1, C), m2.getPlacements().get(0));
+		
+		assertFalse(m1.equals(m3));
+		assertTrue(m1.compareTo(m3) != 0);
+	}
+	
+	@Test
+	public void testByScore() {
+		
+		Move m1 = new Move(Arrays.asList(new TilePlacement(1, 1, C), new TilePlacement(2, 1, A)), 4);
+		Move m2 = new Move(Arrays.asList(new TilePlacement(1, 2, T), new TilePlacement(2, 2, A)), 4);
+		Move m3 = new Move(Arrays.asList(new TilePlacement(1, 3, A), new TilePlacement(2, 3, T)), 2);
+		
+		assertTrue(Move.BY_SCORE.compare(m1, m3) < 0);
+		assertTrue(Move.BY_SCORE.compare(m3, m1) > 0);
+		// a tie is broken by position
+		assertTrue(Move.BY_SCORE.compare(m1, m2) < 0);
+		assertTrue(Move.BY_SCORE.compare(m2, m1) > 0);
+	}
+	
+	@Test
+	public void testKey() {
+		
+		Move across = new Move(Arrays.asList(new TilePlacement(9, 8, new BlankTile('t')),
+				new TilePlacement(7, 8, C)), 3);
+		assertEquals("7,8A C.t", across.getKey());
+		
+		Move down = new Move(Arrays.asList(new TilePlacement(2, 1, C), new TilePlacement(2, 2, A)), 4);
+		assertEquals("2,1D CA", down.getKey());
+		
+		Move single = new Move(Arrays.asList(new TilePlacement(2, 1, A)), 1);
+		assertEquals("2,1A A", single.getKey());
+		
+		// the same tiles on the same squares have the same key
+		Move other = new Move(Arrays.asList(new TilePlacement(7, 8, C),
+				new TilePlacement(9, 8, new BlankTile('t'))), 3);
+		assertEquals(across.getKey(), other.getKey());
+		assertFalse(across.getKey().equals(
+				new Move(Arrays.asList(new TilePlacement(7, 8, C), new TilePlacement(9, 8, T)), 4).getKey()));
+	}
+}
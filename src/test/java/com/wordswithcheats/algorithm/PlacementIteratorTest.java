@@ -0,0 +1,131 @@
+package com.wordswithcheats.algorithm;
+
+import static com.wordswithcheats.board.Tile.A;
+import static com.wordswithcheats.board.Tile.C;
+import static com.wordswithcheats.board.Tile.E;
+import static com.wordswithcheats.board.Tile.S;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.wordswithcheats.algorithm.gaddag.GaddagAlgorithm;
+import com.wordswithcheats.algorithm.gaddag.TrieTestUtils;
+import com.wordswithcheats.board.BlankTile;
+import com.wordswithcheats.board.Board;
+import com.wordswithcheats.board.Rack;
+import com.wordswithcheats.board.Tile;
+import com.wordswithcheats.board.TilePlacement;
+
+/**
+ * Test case for the {@link PlacementIterator} class.
+ * 
+ * @author Matt Sidesinger
+ */
+public class PlacementIteratorTest {
+	
+	private GaddagAlgorithm gaddag;
+	private Board board;
+	private Rack rack;
+	private int expected;
+	
+	@Before
+	public void setUp() throws Exception {
+		
+		gaddag = new GaddagAlgorithm(TrieTestUtils.createTrieFactory(
+				"at", "as", "ta", "cat", "cats", "act", "acts", "scat", "sea", "case", "cast", "caste", "ace", "aces"));
+		board = new Board(15, 15);
+		board.place(new TilePlacement(7, 8, C), new TilePlacement(8, 8, A), new TilePlacement(9, 8, Tile.T));
+		rack = new Rack(new Tile[] { C, A, S, E, new BlankTile() });
+		
+		final int[] count = new int[1];
+		gaddag.generatePlacements(board, rack, new MoveSink() {
+			@Override
+			public boolean accept(final List<TilePlacement> placements) {
+				count[0]++;
+				return true;
+			}
+		});
+		expected = count[0];
+		assertTrue(expected > 2);
+	}
+	
+	@Test
+	public void testIterator() {
+		
+		String before = rack.toString();
+		PlacementIterator iterator = new PlacementIterator(gaddag, board, rack);
+		int count = 0;
+		while (iterator.hasNext()) {
+			assertFalse(iterator.next().isEmpty());
+			count++;
+		}
+		assertEquals(expected, count);
+		assertFalse(iterator.hasNext());
+		assertEquals(before, rack.toString());
+	}
+	
+	@Test
+	public void testClose() {
+		
+		String before = rack.toString();
+		PlacementIterator iterator = new PlacementIterator(gaddag, board, rack);
+		assertTrue(iterator.hasNext());
+		iterator.next();
+		iterator.close();
+		assertFalse(iterator.hasNext());
+		// the algorithm has finished with the rack once the iterator is closed
+		assertEquals(before, rack.toString());
+	}
+	
+	@Test
+	public void testAbandoned() throws Exception {
+		
+		Thread thread = abandon();
+		// the algorithm cannot finish until the iterator takes the rest of the tile placements
+		assertTrue(thread.isAlive());
+		for (int i = 0; i < 100 && thread.isAlive(); i++) {
+			System.gc();
+			thread.join(100);
+		}
+		assertFalse(thread.isAlive());
+	}
+	
+	/**
+	 * Takes the first list of tile placements from a new iterator, then lets go of the iterator without closing it.
+	 * 
+	 * @return	The thread that the algorithm is run in.
+	 */
+	private Thread abandon() {
+		
+		PlacementIterator iterator = new PlacementIterator(gaddag, board, rack);
+		assertTrue(iterator.hasNext());
+		iterator.next();
+		return iterator.getThread();
+	}
+	
+	@Test
+	public void testStream() {
+		
+		String before = rack.toString();
+		assertEquals(expected, PlacementIterator.stream(gaddag, board, rack).count());
+		assertEquals(before, rack.toString());
+		
+		List<List<TilePlacement>> all = PlacementIterator.stream(gaddag, board, rack).collect(Collectors.toList());
+		assertEquals(expected, all.size());
+		
+		Stream<List<TilePlacement>> stream = PlacementIterator.stream(gaddag, board, rack);
+		try {
+			assertEquals(2, stream.limit(2).count());
+		} finally {
+			stream.close();
+		}
+		assertEquals(before, rack.toString());
+	}
+}
@@ -0,0 +1,248 @@
+package com.wordswithcheats.algorithm.gaddag;
+
+import static com.wordswithcheats.board.Tile.A;
+import static com.wordswithcheats.board.Tile.B;
+import static com.wordswithcheats.board.Tile.C;
+import static com.wordswithcheats.board.Tile.E;
+import static com.wordswithcheats.board.Tile.S;
+import static com.wordswithcheats.board.Tile.T;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.wordswithcheats.algorithm.gaddag.BatchJob.Goal;
+import com.wordswithcheats.board.BlankTile;
+import com.wordswithcheats.board.Board;
+import com.wordswithcheats.board.Rack;
+import com.wordswithcheats.board.Tile;
+import com.wordswithcheats.board.TilePlacement;
+
+/**
+ * Test case for the {@link BatchSolver} class.
+ *
+ * @author Matt Sidesinger
+ */
+public class BatchSolverTest {
+
+	private GaddagAlgorithm gaddag;
+	private ForkJoinPool pool;
+
+	@Before
+	public void setUp() throws Exception {
+
+		gaddag = new GaddagAlgorithm(TrieTestUtils.createTrieFactory(GaddagAlgorithmTest.WORDS));
+		pool = new ForkJoinPool(4);
+	}
+
+	@After
+	public void tearDown() {
+		pool.shutdown();
+	}
+
+	/**
+	 * The same racks against two boards, with every goal.
+	 */
+	private static List<BatchJob> createJobs() throws Exception {
+
+		Board first = GaddagAlgorithmTest.createBoard();
+		Board second = new Board(15, 15);
+		second.place(new TilePlacement(7, 8, C), new TilePlacement(8, 8, A), new TilePlacement(9, 8, B));
+
+		Rack[] racks = new Rack[] {
+			new Rack(new Tile[] { S, E, A, T }),
+			new Rack(new Tile[] { B, E, A, S, T, S, C }),
+			new Rack(new Tile[] { C, A, S, E, new BlankTile() })
+		};
+
+		List<BatchJob> jobs = new ArrayList<BatchJob>();
+		for (Board board : new Board[] { first, second }) {
+			for (Rack rack : racks) {
+				for (Goal goal : Goal.values()) {
+					jobs.add(new BatchJob(board, rack, goal));
+				}
+			}
+		}
+		return jobs;
+	}
+
+	@Test
+	public void testSolve() throws Exception {
+
+		List<BatchJob> jobs = createJobs();
+		BatchResults results = new BatchSolver(gaddag, pool).solve(jobs);
+
+		assertEquals(jobs.size(), results.getResults().size());
+		assertEquals(jobs.size(), results.getSolvedCount());
+		assertTrue(results.getPositionsPerSecond() > 0);
+
+		for (int i = 0; i < jobs.size(); i++) {
+
+			BatchJob job = jobs.get(i);
+			BatchResult result = results.getResults().get(i);
+			assertEquals(i, result.getIndex());
+			assertSame(job, result.getJob());
+			assertNotNull(job.toString(), result.getPlacement());
+
+			Board board = job.getBoard();
+			Rack rack = job.getRack();
+			if (job.getGoal() == Goal.HIGHEST_SCORE) {
+				assertEquals(job.toString(), board.score(gaddag.calculateHighestScorePlacement(board, rack)),
+						board.score(result.getPlacement()));
+			} else if (job.getGoal() == Goal.LONGEST) {
+				assertEquals(job.toString(), gaddag.longestPlacement(board, rack).size(),
+						result.getPlacement().size());
+			} else {
+				// a random placement must still be valid
+				board.score(result.getPlacement());
+			}
+		}
+	}
+
+	@Test
+	public void testSolveWithQuery() throws Exception {
+
+		Board board = GaddagAlgorithmTest.createBoard();
+		Rack rack = new Rack(new Tile[] { B, E, A, S, T, S });
+		MoveQuery query = new MoveQuery().requireTile(B).setMinLength(5);
+
+		List<BatchJob> jobs = new ArrayList<BatchJob>();
+		jobs.add(new BatchJob(board, rack, Goal.HIGHEST_SCORE, query));
+		jobs.add(new BatchJob(board, rack, Goal.HIGHEST_SCORE));
+
+		List<BatchResult> results = new BatchSolver(gaddag, pool).solve(jobs).getResults();
+		assertEquals(board.score(gaddag.selectPlacement(board, rack, query, PlacementStrategy.highestScore())),
+				board.score(results.get(0).getPlacement()));
+		assertEquals(board.score(gaddag.calculateHighestScorePlacement(board, rack)),
+				board.score(results.get(1).getPlacement()));
+	}
+
+	@Test
+	public void testSolveWithSink() throws Exception {
+
+		List<BatchJob> jobs = createJobs();
+		final Set<Integer> indexes = new HashSet<Integer>();
+		BatchResults results = new BatchSolver(gaddag, pool).solve(jobs, new BatchSink() {
+			@Override
+			public boolean accept(final BatchResult result) {
+				assertTrue(indexes.add(Integer.valueOf(result.getIndex())));
+				return true;
+			}
+		});
+
+		assertEquals(jobs.size(), indexes.size());
+		assertEquals(jobs.size(), results.getSolvedCount());
+		for (int i = 0; i < jobs.size(); i++) {
+			assertEquals(i, results.getResults().get(i).getIndex());
+		}
+	}
+
+	@Test
+	public void testSolveWithSinkStops() throws Exception {
+
+		// the fourth job, if it is started before the sink asks to stop, waits until the sink has asked and the
+		// calling thread is waiting for the running job, by which time no further job can be started
+		final AtomicInteger started = new AtomicInteger();
+		final CountDownLatch stopping = new CountDownLatch(1);
+		final Thread[] caller = new Thread[1];
+		GaddagAlgorithm held = new GaddagAlgorithm(TrieTestUtils.createTrieFactory(GaddagAlgorithmTest.WORDS)) {
+			@Override
+			protected List<TilePlacement> selectPlacement(final PreparedBoard prepared, final Rack rack,
+					final PlacementScorer scorer, final MoveQuery query, final PlacementStrategy strategy) {
+
+				if (started.incrementAndGet() == 4) {
+					try {
+						stopping.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					while (caller[0].getState() == Thread.State.RUNNABLE) {
+						Thread.yield();
+					}
+				}
+				return super.selectPlacement(prepared, rack, scorer, query, strategy);
+			}
+		};
+
+		// a single thread, so that the jobs are started in order and at most the fourth is running when the sink stops
+		ForkJoinPool single = new ForkJoinPool(1);
+		try {
+			List<BatchJob> jobs = createJobs();
+			final int[] count = new int[1];
+			BatchResults results = new BatchSolver(held, single).solve(jobs, new BatchSink() {
+				@Override
+				public boolean accept(final BatchResult result) {
+					if (++count[0] < 3) {
+						return true;
+					}
+					caller[0] = Thread.currentThread();
+					stopping.countDown();
+					return false;
+				}
+			});
+
+			assertEquals(3, count[0]);
+			int solved = started.get();
+			assertTrue(String.valueOf(solved), solved == 3 || solved == 4);
+			assertEquals(solved, results.getSolvedCount());
+			for (int i = 0; i < jobs.size(); i++) {
+				assertEquals(i < solved, results.getResults().get(i) != null);
+			}
+		} finally {
+			single.shutdown();
+		}
+	}
+
+	@Test
+	public void testSolveEmpty() throws Exception {
+
+		BatchSolver solver = new BatchSolver(gaddag, pool);
+		assertTrue(solver.solve(new ArrayList<BatchJob>()).getResults().isEmpty());
+		assertEquals(0, solver.solve(new ArrayList<BatchJob>(), new BatchSink() {
+			@Override
+			public boolean accept(final BatchResult result) {
+				return true;
+			}
+		}).getSolvedCount());
+	}
+
+	/**
+	 * A board that is modified between batches must be prepared again.
+	 */
+	@Test
+	public void testBoardModifiedBetweenBatches() throws Exception {
+
+		Board board = GaddagAlgorithmTest.createBoard();
+		Rack rack = new Rack(new Tile[] { B, E, A, S, T, S, C });
+		List<BatchJob> jobs = new ArrayList<BatchJob>();
+		jobs.add(new BatchJob(board, rack, Goal.HIGHEST_SCORE));
+
+		// a single thread, so that the second batch runs on the thread that prepared the board for the first
+		ForkJoinPool single = new ForkJoinPool(1);
+		try {
+			BatchSolver solver = new BatchSolver(gaddag, single);
+			List<TilePlacement> before = solver.solve(jobs).getResults().get(0).getPlacement();
+			board.place(before);
+			List<TilePlacement> after = solver.solve(jobs).getResults().get(0).getPlacement();
+
+			assertFalse(before.equals(after));
+			assertEquals(board.score(gaddag.calculateHighestScorePlacement(board, rack)), board.score(after));
+		} finally {
+			single.shutdown();
+		}
+	}
+}
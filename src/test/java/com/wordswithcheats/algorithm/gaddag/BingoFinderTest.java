@@ -0,0 +1,188 @@
+package com.wordswithcheats.algorithm.gaddag;
+
+import static com.wordswithcheats.board.Tile.A;
+import static com.wordswithcheats.board.Tile.D;
+import static com.wordswithcheats.board.Tile.E;
+import static com.wordswithcheats.board.Tile.G;
+import static com.wordswithcheats.board.Tile.I;
+import static com.wordswithcheats.board.Tile.N;
+import static com.wordswithcheats.board.Tile.O;
+import static com.wordswithcheats.board.Tile.R;
+import static com.wordswithcheats.board.Tile.S;
+import static com.wordswithcheats.board.Tile.T;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import com.wordswithcheats.algorithm.Move;
+import com.wordswithcheats.algorithm.MoveSink;
+import com.wordswithcheats.board.BlankTile;
+import com.wordswithcheats.board.Board;
+import com.wordswithcheats.board.Rack;
+import com.wordswithcheats.board.Tile;
+import com.wordswithcheats.board.TilePlacement;
+
+/**
+ * Test case for the {@link BingoFinder} class.
+ *
+ * @author Matt Sidesinger
+ */
+public class BingoFinderTest {
+
+	// the anagrams of "aeinrst", with and without one of the letters of "dog", and the short words they can cross
+	private static final String[] WORDS = new String[] {
+		"retains", "nastier", "retinas", "stainer", "stearin", "ratines", "anestri", "antsier", "detrains",
+		"strained", "notaries", "granites", "ingrates", "angriest", "astringe", "dog", "god", "do", "go", "od", "ad",
+		"ag", "id", "at", "as", "an", "in", "is", "it", "re", "er", "ta", "ti", "ne", "en", "na", "ae", "ar", "oe",
+		"to", "so", "no"
+	};
+
+	/**
+	 * Creates a board with "dog" placed across the start position.
+	 */
+	private static Board createBoard() throws Exception {
+
+		Board board = new Board(15, 15);
+		board.place(new TilePlacement(7, 8, D), new TilePlacement(8, 8, O), new TilePlacement(9, 8, G));
+		return board;
+	}
+
+	/**
+	 * Finds the bingos, keyed by {@link Move#getKey()}, and checks that each one uses the whole rack and only forms
+	 * words in the dictionary once it is placed.
+	 */
+	private static Map<String, List<TilePlacement>> findBingos(final GaddagAlgorithm gaddag, final boolean empty,
+			final Rack rack) throws Exception {
+
+		final Map<String, List<TilePlacement>> bingos = new TreeMap<String, List<TilePlacement>>();
+		assertTrue(gaddag.generateBingos(empty ? new Board(15, 15) : createBoard(), rack, new MoveSink() {
+			@Override
+			public boolean accept(final List<TilePlacement> placements) {
+				String key = new Move(placements, 0).getKey();
+				assertFalse(key, bingos.containsKey(key));
+				bingos.put(key, new ArrayList<TilePlacement>(placements));
+				return true;
+			}
+		}));
+
+		Set<String> dictionary = new HashSet<String>(Arrays.asList(WORDS));
+		for (Map.Entry<String, List<TilePlacement>> bingo : bingos.entrySet()) {
+			assertEquals(bingo.getKey(), rack.tileCount(), bingo.getValue().size());
+			Board board = (empty ? new Board(15, 15) : createBoard());
+			board.place(bingo.getValue());
+			for (String word : board.getAllWords()) {
+				assertTrue(bingo.getKey() + ": " + word, dictionary.contains(word));
+			}
+		}
+		return bingos;
+	}
+
+	/**
+	 * The keys of every placement passed along by {@link GaddagAlgorithm#generatePlacements(Board, Rack, MoveSink)}
+	 * that uses the whole rack.
+	 */
+	private static Set<String> generateBingos(final GaddagAlgorithm gaddag, final Board board, final Rack rack) {
+
+		final int tileCount = rack.tileCount();
+		final Set<String> keys = new HashSet<String>();
+		gaddag.generatePlacements(board, rack, new MoveSink() {
+			@Override
+			public boolean accept(final List<TilePlacement> placements) {
+				if (placements.size() == tileCount) {
+					keys.add(new Move(placements, 0).getKey());
+				}
+				return true;
+			}
+		});
+		return keys;
+	}
+
+	@Test
+	public void testFindBingos() throws Exception {
+
+		GaddagAlgorithm gaddag = new GaddagAlgorithm(TrieTestUtils.createTrieFactory(WORDS));
+		Rack rack = new Rack(new Tile[] { R, E, T, A, I, N, S });
+
+		Map<String, List<TilePlacement>> bingos = findBingos(gaddag, false, rack);
+		assertTrue(bingos.keySet().containsAll(generateBingos(gaddag, createBoard(), rack)));
+
+		// both words made from just the rack, and through each letter of "dog"
+		assertTrue(bingos.keySet().toString(), bingos.containsKey("8,7A NASTIER"));
+		assertTrue(bingos.keySet().toString(), bingos.containsKey("7,9D ETRAINS"));
+		assertTrue(bingos.keySet().toString(), bingos.containsKey("8,7D N.TARIES"));
+		assertTrue(bingos.keySet().toString(), bingos.containsKey("9,2D ASTRIN.E"));
+	}
+
+	@Test
+	public void testFindBingosWithBlanks() throws Exception {
+
+		GaddagAlgorithm gaddag = new GaddagAlgorithm(TrieTestUtils.createTrieFactory(WORDS));
+		Rack rack = new Rack(new Tile[] { R, E, T, A, new BlankTile(), N, new BlankTile() });
+
+		Map<String, List<TilePlacement>> bingos = findBingos(gaddag, false, rack);
+		assertTrue(bingos.keySet().containsAll(generateBingos(gaddag, createBoard(), rack)));
+
+		// the blanks are played as the I and the S
+		assertTrue(bingos.keySet().toString(), bingos.containsKey("8,7A NAsTiER"));
+		assertTrue(bingos.keySet().toString(), bingos.containsKey("7,9D ETRAiNs"));
+		assertTrue(bingos.keySet().toString(), bingos.containsKey("9,6D iN.RATEs"));
+		assertFalse(bingos.keySet().toString(), bingos.containsKey("7,9D ETRAINS"));
+	}
+
+	/**
+	 * A board can hold a blank that was placed without a letter, which no word can be played through.
+	 */
+	@Test
+	public void testFindBingosWithUnletteredBlankOnBoard() throws Exception {
+
+		GaddagAlgorithm gaddag = new GaddagAlgorithm(TrieTestUtils.createTrieFactory(WORDS));
+		Rack rack = new Rack(new Tile[] { R, E, T, A, I, N, S });
+		Board board = createBoard();
+		board.place(new TilePlacement(10, 8, new BlankTile()));
+
+		final Set<String> bingos = new HashSet<String>();
+		assertTrue(gaddag.generateBingos(board, rack, new MoveSink() {
+			@Override
+			public boolean accept(final List<TilePlacement> placements) {
+				bingos.add(new Move(placements, 0).getKey());
+				return true;
+			}
+		}));
+		assertTrue(bingos.containsAll(generateBingos(gaddag, board, rack)));
+		assertTrue(bingos.toString(), bingos.contains("7,9D ETRAINS"));
+		assertTrue(bingos.toString(), bingos.contains("8,7D N.TARIES"));
+	}
+
+	@Test
+	public void testFindBingosOnEmptyBoard() throws Exception {
+
+		GaddagAlgorithm gaddag = new GaddagAlgorithm(TrieTestUtils.createTrieFactory(WORDS));
+		Rack rack = new Rack(new Tile[] { R, E, T, A, I, N, S });
+		Board board = new Board(15, 15);
+
+		Map<String, List<TilePlacement>> bingos = findBingos(gaddag, true, rack);
+		assertTrue(bingos.keySet().containsAll(generateBingos(gaddag, board, rack)));
+		// 8 words, in either direction, each covering the start square with any of its 7 letters
+		assertEquals(8 * 2 * 7, bingos.size());
+	}
+
+	@Test
+	public void testFindBingosWithSmallRack() throws Exception {
+
+		GaddagAlgorithm gaddag = new GaddagAlgorithm(TrieTestUtils.createTrieFactory(WORDS));
+		Rack rack = new Rack(new Tile[] { R, E, T, A, I, N });
+
+		assertTrue(findBingos(gaddag, false, rack).isEmpty());
+	}
+}
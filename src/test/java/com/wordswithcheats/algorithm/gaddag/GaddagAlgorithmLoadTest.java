@@ -1,9 +1,13 @@
 package com.wordswithcheats.algorithm.gaddag;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.junit.Ignore;
 
+import com.wordswithcheats.algorithm.Move;
+import com.wordswithcheats.algorithm.MoveSink;
 import com.wordswithcheats.board.Board;
 import com.wordswithcheats.board.Rack;
 import com.wordswithcheats.board.Tile;
@@ -14,6 +18,9 @@ import com.wordswithcheats.board.exception.IllegalTilePlacementException;
 /**
  * This class does not contain any unit tests, but can be used to determine
  * how long it takes for two computer players to play each other in a game.
+ * <p>
+ * Every placement for each rack is also generated and counted, both as generated (raw) and as distinct moves
+ * (unique), so any placement that is generated more than once shows up as a difference between the two.
  * 
  * @author Matt Sidesinger
  */
@@ -37,6 +44,8 @@ public class GaddagAlgorithmLoadTest {
 		
 		int i = 0;
 		int couldNotPlayCount = 0;
+		long rawCount = 0;
+		long uniqueCount = 0;
 		while (rack1.tileCount() > 0 && rack2.tileCount() > 0) {
 			
 			Rack rack = null;
@@ -48,6 +57,20 @@ public class GaddagAlgorithmLoadTest {
 			
 			System.out.println("RACK: " + rack);
 			
+			final int[] raw = new int[1];
+			final Set<String> unique = new HashSet<String>();
+			algorithm.generatePlacements(board, rack, new MoveSink() {
+				@Override
+				public boolean accept(final List<TilePlacement> placements) {
+					raw[0]++;
+					unique.add(new Move(placements, 0).getKey());
+					return true;
+				}
+			});
+			System.out.println("PLACEMENTS: " + raw[0] + " raw, " + unique.size() + " unique");
+			rawCount += raw[0];
+			uniqueCount += unique.size();
+			
 			List<TilePlacement>placements = algorithm.calculateHighestScorePlacement(board, rack);
 			System.out.println("MAX placement is: " + placements);
 			if (placements == null) {
@@ -94,5 +117,6 @@ public class GaddagAlgorithmLoadTest {
 		
 		System.out.println("score 1:" + score1);
 		System.out.println("score 2:" + score2);
+		System.out.println("placements: " + rawCount + " raw, " + uniqueCount + " unique");
 	}
 }
@@ -22,13 +22,40 @@ import static com.wordswithcheats.board.Tile.X;
 import static com.wordswithcheats.board.Tile.Y;
 import static com.wordswithcheats.board.Tile.Z;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import org.junit.Ignore;
 import org.junit.Test;
 
+import com.wordswithcheats.algorithm.Move;
+import com.wordswithcheats.algorithm.MoveSink;
+import com.wordswithcheats.algorithm.gaddag.GaddagAlgorithm.Direction;
+import com.wordswithcheats.board.BlankTile;
 import com.wordswithcheats.board.Board;
 import com.wordswithcheats.board.Rack;
+import com.wordswithcheats.board.Tile;
 import com.wordswithcheats.board.TileBag;
 import com.wordswithcheats.board.TilePlacement;
 
@@ -39,6 +66,540 @@ import com.wordswithcheats.board.TilePlacement;
  */
 //TODO finish
 public class GaddagAlgorithmTest {
+	
+	// a small dictionary so that the Trie loads quickly
+	static final String[] WORDS = new String[] {
+		"at", "as", "ta", "cat", "cats", "act", "acts", "scat", "tea", "teas", "eat", "eats", "ate", "set", "sea",
+		"seat", "east", "eta", "etas", "sat", "ace", "aces", "case", "cast", "caste", "tace", "taces", "ab", "ba",
+		"bat", "bats", "tab", "tabs", "stab", "beat", "beast", "abet", "abets", "bet", "bets", "best", "bests"
+	};
+	
+	/**
+	 * Creates a board with a few words placed around the start position.
+	 */
+	static Board createBoard() throws Exception {
+		
+		Board board = new Board(15, 15);
+		board.place(new TilePlacement(7, 8, C), new TilePlacement(8, 8, A), new TilePlacement(9, 8, T));
+		board.place(new TilePlacement(9, 9, E), new TilePlacement(9, 10, A));
+		board.place(new TilePlacement(10, 10, T));
+		return board;
+	}
+	
+	/**
+	 * Scores every placement that {@link GaddagAlgorithm#randomPlacement(Board, Rack)} can choose from and returns
+	 * the highest score.
+	 */
+	static int highestScore(final GaddagAlgorithm gaddag, final Board board, final Rack rack) throws Exception {
+		
+		int maxScore = 0;
+		for (int x = 1; x <= board.getWidth(); x++) {
+			for (int y = 1; y <= board.getHeight(); y++) {
+				if (board.get(x, y) != null) {
+					continue;
+				}
+				for (Direction direction : new Direction[] { Direction.RIGHT, Direction.DOWN }) {
+					// only squares next to an existing tile are used as start positions
+					if (!direction.hasNext(board, x, y)) {
+						continue;
+					}
+					List<LinkedList<TilePlacement>> allPlacements = gaddag.generateAllPlacements(board, x, y, x, y,
+							rack, new LinkedList<TilePlacement>(), gaddag.getTrie().getRoot(), direction);
+					if (allPlacements != null) {
+						for (List<TilePlacement> placements : allPlacements) {
+							maxScore = Math.max(maxScore, board.score(placements, false));
+						}
+					}
+				}
+			}
+		}
+		return maxScore;
+	}
+	
+	@Test
+	public void testCalculateHighestScorePlacement() throws Exception {
+		
+		GaddagAlgorithm gaddag = new GaddagAlgorithm(TrieTestUtils.createTrieFactory(WORDS));
+		Board board = createBoard();
+		
+		Rack[] racks = new Rack[] {
+			new Rack(new Tile[] { S, E, A, T }),
+			new Rack(new Tile[] { B, E, A, S, T, S, C }),
+			new Rack(new Tile[] { C, A, S, E, new BlankTile() })
+		};
+		
+		for (Rack rack : racks) {
+			List<TilePlacement> tp = gaddag.calculateHighestScorePlacement(board, rack);
+			assertNotNull(tp);
+			assertEquals(rack.toString(), highestScore(gaddag, board, rack), board.score(tp));
+		}
+	}
+	
+	/**
+	 * A search that is stopped by its budget returns the best placement that it found so far.
+	 */
+	@Test
+	public void testCalculateHighestScorePlacementWithBudget() throws Exception {
+		
+		GaddagAlgorithm gaddag = new GaddagAlgorithm(TrieTestUtils.createTrieFactory(WORDS));
+		Board board = createBoard();
+		Rack rack = new Rack(new Tile[] { S, T, new BlankTile(), new BlankTile() });
+		String before = rack.toString();
+		int highest = highestScore(gaddag, board, rack);
+		
+		SearchResult result = gaddag.calculateHighestScorePlacement(board, rack, new SearchBudget());
+		assertTrue(result.isComplete());
+		assertEquals(highest, result.getScore());
+		assertEquals(highest, board.score(result.getPlacement()));
+		
+		// the best placement found so far grows with the budget, and is complete once the budget is large enough
+		int previous = 0;
+		long branches = 1;
+		do {
+			result = gaddag.calculateHighestScorePlacement(board, rack, new SearchBudget(branches));
+			assertTrue(result.getScore() >= previous);
+			assertTrue(result.getScore() <= highest);
+			if (result.getPlacement() != null) {
+				assertEquals(result.getScore(), board.score(result.getPlacement()));
+			}
+			assertEquals(before, rack.toString());
+			previous = result.getScore();
+			branches *= 2;
+		} while (!result.isComplete());
+		assertTrue(branches > 2);
+		assertEquals(highest, result.getScore());
+		
+		SearchBudget cancelled = new SearchBudget();
+		cancelled.cancel();
+		result = gaddag.calculateHighestScorePlacement(board, rack, cancelled);
+		assertFalse(result.isComplete());
+		assertNull(result.getPlacement());
+		assertEquals(before, rack.toString());
+	}
+	
+	/**
+	 * Pruning must not change the highest score, but must visit fewer branches than searching exhaustively.
+	 */
+	@Test
+	public void testCalculateHighestScorePlacementPrunes() throws Exception {
+		
+		GaddagAlgorithm gaddag = new GaddagAlgorithm(TrieTestUtils.createTrieFactory(WORDS));
+		Board board = createBoard();
+		Rack rack = new Rack(new Tile[] { S, T, new BlankTile(), new BlankTile() });
+		PlacementScorer scorer = new PlacementScorer(board);
+		
+		ScoreBound bound = new ScoreBound(scorer, board, rack);
+		List<TilePlacement> tp = gaddag.calculateHighestScorePlacement(board, rack, bound);
+		
+		// a bound that never prunes
+		ScoreBound exhaustive = new ScoreBound(scorer, board, rack) {
+			@Override
+			public int bound(final Rack r, final TrieNode node) {
+				return Integer.MAX_VALUE;
+			}
+		};
+		List<TilePlacement> exhaustiveTp = gaddag.calculateHighestScorePlacement(board, rack, exhaustive);
+		
+		assertEquals(board.score(exhaustiveTp), board.score(tp));
+		assertEquals(highestScore(gaddag, board, rack), board.score(tp));
+		assertEquals(0, exhaustive.getPruned());
+		assertTrue(bound.getPruned() > 0);
+		assertTrue(bound.getVisits() + " >= " + exhaustive.getVisits(), bound.getVisits() < exhaustive.getVisits());
+	}
+	
+	@Test
+	public void testCalculateHighestScorePlacementInParallel() throws Exception {
+		
+		GaddagAlgorithm gaddag = new GaddagAlgorithm(TrieTestUtils.createTrieFactory(WORDS));
+		Board board = createBoard();
+		
+		Rack[] racks = new Rack[] {
+			new Rack(new Tile[] { S, E, A, T }),
+			new Rack(new Tile[] { B, E, A, S, T, S, C }),
+			new Rack(new Tile[] { C, A, S, E, new BlankTile() })
+		};
+		
+		for (Rack rack : racks) {
+			
+			String before = rack.toString();
+			List<TilePlacement> expected = null;
+			
+			// the same placement must be found no matter how many threads are used
+			for (int parallelism : new int[] { 1, 2, 4 }) {
+				ForkJoinPool pool = new ForkJoinPool(parallelism);
+				try {
+					List<TilePlacement> tp = gaddag.calculateHighestScorePlacement(board, rack, pool);
+					assertNotNull(tp);
+					assertEquals(before, highestScore(gaddag, board, rack), board.score(tp));
+					if (expected == null) {
+						expected = tp;
+					} else {
+						assertEquals(before, expected.toString(), tp.toString());
+					}
+				} finally {
+					pool.shutdown();
+				}
+			}
+			
+			// the given rack must not be modified
+			assertEquals(before, rack.toString());
+		}
+	}
+
+	@Test
+	public void testCalculateHighestScorePlacements() throws Exception {
+		
+		GaddagAlgorithm gaddag = new GaddagAlgorithm(TrieTestUtils.createTrieFactory(WORDS));
+		Board board = createBoard();
+		
+		List<Rack> racks = new ArrayList<Rack>();
+		racks.add(new Rack(new Tile[] { S, E, A, T }));
+		racks.add(new Rack(new Tile[] { B, E, A, S, T, S, C }));
+		racks.add(new Rack(new Tile[] { C, A, S, E, new BlankTile() }));
+		racks.add(new Rack(new Tile[] { Z, X, J }));
+		racks.add(new Rack(new Tile[] { F, E, T, A }));
+		
+		List<String> before = new ArrayList<String>();
+		for (Rack rack : racks) {
+			before.add(rack.toString());
+		}
+		
+		// one rack at a time, then sharing the prepared board between threads
+		List<List<TilePlacement>> sequential = gaddag.calculateHighestScorePlacements(board, racks);
+		List<List<TilePlacement>> parallel;
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			parallel = gaddag.calculateHighestScorePlacements(board, racks, pool);
+		} finally {
+			pool.shutdown();
+		}
+		
+		assertEquals(racks.size(), sequential.size());
+		assertEquals(racks.size(), parallel.size());
+		for (int i = 0; i < racks.size(); i++) {
+			Rack rack = racks.get(i);
+			List<TilePlacement> expected = gaddag.calculateHighestScorePlacement(board, rack);
+			if (expected == null) {
+				assertNull(sequential.get(i));
+				assertNull(parallel.get(i));
+			} else {
+				assertEquals(before.get(i), board.score(expected), board.score(sequential.get(i)));
+				assertEquals(before.get(i), board.score(expected), board.score(parallel.get(i)));
+			}
+			assertEquals(before.get(i), rack.toString());
+		}
+		assertNull(sequential.get(3));
+		
+		assertTrue(gaddag.calculateHighestScorePlacements(board, new ArrayList<Rack>()).isEmpty());
+	}
+	
+	/**
+	 * Describes everything that the algorithm finds for the rack, so that the results of two searches can be compared.
+	 */
+	private static String describe(final GaddagAlgorithm gaddag, final Board board, final Rack rack, final long seed) {
+		
+		final Set<String> keys = new TreeSet<String>();
+		gaddag.generatePlacements(board, rack, new MoveSink() {
+			@Override
+			public boolean accept(final List<TilePlacement> placements) {
+				keys.add(new Move(placements, 0).getKey());
+				return true;
+			}
+		});
+		
+		return gaddag.calculateHighestScorePlacement(board, rack) + " " + gaddag.longestPlacement(board, rack) + " "
+				+ gaddag.randomPlacement(board, rack, new Random(seed)) + " " + gaddag.paretoFront(board, rack) + " "
+				+ keys;
+	}
+	
+	@Test
+	public void testConcurrentSearches() throws Exception {
+		
+		final GaddagAlgorithm gaddag = new GaddagAlgorithm(TrieTestUtils.createTrieFactory(WORDS));
+		final Board board = createBoard();
+		final String boardBefore = board.toString();
+		
+		final Rack[] racks = new Rack[] {
+			new Rack(new Tile[] { S, E, A, T }),
+			new Rack(new Tile[] { B, E, A, S, T, S, C }),
+			new Rack(new Tile[] { C, A, S, E, new BlankTile() }),
+			new Rack(new Tile[] { new BlankTile(), E, new BlankTile(), T }),
+			new Rack(new Tile[] { F, E, T, A })
+		};
+		final String[] racksBefore = new String[racks.length];
+		final String[] expected = new String[racks.length];
+		for (int i = 0; i < racks.length; i++) {
+			racksBefore[i] = racks[i].toString();
+			expected[i] = describe(gaddag, board, racks[i], i);
+		}
+		
+		// every thread searches the same board with the same racks, all at once, using the same instance
+		int threads = 8;
+		final int iterations = 20;
+		final CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Void>> futures = new ArrayList<Future<Void>>();
+			for (int t = 0; t < threads; t++) {
+				final int offset = t;
+				futures.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						start.await();
+						for (int n = 0; n < iterations; n++) {
+							int i = (offset + n) % racks.length;
+							assertEquals(racksBefore[i], expected[i], describe(gaddag, board, racks[i], i));
+						}
+						return null;
+					}
+				}));
+			}
+			start.countDown();
+			for (Future<Void> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+		
+		// the shared inputs must not be modified
+		assertEquals(boardBefore, board.toString());
+		for (int i = 0; i < racks.length; i++) {
+			assertEquals(racksBefore[i], racks[i].toString());
+		}
+	}
+	
+	@Test
+	public void testPointValuesTakenWhenPrepared() throws Exception {
+		
+		GaddagAlgorithm gaddag = new GaddagAlgorithm(TrieTestUtils.createTrieFactory(WORDS));
+		Board board = createBoard();
+		Rack rack = new Rack(new Tile[] { B, E, A, S, T, S, C });
+		
+		PreparedBoard prepared = gaddag.prepare(board);
+		List<TilePlacement> expected = gaddag.calculateHighestScorePlacement(board, rack);
+		int points = Tile.getPointValue('e');
+		try {
+			// a search of a board prepared before the change still uses the old point values
+			Tile.setPointValue('e', 50);
+			List<TilePlacement> tp = gaddag.selectPlacement(prepared, rack, PlacementStrategy.highestScore());
+			assertEquals(expected.toString(), tp.toString());
+			
+			// while a board prepared afterwards uses the new ones
+			tp = gaddag.calculateHighestScorePlacement(board, rack);
+			assertEquals(highestScore(gaddag, board, rack), board.score(tp));
+			assertTrue(new Move(tp, 0).getKey().indexOf('E') >= 0);
+		} finally {
+			Tile.setPointValue('e', points);
+		}
+	}
+
+	@Test
+	public void testGeneratePlacements() throws Exception {
+		
+		GaddagAlgorithm gaddag = new GaddagAlgorithm(TrieTestUtils.createTrieFactory(WORDS));
+		Board board = createBoard();
+		Rack rack = new Rack(new Tile[] { C, A, S, E, new BlankTile() });
+		String before = rack.toString();
+		
+		int expected = 0;
+		for (Direction direction : new Direction[] { Direction.RIGHT, Direction.DOWN }) {
+			for (int x = 1; x <= board.getWidth(); x++) {
+				for (int y = 1; y <= board.getHeight(); y++) {
+					if (board.get(x, y) == null && direction.hasNext(board, x, y)) {
+						List<LinkedList<TilePlacement>> allPlacements = gaddag.generateAllPlacements(board, x, y, x, y,
+								rack, new LinkedList<TilePlacement>(), gaddag.getTrie().getRoot(), direction);
+						expected += (allPlacements == null ? 0 : allPlacements.size());
+					}
+				}
+			}
+		}
+		
+		final int[] count = new int[1];
+		assertTrue(gaddag.generatePlacements(board, rack, new MoveSink() {
+			@Override
+			public boolean accept(final List<TilePlacement> placements) {
+				count[0]++;
+				return true;
+			}
+		}));
+		assertTrue(expected > 3);
+		assertEquals(expected, count[0]);
+		assertEquals(before, rack.toString());
+		
+		// stop early
+		count[0] = 0;
+		assertFalse(gaddag.generatePlacements(board, rack, new MoveSink() {
+			@Override
+			public boolean accept(final List<TilePlacement> placements) {
+				return (++count[0] < 3);
+			}
+		}));
+		assertEquals(3, count[0]);
+		assertEquals(before, rack.toString());
+	}
+
+	/**
+	 * A placement that can be reached from more than one anchor, or a single tile that forms a word in both
+	 * directions, must only be passed to the sink once.
+	 */
+	@Test
+	public void testGeneratePlacementsOnce() throws Exception {
+		
+		GaddagAlgorithm gaddag = new GaddagAlgorithm(TrieTestUtils.createTrieFactory(WORDS));
+		
+		// an A at (8,7) forms "at" both across and down
+		Board board = new Board(15, 15);
+		board.place(new TilePlacement(8, 8, T), new TilePlacement(9, 8, A));
+		board.place(new TilePlacement(9, 7, T), new TilePlacement(9, 9, B));
+		
+		Rack[] racks = new Rack[] { new Rack(new Tile[] { A, T, S }), new Rack(new Tile[] { B, E, A, S, T, S, C }) };
+		for (Rack rack : racks) {
+			
+			final List<String> keys = new ArrayList<String>();
+			assertTrue(gaddag.generatePlacements(board, rack, new MoveSink() {
+				@Override
+				public boolean accept(final List<TilePlacement> placements) {
+					keys.add(new Move(placements, 0).getKey());
+					return true;
+				}
+			}));
+			
+			assertTrue(keys.contains("8,7A A"));
+			assertEquals(keys.toString(), new HashSet<String>(keys).size(), keys.size());
+		}
+	}
+	
+	/**
+	 * A cross-word can have existing tiles on both sides of the square.
+	 */
+	@Test
+	public void testValidateCrossWordExists() throws Exception {
+		
+		GaddagAlgorithm gaddag = new GaddagAlgorithm(TrieTestUtils.createTrieFactory(WORDS));
+		Board board = createBoard();
+		// (10,9) is between an S above and a T below
+		board.place(new TilePlacement(10, 8, S));
+		
+		assertTrue(gaddag.validateCrossWordExists(board, 10, 9, A, Direction.RIGHT));
+		assertTrue(gaddag.validateCrossWordExists(board, 10, 9, E, Direction.RIGHT));
+		assertFalse(gaddag.validateCrossWordExists(board, 10, 9, T, Direction.RIGHT));
+		// "ea" is across
+		assertFalse(gaddag.validateCrossWordExists(board, 10, 9, A, Direction.DOWN));
+	}
+	
+	/**
+	 * Blanks and repeated tiles must not lead to the same placement more than once, and every blank tile that is
+	 * passed along must be its own BlankTile.
+	 */
+	@Test
+	public void testGeneratePlacementsWithBlanks() throws Exception {
+		
+		GaddagAlgorithm gaddag = new GaddagAlgorithm(TrieTestUtils.createTrieFactory(WORDS));
+		Board board = createBoard();
+		Rack rack = new Rack(new Tile[] { S, T, S, new BlankTile(), new BlankTile() });
+		
+		Set<Tile> blanks = Collections.newSetFromMap(new IdentityHashMap<Tile, Boolean>());
+		int count = 0;
+		for (int x = 1; x <= board.getWidth(); x++) {
+			for (int y = 1; y <= board.getHeight(); y++) {
+				for (Direction direction : new Direction[] { Direction.RIGHT, Direction.DOWN }) {
+					if (board.get(x, y) != null || !direction.hasNext(board, x, y)) {
+						continue;
+					}
+					List<LinkedList<TilePlacement>> allPlacements = gaddag.generateAllPlacements(board, x, y, x, y,
+							rack, new LinkedList<TilePlacement>(), gaddag.getTrie().getRoot(), direction);
+					if (allPlacements == null) {
+						continue;
+					}
+					Set<Move> moves = new HashSet<Move>();
+					for (List<TilePlacement> placements : allPlacements) {
+						assertTrue(placements.toString(), moves.add(new Move(placements, 0)));
+						for (TilePlacement placement : placements) {
+							Tile tile = placement.getTile();
+							if (tile.isBlankTile()) {
+								assertTrue(tile.getLetter() >= 'a' && tile.getLetter() <= 'z');
+								assertTrue(placements.toString(), blanks.add(tile));
+							}
+						}
+					}
+					count += moves.size();
+				}
+			}
+		}
+		
+		assertTrue(count > 3);
+		assertFalse(blanks.isEmpty());
+	}
+	
+	/**
+	 * Scores every distinct placement that can be made from an anchor, best first.
+	 */
+	static List<Move> allMoves(final GaddagAlgorithm gaddag, final Board board, final Rack rack,
+			final Comparator<Move> comparator) throws Exception {
+		
+		Set<Move> moves = new HashSet<Move>();
+		for (int x = 1; x <= board.getWidth(); x++) {
+			for (int y = 1; y <= board.getHeight(); y++) {
+				for (Direction direction : new Direction[] { Direction.RIGHT, Direction.DOWN }) {
+					if (board.get(x, y) != null || !direction.hasNext(board, x, y)) {
+						continue;
+					}
+					List<LinkedList<TilePlacement>> allPlacements = gaddag.generateAllPlacements(board, x, y, x, y,
+							rack, new LinkedList<TilePlacement>(), gaddag.getTrie().getRoot(), direction);
+					if (allPlacements != null) {
+						for (List<TilePlacement> placements : allPlacements) {
+							moves.add(new Move(placements, board.score(placements, false)));
+						}
+					}
+				}
+			}
+		}
+		List<Move> sorted = new ArrayList<Move>(moves);
+		Collections.sort(sorted, comparator);
+		return sorted;
+	}
+	
+	@Test
+	public void testTopMoves() throws Exception {
+		
+		GaddagAlgorithm gaddag = new GaddagAlgorithm(TrieTestUtils.createTrieFactory(WORDS));
+		Board board = createBoard();
+		
+		// the most tiles first, then the highest score
+		Comparator<Move> longest = new Comparator<Move>() {
+			@Override
+			public int compare(final Move m1, final Move m2) {
+				int result = m2.getPlacements().size() - m1.getPlacements().size();
+				return (result != 0 ? result : Move.BY_SCORE.compare(m1, m2));
+			}
+		};
+		
+		Rack[] racks = new Rack[] {
+			new Rack(new Tile[] { S, E, A, T }),
+			new Rack(new Tile[] { B, E, A, S, T, S, C }),
+			new Rack(new Tile[] { C, A, S, E, new BlankTile() })
+		};
+		
+		for (Rack rack : racks) {
+			for (Comparator<Move> comparator : Arrays.asList(Move.BY_SCORE, longest)) {
+				
+				List<Move> expected = allMoves(gaddag, board, rack, comparator);
+				assertTrue(expected.size() > 10);
+				
+				for (int k : new int[] { 1, 5, 10, expected.size() + 1 }) {
+					List<Move> moves = gaddag.topMoves(board, rack, k, comparator);
+					assertEquals(rack + " k=" + k, expected.subList(0, Math.min(k, expected.size())), moves);
+					for (int i = 0; i < moves.size(); i++) {
+						assertEquals(expected.get(i).getScore(), moves.get(i).getScore());
+					}
+				}
+			}
+			
+			assertEquals(highestScore(gaddag, board, rack), gaddag.topMoves(board, rack, 1, Move.BY_SCORE).get(0)
+					.getScore());
+		}
+	}
 
 	@Ignore
 	@Test
@@ -0,0 +1,320 @@
+package com.wordswithcheats.algorithm.gaddag;
+
+import static com.wordswithcheats.board.Tile.A;
+import static com.wordswithcheats.board.Tile.B;
+import static com.wordswithcheats.board.Tile.E;
+import static com.wordswithcheats.board.Tile.S;
+import static com.wordswithcheats.board.Tile.T;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import com.wordswithcheats.algorithm.Move;
+import com.wordswithcheats.algorithm.MoveSink;
+import com.wordswithcheats.board.BlankTile;
+import com.wordswithcheats.board.Board;
+import com.wordswithcheats.board.Rack;
+import com.wordswithcheats.board.Tile;
+import com.wordswithcheats.board.TilePlacement;
+import com.wordswithcheats.board.multiplier.LetterMultiplier;
+import com.wordswithcheats.board.multiplier.Multiplier;
+import com.wordswithcheats.board.multiplier.WordMultiplier;
+
+/**
+ * Test case for the {@link MoveQuery} class.
+ *
+ * @author Matt Sidesinger
+ */
+public class MoveQueryTest {
+
+	/**
+	 * Counts the squares visited by the traversal.
+	 */
+	private static class CountingGaddagAlgorithm extends GaddagAlgorithm {
+
+		private long visits;
+
+		CountingGaddagAlgorithm() throws Exception {
+			super(TrieTestUtils.createTrieFactory(GaddagAlgorithmTest.WORDS));
+		}
+
+		@Override
+		protected boolean generatePlacements(final PreparedBoard prepared, final int startX, final int startY,
+				final int x, final int y, final Rack rack, final LinkedList<TilePlacement> placements,
+				final PlacementScorer scorer, final ScoreBound bound, final MoveQuery query, final TrieNode node,
+				final Direction direction, final MoveSink sink) {
+
+			visits++;
+			return super.generatePlacements(prepared, startX, startY, x, y, rack, placements, scorer, bound, query, node,
+					direction, sink);
+		}
+	}
+
+	private static Set<String> generate(final GaddagAlgorithm gaddag, final Board board, final Rack rack,
+			final MoveQuery query) {
+
+		final Set<String> keys = new TreeSet<String>();
+		MoveSink sink = new MoveSink() {
+			@Override
+			public boolean accept(final List<TilePlacement> placements) {
+				keys.add(new Move(placements, 0).getKey());
+				return true;
+			}
+		};
+		if (query == null) {
+			gaddag.generatePlacements(board, rack, sink);
+		} else {
+			gaddag.generatePlacements(board, rack, query, sink);
+		}
+		return keys;
+	}
+
+	/**
+	 * The keys of every placement generated without a query that a tile is placed on the square with.
+	 */
+	private static Set<String> filterBySquare(final GaddagAlgorithm gaddag, final Board board, final Rack rack,
+			final int x, final int y) {
+
+		final Set<String> keys = new TreeSet<String>();
+		gaddag.generatePlacements(board, rack, new MoveSink() {
+			@Override
+			public boolean accept(final List<TilePlacement> placements) {
+				for (TilePlacement placement : placements) {
+					if (placement.getX() == x && placement.getY() == y) {
+						keys.add(new Move(placements, 0).getKey());
+					}
+				}
+				return true;
+			}
+		});
+		return keys;
+	}
+
+	@Test
+	public void testRequireTile() throws Exception {
+
+		GaddagAlgorithm gaddag = new GaddagAlgorithm(TrieTestUtils.createTrieFactory(GaddagAlgorithmTest.WORDS));
+		Board board = GaddagAlgorithmTest.createBoard();
+		Rack rack = new Rack(new Tile[] { B, E, S, T, new BlankTile() });
+
+		Set<String> all = generate(gaddag, board, rack, null);
+		Set<String> withB = generate(gaddag, board, rack, new MoveQuery().requireTile(B));
+		Set<String> withBlank = generate(gaddag, board, rack, new MoveQuery().requireTile(new BlankTile('a')));
+
+		assertFalse(withB.isEmpty());
+		assertFalse(withBlank.isEmpty());
+		for (String key : all) {
+			// B is always placed as an upper case letter, and a blank as a lower case one
+			assertEquals(key, key.substring(key.indexOf(' ')).indexOf('B') >= 0, withB.contains(key));
+			assertEquals(key, !key.substring(key.indexOf(' ')).equals(key.substring(key.indexOf(' ')).toUpperCase()),
+					withBlank.contains(key));
+		}
+
+		// the rack only has one B
+		assertTrue(generate(gaddag, board, rack, new MoveQuery().requireTile(B).requireTile(B)).isEmpty());
+	}
+
+	@Test
+	public void testRequireSquare() throws Exception {
+
+		CountingGaddagAlgorithm gaddag = new CountingGaddagAlgorithm();
+		Board board = GaddagAlgorithmTest.createBoard();
+		Rack rack = new Rack(new Tile[] { B, E, A, S, T, S });
+
+		for (int[] square : new int[][] { { 6, 8 }, { 8, 10 }, { 7, 7 }, { 8, 9 }, { 8, 6 } }) {
+
+			gaddag.visits = 0;
+			Set<String> expected = filterBySquare(gaddag, board, rack, square[0], square[1]);
+			long allVisits = gaddag.visits;
+
+			gaddag.visits = 0;
+			Set<String> actual = generate(gaddag, board, rack, new MoveQuery().requireSquare(square[0], square[1]));
+
+			assertFalse(square[0] + "," + square[1], expected.isEmpty());
+			assertEquals(expected, actual);
+			assertTrue(gaddag.visits + " >= " + allVisits, gaddag.visits < allVisits / 2);
+		}
+
+		// an occupied square
+		assertTrue(generate(gaddag, board, rack, new MoveQuery().requireSquare(8, 8)).isEmpty());
+	}
+
+	@Test
+	public void testLength() throws Exception {
+
+		CountingGaddagAlgorithm gaddag = new CountingGaddagAlgorithm();
+		Board board = GaddagAlgorithmTest.createBoard();
+		Rack rack = new Rack(new Tile[] { B, E, A, S, T, S });
+
+		gaddag.visits = 0;
+		Set<String> all = generate(gaddag, board, rack, null);
+		long allVisits = gaddag.visits;
+
+		gaddag.visits = 0;
+		Set<String> shortWords = generate(gaddag, board, rack, new MoveQuery().setMaxLength(3));
+		assertTrue(gaddag.visits + " >= " + allVisits, gaddag.visits < allVisits);
+
+		gaddag.visits = 0;
+		Set<String> longWords = generate(gaddag, board, rack, new MoveQuery().setMinLength(4));
+		assertTrue(gaddag.visits + " >= " + allVisits, gaddag.visits < allVisits);
+
+		assertFalse(shortWords.isEmpty());
+		assertFalse(longWords.isEmpty());
+
+		// every placement forms a word of 3 or fewer letters, or one of 4 or more, except a single tile, which forms
+		// a word in both directions
+		Set<String> both = new TreeSet<String>(shortWords);
+		both.retainAll(longWords);
+		for (String key : both) {
+			assertEquals(key, 1, key.substring(key.indexOf(' ') + 1).replace(".", "").length());
+		}
+		both.addAll(shortWords);
+		both.addAll(longWords);
+		assertEquals(all, both);
+
+		assertTrue(generate(gaddag, board, rack, new MoveQuery().setMinLength(6).setMaxLength(5)).isEmpty());
+	}
+
+	/**
+	 * A single tile meets the length if the word that it forms in either direction does, whichever search finds it.
+	 */
+	@Test
+	public void testSingleTileLength() throws Exception {
+
+		GaddagAlgorithm gaddag = new GaddagAlgorithm(TrieTestUtils.createTrieFactory("at", "atab", "tab"));
+		Tile[][] tiles = new Tile[15][15];
+		tiles[6][8] = T;
+		tiles[7][7] = T;
+		tiles[8][7] = A;
+		tiles[9][7] = B;
+		Board board = new Board(tiles);
+		Rack rack = new Rack(new Tile[] { A });
+
+		Set<String> expected = new TreeSet<String>();
+		expected.add("7,8A A");
+		expected.add("8,7A A");
+		expected.add("9,6A A");
+		assertEquals(expected, generate(gaddag, board, rack, null));
+
+		// A at 8,7 forms "at" across, but "atab" down
+		expected.clear();
+		expected.add("8,7A A");
+		assertEquals(expected, generate(gaddag, board, rack, new MoveQuery().setMinLength(3)));
+		assertEquals(expected, generate(gaddag, board, rack, new MoveQuery().setMinLength(4).setMaxLength(4)));
+
+		expected.add("7,8A A");
+		expected.add("9,6A A");
+		assertEquals(expected, generate(gaddag, board, rack, new MoveQuery().setMaxLength(2)));
+		assertTrue(generate(gaddag, board, rack, new MoveQuery().setMinLength(3).setMaxLength(3)).isEmpty());
+	}
+
+	@Test
+	public void testRequirePremium() throws Exception {
+
+		CountingGaddagAlgorithm gaddag = new CountingGaddagAlgorithm();
+		final Board board = GaddagAlgorithmTest.createBoard();
+		Rack rack = new Rack(new Tile[] { B, E, A, S, T, S });
+
+		gaddag.visits = 0;
+		generate(gaddag, board, rack, null);
+		long allVisits = gaddag.visits;
+
+		for (Multiplier premium : new Multiplier[] { LetterMultiplier.instance(2), LetterMultiplier.instance(3),
+				WordMultiplier.instance(2), WordMultiplier.instance(3) }) {
+
+			Set<String> expected = new TreeSet<String>();
+			for (int x = 1; x <= board.getWidth(); x++) {
+				for (int y = 1; y <= board.getHeight(); y++) {
+					if (premium.equals(board.getMultipliers().get(x, y))) {
+						expected.addAll(filterBySquare(gaddag, board, rack, x, y));
+					}
+				}
+			}
+			gaddag.visits = 0;
+			assertEquals(premium.toString(), expected, generate(gaddag, board, rack,
+					new MoveQuery().requirePremium(premium)));
+			assertTrue(gaddag.visits + " >= " + allVisits, gaddag.visits < allVisits);
+		}
+
+		// two of the same premium
+		final Multiplier premium = LetterMultiplier.instance(2);
+		final Set<String> expected = new TreeSet<String>();
+		gaddag.generatePlacements(board, rack, new MoveSink() {
+			@Override
+			public boolean accept(final List<TilePlacement> placements) {
+				int count = 0;
+				for (TilePlacement placement : placements) {
+					if (premium.equals(board.getMultipliers().get(placement.getX(), placement.getY()))) {
+						count++;
+					}
+				}
+				if (count >= 2) {
+					expected.add(new Move(placements, 0).getKey());
+				}
+				return true;
+			}
+		});
+		assertFalse(expected.isEmpty());
+		assertEquals(expected, generate(gaddag, board, rack, new MoveQuery().requirePremium(premium)
+				.requirePremium(premium)));
+	}
+
+	@Test
+	public void testAllowAnchor() throws Exception {
+
+		GaddagAlgorithm gaddag = new GaddagAlgorithm(TrieTestUtils.createTrieFactory(GaddagAlgorithmTest.WORDS));
+		Board board = GaddagAlgorithmTest.createBoard();
+		Rack rack = new Rack(new Tile[] { B, E, A, S, T, S });
+
+		// every placement is generated from exactly one anchor
+		Set<String> all = generate(gaddag, board, rack, null);
+		Set<String> union = new TreeSet<String>();
+		int total = 0;
+		for (int x = 1; x <= board.getWidth(); x++) {
+			for (int y = 1; y <= board.getHeight(); y++) {
+				Set<String> keys = generate(gaddag, board, rack, new MoveQuery().allowAnchor(x, y));
+				union.addAll(keys);
+				total += keys.size();
+			}
+		}
+		assertEquals(all, union);
+		assertEquals(all.size(), total);
+	}
+
+	@Test
+	public void testSelectPlacement() throws Exception {
+
+		GaddagAlgorithm gaddag = new GaddagAlgorithm(TrieTestUtils.createTrieFactory(GaddagAlgorithmTest.WORDS));
+		Board board = GaddagAlgorithmTest.createBoard();
+		Rack rack = new Rack(new Tile[] { B, E, A, S, T, S });
+
+		MoveQuery query = new MoveQuery().requireTile(B).setMinLength(5);
+		List<TilePlacement> tp = gaddag.selectPlacement(board, rack, query, PlacementStrategy.highestScore());
+		assertNotNull(tp);
+
+		final List<List<TilePlacement>> all = new ArrayList<List<TilePlacement>>();
+		gaddag.generatePlacements(board, rack, query, new MoveSink() {
+			@Override
+			public boolean accept(final List<TilePlacement> placements) {
+				all.add(new ArrayList<TilePlacement>(placements));
+				return true;
+			}
+		});
+		int highest = 0;
+		for (List<TilePlacement> placements : all) {
+			highest = Math.max(highest, board.score(placements, false));
+		}
+		assertEquals(highest, board.score(tp));
+		assertTrue(new Move(tp, 0).getKey().indexOf('B') >= 0);
+	}
+}
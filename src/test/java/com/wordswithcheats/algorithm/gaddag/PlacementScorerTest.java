@@ -0,0 +1,145 @@
+package com.wordswithcheats.algorithm.gaddag;
+
+import static com.wordswithcheats.board.Tile.A;
+import static com.wordswithcheats.board.Tile.C;
+import static com.wordswithcheats.board.Tile.E;
+import static com.wordswithcheats.board.Tile.S;
+import static com.wordswithcheats.board.Tile.T;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.wordswithcheats.algorithm.gaddag.GaddagAlgorithm.Direction;
+import com.wordswithcheats.board.BlankTile;
+import com.wordswithcheats.board.Board;
+import com.wordswithcheats.board.Rack;
+import com.wordswithcheats.board.Tile;
+import com.wordswithcheats.board.TilePlacement;
+
+/**
+ * Test case for the {@link PlacementScorer} class.
+ *
+ * @author Matt Sidesinger
+ */
+public class PlacementScorerTest {
+
+	private static final String[] WORDS = new String[] {
+		"at", "as", "ta", "cat", "cats", "act", "acts", "scat", "tea", "teas", "eat", "eats", "ate", "set", "sea",
+		"seat", "east", "eta", "etas", "sat", "ace", "aces", "case", "cast", "caste", "tace", "taces"
+	};
+
+	/**
+	 * Every placement generated for a few racks must be scored exactly as {@link Board#score(List, boolean)} scores
+	 * it.
+	 */
+	@Test
+	public void testScore() throws Exception {
+
+		GaddagAlgorithm gaddag = new GaddagAlgorithm(TrieTestUtils.createTrieFactory(WORDS));
+
+		Board board = new Board(15, 15);
+		board.place(new TilePlacement(7, 8, C), new TilePlacement(8, 8, A), new TilePlacement(9, 8, T));
+		board.place(new TilePlacement(9, 9, E), new TilePlacement(9, 10, A));
+		// award the bingo for short words so that it is covered too
+		board.setBingoTileCount(3);
+
+		Rack[] racks = new Rack[] {
+			new Rack(new Tile[] { S, E, A, T }),
+			new Rack(new Tile[] { C, A, S, E, new BlankTile() }),
+			new Rack(new Tile[] { T, A, C, E, S, A, T })
+		};
+
+		PlacementScorer scorer = new PlacementScorer(board);
+		int count = 0;
+
+		for (Rack rack : racks) {
+			for (int x = 1; x <= board.getWidth(); x++) {
+				for (int y = 1; y <= board.getHeight(); y++) {
+					if (board.get(x, y) != null) {
+						continue;
+					}
+					for (Direction direction : new Direction[] { Direction.RIGHT, Direction.DOWN }) {
+						List<LinkedList<TilePlacement>> allPlacements = gaddag.generateAllPlacements(board, x, y, x, y,
+								rack, new LinkedList<TilePlacement>(), gaddag.getTrie().getRoot(), direction);
+						if (allPlacements == null) {
+							continue;
+						}
+						for (List<TilePlacement> placements : allPlacements) {
+							assertEquals(placements.toString(), board.score(placements, false),
+									score(scorer, board, placements));
+							count++;
+						}
+					}
+				}
+			}
+		}
+
+		assertTrue("no placements were generated", count > 0);
+	}
+
+	/**
+	 * Pushes the placements, and the existing tiles between and around them, onto the scorer in order.
+	 */
+	private static int score(final PlacementScorer scorer, final Board board, final List<TilePlacement> placements) {
+
+		int minX = Integer.MAX_VALUE;
+		int minY = Integer.MAX_VALUE;
+		int maxX = 0;
+		int maxY = 0;
+		for (TilePlacement p : placements) {
+			minX = Math.min(minX, p.getX());
+			minY = Math.min(minY, p.getY());
+			maxX = Math.max(maxX, p.getX());
+			maxY = Math.max(maxY, p.getY());
+		}
+
+		// a single tile scores the same in either direction
+		boolean horizontal = (minY == maxY);
+		int xInc = horizontal ? 1 : 0;
+		int yInc = horizontal ? 0 : 1;
+
+		int x = minX;
+		int y = minY;
+		while (x - xInc >= 1 && y - yInc >= 1 && board.get(x - xInc, y - yInc) != null) {
+			x -= xInc;
+			y -= yInc;
+		}
+
+		scorer.reset(horizontal);
+		int pushed = 0;
+		while (x <= board.getWidth() && y <= board.getHeight()) {
+			Tile tile = board.get(x, y);
+			if (tile != null) {
+				scorer.pushExisting(tile);
+			} else {
+				tile = find(placements, x, y);
+				if (tile == null) {
+					break;
+				}
+				scorer.push(x, y, tile);
+			}
+			pushed++;
+			x += xInc;
+			y += yInc;
+		}
+
+		int score = scorer.score();
+		for (int i = 0; i < pushed; i++) {
+			scorer.pop();
+		}
+		return score;
+	}
+
+	private static Tile find(final List<TilePlacement> placements, final int x, final int y) {
+		for (TilePlacement p : placements) {
+			if (p.getX() == x && p.getY() == y) {
+				return p.getTile();
+			}
+		}
+		return null;
+	}
+}
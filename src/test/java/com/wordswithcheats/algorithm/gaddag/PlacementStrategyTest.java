@@ -0,0 +1,205 @@
+package com.wordswithcheats.algorithm.gaddag;
+
+import static com.wordswithcheats.board.Tile.A;
+import static com.wordswithcheats.board.Tile.B;
+import static com.wordswithcheats.board.Tile.C;
+import static com.wordswithcheats.board.Tile.E;
+import static com.wordswithcheats.board.Tile.S;
+import static com.wordswithcheats.board.Tile.T;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.wordswithcheats.algorithm.Move;
+import com.wordswithcheats.algorithm.MoveSink;
+import com.wordswithcheats.board.BlankTile;
+import com.wordswithcheats.board.Board;
+import com.wordswithcheats.board.Rack;
+import com.wordswithcheats.board.Tile;
+import com.wordswithcheats.board.TilePlacement;
+
+/**
+ * Test case for the {@link PlacementStrategy} class.
+ * 
+ * @author Matt Sidesinger
+ */
+public class PlacementStrategyTest {
+	
+	private GaddagAlgorithm gaddag;
+	private Board board;
+	private Rack rack;
+	
+	@Before
+	public void setUp() throws Exception {
+		
+		gaddag = new GaddagAlgorithm(TrieTestUtils.createTrieFactory(GaddagAlgorithmTest.WORDS));
+		board = GaddagAlgorithmTest.createBoard();
+		rack = new Rack(new Tile[] { S, E, A, T });
+	}
+	
+	/**
+	 * Every distinct move must be picked, and about as often as every other.
+	 */
+	@Test
+	public void testRandom() {
+		
+		List<Move> moves = gaddag.topMoves(board, rack, Integer.MAX_VALUE, Move.BY_SCORE);
+		assertTrue(moves.size() > 5);
+		
+		Random random = new Random(42);
+		Map<Move, Integer> picked = new HashMap<Move, Integer>();
+		int runs = 200 * moves.size();
+		for (int i = 0; i < runs; i++) {
+			List<TilePlacement> placement = gaddag.selectPlacement(board, rack, PlacementStrategy.random(random));
+			Move move = new Move(placement, 0);
+			Integer count = picked.get(move);
+			picked.put(move, (count == null ? 1 : count + 1));
+		}
+		
+		assertEquals(moves.size(), picked.size());
+		int count = countPlacements();
+		for (Move move : moves) {
+			// a move reached from more than one anchor is offered, and picked, more than once
+			assertTrue(move + " was picked " + picked.get(move) + " times", picked.get(move) > runs / count / 2);
+		}
+	}
+	
+	@Test
+	public void testLongest() {
+		
+		List<TilePlacement> placement = gaddag.selectPlacement(board, rack, PlacementStrategy.longest());
+		assertNotNull(placement);
+		
+		int longest = 0;
+		for (Move move : gaddag.topMoves(board, rack, Integer.MAX_VALUE, Move.BY_SCORE)) {
+			longest = Math.max(longest, move.getPlacements().size());
+		}
+		assertEquals(longest, placement.size());
+		assertEquals(longest, gaddag.longestPlacement(board, rack).size());
+	}
+	
+	@Test
+	public void testCustom() {
+		
+		// sums the score of every placement offered
+		final int[] total = new int[1];
+		PlacementStrategy strategy = new PlacementStrategy() {
+			@Override
+			protected boolean offer(final List<TilePlacement> placements) {
+				total[0] += score();
+				return true;
+			}
+			
+			@Override
+			public List<TilePlacement> getPlacement() {
+				return null;
+			}
+		};
+		
+		gaddag.selectPlacement(board, rack, strategy);
+		assertEquals(countPlacements(), strategy.getCount());
+		assertTrue(total[0] > 0);
+	}
+	
+	/**
+	 * The front must hold one move for every combination of score, tiles kept and word length that is not dominated
+	 * by any placement, and nothing else.
+	 */
+	@Test
+	public void testParetoFront() throws Exception {
+		
+		for (Rack r : new Rack[] { rack, new Rack(new Tile[] { B, E, A, S, T, S, C }),
+				new Rack(new Tile[] { C, A, S, E, new BlankTile() }) }) {
+			
+			// every placement offered, with its measures
+			final int tileCount = r.tileCount();
+			final List<int[]> all = new ArrayList<int[]>();
+			final Map<String, Set<Move>> byMeasures = new HashMap<String, Set<Move>>();
+			gaddag.selectPlacement(board, r, new PlacementStrategy() {
+				
+				private PlacementScorer scorer;
+				
+				@Override
+				protected ScoreBound start(final Board b, final Rack rk, final PlacementScorer s) {
+					this.scorer = s;
+					return super.start(b, rk, s);
+				}
+				
+				@Override
+				protected boolean offer(final List<TilePlacement> placements) {
+					
+					int[] measures = new int[] { score(), tileCount - placements.size(), scorer.getLength() };
+					all.add(measures);
+					String key = Arrays.toString(measures);
+					if (!byMeasures.containsKey(key)) {
+						byMeasures.put(key, new HashSet<Move>());
+					}
+					byMeasures.get(key).add(new Move(placements, score()));
+					return true;
+				}
+				
+				@Override
+				public List<TilePlacement> getPlacement() {
+					return null;
+				}
+			});
+			
+			Set<String> expected = new HashSet<String>();
+			for (int[] m : all) {
+				boolean dominated = false;
+				for (int[] o : all) {
+					if (o[0] >= m[0] && o[1] >= m[1] && o[2] >= m[2] && (o[0] > m[0] || o[1] > m[1] || o[2] > m[2])) {
+						dominated = true;
+						break;
+					}
+				}
+				if (!dominated) {
+					expected.add(Arrays.toString(m));
+				}
+			}
+			
+			PlacementStrategy.ParetoFront strategy = new PlacementStrategy.ParetoFront();
+			gaddag.selectPlacement(board, r, strategy);
+			List<ParetoMove> front = strategy.getMoves();
+			assertEquals(front, gaddag.paretoFront(board, r));
+			
+			Set<String> actual = new HashSet<String>();
+			int previous = Integer.MAX_VALUE;
+			for (ParetoMove move : front) {
+				String key = Arrays.toString(new int[] { move.getScore(), move.getTilesKept(), move.getWordLength() });
+				assertTrue(key, actual.add(key));
+				assertTrue(key, byMeasures.get(key).contains(new Move(move.getPlacements(), move.getScore())));
+				assertEquals(move.getScore(), board.score(move.getPlacements()));
+				assertTrue(move.getScore() <= previous);
+				previous = move.getScore();
+			}
+			assertEquals(expected, actual);
+			assertTrue(strategy.getCount() <= all.size());
+		}
+	}
+	
+	private int countPlacements() {
+		
+		final int[] count = new int[1];
+		gaddag.generatePlacements(board, rack, new MoveSink() {
+			@Override
+			public boolean accept(final List<TilePlacement> placements) {
+				count[0]++;
+				return true;
+			}
+		});
+		return count[0];
+	}
+}
@@ -0,0 +1,97 @@
+package com.wordswithcheats.algorithm.gaddag;
+
+import static com.wordswithcheats.board.Tile.A;
+import static com.wordswithcheats.board.Tile.B;
+import static com.wordswithcheats.board.Tile.C;
+import static com.wordswithcheats.board.Tile.S;
+import static com.wordswithcheats.board.Tile.T;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.wordswithcheats.algorithm.gaddag.GaddagAlgorithm.Direction;
+import com.wordswithcheats.board.BlankTile;
+import com.wordswithcheats.board.Board;
+import com.wordswithcheats.board.Tile;
+import com.wordswithcheats.board.TilePlacement;
+
+/**
+ * Test case for the {@link PreparedBoard} class.
+ *
+ * @author Matt Sidesinger
+ */
+public class PreparedBoardTest {
+
+	/**
+	 * The cross-checks must agree with {@link GaddagAlgorithm#validateCrossWordExists} on every empty square, for every
+	 * letter, in both directions.
+	 */
+	@Test
+	public void testIsValidCrossWord() throws Exception {
+
+		GaddagAlgorithm gaddag = new GaddagAlgorithm(TrieTestUtils.createTrieFactory(GaddagAlgorithmTest.WORDS));
+		Board board = GaddagAlgorithmTest.createBoard();
+		// (10,9) is between an S above and a T below
+		board.place(new TilePlacement(10, 8, S));
+
+		PreparedBoard prepared = gaddag.prepare(board);
+		assertSame(board, prepared.getBoard());
+
+		int valid = 0;
+		for (int x = 1; x <= board.getWidth(); x++) {
+			for (int y = 1; y <= board.getHeight(); y++) {
+				if (board.get(x, y) != null) {
+					continue;
+				}
+				for (char letter = 'a'; letter <= 'z'; letter++) {
+					Tile tile = Tile.valueOf(letter);
+					for (Direction direction : new Direction[] { Direction.RIGHT, Direction.DOWN }) {
+						boolean expected = gaddag.validateCrossWordExists(board, x, y, tile, direction);
+						String message = x + "," + y + " " + letter + " " + direction;
+						assertEquals(message, expected,
+								prepared.isValidCrossWord(x, y, tile, direction == Direction.RIGHT));
+						if (expected) {
+							valid++;
+						}
+					}
+				}
+			}
+		}
+		assertTrue(valid > 0);
+
+		// a blank is checked as the letter that it is played as
+		assertTrue(prepared.isValidCrossWord(10, 9, new BlankTile('a'), true));
+		assertEquals(prepared.isValidCrossWord(10, 9, T, true),
+				prepared.isValidCrossWord(10, 9, new BlankTile('t'), true));
+	}
+
+	@Test
+	public void testAnchors() throws Exception {
+
+		GaddagAlgorithm gaddag = new GaddagAlgorithm(TrieTestUtils.createTrieFactory(GaddagAlgorithmTest.WORDS));
+		Board board = new Board(15, 15);
+		board.place(new TilePlacement(7, 8, C), new TilePlacement(8, 8, A), new TilePlacement(9, 8, B));
+
+		int expected = 0;
+		for (Direction direction : new Direction[] { Direction.RIGHT, Direction.DOWN }) {
+			for (int x = 1; x <= board.getWidth(); x++) {
+				for (int y = 1; y <= board.getHeight(); y++) {
+					if (board.get(x, y) == null && direction.hasNext(board, x, y)) {
+						expected++;
+					}
+				}
+			}
+		}
+		assertEquals(expected, gaddag.prepare(board).getAnchors().size());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testAnchorsCannotBeModified() throws Exception {
+
+		GaddagAlgorithm gaddag = new GaddagAlgorithm(TrieTestUtils.createTrieFactory(GaddagAlgorithmTest.WORDS));
+		gaddag.prepare(GaddagAlgorithmTest.createBoard()).getAnchors().clear();
+	}
+}
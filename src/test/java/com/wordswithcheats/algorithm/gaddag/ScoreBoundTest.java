@@ -0,0 +1,118 @@
+package com.wordswithcheats.algorithm.gaddag;
+
+import static com.wordswithcheats.board.Tile.A;
+import static com.wordswithcheats.board.Tile.B;
+import static com.wordswithcheats.board.Tile.C;
+import static com.wordswithcheats.board.Tile.E;
+import static com.wordswithcheats.board.Tile.S;
+import static com.wordswithcheats.board.Tile.T;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.wordswithcheats.algorithm.gaddag.GaddagAlgorithm.Direction;
+import com.wordswithcheats.board.BlankTile;
+import com.wordswithcheats.board.Board;
+import com.wordswithcheats.board.Rack;
+import com.wordswithcheats.board.Tile;
+import com.wordswithcheats.board.TilePlacement;
+
+/**
+ * Test case for the {@link ScoreBound} class.
+ * 
+ * @author Matt Sidesinger
+ */
+public class ScoreBoundTest {
+	
+	/**
+	 * The bound calculated for an anchor must be at least the score of every placement made from it, and the bound
+	 * for a number of tiles at least the score of every placement of that many tiles.
+	 */
+	@Test
+	public void testBound() throws Exception {
+		
+		GaddagAlgorithm gaddag = new GaddagAlgorithm(TrieTestUtils.createTrieFactory(GaddagAlgorithmTest.WORDS));
+		Board board = GaddagAlgorithmTest.createBoard();
+		// award the bingo for short words so that it is covered too
+		board.setBingoTileCount(4);
+		
+		Rack[] racks = new Rack[] {
+			new Rack(new Tile[] { S, E, A, T }),
+			new Rack(new Tile[] { B, E, A, S, T, S, C }),
+			new Rack(new Tile[] { C, A, S, E, new BlankTile() })
+		};
+		
+		PlacementScorer scorer = new PlacementScorer(board);
+		int count = 0;
+		
+		for (Rack rack : racks) {
+			ScoreBound bound = new ScoreBound(scorer, board, rack);
+			for (int x = 1; x <= board.getWidth(); x++) {
+				for (int y = 1; y <= board.getHeight(); y++) {
+					for (Direction direction : new Direction[] { Direction.RIGHT, Direction.DOWN }) {
+						if (board.get(x, y) != null || !direction.hasNext(board, x, y)) {
+							continue;
+						}
+						
+						scorer.reset(direction == Direction.RIGHT);
+						bound.prepare(x, y, direction == Direction.RIGHT);
+						int upperBound = bound.bound(rack, gaddag.getTrie().getRoot());
+						int[] bounds = new int[rack.tileCount() + 1];
+						int placeable = bound.bounds(rack, gaddag.getTrie().getRoot(), bounds);
+						assertEquals(upperBound, bounds[placeable]);
+						
+						List<LinkedList<TilePlacement>> allPlacements = gaddag.generateAllPlacements(board, x, y, x, y,
+								rack, new LinkedList<TilePlacement>(), gaddag.getTrie().getRoot(), direction);
+						if (allPlacements != null) {
+							for (List<TilePlacement> placements : allPlacements) {
+								int score = board.score(placements, false);
+								assertTrue(placements + " scores " + score + " > " + upperBound, score <= upperBound);
+								assertTrue(placements.size() <= placeable);
+								assertTrue(placements + " scores " + score + " > " + bounds[placements.size()],
+										score <= bounds[placements.size()]);
+								count++;
+							}
+						}
+					}
+				}
+			}
+		}
+		
+		assertTrue("no placements were generated", count > 0);
+	}
+	
+	@Test
+	public void testMinimum() throws Exception {
+		
+		GaddagAlgorithm gaddag = new GaddagAlgorithm(TrieTestUtils.createTrieFactory(GaddagAlgorithmTest.WORDS));
+		TrieNode root = gaddag.getTrie().getRoot();
+		Board board = GaddagAlgorithmTest.createBoard();
+		Rack rack = new Rack(new Tile[] { S, E, A, T });
+		PlacementScorer scorer = new PlacementScorer(board);
+		scorer.reset(true);
+		
+		AtomicInteger shared = new AtomicInteger();
+		ScoreBound bound1 = new ScoreBound(scorer, board, rack, shared);
+		ScoreBound bound2 = new ScoreBound(new PlacementScorer(scorer), board, rack, shared);
+		bound1.prepare(6, 8, true);
+		int upperBound = bound1.bound(rack, root);
+		
+		bound1.raiseMinimum(upperBound);
+		assertFalse(bound1.prune(rack, root));
+		bound1.raiseMinimum(5);
+		assertEquals(upperBound, bound1.getMinimum());
+		
+		// shared with the other bound
+		assertEquals(upperBound, bound2.getMinimum());
+		bound2.raiseMinimum(upperBound + 1);
+		assertTrue(bound1.prune(rack, root));
+		assertEquals(2, bound1.getVisits());
+		assertEquals(1, bound1.getPruned());
+	}
+}
@@ -0,0 +1,70 @@
+package com.wordswithcheats.algorithm.gaddag;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Test case for the {@link SearchBudget} class.
+ * 
+ * @author Matt Sidesinger
+ */
+public class SearchBudgetTest {
+	
+	@Test
+	public void testBranches() {
+		
+		SearchBudget budget = new SearchBudget(3);
+		assertFalse(budget.spend());
+		assertFalse(budget.spend());
+		assertFalse(budget.spend());
+		assertFalse(budget.isSpent());
+		assertTrue(budget.spend());
+		assertTrue(budget.isSpent());
+		// a spent budget stays spent, and stops counting
+		assertTrue(budget.spend());
+		assertEquals(4, budget.getBranches());
+	}
+	
+	@Test
+	public void testTimeout() throws Exception {
+		
+		// the clock is read on the first branch
+		assertTrue(new SearchBudget(0, TimeUnit.MILLISECONDS).spend());
+		
+		SearchBudget budget = new SearchBudget(1, TimeUnit.HOURS);
+		for (int i = 0; i < 10 * SearchBudget.CHECK_INTERVAL; i++) {
+			assertFalse(budget.spend());
+		}
+	}
+	
+	/**
+	 * A budget cancelled by another thread is spent by the next time that the flag is checked.
+	 */
+	@Test
+	public void testCancel() throws Exception {
+		
+		final SearchBudget budget = new SearchBudget();
+		assertFalse(budget.spend());
+		
+		Thread thread = new Thread() {
+			@Override
+			public void run() {
+				budget.cancel();
+			}
+		};
+		thread.start();
+		thread.join();
+		assertTrue(budget.isCancelled());
+		
+		int branches = 0;
+		while (!budget.spend()) {
+			branches++;
+		}
+		assertTrue(branches < SearchBudget.CHECK_INTERVAL);
+	}
+}
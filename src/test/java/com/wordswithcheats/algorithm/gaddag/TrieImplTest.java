@@ -107,4 +107,27 @@ public class TrieImplTest {
 			// success
 		}
 	}
+	
+	@Test
+	public void testHeight() throws Exception {
+		
+		Trie t = new TrieImpl();
+		t.addWord("be");
+		assertEquals(2, t.getRoot().getHeight());
+		
+		t.addWord("test");
+		TrieNode root = t.getRoot();
+		assertEquals(4, root.getHeight());
+		// "be"
+		assertEquals(1, root.getChildNode('b').getHeight());
+		// "e#b" and "est#t": the cross anchor is not counted
+		assertEquals(3, root.getChildNode('e').getHeight());
+		assertEquals(2, root.getChildNode('e').getChildNode('s').getHeight());
+		assertEquals(1, root.getChildNode('e').getCrossAnchorNode().getHeight());
+		assertEquals(0, root.getChildNode('b').getChildNode('e').getHeight());
+		
+		// raised by a longer word that shares the path
+		t.addWord("bee");
+		assertEquals(2, root.getChildNode('b').getHeight());
+	}
 }
@@ -10,6 +10,8 @@ import junit.framework.AssertionFailedError;
 import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang.Validate;
 
+import com.wordswithcheats.algorithm.gaddag.exception.IllegalLetterException;
+
 /**
  * Utility class to assist in Trie related test cases.  It provides functionality similar to JUnit's assert
  * methods.
@@ -83,6 +85,34 @@ public class TrieTestUtils {
 		}
 	}
 	
+	/**
+	 * Creates a {@link TrieFactory} whose {@link Trie} contains only the given words.  Useful when the default
+	 * dictionary would take too long to load for a test.
+	 * 
+	 * @param words		The words to add to the Trie.
+	 * 
+	 * @return	A TrieFactory that creates a new Trie each time {@link TrieFactory#createTrie()} is called.
+	 */
+	public static TrieFactory createTrieFactory(final String... words) {
+		
+		Validate.notEmpty(words, "at least one word is required");
+		
+		return new TrieFactory() {
+			@Override
+			public Trie createTrie() {
+				Trie trie = createTrieImpl();
+				for (String word : words) {
+					try {
+						trie.addWord(word);
+					} catch (IllegalLetterException e) {
+						throw new IllegalArgumentException("Illegal word: " + word, e);
+					}
+				}
+				return trie;
+			}
+		};
+	}
+	
 	/**
 	 * Prints a tree in an indented format.
 	 * <p>
@@ -0,0 +1,119 @@
+package com.wordswithcheats.board;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.wordswithcheats.board.exception.IllegalTilePlacementException;
+
+/**
+ * Test case for the {@link BoardScorer} and {@link ScoreExplanation} classes.
+ *
+ * @author Matt Sidesinger
+ */
+public class BoardScorerTest {
+
+	private static TilePlacement p(final int x, final int y, final char letter) {
+		return new TilePlacement(x, y, Tile.valueOf(letter));
+	}
+
+	/**
+	 * Creates a board with "cat" placed across the start position.
+	 */
+	private static Board createBoard() throws Exception {
+
+		Board board = new Board(15, 15);
+		board.place(p(7, 8, 'c'), p(8, 8, 'a'), p(9, 8, 't'));
+		return board;
+	}
+
+	@Test
+	public void testScore() throws Exception {
+
+		Board board = new Board(15, 15);
+		List<TilePlacement> cat = Arrays.asList(p(7, 8, 'c'), p(8, 8, 'a'), p(9, 8, 't'));
+		assertEquals(10, BoardScorer.score(board, cat));
+
+		ScoreExplanation explanation = BoardScorer.explain(board, cat);
+		assertEquals("CAT", explanation.getWord().getWord());
+		assertEquals("([C:3] + [A:1] + [T:1])x2", explanation.getWord().getCalculation());
+		assertEquals(10, explanation.getWord().getScore());
+		assertTrue(explanation.getCrossWords().isEmpty());
+		assertEquals(0, explanation.getBingo());
+		assertEquals(10, explanation.getTotal());
+		assertEquals("CAT: ([C:3] + [A:1] + [T:1])x2 = 10\nTOTAL: 10", explanation.toString());
+
+		assertEquals(0, BoardScorer.score(board, null));
+		assertEquals(0, BoardScorer.score(board, Arrays.<TilePlacement> asList()));
+	}
+
+	@Test
+	public void testScoreCrossWords() throws Exception {
+
+		Board board = createBoard();
+
+		// "so" down from the end of "cat", which forms "cats"
+		List<TilePlacement> so = Arrays.asList(p(10, 8, 's'), p(10, 9, 'o'));
+		assertEquals(8, board.score(so, false));
+
+		ScoreExplanation explanation = board.explain(so);
+		assertEquals("SO: ([S:1] + [O:1]) = 2", explanation.getWord().toString());
+		assertEquals(1, explanation.getCrossWords().size());
+		assertEquals("CATS: ([C:3] + [A:1] + [T:1] + [S:1]) = 6", explanation.getCrossWords().get(0).toString());
+		assertEquals(8, explanation.getTotal());
+
+		// a single tile below the C only forms a vertical word, on a double letter square
+		List<TilePlacement> a = Arrays.asList(p(7, 9, 'a'));
+		assertEquals(5, board.score(a, false));
+		explanation = board.explain(a);
+		assertEquals("CA: ([C:3] + [A:1]x2) = 5", explanation.getWord().toString());
+		assertTrue(explanation.getCrossWords().isEmpty());
+	}
+
+	@Test
+	public void testScoreBingo() throws Exception {
+
+		Board board = new Board(15, 15);
+		List<TilePlacement> retains = Arrays.asList(p(2, 8, 'r'), p(3, 8, 'e'), p(4, 8, 't'), p(5, 8, 'a'),
+				p(6, 8, 'i'), p(7, 8, 'n'), p(8, 8, 's'));
+		assertEquals(66, board.score(retains, false));
+
+		ScoreExplanation explanation = board.explain(retains);
+		assertEquals(16, explanation.getWord().getScore());
+		assertEquals(50, explanation.getBingo());
+		assertEquals(66, explanation.getTotal());
+		assertTrue(explanation.toString(), explanation.toString().endsWith("BINGO: 50\nTOTAL: 66"));
+	}
+
+	@Test
+	public void testScoreQuirks() throws Exception {
+
+		Board board = createBoard();
+
+		// placements that are not in a line do not score
+		List<TilePlacement> diagonal = Arrays.asList(p(10, 9, 'a'), p(11, 10, 't'));
+		assertEquals(0, board.score(diagonal, false));
+		assertNull(board.explain(diagonal).getWord());
+
+		// the word stops at the first gap, and only the placements before it are scored
+		List<TilePlacement> gap = Arrays.asList(p(10, 8, 's'), p(12, 8, 'a'));
+		assertEquals(6, board.score(gap, false));
+
+		// a null element is skipped, but only the first element is scored if there is one placement
+		assertEquals(6, board.score(Arrays.asList(p(10, 8, 's'), null), false));
+		assertEquals(0, board.score(Arrays.asList(null, p(10, 8, 's')), false));
+
+		try {
+			board.score(Arrays.asList(p(16, 8, 's')), false);
+			fail("IllegalTilePlacementException should have been thrown");
+		} catch (IllegalTilePlacementException e) {
+			// success
+		}
+	}
+}
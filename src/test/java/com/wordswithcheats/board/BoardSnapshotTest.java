@@ -0,0 +1,192 @@
+package com.wordswithcheats.board;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.wordswithcheats.board.exception.IllegalTilePlacementException;
+import com.wordswithcheats.board.multiplier.BoardLayout;
+
+/**
+ * Test case for the {@link BoardSnapshot} class.
+ * 
+ * @author Matt Sidesinger
+ */
+public class BoardSnapshotTest {
+
+	private static TilePlacement p(final int x, final int y, final char letter) {
+		return new TilePlacement(x, y, Tile.valueOf(letter));
+	}
+	
+	@Test
+	public void testSnapshot() throws Exception {
+		
+		Board board = new Board(15, 15);
+		board.place(p(7, 8, 'c'), p(8, 8, 'a'), p(9, 8, 't'));
+		BoardSnapshot snapshot = board.snapshot();
+		
+		assertEquals(15, snapshot.getWidth());
+		assertEquals(15, snapshot.getHeight());
+		assertEquals(3, snapshot.getTileCount());
+		assertFalse(snapshot.isEmpty());
+		assertSame(BoardLayout.SCRABBLE, snapshot.getLayout());
+		assertEquals(board.getZobristHash(), snapshot.getZobristHash());
+		assertEquals(Tile.valueOf('c'), snapshot.get(7, 8));
+		assertNull(snapshot.get(7, 9));
+		assertEquals(0x1C0L, snapshot.getRowMask(8));
+		assertEquals(0x80L, snapshot.getColumnMask(8));
+		assertEquals(Board.BORDER, snapshot.getCell(0, 8));
+		assertEquals(Board.BORDER, snapshot.getCell(7, 16));
+		assertEquals(board.toString(), snapshot.toString());
+		
+		// later changes to the board do not change the snapshot
+		board.place(p(10, 8, 's'));
+		assertNull(snapshot.get(10, 8));
+		assertEquals(3, snapshot.getTileCount());
+		
+		Board copy = snapshot.toBoard();
+		assertEquals(3, copy.getTileCount());
+		assertEquals(snapshot.getZobristHash(), copy.getZobristHash());
+		assertEquals(0x1C0L, copy.getRowMask(8));
+		assertSame(BoardLayout.SCRABBLE, copy.getLayout());
+		copy.place(p(10, 8, 's'));
+		assertTrue(copy.hasSameTiles(board));
+		
+		try {
+			snapshot.get(16, 8);
+			fail("IllegalArgumentException should have been thrown");
+		} catch (IllegalArgumentException e) {
+			// success
+		}
+	}
+	
+	@Test
+	public void testApply() throws Exception {
+		
+		Board board = new Board(15, 15);
+		BoardSnapshot empty = board.snapshot();
+		assertTrue(empty.isEmpty());
+		
+		List<TilePlacement> cat = Arrays.asList(p(7, 8, 'c'), p(8, 8, 'a'), p(9, 8, 't'));
+		assertEquals(10, empty.score(cat));
+		BoardSnapshot withCat = empty.apply(cat);
+		
+		// the parent is unchanged, and only the row that was placed in is copied
+		assertTrue(empty.isEmpty());
+		assertNull(empty.get(7, 8));
+		assertEquals(3, withCat.getTileCount());
+		assertEquals(Tile.valueOf('a'), withCat.get(8, 8));
+		assertNotSame(empty.getRowCells(8), withCat.getRowCells(8));
+		for (int y = 0; y <= 16; y++) {
+			if (y != 8) {
+				assertSame(empty.getRowCells(y), withCat.getRowCells(y));
+			}
+		}
+		
+		// two branches from the same snapshot do not see each other
+		BoardSnapshot withCats = withCat.apply(Arrays.asList(p(10, 8, 's'), p(10, 9, 'o')));
+		BoardSnapshot withCa = withCat.apply(Arrays.asList(new TilePlacement(7, 9, new BlankTile('a'))));
+		assertEquals(Tile.valueOf('s'), withCats.get(10, 8));
+		assertNull(withCa.get(10, 8));
+		assertNull(withCats.get(7, 9));
+		assertEquals(new BlankTile('a'), withCa.get(7, 9));
+		assertSame(withCat.getRowCells(8), withCa.getRowCells(8));
+		
+		// the same tiles hash the same as they do on a board
+		board.place(cat);
+		board.place(p(10, 8, 's'), p(10, 9, 'o'));
+		assertEquals(board.getZobristHash(), withCats.getZobristHash());
+		assertTrue(board.hasSameTiles(withCats.toBoard()));
+		assertEquals(board.getColumnMask(10), withCats.getColumnMask(10));
+		
+		// placements that are known to be valid give the same snapshot
+		BoardSnapshot trusted = withCat.applyTrusted(Arrays.asList(p(10, 8, 's'), p(10, 9, 'o')));
+		assertEquals(withCats.getZobristHash(), trusted.getZobristHash());
+		assertEquals(withCats.toString(), trusted.toString());
+	}
+	
+	@Test
+	public void testValidate() throws Exception {
+		
+		BoardSnapshot empty = new Board(15, 15).snapshot();
+		assertInvalid(empty, "the tile placed must be placed on the start position", p(1, 1, 'a'));
+		assertInvalid(empty, "at least one tile placed must be placed on the start position", p(1, 1, 'a'),
+				p(2, 1, 'b'));
+		
+		BoardSnapshot snapshot = empty.apply(Arrays.asList(p(7, 8, 'c'), p(8, 8, 'a'), p(9, 8, 't')));
+		assertInvalid(snapshot, "the position (16,8) does not exist on the board", p(16, 8, 's'));
+		assertInvalid(snapshot, "a Tile already exists at position (8,8) on the board", p(8, 8, 's'));
+		assertInvalid(snapshot, "tiles must be placed in a line", p(10, 9, 'a'), p(11, 10, 't'));
+		assertInvalid(snapshot, "a tile must be placed at (11,8) for this to be a valid placement", p(10, 8, 's'),
+				p(12, 8, 'a'));
+		assertInvalid(snapshot, "the tile placed must be adjacent to an already existing tile on the board",
+				p(1, 1, 'a'));
+		assertInvalid(snapshot, "at least one tile placed must be adjacent to an already existing tile on the board",
+				p(1, 1, 'a'), p(1, 2, 'b'));
+		assertInvalid(snapshot, "only one tile can be placed on a square", p(10, 8, 's'), p(10, 8, 's'));
+		
+		// a tile placed beside the others in the line of a word is valid
+		snapshot.apply(Arrays.asList(p(6, 8, 's')));
+		snapshot.apply(Arrays.asList(p(10, 8, 's'), p(11, 8, 'o')));
+		snapshot.apply(Arrays.asList(p(8, 7, 'b'), p(8, 9, 't')));
+	}
+	
+	private static void assertInvalid(final BoardSnapshot snapshot, final String message,
+			final TilePlacement... placements) {
+		
+		try {
+			snapshot.apply(Arrays.asList(placements));
+			fail("IllegalTilePlacementException should have been thrown");
+		} catch (IllegalTilePlacementException e) {
+			assertEquals(message, e.getMessage());
+		}
+	}
+	
+	@Test
+	public void testThreads() throws Exception {
+		
+		final BoardSnapshot snapshot = new Board(15, 15).snapshot()
+				.apply(Arrays.asList(p(7, 8, 'c'), p(8, 8, 'a'), p(9, 8, 't')));
+		
+		// every thread branches from the same snapshot, which none of them change
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<BoardSnapshot>> futures = new ArrayList<Future<BoardSnapshot>>();
+			for (int i = 0; i < 15; i++) {
+				final int y = i + 1;
+				futures.add(executor.submit(new Callable<BoardSnapshot>() {
+					@Override
+					public BoardSnapshot call() throws Exception {
+						if (y == 8) {
+							return snapshot.apply(Arrays.asList(p(10, 8, 's')));
+						}
+						return snapshot.applyTrusted(Arrays.asList(p(10, y, 's')));
+					}
+				}));
+			}
+			for (int i = 0; i < 15; i++) {
+				BoardSnapshot branch = futures.get(i).get();
+				assertEquals(4, branch.getTileCount());
+				assertEquals(Tile.valueOf('s'), branch.get(10, i + 1));
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(3, snapshot.getTileCount());
+		assertEquals(0L, snapshot.getColumnMask(10));
+	}
+}
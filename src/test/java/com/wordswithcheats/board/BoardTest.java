@@ -1,16 +1,22 @@
 package com.wordswithcheats.board;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.Arrays;
+import java.util.List;
+
 
 import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.wordswithcheats.board.exception.IllegalTilePlacementException;
+import com.wordswithcheats.board.multiplier.BoardLayout;
 import com.wordswithcheats.board.multiplier.Multipliers;
 import com.wordswithcheats.board.parser.BoardParser;
 import com.wordswithcheats.board.parser.SimpleBoardParser;
@@ -67,14 +73,14 @@ public class BoardTest {
 		Board b = new Board(tiles);
 		assertEquals(2, b.getWidth());
 		assertEquals(3, b.getHeight());
-		assertTrue(Arrays.equals(tiles, b.toArray()));
+		assertTrue(TileUtils.equals(tiles, b.toArray()));
 		assertTrue(!b.isEmpty());
 		
 		b = new Board(tiles, null); // null should be allowed
 		b = new Board(tiles, m);
 		assertEquals(2, b.getWidth());
 		assertEquals(3, b.getHeight());
-		assertTrue(Arrays.equals(tiles, b.toArray()));
+		assertTrue(TileUtils.equals(tiles, b.toArray()));
 		assertEquals(m, b.getMultipliers());
 		
 		b = new Board(5, 10);
@@ -118,6 +124,41 @@ public class BoardTest {
 		}
 	}
 	
+	@Test
+	public void testLayout() throws Exception {
+		
+		final TilePlacement[] cat = new TilePlacement[] {
+			new TilePlacement(7, 8, Tile.valueOf('c')),
+			new TilePlacement(8, 8, Tile.valueOf('a')),
+			new TilePlacement(9, 8, Tile.valueOf('t'))
+		};
+		
+		// the default multipliers share the Scrabble layout, with a double word score on the start square
+		Board b = new Board(15, 15);
+		assertTrue(b.getLayout() == BoardLayout.SCRABBLE);
+		assertEquals(10, b.score(cat, false));
+		
+		// the Words With Friends layout does not have a premium on any of those squares
+		b = new Board(BoardLayout.WORDS_WITH_FRIENDS);
+		assertTrue(b.getLayout() == BoardLayout.WORDS_WITH_FRIENDS);
+		assertEquals(15, b.getWidth());
+		assertEquals(5, b.score(cat, false));
+		assertEquals(BoardLayout.WORDS_WITH_FRIENDS.toMultipliers().toString(), b.getMultipliers().toString());
+		
+		// the multipliers are looked up when they are set
+		Multipliers m = new Multipliers().addTripleLetterScore(7, 8);
+		b.setMultipliers(m);
+		assertEquals(3, b.getLayout().getLetterMultiplier(7, 8));
+		assertEquals(11, b.score(cat, false));
+		m.addTripleWordScore(9, 8);
+		assertEquals(11, b.score(cat, false));
+		b.setMultipliers(m);
+		assertEquals(33, b.score(cat, false));
+		
+		b.setMultipliers(null);
+		assertEquals(5, b.score(cat, false));
+	}
+	
 	/**
 	 * Testing {@link Board#place(TilePlacement...)} also tests
 	 * {@link Board#validate(TilePlacement...)} and {@link Board#score(TilePlacement[])}.
@@ -301,6 +342,115 @@ public class BoardTest {
     	}
 	}
 	
+	@Test
+	public void testApply() throws Exception {
+		
+		Board b = loadBoard();
+		Board original = new Board(b);
+		int tileCount = b.getTileCount();
+		
+		// TO, then TWO through it, as placed by testPlace
+		UndoRecord to = b.apply(Arrays.asList(new TilePlacement(13, 10, Tile.valueOf('O'))));
+		assertEquals(2, to.getScore());
+		assertEquals(1, to.getTileCount());
+		List<TilePlacement> placements = Arrays.asList(new TilePlacement(10, 10, Tile.valueOf('T')),
+				new TilePlacement(10, 12, new BlankTile('o')));
+		int score = b.score(placements);
+		UndoRecord two = b.applyTrusted(placements);
+		assertEquals(score, two.getScore());
+		assertEquals(tileCount + 3, b.getTileCount());
+		assertEquals(new BlankTile('o'), b.get(10, 12));
+		
+		// only the last record can be undone
+		try {
+			b.undo(to);
+			fail("IllegalArgumentException should have been thrown");
+		} catch (IllegalArgumentException e) {
+			// success
+		}
+		b.undo(two);
+		assertNull(b.get(10, 10));
+		assertFalse(b.hasTileAt(10, 12));
+		assertEquals(0L, b.getRowMask(12));
+		try {
+			b.undo(two);
+			fail("IllegalArgumentException should have been thrown");
+		} catch (IllegalArgumentException e) {
+			// success
+		}
+		b.undo(to);
+		assertTrue(b.hasSameTiles(original));
+		assertEquals(tileCount, b.getTileCount());
+		assertEquals(original.getRowMask(10), b.getRowMask(10));
+		assertEquals(original.getColumnMask(13), b.getColumnMask(13));
+		
+		// invalid placements are not applied
+		try {
+			b.apply(Arrays.asList(new TilePlacement(1, 1, Tile.valueOf('A'))));
+			fail("IllegalTilePlacementException should have been thrown");
+		} catch (IllegalTilePlacementException e) {
+			// success
+		}
+		assertTrue(b.hasSameTiles(original));
+		
+		// a record can not be undone once the board is changed another way, or on another board
+		UndoRecord record = b.apply(Arrays.asList(new TilePlacement(13, 10, Tile.valueOf('O'))));
+		try {
+			original.undo(record);
+			fail("IllegalArgumentException should have been thrown");
+		} catch (IllegalArgumentException e) {
+			// success
+		}
+		b.place(new TilePlacement(6, 9, Tile.valueOf('G')));
+		try {
+			b.undo(record);
+			fail("IllegalArgumentException should have been thrown");
+		} catch (IllegalArgumentException e) {
+			// success
+		}
+	}
+	
+	@Test
+	public void testZobristHash() throws Exception {
+		
+		Board b = new Board(15, 15);
+		assertEquals(0L, b.getZobristHash());
+		
+		// the same tiles placed in a different order hash the same
+		UndoRecord cat = b.apply(Arrays.asList(new TilePlacement(7, 8, Tile.valueOf('c')),
+				new TilePlacement(8, 8, Tile.valueOf('a')), new TilePlacement(9, 8, Tile.valueOf('t'))));
+		long hash = b.getZobristHash();
+		assertTrue(hash != 0L);
+		Board other = new Board(15, 15);
+		other.applyTrusted(Arrays.asList(new TilePlacement(9, 8, Tile.valueOf('t'))));
+		other.applyTrusted(Arrays.asList(new TilePlacement(7, 8, Tile.valueOf('c')),
+				new TilePlacement(8, 8, Tile.valueOf('a'))));
+		assertEquals(hash, other.getZobristHash());
+		assertEquals(b.tilesHashCode(), other.tilesHashCode());
+		assertEquals(hash, new Board(b).getZobristHash());
+		assertEquals(hash, new Board(b.toArray()).getZobristHash());
+		
+		// a blank, another letter, or another square, hash differently
+		UndoRecord s = b.apply(Arrays.asList(new TilePlacement(10, 8, Tile.valueOf('s'))));
+		long withS = b.getZobristHash();
+		b.undo(s);
+		assertEquals(hash, b.getZobristHash());
+		s = b.apply(Arrays.asList(new TilePlacement(10, 8, new BlankTile('s'))));
+		long withBlank = b.getZobristHash();
+		b.undo(s);
+		s = b.apply(Arrays.asList(new TilePlacement(9, 9, Tile.valueOf('s'))));
+		long below = b.getZobristHash();
+		b.undo(s);
+		assertFalse(withS == withBlank);
+		assertFalse(withS == below);
+		assertFalse(withS == hash);
+		
+		b.undo(cat);
+		assertEquals(0L, b.getZobristHash());
+		other.clear();
+		assertEquals(0L, other.getZobristHash());
+	}
+	
 	@Test
 	public void testGet() throws Exception {
 		
@@ -341,6 +491,157 @@ public class BoardTest {
 		}
 	}
 	
+	@Test
+	public void testGetTileAt() throws Exception {
+		
+		Board b = loadBoard();
+		
+		assertEquals(Tile.valueOf('H'), b.getTileAt(8, 8));
+		assertEquals(new BlankTile('W'), b.getTileAt(10, 11));
+		assertTrue(b.hasTileAt(8, 8));
+		assertFalse(b.hasTileAt(1, 1));
+		assertTrue(b.isSquare(1, 1));
+		assertTrue(b.isSquare(15, 15));
+		
+		// the border around the board is not a square, and does not hold a tile
+		for (int i = 0; i <= 16; i++) {
+			for (int[] square : new int[][] { { i, 0 }, { i, 16 }, { 0, i }, { 16, i } }) {
+				assertFalse(b.isSquare(square[0], square[1]));
+				assertFalse(b.hasTileAt(square[0], square[1]));
+				assertNull(b.getTileAt(square[0], square[1]));
+			}
+		}
+		
+		// the neighbours of a square at the edge
+		assertNull(b.getNorth(8, 1));
+		assertNull(b.getWest(1, 8));
+		assertEquals(Tile.valueOf('D'), b.getEast(3, 8));
+		try {
+			b.getNorth(8, 16);
+			fail("IllegalTilePlacementException should have been thrown");
+		} catch (IllegalTilePlacementException e) {
+			// success
+		}
+		
+		// clearing, or copying, the board keeps the border
+		Board copy = new Board(b);
+		b.clear();
+		assertFalse(b.hasTileAt(8, 8));
+		assertFalse(b.isSquare(0, 8));
+		assertTrue(b.isSquare(1, 8));
+		assertFalse(copy.isSquare(16, 8));
+		assertTrue(copy.hasTileAt(8, 8));
+		assertTrue(b.hasSameTiles(new Board(15, 15)));
+	}
+	
+	/**
+	 * Asserts that both views read the same squares as the board itself, border included.
+	 */
+	private static void assertViews(final Board b) {
+		
+		for (int y = 0; y <= b.getHeight() + 1; y++) {
+			for (int x = 0; x <= b.getWidth() + 1; x++) {
+				for (BoardView view : new BoardView[] { b.getRowView(), b.getColumnView() }) {
+					assertEquals(b.isSquare(x, y), view.isSquare(x, y));
+					assertEquals(b.hasTileAt(x, y), view.hasTileAt(x, y));
+					assertEquals(b.getTileAt(x, y), view.getTileAt(x, y));
+				}
+			}
+		}
+	}
+	
+	@Test
+	public void testViews() throws Exception {
+		
+		// a board that is not square, so that the transposed squares do not line up with the rows
+		Board b = new Board(9, 5);
+		BoardView columns = b.getColumnView();
+		assertViews(b);
+		
+		UndoRecord cat = b.apply(Arrays.asList(new TilePlacement(4, 3, Tile.valueOf('c')),
+				new TilePlacement(5, 3, Tile.valueOf('a')), new TilePlacement(6, 3, new BlankTile('t'))));
+		UndoRecord at = b.apply(Arrays.asList(new TilePlacement(5, 4, Tile.valueOf('t'))));
+		assertViews(b);
+		assertEquals(Tile.valueOf('t'), columns.getTileAt(5, 4));
+		assertEquals(new BlankTile('t'), columns.getTileAt(6, 3));
+		
+		Board copy = new Board(b);
+		assertViews(copy);
+		assertViews(b.snapshot().toBoard());
+		
+		b.undo(at);
+		assertViews(b);
+		assertFalse(columns.hasTileAt(5, 4));
+		assertTrue(copy.getColumnView().hasTileAt(5, 4));
+		b.undo(cat);
+		assertViews(b);
+		copy.clear();
+		assertViews(copy);
+		assertViews(new Board(loadBoard().toArray()));
+	}
+	
+	/**
+	 * Asserts that the anchors kept by the board are the same as those found from its column masks.
+	 */
+	private static void assertAnchors(final Board b) {
+		
+		long columns = 0L;
+		for (int x = 1; x <= b.getWidth(); x++) {
+			long column = b.getColumnMask(x);
+			long right = (x < b.getWidth() ? b.getColumnMask(x + 1) & ~column : 0L);
+			long down = (column >>> 1) & ~column;
+			assertEquals(right, b.getHorizontalAnchorMask(x));
+			assertEquals(down, b.getVerticalAnchorMask(x));
+			if ((right | down) != 0) {
+				columns |= 1L << (x - 1);
+			}
+		}
+		assertEquals(columns, b.getAnchorColumnMask());
+	}
+	
+	@Test
+	public void testAnchors() throws Exception {
+		
+		Board b = new Board(9, 5);
+		assertAnchors(b);
+		assertEquals(0L, b.getAnchorColumnMask());
+		
+		UndoRecord cat = b.apply(Arrays.asList(new TilePlacement(4, 3, Tile.valueOf('c')),
+				new TilePlacement(5, 3, Tile.valueOf('a')), new TilePlacement(6, 3, Tile.valueOf('t'))));
+		assertAnchors(b);
+		// West of the C, and above each letter
+		assertEquals(0x4L, b.getHorizontalAnchorMask(3));
+		assertEquals(0x2L, b.getVerticalAnchorMask(5));
+		assertEquals(0x3CL, b.getAnchorColumnMask());
+		
+		// a tile on the edge of the board
+		UndoRecord edge = b.apply(Arrays.asList(new TilePlacement(7, 3, Tile.valueOf('s')),
+				new TilePlacement(8, 3, Tile.valueOf('a')), new TilePlacement(9, 3, Tile.valueOf('y'))));
+		assertAnchors(b);
+		assertEquals(0x2L, b.getVerticalAnchorMask(9));
+		Board copy = new Board(b);
+		assertAnchors(copy);
+		assertAnchors(b.snapshot().toBoard());
+		
+		b.undo(edge);
+		assertAnchors(b);
+		assertEquals(0x3CL, b.getAnchorColumnMask());
+		b.undo(cat);
+		assertAnchors(b);
+		assertEquals(0L, b.getAnchorColumnMask());
+		
+		copy.clear();
+		assertAnchors(copy);
+		assertAnchors(loadBoard());
+		
+		try {
+			b.getHorizontalAnchorMask(10);
+			fail("IllegalArgumentException should have been thrown");
+		} catch (IllegalArgumentException e) {
+			// success
+		}
+	}
+	
 	@Test
 	public void testGetRow() {
 		//TODO
@@ -356,6 +657,154 @@ public class BoardTest {
 		Tile[][] tiles = bp.parse(TEST_BOARD);
 		b = new Board(tiles);
 		assertTrue(TileUtils.equals(tiles,  b.toArray()));
+		
+		// the board keeps its own copy of the tiles
+		tiles[0][0] = Tile.valueOf('z');
+		assertNull(b.get(1, 1));
+		b.toArray()[7][3] = null;
+		assertEquals(Tile.valueOf('d'), b.get(4, 8));
+	}
+	
+	@Test
+	public void testCells() throws Exception {
+		
+		final Tile[][] tiles = new Tile[][] {
+				new Tile[] {new Tile('a'), new BlankTile('b')},
+				new Tile[] {new BlankTile(), null},
+				null
+		};
+		
+		Board b = new Board(tiles);
+		assertEquals(3, b.getTileCount());
+		assertTrue(TileUtils.equals(new Tile[][] { tiles[0], tiles[1], new Tile[2] }, b.toArray()));
+		// a tile is the shared instance, and a blank keeps its letter, or lack of one
+		assertSame(Tile.valueOf('a'), b.get(1, 1));
+		assertEquals(new BlankTile('b'), b.get(2, 1));
+		assertEquals(0, b.get(2, 1).getPointValue());
+		assertEquals(new BlankTile(), b.get(1, 2));
+		assertNull(b.get(2, 2));
+		
+		// a copy has its own tiles
+		Board copy = new Board(b);
+		assertTrue(copy.hasSameTiles(b));
+		assertEquals(b.tilesHashCode(), copy.tilesHashCode());
+		assertEquals(b.getTileCount(), copy.getTileCount());
+		assertSame(b.getLayout(), copy.getLayout());
+		copy.clear();
+		assertFalse(copy.hasSameTiles(b));
+		assertTrue(copy.isEmpty());
+		assertEquals(3, b.getTileCount());
+		assertTrue(copy.hasSameTiles(new Board(2, 3)));
+		assertFalse(copy.hasSameTiles(new Board(3, 2)));
+		
+		// only the letters a-z can be kept on the board
+		try {
+			new Board(new Tile[][] { new Tile[] { new Tile('\u00e9'), null }, new Tile[2] });
+			fail("IllegalArgumentException should have been thrown");
+		} catch (IllegalArgumentException e) {
+			// success
+		}
+		b = new Board(15, 15);
+		try {
+			b.place(new TilePlacement(8, 8, new Tile('\u00e9')));
+			fail("IllegalTilePlacementException should have been thrown");
+		} catch (IllegalTilePlacementException e) {
+			// success
+		}
+		assertTrue(b.isEmpty());
+		
+		// rows must be the same width
+		try {
+			new Board(new Tile[][] { new Tile[2], new Tile[3] });
+			fail("IllegalArgumentException should have been thrown");
+		} catch (IllegalArgumentException e) {
+			// success
+		}
+	}
+	
+	@Test
+	public void testMasks() throws Exception {
+		
+		Board b = new Board(15, 15);
+		assertEquals(0L, b.getRowMask(8));
+		assertEquals(0L, b.getRowAdjacencyMask(8));
+		
+		// the first placement must cover the start position, and can not have a gap
+		try {
+			b.place(new TilePlacement(9, 8, Tile.valueOf('a')), new TilePlacement(10, 8, Tile.valueOf('t')));
+			fail("IllegalTilePlacementException should have been thrown");
+		} catch (IllegalTilePlacementException e) {
+			assertEquals("at least one tile placed must be placed on the start position", e.getMessage());
+		}
+		try {
+			b.place(new TilePlacement(8, 6, Tile.valueOf('a')), new TilePlacement(8, 8, Tile.valueOf('t')));
+			fail("IllegalTilePlacementException should have been thrown");
+		} catch (IllegalTilePlacementException e) {
+			assertEquals("a tile must be placed at (8,7) for this to be a valid placement", e.getMessage());
+		}
+		
+		b.place(new TilePlacement(7, 8, Tile.valueOf('c')), new TilePlacement(8, 8, Tile.valueOf('a')),
+				new TilePlacement(9, 8, Tile.valueOf('t')));
+		assertEquals(0x1C0L, b.getRowMask(8));
+		assertEquals(0x80L, b.getColumnMask(8));
+		assertEquals(0L, b.getColumnMask(10));
+		// the squares either side of "cat", and those above and below it
+		assertEquals(0x3E0L, b.getRowAdjacencyMask(8));
+		assertEquals(0x1C0L, b.getRowAdjacencyMask(7));
+		assertEquals(0L, b.getRowAdjacencyMask(6));
+		assertEquals(0x1C0L, b.getColumnAdjacencyMask(8));
+		assertEquals(0x80L, b.getColumnAdjacencyMask(10));
+		
+		assertTrue(b.hasAdjacentTile(10, 8));
+		assertTrue(b.hasAdjacentTile(8, 9));
+		assertFalse(b.hasAdjacentTile(10, 9));
+		assertFalse(b.hasAdjacentTile(1, 1));
+		try {
+			b.hasAdjacentTile(16, 8);
+			fail("IllegalTilePlacementException should have been thrown");
+		} catch (IllegalTilePlacementException e) {
+			// success
+		}
+		
+		// a gap after the tiles on the board, and a line that does not touch them
+		try {
+			b.place(new TilePlacement(10, 8, Tile.valueOf('s')), new TilePlacement(12, 8, Tile.valueOf('a')));
+			fail("IllegalTilePlacementException should have been thrown");
+		} catch (IllegalTilePlacementException e) {
+			assertEquals("a tile must be placed at (11,8) for this to be a valid placement", e.getMessage());
+		}
+		try {
+			b.place(new TilePlacement(11, 1, Tile.valueOf('a')), new TilePlacement(11, 2, Tile.valueOf('t')));
+			fail("IllegalTilePlacementException should have been thrown");
+		} catch (IllegalTilePlacementException e) {
+			assertEquals("at least one tile placed must be adjacent to an already existing tile on the board",
+					e.getMessage());
+		}
+		
+		// a placement through a tile on the board
+		b.place(new TilePlacement(8, 7, Tile.valueOf('h')), new TilePlacement(8, 9, Tile.valueOf('t')));
+		assertEquals(0x1C0L, b.getColumnMask(8));
+		assertEquals(0x80L, b.getRowMask(9));
+		
+		// copies and clearing keep the masks
+		Board copy = new Board(b);
+		b.clear();
+		assertEquals(0L, b.getColumnMask(8));
+		assertEquals(0x1C0L, copy.getColumnMask(8));
+		
+		// the widest board has a full row
+		Tile[][] tiles = new Tile[2][Board.MAX_SIZE];
+		Arrays.fill(tiles[0], Tile.valueOf('a'));
+		b = new Board(tiles);
+		assertEquals(-1L, b.getRowMask(1));
+		assertEquals(-1L, b.getRowAdjacencyMask(1));
+		assertEquals(-1L, b.getRowAdjacencyMask(2));
+		try {
+			new Board(Board.MAX_SIZE + 1, 15);
+			fail("IllegalArgumentException should have been thrown");
+		} catch (IllegalArgumentException e) {
+			// success
+		}
 	}
 	
 	@Test
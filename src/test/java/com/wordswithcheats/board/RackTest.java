@@ -321,6 +321,29 @@ public class RackTest {
 		assertTrue(Arrays.equals(expected, r.toArray()));
 	}
 	
+	@Test
+	public void testMultisetHash() throws Exception {
+		
+		Rack r = new Rack();
+		assertEquals(0L, r.getMultisetHash());
+		
+		r = new Rack(new Tile[] { A, B, A, new BlankTile() });
+		long hash = r.getMultisetHash();
+		r.shuffle();
+		assertEquals(hash, r.getMultisetHash());
+		// the letter of a blank does not matter, but the number of each tile does
+		assertEquals(hash, new Rack(new Tile[] { new BlankTile('z'), A, A, B }).getMultisetHash());
+		assertFalse(hash == new Rack(new Tile[] { A, B, new BlankTile() }).getMultisetHash());
+		assertFalse(hash == new Rack(new Tile[] { A, B, B, new BlankTile() }).getMultisetHash());
+		assertFalse(hash == new Rack(new Tile[] { A, B, A, Z }).getMultisetHash());
+		
+		// taking a tile and adding it back gives the same hash
+		Tile taken = r.take();
+		assertFalse(hash == r.getMultisetHash());
+		r.add(taken);
+		assertEquals(hash, r.getMultisetHash());
+	}
+	
 	@Test
 	public void testSort() throws Exception {
 		
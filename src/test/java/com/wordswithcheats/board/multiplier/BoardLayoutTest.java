@@ -0,0 +1,113 @@
+package com.wordswithcheats.board.multiplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+/**
+ * Test case for the {@link BoardLayout} class.
+ *
+ * @author Matt Sidesinger
+ */
+public class BoardLayoutTest {
+
+	@Test
+	public void testGet() {
+
+		Multipliers ms = new Multipliers()
+			.addDoubleLetterScore(1, 2)
+			.addTripleWordScore(3, 1)
+			.add(2, 2, LetterMultiplier.instance(5));
+		BoardLayout layout = new BoardLayout(3, 2, ms);
+		assertEquals(3, layout.getWidth());
+		assertEquals(2, layout.getHeight());
+
+		assertEquals(2, layout.getLetterMultiplier(1, 2));
+		assertEquals(1, layout.getWordMultiplier(1, 2));
+		assertEquals(1, layout.getLetterMultiplier(3, 1));
+		assertEquals(3, layout.getWordMultiplier(3, 1));
+		assertEquals(5, layout.getLetterMultiplier(2, 2));
+		assertEquals(LetterMultiplier.instance(5), layout.getMultiplier(2, 2));
+
+		// a square without a premium, and squares outside of the grid
+		assertEquals(1, layout.getLetterMultiplier(1, 1));
+		assertEquals(1, layout.getWordMultiplier(1, 1));
+		assertNull(layout.getMultiplier(1, 1));
+		for (int[] square : new int[][] { { 0, 1 }, { 1, 0 }, { 4, 1 }, { 1, 3 } }) {
+			assertEquals(1, layout.getLetterMultiplier(square[0], square[1]));
+			assertEquals(1, layout.getWordMultiplier(square[0], square[1]));
+			assertNull(layout.getMultiplier(square[0], square[1]));
+		}
+
+		// the layout does not change with the multipliers it was created from
+		ms.addTripleLetterScore(1, 1);
+		assertEquals(1, layout.getLetterMultiplier(1, 1));
+
+		// no multipliers at all
+		layout = new BoardLayout(2, 2, null);
+		assertEquals(1, layout.getWordMultiplier(1, 1));
+		assertEquals("{}", layout.toMultipliers().toString());
+
+		try {
+			new BoardLayout(2, 2, new Multipliers().add(1, 1, WordMultiplier.instance(128)));
+			fail("IllegalArgumentException should have been thrown");
+		} catch (IllegalArgumentException e) {
+			// success
+		}
+	}
+
+	@Test
+	public void testToMultipliers() {
+
+		Multipliers ms = new Multipliers()
+			.addDoubleLetterScore(1, 2)
+			.addTripleWordScore(3, 1)
+			// outside of the grid
+			.addDoubleWordScore(4, 4);
+		assertEquals("{(1,2:DL),(3,1:TW)}", new BoardLayout(3, 2, ms).toMultipliers().toString());
+	}
+
+	@Test
+	public void testPresets() {
+
+		for (BoardLayout layout : new BoardLayout[] { BoardLayout.SCRABBLE, BoardLayout.WORDS_WITH_FRIENDS }) {
+
+			assertEquals(15, layout.getWidth());
+			assertEquals(15, layout.getHeight());
+
+			// the number of double and triple letter, then double and triple word, squares
+			int[] counts = new int[4];
+			for (int x = 1; x <= 15; x++) {
+				for (int y = 1; y <= 15; y++) {
+					int letter = layout.getLetterMultiplier(x, y);
+					int word = layout.getWordMultiplier(x, y);
+					if (letter > 1) {
+						counts[letter - 2]++;
+					}
+					if (word > 1) {
+						counts[word]++;
+					}
+					// both layouts are symmetrical
+					assertEquals(letter, layout.getLetterMultiplier(16 - x, y));
+					assertEquals(word, layout.getWordMultiplier(x, 16 - y));
+				}
+			}
+			if (layout == BoardLayout.SCRABBLE) {
+				assertEquals(24, counts[0]);
+				assertEquals(12, counts[1]);
+				assertEquals(17, counts[2]);
+				assertEquals(8, counts[3]);
+			} else {
+				assertEquals(24, counts[0]);
+				assertEquals(16, counts[1]);
+				assertEquals(12, counts[2]);
+				assertEquals(8, counts[3]);
+			}
+		}
+
+		assertEquals(2, BoardLayout.SCRABBLE.getWordMultiplier(8, 8));
+		assertEquals(3, BoardLayout.WORDS_WITH_FRIENDS.getLetterMultiplier(6, 6));
+	}
+}